@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.hive.bridge;
+
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.instance.AtlasStruct;
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.apache.atlas.hive.hook.events.BaseHiveEvent.ATTRIBUTE_QUALIFIED_NAME;
+
+/**
+ * Tracks tables imported by HiveMetaStoreBridge, along with the fingerprint of the entities sent to Atlas for each.
+ * A table whose fingerprint hasn't changed since it was recorded is skipped in subsequent runs - which lets an
+ * interrupted import resume from where it stopped.
+ *
+ * Entries are appended to the checkpoint file as "qualifiedName TAB fingerprint" lines, after each successful
+ * createEntities call; on load, the last entry for a table wins.
+ */
+public class HiveImportCheckpoint implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(HiveImportCheckpoint.class);
+
+    private static final char   SEPARATOR  = '\t';
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final File                file;
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final Writer              writer;
+
+    public HiveImportCheckpoint(File file) throws IOException {
+        this.file = file;
+
+        if (file.exists()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    int idx = line.lastIndexOf(SEPARATOR);
+
+                    if (idx > 0) {
+                        fingerprints.put(line.substring(0, idx), line.substring(idx + 1));
+                    }
+                }
+            }
+        }
+
+        this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+
+        LOG.info("Checkpoint {}: {} tables recorded by earlier imports", file, fingerprints.size());
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int size() {
+        return fingerprints.size();
+    }
+
+    public boolean isUnchanged(String qualifiedName, String fingerprint) {
+        return fingerprint != null && fingerprint.equals(fingerprints.get(qualifiedName));
+    }
+
+    /**
+     * @param tableFingerprints qualifiedName to fingerprint of tables successfully imported
+     */
+    public synchronized void record(Map<String, String> tableFingerprints) throws IOException {
+        if (tableFingerprints == null || tableFingerprints.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<String, String> entry : tableFingerprints.entrySet()) {
+            writer.write(entry.getKey());
+            writer.write(SEPARATOR);
+            writer.write(entry.getValue());
+            writer.write('\n');
+        }
+
+        writer.flush();
+
+        fingerprints.putAll(tableFingerprints);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Computes the fingerprint of a table entity and its referred entities (columns, storage descriptor). The database
+     * entity, guids and relationship attributes are excluded, as these vary across runs for unchanged tables.
+     */
+    public static String fingerprint(AtlasEntityWithExtInfo tableEntity, AtlasEntity dbEntity) {
+        Map<String, Object> entities = new TreeMap<>();
+
+        addEntity(entities, tableEntity.getEntity());
+
+        if (tableEntity.getReferredEntities() != null) {
+            for (AtlasEntity entity : tableEntity.getReferredEntities().values()) {
+                if (entity != dbEntity) {
+                    addEntity(entities, entity);
+                }
+            }
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[]        bytes  = digest.digest(AtlasType.toJson(entities).getBytes(StandardCharsets.UTF_8));
+            char[]        ret    = new char[bytes.length * 2];
+
+            for (int i = 0; i < bytes.length; i++) {
+                ret[i * 2]     = HEX_DIGITS[(bytes[i] >> 4) & 0x0f];
+                ret[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0f];
+            }
+
+            return new String(ret);
+        } catch (NoSuchAlgorithmException excp) {
+            throw new IllegalStateException(excp);
+        }
+    }
+
+    private static void addEntity(Map<String, Object> entities, AtlasEntity entity) {
+        String key = entity.getTypeName() + SEPARATOR + StringUtils.defaultString((String) entity.getAttribute(ATTRIBUTE_QUALIFIED_NAME));
+
+        entities.put(key, normalize(entity.getAttributes()));
+    }
+
+    // sorts map keys recursively, so that the JSON - and hence the fingerprint - doesn't depend on map iteration order
+    private static Object normalize(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> ret = new TreeMap<>();
+
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                ret.put(String.valueOf(entry.getKey()), normalize(entry.getValue()));
+            }
+
+            return ret;
+        } else if (value instanceof AtlasStruct) {
+            Map<String, Object> ret = new TreeMap<>();
+
+            ret.put("typeName", ((AtlasStruct) value).getTypeName());
+            ret.put("attributes", normalize(((AtlasStruct) value).getAttributes()));
+
+            return ret;
+        } else if (value instanceof Collection) {
+            List<Object> ret = new ArrayList<>(((Collection<?>) value).size());
+
+            for (Object element : (Collection<?>) value) {
+                ret.add(normalize(element));
+            }
+
+            return ret;
+        }
+
+        return value;
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.atlas.hive.bridge;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sun.jersey.api.client.ClientResponse;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.type.AtlasTypeUtil;
@@ -74,11 +75,19 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.apache.atlas.hive.hook.events.BaseHiveEvent.*;
 
@@ -104,6 +113,8 @@ public class HiveMetaStoreBridge {
     public static final String DEFAULT_METASTORE_CATALOG       = "hive";
     public static final String HIVE_TABLE_DB_EDGE_LABEL        = "__hive_table.db";
     public static final String HOOK_HIVE_PAGE_LIMIT            = CONF_PREFIX + "page.limit";
+    public static final String HOOK_HIVE_IMPORT_THREADS        = CONF_PREFIX + "import.threads";
+    public static final String HOOK_HIVE_IMPORT_BATCH_SIZE     = CONF_PREFIX + "import.batch.size";
 
     public static final String HOOK_AWS_S3_ATLAS_MODEL_VERSION_V2  = "v2";
 
@@ -112,16 +123,23 @@ public class HiveMetaStoreBridge {
     private static final String DEFAULT_ATLAS_URL = "http://localhost:21000/";
     private static       int    pageLimit         = 10000;
 
+    private static final int DEFAULT_IMPORT_THREADS    = 1;
+    private static final int DEFAULT_IMPORT_BATCH_SIZE = 50;
+
     private final String        metadataNamespace;
     private final Hive          hiveClient;
     private final AtlasClientV2 atlasClientV2;
     private final boolean       convertHdfsPathToLowerCase;
 
-    private String awsS3AtlasModelVersion = null;
+    private String               awsS3AtlasModelVersion = null;
+    private int                  importThreads          = DEFAULT_IMPORT_THREADS;
+    private int                  importBatchSize        = DEFAULT_IMPORT_BATCH_SIZE;
+    private HiveImportCheckpoint importCheckpoint       = null;
 
     public static void main(String[] args) {
         int exitCode = EXIT_CODE_FAILED;
         AtlasClientV2 atlasClientV2 = null;
+        HiveImportCheckpoint importCheckpoint = null;
 
         try {
             Options options = new Options();
@@ -130,6 +148,7 @@ public class HiveMetaStoreBridge {
             options.addOption("f", "filename", true, "Filename");
             options.addOption("failOnError", false, "failOnError");
             options.addOption("deleteNonExisting", false, "Delete database and table entities in Atlas if not present in Hive");
+            options.addOption("checkpointFile", true, "File to record imported tables in; tables unchanged since recorded are skipped");
 
             CommandLine   cmd               = new BasicParser().parse(options, args);
             boolean       failOnError       = cmd.hasOption("failOnError");
@@ -139,6 +158,7 @@ public class HiveMetaStoreBridge {
             String        databaseToImport = cmd.getOptionValue("d");
             String        tableToImport    = cmd.getOptionValue("t");
             String        fileToImport     = cmd.getOptionValue("f");
+            String        checkpointFile   = cmd.getOptionValue("checkpointFile");
             Configuration atlasConf        = ApplicationProperties.get();
             String[]      atlasEndpoint    = atlasConf.getStringArray(ATLAS_ENDPOINT);
 
@@ -159,6 +179,12 @@ public class HiveMetaStoreBridge {
 
             HiveMetaStoreBridge hiveMetaStoreBridge = new HiveMetaStoreBridge(atlasConf, new HiveConf(), atlasClientV2);
 
+            if (StringUtils.isNotEmpty(checkpointFile)) {
+                importCheckpoint = new HiveImportCheckpoint(new File(checkpointFile));
+
+                hiveMetaStoreBridge.setImportCheckpoint(importCheckpoint);
+            }
+
             if (deleteNonExisting) {
                 hiveMetaStoreBridge.deleteEntitiesForNonExistingHiveMetadata(failOnError);
             } else if (StringUtils.isNotEmpty(fileToImport)) {
@@ -199,6 +225,14 @@ public class HiveMetaStoreBridge {
         } catch(Exception e) {
             LOG.error("Import failed", e);
         } finally {
+            if (importCheckpoint != null) {
+                try {
+                    importCheckpoint.close();
+                } catch (IOException e) {
+                    LOG.warn("Failed to close checkpoint file {}", importCheckpoint.getFile(), e);
+                }
+            }
+
             if( atlasClientV2 !=null) {
                 atlasClientV2.close();
             }
@@ -228,6 +262,11 @@ public class HiveMetaStoreBridge {
         System.out.println("Usage 5: import-hive.sh [-deleteNonExisting] "  );
         System.out.println("    Deletes databases and tables which are not in Hive ...");
         System.out.println();
+        System.out.println("Usage 6: import-hive.sh [-d <database>] [-t <table>] [-f <filename>] -checkpointFile <filename>");
+        System.out.println("    Imports in batches, skipping tables that are unchanged since recorded in the checkpoint file;");
+        System.out.println("    an interrupted import can be resumed by running it again with the same checkpoint file.");
+        System.out.println("    Number of parallel import threads and tables per batch are set with " + HOOK_HIVE_IMPORT_THREADS + " and " + HOOK_HIVE_IMPORT_BATCH_SIZE);
+        System.out.println();
     }
 
     /**
@@ -242,6 +281,9 @@ public class HiveMetaStoreBridge {
         this.awsS3AtlasModelVersion     = atlasProperties.getString(HOOK_AWS_S3_ATLAS_MODEL_VERSION, HOOK_AWS_S3_ATLAS_MODEL_VERSION_V2);
         if (atlasProperties != null) {
             pageLimit = atlasProperties.getInteger(HOOK_HIVE_PAGE_LIMIT, 10000);
+
+            setImportThreads(atlasProperties.getInt(HOOK_HIVE_IMPORT_THREADS, DEFAULT_IMPORT_THREADS));
+            setImportBatchSize(atlasProperties.getInt(HOOK_HIVE_IMPORT_BATCH_SIZE, DEFAULT_IMPORT_BATCH_SIZE));
         }
     }
 
@@ -284,6 +326,40 @@ public class HiveMetaStoreBridge {
         return convertHdfsPathToLowerCase;
     }
 
+    public int getImportThreads() {
+        return importThreads;
+    }
+
+    /**
+     * @param importThreads number of threads sending tables to Atlas; tables are imported in batches when more than 1
+     */
+    public void setImportThreads(int importThreads) {
+        this.importThreads = Math.max(importThreads, 1);
+    }
+
+    public int getImportBatchSize() {
+        return importBatchSize;
+    }
+
+    public void setImportBatchSize(int importBatchSize) {
+        this.importBatchSize = Math.max(importBatchSize, 1);
+    }
+
+    public HiveImportCheckpoint getImportCheckpoint() {
+        return importCheckpoint;
+    }
+
+    /**
+     * @param importCheckpoint checkpoint to skip unchanged tables with; tables are imported in batches when set
+     */
+    public void setImportCheckpoint(HiveImportCheckpoint importCheckpoint) {
+        this.importCheckpoint = importCheckpoint;
+    }
+
+    private boolean isBatchImport() {
+        return importThreads > 1 || importCheckpoint != null;
+    }
+
 
     @VisibleForTesting
     public void importHiveMetadata(String databaseToImport, String tableToImport, boolean failOnError) throws Exception {
@@ -352,10 +428,14 @@ public class HiveMetaStoreBridge {
             LOG.info("Found {} tables to import in database {}", tableNames.size(), databaseName);
 
             try {
-                for (String tableName : tableNames) {
-                    int imported = importTable(dbEntity, databaseName, tableName, failOnError);
+                if (isBatchImport()) {
+                    tablesImported = importTablesInBatches(dbEntity, databaseName, tableNames, failOnError);
+                } else {
+                    for (String tableName : tableNames) {
+                        int imported = importTable(dbEntity, databaseName, tableName, failOnError);
 
-                    tablesImported += imported;
+                        tablesImported += imported;
+                    }
                 }
             } finally {
                 if (tablesImported == tableNames.size()) {
@@ -382,47 +462,7 @@ public class HiveMetaStoreBridge {
                 AtlasEntityWithExtInfo processEntity        = findProcessEntity(processQualifiedName);
 
                 if (processEntity == null) {
-                    String tableLocationString = isConvertHdfsPathToLowerCase() ? lower(table.getDataLocation().toString()) : table.getDataLocation().toString();
-                    Path   location            = table.getDataLocation();
-                    String query               = getCreateTableString(table, tableLocationString);
-
-                    PathExtractorContext   pathExtractorCtx  = new PathExtractorContext(getMetadataNamespace(), isConvertHdfsPathToLowerCase(), awsS3AtlasModelVersion);
-                    AtlasEntityWithExtInfo entityWithExtInfo = AtlasPathExtractorUtil.getPathEntity(location, pathExtractorCtx);
-                    AtlasEntity            pathInst          = entityWithExtInfo.getEntity();
-                    AtlasEntity            tableInst         = tableEntity.getEntity();
-                    AtlasEntity            processInst       = new AtlasEntity(HiveDataTypes.HIVE_PROCESS.getName());
-
-                    long now = System.currentTimeMillis();
-
-                    processInst.setAttribute(ATTRIBUTE_QUALIFIED_NAME, processQualifiedName);
-                    processInst.setAttribute(ATTRIBUTE_NAME, query);
-                    processInst.setAttribute(ATTRIBUTE_CLUSTER_NAME, metadataNamespace);
-                    processInst.setRelationshipAttribute(ATTRIBUTE_INPUTS, Collections.singletonList(AtlasTypeUtil.getAtlasRelatedObjectId(pathInst, RELATIONSHIP_DATASET_PROCESS_INPUTS)));
-                    processInst.setRelationshipAttribute(ATTRIBUTE_OUTPUTS, Collections.singletonList(AtlasTypeUtil.getAtlasRelatedObjectId(tableInst, RELATIONSHIP_PROCESS_DATASET_OUTPUTS)));
-                    String userName = table.getOwner();
-                    if (StringUtils.isEmpty(userName)) {
-                        userName = ApplicationProperties.get().getString(HIVE_USERNAME, "hive");
-                    }
-                    processInst.setAttribute(ATTRIBUTE_USER_NAME, userName);
-                    processInst.setAttribute(ATTRIBUTE_START_TIME, now);
-                    processInst.setAttribute(ATTRIBUTE_END_TIME, now);
-                    processInst.setAttribute(ATTRIBUTE_OPERATION_TYPE, "CREATETABLE");
-                    processInst.setAttribute(ATTRIBUTE_QUERY_TEXT, query);
-                    processInst.setAttribute(ATTRIBUTE_QUERY_ID, query);
-                    processInst.setAttribute(ATTRIBUTE_QUERY_PLAN, "{}");
-                    processInst.setAttribute(ATTRIBUTE_RECENT_QUERIES, Collections.singletonList(query));
-
-                    AtlasEntitiesWithExtInfo createTableProcess = new AtlasEntitiesWithExtInfo();
-
-                    createTableProcess.addEntity(processInst);
-
-                    if (pathExtractorCtx.getKnownEntities() != null) {
-                        pathExtractorCtx.getKnownEntities().values().forEach(entity -> createTableProcess.addEntity(entity));
-                    } else {
-                        createTableProcess.addEntity(pathInst);
-                    }
-
-                    registerInstances(createTableProcess);
+                    registerInstances(toCreateTableProcess(table, tableEntity.getEntity(), processQualifiedName));
                 } else {
                     LOG.info("Process {} is already registered", processQualifiedName);
                 }
@@ -440,6 +480,235 @@ public class HiveMetaStoreBridge {
         }
     }
 
+    /**
+     * Imports the given tables with importBatchSize tables per createEntities call, sent to Atlas by importThreads
+     * threads. Tables are read from Hive in the calling thread, as the Hive client is not thread-safe. When a
+     * checkpoint is set, tables unchanged since recorded in the checkpoint are skipped.
+     * @return number of tables imported, including tables skipped as unchanged
+     */
+    private int importTablesInBatches(AtlasEntity dbEntity, String databaseName, List<String> tableNames, final boolean failOnError) throws Exception {
+        ThreadPoolExecutor         executor = new ThreadPoolExecutor(importThreads, importThreads, 0L, TimeUnit.MILLISECONDS,
+                                                                     new ArrayBlockingQueue<>(importThreads),
+                                                                     new ThreadFactoryBuilder().setNameFormat("atlas-hive-import-%d").setDaemon(true).build(),
+                                                                     new ThreadPoolExecutor.CallerRunsPolicy()); // the caller imports a batch when all threads are busy, so that no more than a few batches of tables are held in memory
+        List<Future<Integer>>      results  = new ArrayList<>();
+        AtomicReference<Exception> failure  = new AtomicReference<>();
+        AtomicInteger              skipped  = new AtomicInteger();
+        int                        ret      = 0;
+
+        try {
+            List<Table> batch = new ArrayList<>(importBatchSize);
+
+            for (String tableName : tableNames) {
+                if (failOnError && failure.get() != null) {
+                    break;
+                }
+
+                try {
+                    batch.add(hiveClient.getTable(databaseName, tableName));
+                } catch (Exception e) {
+                    LOG.error("Import failed for hive_table {}", tableName, e);
+
+                    if (failOnError) {
+                        throw e;
+                    }
+
+                    continue;
+                }
+
+                if (batch.size() >= importBatchSize) {
+                    final List<Table> tables = batch;
+
+                    results.add(executor.submit(() -> importTableBatch(dbEntity, tables, failOnError, failure, skipped)));
+
+                    batch = new ArrayList<>(importBatchSize);
+                }
+            }
+
+            if (!batch.isEmpty() && !(failOnError && failure.get() != null)) {
+                final List<Table> tables = batch;
+
+                results.add(executor.submit(() -> importTableBatch(dbEntity, tables, failOnError, failure, skipped)));
+            }
+
+            for (Future<Integer> result : results) {
+                ret += result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (failOnError && failure.get() != null) {
+            throw failure.get();
+        }
+
+        LOG.info("Imported {} tables from database {}, of which {} were unchanged since last import", ret, databaseName, skipped.get());
+
+        return ret;
+    }
+
+    private int importTableBatch(AtlasEntity dbEntity, List<Table> tables, boolean failOnError, AtomicReference<Exception> failure, AtomicInteger skipped) {
+        List<TableImport> tableImports = new ArrayList<>(tables.size());
+        int               ret          = 0;
+
+        for (Table table : tables) {
+            if (failOnError && failure.get() != null) {
+                return ret;
+            }
+
+            try {
+                AtlasEntityWithExtInfo tableEntity   = toTableEntity(dbEntity, table);
+                String                 qualifiedName = (String) tableEntity.getEntity().getAttribute(ATTRIBUTE_QUALIFIED_NAME);
+                String                 fingerprint   = HiveImportCheckpoint.fingerprint(tableEntity, dbEntity);
+
+                if (importCheckpoint != null && importCheckpoint.isUnchanged(qualifiedName, fingerprint)) {
+                    LOG.debug("Table {} is unchanged since last import. Skipping", qualifiedName);
+
+                    skipped.incrementAndGet();
+
+                    ret++;
+
+                    continue;
+                }
+
+                AtlasEntitiesWithExtInfo createTableProcess = null;
+
+                if (table.getTableType() == TableType.EXTERNAL_TABLE) {
+                    String processQualifiedName = getTableProcessQualifiedName(metadataNamespace, table);
+
+                    if (findProcessEntity(processQualifiedName) == null) {
+                        createTableProcess = toCreateTableProcess(table, tableEntity.getEntity(), processQualifiedName);
+                    } else {
+                        LOG.info("Process {} is already registered", processQualifiedName);
+                    }
+                }
+
+                tableImports.add(new TableImport(qualifiedName, fingerprint, tableEntity, createTableProcess));
+            } catch (Exception e) {
+                onTableImportFailure(table.getTableName(), e, failOnError, failure);
+            }
+        }
+
+        if (!tableImports.isEmpty()) {
+            try {
+                ret += registerTables(tableImports);
+            } catch (Exception e) {
+                if (tableImports.size() == 1) {
+                    onTableImportFailure(tableImports.get(0).qualifiedName, e, failOnError, failure);
+                } else {
+                    LOG.warn("Import failed for a batch of {} tables. Importing them one at a time", tableImports.size(), e);
+
+                    // import tables in the batch individually, so that a failure in one doesn't fail the rest
+                    for (TableImport tableImport : tableImports) {
+                        if (failOnError && failure.get() != null) {
+                            break;
+                        }
+
+                        try {
+                            ret += registerTables(Collections.singletonList(tableImport));
+                        } catch (Exception excp) {
+                            onTableImportFailure(tableImport.qualifiedName, excp, failOnError, failure);
+                        }
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Creates or updates the given tables, along with their create-table processes, with a single createEntities call
+     * @return number of tables registered
+     */
+    private int registerTables(List<TableImport> tableImports) throws Exception {
+        AtlasEntitiesWithExtInfo entities     = new AtlasEntitiesWithExtInfo();
+        Map<String, String>      fingerprints = new LinkedHashMap<>();
+
+        for (TableImport tableImport : tableImports) {
+            entities.addEntity(tableImport.tableEntity.getEntity());
+
+            if (MapUtils.isNotEmpty(tableImport.tableEntity.getReferredEntities())) {
+                for (Map.Entry<String, AtlasEntity> entry : tableImport.tableEntity.getReferredEntities().entrySet()) {
+                    entities.addReferredEntity(entry.getKey(), entry.getValue());
+                }
+            }
+
+            if (tableImport.createTableProcess != null) {
+                for (AtlasEntity entity : tableImport.createTableProcess.getEntities()) {
+                    entities.addEntity(entity);
+                }
+            }
+
+            fingerprints.put(tableImport.qualifiedName, tableImport.fingerprint);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("creating {} entities: {}", entities.getEntities().size(), entities);
+        }
+
+        atlasClientV2.createEntities(entities);
+
+        LOG.info("Imported {} tables: {}", fingerprints.size(), fingerprints.keySet());
+
+        if (importCheckpoint != null) {
+            importCheckpoint.record(fingerprints);
+        }
+
+        return fingerprints.size();
+    }
+
+    private void onTableImportFailure(String tableName, Exception e, boolean failOnError, AtomicReference<Exception> failure) {
+        LOG.error("Import failed for hive_table {}", tableName, e);
+
+        if (failOnError) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private AtlasEntitiesWithExtInfo toCreateTableProcess(Table table, AtlasEntity tableInst, String processQualifiedName) throws Exception {
+        String tableLocationString = isConvertHdfsPathToLowerCase() ? lower(table.getDataLocation().toString()) : table.getDataLocation().toString();
+        Path   location            = table.getDataLocation();
+        String query               = getCreateTableString(table, tableLocationString);
+
+        PathExtractorContext   pathExtractorCtx  = new PathExtractorContext(getMetadataNamespace(), isConvertHdfsPathToLowerCase(), awsS3AtlasModelVersion);
+        AtlasEntityWithExtInfo entityWithExtInfo = AtlasPathExtractorUtil.getPathEntity(location, pathExtractorCtx);
+        AtlasEntity            pathInst          = entityWithExtInfo.getEntity();
+        AtlasEntity            processInst       = new AtlasEntity(HiveDataTypes.HIVE_PROCESS.getName());
+
+        long now = System.currentTimeMillis();
+
+        processInst.setAttribute(ATTRIBUTE_QUALIFIED_NAME, processQualifiedName);
+        processInst.setAttribute(ATTRIBUTE_NAME, query);
+        processInst.setAttribute(ATTRIBUTE_CLUSTER_NAME, metadataNamespace);
+        processInst.setRelationshipAttribute(ATTRIBUTE_INPUTS, Collections.singletonList(AtlasTypeUtil.getAtlasRelatedObjectId(pathInst, RELATIONSHIP_DATASET_PROCESS_INPUTS)));
+        processInst.setRelationshipAttribute(ATTRIBUTE_OUTPUTS, Collections.singletonList(AtlasTypeUtil.getAtlasRelatedObjectId(tableInst, RELATIONSHIP_PROCESS_DATASET_OUTPUTS)));
+        String userName = table.getOwner();
+        if (StringUtils.isEmpty(userName)) {
+            userName = ApplicationProperties.get().getString(HIVE_USERNAME, "hive");
+        }
+        processInst.setAttribute(ATTRIBUTE_USER_NAME, userName);
+        processInst.setAttribute(ATTRIBUTE_START_TIME, now);
+        processInst.setAttribute(ATTRIBUTE_END_TIME, now);
+        processInst.setAttribute(ATTRIBUTE_OPERATION_TYPE, "CREATETABLE");
+        processInst.setAttribute(ATTRIBUTE_QUERY_TEXT, query);
+        processInst.setAttribute(ATTRIBUTE_QUERY_ID, query);
+        processInst.setAttribute(ATTRIBUTE_QUERY_PLAN, "{}");
+        processInst.setAttribute(ATTRIBUTE_RECENT_QUERIES, Collections.singletonList(query));
+
+        AtlasEntitiesWithExtInfo createTableProcess = new AtlasEntitiesWithExtInfo();
+
+        createTableProcess.addEntity(processInst);
+
+        if (pathExtractorCtx.getKnownEntities() != null) {
+            pathExtractorCtx.getKnownEntities().values().forEach(entity -> createTableProcess.addEntity(entity));
+        } else {
+            createTableProcess.addEntity(pathInst);
+        }
+
+        return createTableProcess;
+    }
+
     /**
      * Checks if db is already registered, else creates and registers db entity
      * @param databaseName
@@ -1191,4 +1460,18 @@ public class HiveMetaStoreBridge {
         }
 
     }
+
+    private static class TableImport {
+        final String                   qualifiedName;
+        final String                   fingerprint;
+        final AtlasEntityWithExtInfo   tableEntity;
+        final AtlasEntitiesWithExtInfo createTableProcess;
+
+        TableImport(String qualifiedName, String fingerprint, AtlasEntityWithExtInfo tableEntity, AtlasEntitiesWithExtInfo createTableProcess) {
+            this.qualifiedName      = qualifiedName;
+            this.fingerprint        = fingerprint;
+            this.tableEntity        = tableEntity;
+            this.createTableProcess = createTableProcess;
+        }
+    }
 }
@@ -41,6 +41,7 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -50,6 +51,7 @@ import static org.apache.atlas.hive.hook.events.BaseHiveEvent.*;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -287,6 +289,57 @@ public class HiveMetaStoreBridgeTest {
         }
     }
 
+    @Test
+    public void testBatchImportSkipsTablesInCheckpoint() throws Exception {
+        setupDB(hiveClient, TEST_DB_NAME);
+
+        List<Table> hiveTables = setupTables(hiveClient, TEST_DB_NAME, TEST_TABLE_NAME, TEST_TABLE_NAME + "_1", TEST_TABLE_NAME + "_2");
+
+        returnExistingDatabase(TEST_DB_NAME, atlasClientV2, METADATA_NAMESPACE);
+
+        for (Table hiveTable : hiveTables) {
+            String processQualifiedName = HiveMetaStoreBridge.getTableProcessQualifiedName(METADATA_NAMESPACE, hiveTable);
+
+            when(atlasClientV2.getEntityByAttribute(HiveDataTypes.HIVE_PROCESS.getName(),
+                    Collections.singletonMap(AtlasClient.REFERENCEABLE_ATTRIBUTE_NAME,
+                            processQualifiedName), true, true))
+                    .thenReturn(new AtlasEntity.AtlasEntityWithExtInfo(
+                            getEntity(HiveDataTypes.HIVE_PROCESS.getName(), AtlasClient.GUID, "82e06b34-9151-4023-aa9d-b82103a50e77")));
+        }
+
+        File checkpointFile = File.createTempFile("hive-import-checkpoint", ".txt");
+
+        checkpointFile.delete();
+        checkpointFile.deleteOnExit();
+
+        try (HiveImportCheckpoint checkpoint = new HiveImportCheckpoint(checkpointFile)) {
+            HiveMetaStoreBridge bridge = new HiveMetaStoreBridge(METADATA_NAMESPACE, hiveClient, atlasClientV2);
+
+            bridge.setImportThreads(2);
+            bridge.setImportBatchSize(2);
+            bridge.setImportCheckpoint(checkpoint);
+            bridge.importHiveMetadata(null, null, true);
+
+            Assert.assertEquals(checkpoint.size(), 3);
+        }
+
+        // 3 tables in batches of 2 tables
+        verify(atlasClientV2, times(2)).createEntities(anyObject());
+        verify(atlasClientV2, never()).createEntity(anyObject());
+
+        // tables are unchanged since recorded in the checkpoint, hence should not be imported again
+        try (HiveImportCheckpoint checkpoint = new HiveImportCheckpoint(checkpointFile)) {
+            HiveMetaStoreBridge bridge = new HiveMetaStoreBridge(METADATA_NAMESPACE, hiveClient, atlasClientV2);
+
+            bridge.setImportCheckpoint(checkpoint);
+            bridge.importHiveMetadata(null, null, true);
+
+            Assert.assertEquals(checkpoint.size(), 3);
+        }
+
+        verify(atlasClientV2, times(2)).createEntities(anyObject());
+    }
+
     private AtlasEntity getEntity(String typeName, String attr, String value) {
         return new AtlasEntity(typeName, attr, value);
     }
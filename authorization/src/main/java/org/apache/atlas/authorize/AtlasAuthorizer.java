@@ -21,6 +21,9 @@ package org.apache.atlas.authorize;
 
 import org.apache.atlas.model.instance.AtlasEntityHeader;
 
+import java.util.BitSet;
+import java.util.List;
+
 public interface AtlasAuthorizer {
     /**
      * initialization of authorizer implementation
@@ -48,6 +51,25 @@ public interface AtlasAuthorizer {
      */
     boolean isAccessAllowed(AtlasEntityAccessRequest request) throws AtlasAuthorizationException;
 
+    /**
+     * authorize operations on a set of entities; authorizers can override this to evaluate the requests together
+     * @param requests
+     * @return bit i is set if requests[i] is allowed
+     * @throws AtlasAuthorizationException
+     */
+    default
+    BitSet isAccessAllowed(List<AtlasEntityAccessRequest> requests) throws AtlasAuthorizationException {
+        BitSet ret = new BitSet(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (isAccessAllowed(requests.get(i))) {
+                ret.set(i);
+            }
+        }
+
+        return ret;
+    }
+
     /**
      * authorize operations on a type
      * @param request
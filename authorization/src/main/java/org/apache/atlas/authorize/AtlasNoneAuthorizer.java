@@ -21,6 +21,9 @@ package org.apache.atlas.authorize;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.BitSet;
+import java.util.List;
+
 
 public class AtlasNoneAuthorizer implements AtlasAuthorizer {
     private static final Logger LOG = LoggerFactory.getLogger(AtlasNoneAuthorizer.class);
@@ -41,6 +44,15 @@ public class AtlasNoneAuthorizer implements AtlasAuthorizer {
         return true;
     }
 
+    @Override
+    public BitSet isAccessAllowed(List<AtlasEntityAccessRequest> requests) throws AtlasAuthorizationException {
+        BitSet ret = new BitSet(requests.size());
+
+        ret.set(0, requests.size());
+
+        return ret;
+    }
+
     public boolean isAccessAllowed(AtlasTypeAccessRequest request) throws AtlasAuthorizationException {
         return true;
     }
@@ -20,11 +20,24 @@ package org.apache.atlas.authorize.simple;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasException;
@@ -53,7 +66,12 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
 
     private final static String WILDCARD_ASTERISK = "*";
 
-    private AtlasSimpleAuthzPolicy authzPolicy;
+    public static final String CONFIG_DECISION_CACHE_SIZE  = "atlas.authorizer.simple.decision.cache.size";
+    public static final int    DEFAULT_DECISION_CACHE_SIZE = 10000;
+
+    private volatile AtlasSimpleAuthzPolicy             authzPolicy;
+    private volatile Map<List<String>, AtlasPatternSet> patternSets = Collections.emptyMap();
+    private volatile Cache<List<Object>, Boolean>       decisionCache;
 
 
     public AtlasSimpleAuthorizer() {
@@ -68,9 +86,15 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
         try {
             inputStream = ApplicationProperties.getFileAsInputStream(ApplicationProperties.get(), "atlas.authorizer.simple.authz.policy.file", "atlas-simple-authz-policy.json");
 
-            authzPolicy = AtlasJson.fromJson(inputStream, AtlasSimpleAuthzPolicy.class);
+            AtlasSimpleAuthzPolicy policy    = AtlasJson.fromJson(inputStream, AtlasSimpleAuthzPolicy.class);
+            int                    cacheSize = ApplicationProperties.get().getInt(CONFIG_DECISION_CACHE_SIZE, DEFAULT_DECISION_CACHE_SIZE);
+
+            addImpliedTypeReadPrivilege(policy);
 
-            addImpliedTypeReadPrivilege(authzPolicy);
+            // decisions of the earlier policy, if any, are dropped along with its cache
+            authzPolicy   = policy;
+            patternSets   = compilePatterns(policy);
+            decisionCache = cacheSize > 0 ? CacheBuilder.newBuilder().maximumSize(cacheSize).build() : null;
         } catch (IOException | AtlasException e) {
             LOG.error("SimpleAtlasAuthorizer.init(): initialization failed", e);
 
@@ -92,7 +116,9 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
     public void cleanUp() {
         LOG.info("==> SimpleAtlasAuthorizer.cleanUp()");
 
-        authzPolicy = null;
+        authzPolicy   = null;
+        patternSets   = Collections.emptyMap();
+        decisionCache = null;
 
         LOG.info("<== SimpleAtlasAuthorizer.cleanUp()");
     }
@@ -136,6 +162,22 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
             LOG.debug("==> SimpleAtlasAuthorizer.isAccessAllowed({})", request);
         }
 
+        final String action       = request.getAction() != null ? request.getAction().getType() : null;
+        final String typeCategory = request.getTypeDef() != null ? request.getTypeDef().getCategory().name() : null;
+        final String typeName     = request.getTypeDef() != null ? request.getTypeDef().getName() : null;
+
+        final Cache<List<Object>, Boolean> cache = decisionCache;
+        final List<Object>                 key   = cache != null ? getDecisionKey(request, "type", action, typeCategory, typeName) : null;
+        final Boolean                      cached = cache != null ? cache.getIfPresent(key) : null;
+
+        if (cached != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("<== SimpleAtlasAuthorizer.isAccessAllowed({}): {} (cached)", request, cached);
+            }
+
+            return cached;
+        }
+
         boolean ret = false;
 
         Set<String> roles = getRoles(request.getUser(), request.getUserGroups());
@@ -144,10 +186,6 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
             List<AtlasTypePermission> permissions = getTypePermissionsForRole(role);
 
             if (permissions != null) {
-                final String action       = request.getAction() != null ? request.getAction().getType() : null;
-                final String typeCategory = request.getTypeDef() != null ? request.getTypeDef().getCategory().name() : null;
-                final String typeName     = request.getTypeDef() != null ? request.getTypeDef().getName() : null;
-
                 for (AtlasTypePermission permission : permissions) {
                     if (isMatch(action, permission.getPrivileges()) &&
                         isMatch(typeCategory, permission.getTypeCategories()) &&
@@ -160,6 +198,10 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
             }
         }
 
+        if (cache != null) {
+            cache.put(key, ret);
+        }
+
         if (LOG.isDebugEnabled()) {
             LOG.debug("<== SimpleAtlasAuthorizer.isAccessAllowed({}): {}", request, ret);
         }
@@ -239,6 +281,19 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
         final String      classification = request.getClassification() != null ? request.getClassification().getTypeName() : null;
         final String      attribute      = request.getAttributeName();
         final Set<String> entClsToAuthz  = new HashSet<>(request.getEntityClassifications());
+
+        final Cache<List<Object>, Boolean> cache = decisionCache;
+        final List<Object>                 key   = cache != null ? getDecisionKey(request, "entity", action, entityTypes, entityId, classification, attribute, request.getLabel(), request.getBusinessMetadata(), getClassificationTypes(request, entClsToAuthz)) : null;
+        final Boolean                      cached = cache != null ? cache.getIfPresent(key) : null;
+
+        if (cached != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("<== SimpleAtlasAuthorizer.isAccessAllowed({}): {} (cached)", request, cached);
+            }
+
+            return cached;
+        }
+
         final Set<String> roles          = getRoles(request.getUser(), request.getUserGroups());
         boolean hasEntityAccess          = false;
         boolean hasClassificationsAccess = false;
@@ -279,6 +334,10 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
 
         boolean ret = hasEntityAccess && hasClassificationsAccess;
 
+        if (cache != null) {
+            cache.put(key, ret);
+        }
+
         if (LOG.isDebugEnabled()) {
             if (!ret) {
                 LOG.debug("hasEntityAccess={}; hasClassificationsAccess={}, classificationsWithNoAccess={}", hasEntityAccess, hasClassificationsAccess, entClsToAuthz);
@@ -290,34 +349,75 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
         return ret;
     }
 
+    /**
+     * Requests that differ only in entity-id are evaluated together: permissions are matched against their entity-type,
+     * classifications, attribute, label and business-metadata once, leaving only the entity-id to match per request.
+     */
+    @Override
+    public BitSet isAccessAllowed(List<AtlasEntityAccessRequest> requests) throws AtlasAuthorizationException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> SimpleAtlasAuthorizer.isAccessAllowed(requests={})", requests.size());
+        }
+
+        final BitSet                           ret    = new BitSet(requests.size());
+        final Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            AtlasEntityAccessRequest request        = requests.get(i);
+            String                   action         = request.getAction() != null ? request.getAction().getType() : null;
+            String                   classification = request.getClassification() != null ? request.getClassification().getTypeName() : null;
+            List<Object>             shape          = getDecisionKey(request, action, request.getEntityTypeAndAllSuperTypes(), classification, request.getAttributeName(),
+                                                                     request.getLabel(), request.getBusinessMetadata(), request.getEntityClassifications());
+
+            groups.computeIfAbsent(shape, k -> new ArrayList<>()).add(i);
+        }
+
+        for (List<Integer> group : groups.values()) {
+            List<AtlasEntityPermissionMatch> matches = getEntityPermissionMatches(requests.get(group.get(0)));
+
+            for (Integer idx : group) {
+                AtlasEntityAccessRequest request = requests.get(idx);
+
+                if (isAccessAllowed(request.getEntityId(), request.getEntityClassifications(), matches)) {
+                    ret.set(idx);
+                }
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== SimpleAtlasAuthorizer.isAccessAllowed(requests={}): groups={}, allowed={}", requests.size(), groups.size(), ret.cardinality());
+        }
+
+        return ret;
+    }
+
     @Override
     public void scrubSearchResults(AtlasSearchResultScrubRequest request) throws AtlasAuthorizationException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("==> SimpleAtlasAuthorizer.scrubSearchResults({})", request);
         }
 
-        final AtlasSearchResult result = request.getSearchResult();
+        final AtlasSearchResult       result   = request.getSearchResult();
+        final List<AtlasEntityHeader> entities = new ArrayList<>();
 
         if (CollectionUtils.isNotEmpty(result.getEntities())) {
-            for (AtlasEntityHeader entity : result.getEntities()) {
-                checkAccessAndScrub(entity, request);
-            }
+            entities.addAll(result.getEntities());
         }
 
         if (CollectionUtils.isNotEmpty(result.getFullTextResult())) {
             for (AtlasFullTextResult fullTextResult : result.getFullTextResult()) {
                 if (fullTextResult != null) {
-                    checkAccessAndScrub(fullTextResult.getEntity(), request);
+                    entities.add(fullTextResult.getEntity());
                 }
             }
         }
 
         if (MapUtils.isNotEmpty(result.getReferredEntities())) {
-            for (AtlasEntityHeader entity : result.getReferredEntities().values()) {
-                checkAccessAndScrub(entity, request);
-            }
+            entities.addAll(result.getReferredEntities().values());
         }
 
+        checkAccessAndScrub(entities, request);
+
         if (LOG.isDebugEnabled()) {
             LOG.debug("<== SimpleAtlasAuthorizer.scrubSearchResults({}): {}", request, result);
         }
@@ -419,14 +519,14 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
 
         if (value == null) {
             ret = true;
-        } if (CollectionUtils.isNotEmpty(patterns)) {
-            for (String pattern : patterns) {
-                if (isMatch(value, pattern)) {
-                    ret = true;
+        } else if (CollectionUtils.isNotEmpty(patterns)) {
+            AtlasPatternSet patternSet = patternSets.get(patterns);
 
-                    break;
-                }
+            if (patternSet == null) { // not from the loaded policy
+                patternSet = new AtlasPatternSet(patterns);
             }
+
+            ret = patternSet.isMatch(value);
         }
 
         if (!ret && LOG.isDebugEnabled()) {
@@ -458,28 +558,103 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
         return ret;
     }
 
-    private boolean isMatch(String value, String pattern) {
-        boolean ret;
+    private List<Object> getDecisionKey(AtlasAccessRequest request, Object... resource) {
+        List<Object> ret = new ArrayList<>(resource.length + 2);
 
-        if (value == null) {
-            ret = true;
-        } else {
-            ret = StringUtils.equalsIgnoreCase(value, pattern) || value.matches(pattern);
+        ret.add(request.getUser());
+        ret.add(request.getUserGroups() != null ? new HashSet<>(request.getUserGroups()) : null);
+        ret.addAll(Arrays.asList(resource));
+
+        return ret;
+    }
+
+    // the classifications of an entity are matched along with their super-types
+    private Set<Set<String>> getClassificationTypes(AtlasEntityAccessRequest request, Set<String> classificationNames) {
+        Set<Set<String>> ret = new HashSet<>();
+
+        for (String classificationName : classificationNames) {
+            ret.add(request.getClassificationTypeAndAllSuperTypes(classificationName));
+        }
+
+        return ret;
+    }
+
+    private void checkAccessAndScrub(List<AtlasEntityHeader> entities, AtlasSearchResultScrubRequest request) throws AtlasAuthorizationException {
+        final List<AtlasEntityHeader>        toCheck  = new ArrayList<>(entities.size());
+        final List<AtlasEntityAccessRequest> requests = new ArrayList<>(entities.size());
+
+        for (AtlasEntityHeader entity : entities) {
+            if (entity != null) {
+                final AtlasEntityAccessRequest entityAccessRequest = new AtlasEntityAccessRequest(request.getTypeRegistry(), AtlasPrivilege.ENTITY_READ, entity, request.getUser(), request.getUserGroups());
+
+                entityAccessRequest.setClientIPAddress(request.getClientIPAddress());
+
+                toCheck.add(entity);
+                requests.add(entityAccessRequest);
+            }
+        }
+
+        final BitSet allowed = isAccessAllowed(requests);
+
+        for (int i = 0; i < toCheck.size(); i++) {
+            if (!allowed.get(i)) {
+                scrubEntityHeader(toCheck.get(i));
+            }
+        }
+    }
+
+    // permissions that match the request in all but entity-id
+    private List<AtlasEntityPermissionMatch> getEntityPermissionMatches(AtlasEntityAccessRequest request) {
+        final List<AtlasEntityPermissionMatch> ret            = new ArrayList<>();
+        final String                           action         = request.getAction() != null ? request.getAction().getType() : null;
+        final Set<String>                      entityTypes    = request.getEntityTypeAndAllSuperTypes();
+        final String                           classification = request.getClassification() != null ? request.getClassification().getTypeName() : null;
+        final String                           attribute      = request.getAttributeName();
+
+        for (String role : getRoles(request.getUser(), request.getUserGroups())) {
+            List<AtlasEntityPermission> permissions = getEntityPermissionsForRole(role);
+
+            if (permissions == null) {
+                continue;
+            }
+
+            for (AtlasEntityPermission permission : permissions) {
+                if (isMatchAny(entityTypes, permission.getEntityTypes()) && isMatch(attribute, permission.getAttributes())
+                    && isLabelMatch(request, permission) && isBusinessMetadataMatch(request, permission)) {
+                    boolean     hasEntityAccess = isMatch(action, permission.getPrivileges()) && isMatch(classification, permission.getClassifications());
+                    Set<String> classifications = new HashSet<>();
+
+                    for (String entityClassification : request.getEntityClassifications()) {
+                        if (isMatchAny(request.getClassificationTypeAndAllSuperTypes(entityClassification), permission.getClassifications())) {
+                            classifications.add(entityClassification);
+                        }
+                    }
+
+                    ret.add(new AtlasEntityPermissionMatch(permission.getEntityIds(), hasEntityAccess, classifications));
+                }
+            }
         }
 
         return ret;
     }
 
-    private void checkAccessAndScrub(AtlasEntityHeader entity, AtlasSearchResultScrubRequest request) throws AtlasAuthorizationException {
-        if (entity != null && request != null) {
-            final AtlasEntityAccessRequest entityAccessRequest = new AtlasEntityAccessRequest(request.getTypeRegistry(), AtlasPrivilege.ENTITY_READ, entity, request.getUser(), request.getUserGroups());
+    private boolean isAccessAllowed(String entityId, Set<String> entityClassifications, List<AtlasEntityPermissionMatch> matches) {
+        final Set<String> entClsToAuthz   = new HashSet<>(entityClassifications);
+        boolean           hasEntityAccess = false;
+
+        for (AtlasEntityPermissionMatch match : matches) {
+            if (isMatch(entityId, match.entityIds)) {
+                hasEntityAccess = hasEntityAccess || match.hasEntityAccess;
 
-            entityAccessRequest.setClientIPAddress(request.getClientIPAddress());
+                entClsToAuthz.removeAll(match.classifications);
 
-            if (!isAccessAllowed(entityAccessRequest)) {
-                scrubEntityHeader(entity);
+                if (hasEntityAccess && entClsToAuthz.isEmpty()) {
+                    break;
+                }
             }
         }
+
+        return hasEntityAccess && entClsToAuthz.isEmpty();
     }
 
     private boolean isLabelMatch(AtlasEntityAccessRequest request, AtlasEntityPermission permission) {
@@ -529,6 +704,109 @@ public final class AtlasSimpleAuthorizer implements AtlasAuthorizer {
             }
         }
     }
+
+    // pattern lists are looked up by identity, as they are not modified after the policy is loaded
+    private static Map<List<String>, AtlasPatternSet> compilePatterns(AtlasSimpleAuthzPolicy policy) {
+        Map<List<String>, AtlasPatternSet> ret = new IdentityHashMap<>();
+
+        if (policy != null && policy.getRoles() != null) {
+            for (AtlasAuthzRole role : policy.getRoles().values()) {
+                if (role.getAdminPermissions() != null) {
+                    for (AtlasAdminPermission permission : role.getAdminPermissions()) {
+                        addPatternSets(ret, permission.getPrivileges());
+                    }
+                }
+
+                if (role.getTypePermissions() != null) {
+                    for (AtlasTypePermission permission : role.getTypePermissions()) {
+                        addPatternSets(ret, permission.getPrivileges(), permission.getTypeCategories(), permission.getTypeNames());
+                    }
+                }
+
+                if (role.getEntityPermissions() != null) {
+                    for (AtlasEntityPermission permission : role.getEntityPermissions()) {
+                        addPatternSets(ret, permission.getPrivileges(), permission.getEntityTypes(), permission.getEntityIds(), permission.getClassifications(),
+                                       permission.getLabels(), permission.getBusinessMetadata(), permission.getAttributes());
+                    }
+                }
+
+                if (role.getRelationshipPermissions() != null) {
+                    for (AtlasRelationshipPermission permission : role.getRelationshipPermissions()) {
+                        addPatternSets(ret, permission.getPrivileges(), permission.getRelationshipTypes(),
+                                       permission.getEnd1EntityType(), permission.getEnd1EntityId(), permission.getEnd1EntityClassification(),
+                                       permission.getEnd2EntityType(), permission.getEnd2EntityId(), permission.getEnd2EntityClassification());
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    @SafeVarargs
+    private static void addPatternSets(Map<List<String>, AtlasPatternSet> patternSets, List<String>... patternLists) {
+        for (List<String> patterns : patternLists) {
+            if (CollectionUtils.isNotEmpty(patterns) && !patternSets.containsKey(patterns)) {
+                patternSets.put(patterns, new AtlasPatternSet(patterns));
+            }
+        }
+    }
+
+    private static final class AtlasEntityPermissionMatch {
+        private final List<String> entityIds;
+        private final boolean      hasEntityAccess; // permission grants the action/classification of the request
+        private final Set<String>  classifications; // entity-classifications of the request granted by the permission
+
+        AtlasEntityPermissionMatch(List<String> entityIds, boolean hasEntityAccess, Set<String> classifications) {
+            this.entityIds       = entityIds;
+            this.hasEntityAccess = hasEntityAccess;
+            this.classifications = classifications;
+        }
+    }
+
+    /**
+     * Patterns of a policy attribute, compiled once. A value matches a pattern if it is equal to the pattern, ignoring
+     * case, or if it matches the pattern as a regular expression. Patterns without regex meta-characters are only
+     * looked up in a hash set.
+     */
+    static final class AtlasPatternSet {
+        private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+
+        private final Set<String>   literals = new HashSet<>();
+        private final List<Pattern> patterns = new ArrayList<>();
+
+        AtlasPatternSet(List<String> patterns) {
+            for (String pattern : patterns) {
+                if (pattern == null) {
+                    continue;
+                }
+
+                literals.add(pattern.toLowerCase(Locale.ROOT));
+
+                if (StringUtils.containsAny(pattern, REGEX_META_CHARS)) {
+                    try {
+                        this.patterns.add(Pattern.compile(pattern));
+                    } catch (PatternSyntaxException excp) {
+                        LOG.warn("invalid pattern '{}' in authorization policy; it will only be matched as a string", pattern, excp);
+                    }
+                }
+            }
+        }
+
+        boolean isMatch(String value) {
+            if (literals.contains(value.toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(value).matches()) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
 }
 
 
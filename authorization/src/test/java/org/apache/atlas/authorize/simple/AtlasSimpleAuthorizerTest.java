@@ -16,7 +16,14 @@
  */
 package org.apache.atlas.authorize.simple;
 
+import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.authorize.*;
+import org.apache.atlas.authorize.simple.AtlasSimpleAuthorizer.AtlasPatternSet;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.AfterClass;
@@ -24,7 +31,13 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import org.testng.AssertJUnit;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.List;
 
 public class AtlasSimpleAuthorizerTest {
     private static Logger LOG = LoggerFactory.getLogger(AtlasSimpleAuthorizerTest.class);
@@ -171,4 +184,126 @@ public class AtlasSimpleAuthorizerTest {
             AssertJUnit.fail();
         }
     }
+
+    @Test
+    public void testPatternSet() {
+        AtlasPatternSet patternSet = new AtlasPatternSet(Arrays.asList("entity-read", "hive_.*", "[invalid"));
+
+        AssertJUnit.assertTrue(patternSet.isMatch("entity-read"));
+        AssertJUnit.assertTrue(patternSet.isMatch("ENTITY-READ"));
+        AssertJUnit.assertTrue(patternSet.isMatch("hive_table"));
+        AssertJUnit.assertTrue(patternSet.isMatch("[invalid"));
+        AssertJUnit.assertFalse(patternSet.isMatch("entity-update"));
+        AssertJUnit.assertFalse(patternSet.isMatch("hdfs_path"));
+    }
+
+    @Test
+    public void testDecisionCacheIsClearedOnPolicyReload() throws Exception {
+        Configuration         conf       = ApplicationProperties.get();
+        File                  policyFile = File.createTempFile("atlas-simple-authz-policy", ".json");
+        AtlasSimpleAuthorizer simpleAuthorizer = new AtlasSimpleAuthorizer();
+
+        try {
+            conf.setProperty("atlas.authorizer.simple.authz.policy.file", policyFile.getAbsolutePath());
+
+            writePolicy(policyFile, getEntityPermission("entity-read", ".*", ".*"));
+            simpleAuthorizer.init();
+
+            AtlasEntityAccessRequest request = new AtlasEntityAccessRequest(null, AtlasPrivilege.ENTITY_READ);
+
+            request.setUser("user1", Collections.emptySet());
+
+            AssertJUnit.assertTrue(simpleAuthorizer.isAccessAllowed(request));
+            AssertJUnit.assertTrue(simpleAuthorizer.isAccessAllowed(request)); // from the decision cache
+
+            writePolicy(policyFile, getEntityPermission("entity-update", ".*", ".*"));
+            simpleAuthorizer.init();
+
+            AssertJUnit.assertFalse(simpleAuthorizer.isAccessAllowed(request));
+        } finally {
+            conf.clearProperty("atlas.authorizer.simple.authz.policy.file");
+
+            simpleAuthorizer.cleanUp();
+
+            FileUtils.deleteQuietly(policyFile);
+        }
+    }
+
+    @Test
+    public void testBulkAccessCheckAndScrub() throws Exception {
+        Configuration         conf       = ApplicationProperties.get();
+        File                  policyFile = File.createTempFile("atlas-simple-authz-policy", ".json");
+        AtlasSimpleAuthorizer simpleAuthorizer = new AtlasSimpleAuthorizer();
+
+        try {
+            conf.setProperty("atlas.authorizer.simple.authz.policy.file", policyFile.getAbsolutePath());
+
+            writePolicy(policyFile, getEntityPermission("entity-read", "db1@.*", "PUBLIC") + ", " + getEntityPermission("entity-update", ".*", ".*"));
+            simpleAuthorizer.init();
+
+            List<AtlasEntityHeader> entities = Arrays.asList(getEntity("db1@cl1"),
+                                                             getEntity("db1@cl1", "PUBLIC"),
+                                                             getEntity("db1@cl1", "PII"),   // PII is granted by the entity-update permission
+                                                             getEntity("db2@cl1"),          // entity-id not granted
+                                                             getEntity("db1@cl1", "PII"));
+            List<AtlasEntityAccessRequest> requests = new ArrayList<>();
+
+            for (AtlasEntityHeader entity : entities) {
+                requests.add(new AtlasEntityAccessRequest(null, AtlasPrivilege.ENTITY_READ, entity, "user1", Collections.emptySet()));
+            }
+
+            BitSet allowed = simpleAuthorizer.isAccessAllowed(requests);
+
+            for (int i = 0; i < requests.size(); i++) {
+                AssertJUnit.assertEquals("request " + i, simpleAuthorizer.isAccessAllowed(requests.get(i)), allowed.get(i));
+            }
+
+            AssertJUnit.assertEquals(4, allowed.cardinality());
+            AssertJUnit.assertFalse(allowed.get(3));
+
+            AtlasSearchResult result = new AtlasSearchResult();
+
+            result.setEntities(entities);
+
+            simpleAuthorizer.scrubSearchResults(new AtlasSearchResultScrubRequest(null, result, "user1", Collections.emptySet()));
+
+            AssertJUnit.assertEquals("-1", entities.get(3).getGuid());
+            AssertJUnit.assertEquals("guid-db1@cl1", entities.get(0).getGuid());
+        } finally {
+            conf.clearProperty("atlas.authorizer.simple.authz.policy.file");
+
+            simpleAuthorizer.cleanUp();
+
+            FileUtils.deleteQuietly(policyFile);
+        }
+    }
+
+    private static AtlasEntityHeader getEntity(String qualifiedName, String... classifications) {
+        AtlasEntityHeader ret = new AtlasEntityHeader("hive_table");
+
+        ret.setGuid("guid-" + qualifiedName);
+        ret.setAttribute("qualifiedName", qualifiedName);
+
+        if (classifications.length > 0) {
+            List<AtlasClassification> list = new ArrayList<>();
+
+            for (String classification : classifications) {
+                list.add(new AtlasClassification(classification));
+            }
+
+            ret.setClassifications(list);
+        }
+
+        return ret;
+    }
+
+    private static String getEntityPermission(String privilege, String entityId, String classification) {
+        return "{ \"privileges\": [ \"" + privilege + "\" ], \"entityTypes\": [ \".*\" ], \"entityIds\": [ \"" + entityId + "\" ], \"classifications\": [ \"" + classification + "\" ] }";
+    }
+
+    private static void writePolicy(File policyFile, String entityPermissions) throws Exception {
+        String policy = "{ \"roles\": { \"ROLE_1\": { \"entityPermissions\": [ " + entityPermissions + " ] } }, \"userRoles\": { \"user1\": [ \"ROLE_1\" ] } }";
+
+        FileUtils.writeStringToFile(policyFile, policy, StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.benchmarks;
+
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeRegistry.AtlasTransientTypeRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Types and entities used by benchmarks: hive types and entities defined in TestUtilsV2.
+ */
+public final class BenchmarkFixtures {
+    private BenchmarkFixtures() { }
+
+    public static AtlasTypeRegistry createTypeRegistry() throws AtlasBaseException {
+        AtlasTypeRegistry          ret           = new AtlasTypeRegistry();
+        AtlasTransientTypeRegistry ttr           = ret.lockTypeRegistryForUpdate();
+        boolean                    commitUpdates = false;
+
+        try {
+            ttr.addTypes(TestUtilsV2.defineHiveTypes());
+
+            commitUpdates = true;
+        } finally {
+            ret.releaseTypeRegistryForUpdate(ttr, commitUpdates);
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return a hive_database, a hive_table in it and the given number of columns of the table, in that order; names
+     *         are suffixed with the given suffix, to create distinct entities in the repository
+     */
+    public static AtlasEntitiesWithExtInfo createTable(String suffix, int columnCount) {
+        AtlasEntitiesWithExtInfo ret     = new AtlasEntitiesWithExtInfo();
+        AtlasEntity              db      = TestUtilsV2.createDBEntity("db_" + suffix);
+        AtlasEntity              table   = TestUtilsV2.createTableEntity(db, "table_" + suffix);
+        List<AtlasObjectId>      columns = new ArrayList<>(columnCount);
+
+        ret.addEntity(db);
+        ret.addEntity(table);
+
+        for (int i = 0; i < columnCount; i++) {
+            AtlasEntity column = TestUtilsV2.createColumnEntity(table, "col_" + suffix + "_" + i);
+
+            columns.add(new AtlasObjectId(column.getGuid(), column.getTypeName()));
+
+            ret.addEntity(column);
+        }
+
+        table.setAttribute(TestUtilsV2.COLUMNS_ATTR_NAME, columns);
+
+        return ret;
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.benchmarks;
+
+import org.apache.atlas.utils.AtlasJson;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files, written with "-rf json -rff <file>", and reports the change of each benchmark.
+ *
+ * Usage: BenchmarkResultComparator <baseline.json> <current.json> [thresholdPercent]
+ *
+ * A benchmark is reported as a regression when it is slower than the baseline by more than the threshold (default
+ * 10%) and by more than the sum of score errors of both runs. Exits with status 1 when there are regressions.
+ */
+public final class BenchmarkResultComparator {
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    private BenchmarkResultComparator() { }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkResultComparator <baseline.json> <current.json> [thresholdPercent]");
+
+            System.exit(2);
+        }
+
+        Map<String, Score> baseline    = readScores(new File(args[0]));
+        Map<String, Score> current     = readScores(new File(args[1]));
+        double             threshold   = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        int                regressions = 0;
+
+        System.out.println(String.format("%-100s %15s %15s %10s %8s", "Benchmark", "Baseline", "Current", "Unit", "Change"));
+
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score  curr = entry.getValue();
+            Score  base = baseline.get(entry.getKey());
+            String status;
+
+            if (base == null) {
+                System.out.println(String.format("%-100s %15s %15.3f %10s %8s", entry.getKey(), "-", curr.score, curr.unit, "new"));
+
+                continue;
+            }
+
+            // change is positive when current is better than baseline: higher throughput, or lower time
+            double  change        = (curr.isHigherBetter() ? curr.score - base.score : base.score - curr.score) * 100 / base.score;
+            boolean isSignificant = Math.abs(curr.score - base.score) > (curr.error + base.error) && Math.abs(change) > threshold;
+
+            if (!isSignificant) {
+                status = "";
+            } else if (change < 0) {
+                status = "  REGRESSION";
+
+                regressions++;
+            } else {
+                status = "  improvement";
+            }
+
+            System.out.println(String.format("%-100s %15.3f %15.3f %10s %+7.1f%%%s", entry.getKey(), base.score, curr.score, curr.unit, change, status));
+        }
+
+        System.out.println();
+        System.out.println(regressions + " regression(s) over " + threshold + "%");
+
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> readScores(File file) throws IOException {
+        Map<String, Score> ret     = new TreeMap<>();
+        List<?>            results = AtlasJson.fromJson(FileUtils.readFileToString(file, StandardCharsets.UTF_8), List.class);
+
+        for (Object obj : results) {
+            Map<?, ?> result        = (Map<?, ?>) obj;
+            Map<?, ?> params        = (Map<?, ?>) result.get("params");
+            Map<?, ?> primaryMetric = (Map<?, ?>) result.get("primaryMetric");
+            String    name          = (String) result.get("benchmark");
+
+            if (params != null && !params.isEmpty()) {
+                name = name + new TreeMap<Object, Object>(params);
+            }
+
+            ret.put(name, new Score((String) result.get("mode"), toDouble(primaryMetric.get("score")), toDouble(primaryMetric.get("scoreError")), (String) primaryMetric.get("scoreUnit")));
+        }
+
+        return ret;
+    }
+
+    // scoreError is "NaN" for a single measurement iteration
+    private static double toDouble(Object value) {
+        double ret;
+
+        if (value instanceof Number) {
+            ret = ((Number) value).doubleValue();
+        } else {
+            try {
+                ret = Double.parseDouble(String.valueOf(value));
+            } catch (NumberFormatException excp) {
+                ret = 0;
+            }
+        }
+
+        return Double.isNaN(ret) ? 0 : ret;
+    }
+
+    private static class Score {
+        final String mode;
+        final double score;
+        final double error;
+        final String unit;
+
+        Score(String mode, double score, double error, String unit) {
+            this.mode  = mode;
+            this.score = score;
+            this.error = error;
+            this.unit  = unit;
+        }
+
+        boolean isHigherBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
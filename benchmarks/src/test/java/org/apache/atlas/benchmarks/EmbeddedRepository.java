@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.benchmarks;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graph.GraphBackedSearchIndexer;
+import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Repository for benchmarks, on an embedded BerkeleyDB graph with a Lucene index (see atlas-application.properties),
+ * wired with TestModules and with the hive types in TestUtilsV2. One instance is shared by all benchmarks in a JVM.
+ *
+ * Unless atlas.data is set, the graph is created in a temporary directory - which is deleted on shutdown(), i.e. at
+ * the end of each trial; hence every trial starts with an empty graph.
+ */
+public final class EmbeddedRepository {
+    private static final String BENCHMARK_USER = "benchmark";
+
+    private static EmbeddedRepository instance;
+    private static Path               tempDataDir;
+
+    private final Injector injector;
+
+    private EmbeddedRepository() throws Exception {
+        if (System.getProperty("atlas.data") == null) {
+            // atlas.data is read once per JVM, along with atlas-application.properties; the same directory is reused after shutdown()
+            tempDataDir = Files.createTempDirectory("atlas-benchmarks");
+
+            tempDataDir.toFile().deleteOnExit();
+
+            System.setProperty("atlas.data", tempDataDir.toString());
+        }
+
+        injector = Guice.createInjector(new TestModules.TestOnlyModule());
+
+        AtlasTypeRegistry typeRegistry = injector.getInstance(AtlasTypeRegistry.class);
+        AtlasTypeDefStore typeDefStore = injector.getInstance(AtlasTypeDefStore.class);
+
+        injector.getInstance(GraphBackedSearchIndexer.class);
+
+        AtlasTypesDef typesToCreate = AtlasTypeDefStoreInitializer.getTypesToCreate(TestUtilsV2.defineHiveTypes(), typeRegistry);
+
+        if (!typesToCreate.isEmpty()) {
+            typeDefStore.createTypesDef(typesToCreate);
+        }
+    }
+
+    public static synchronized EmbeddedRepository get() throws Exception {
+        if (instance == null) {
+            instance = new EmbeddedRepository();
+        }
+
+        return instance;
+    }
+
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            AtlasGraphProvider.cleanup();
+
+            instance = null;
+
+            if (tempDataDir != null) {
+                deleteContents(tempDataDir);
+            }
+        }
+    }
+
+    public <T> T getInstance(Class<T> type) {
+        return injector.getInstance(type);
+    }
+
+    private static void deleteContents(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).filter(path -> !path.equals(dir)).map(Path::toFile).forEach(File::delete);
+        } catch (IOException excp) {
+            System.err.println("failed to delete benchmark data in " + dir + ": " + excp);
+        }
+    }
+
+    /**
+     * Initializes the request context of the calling thread, as done for each REST call in the server.
+     */
+    public static void beginRequest() {
+        RequestContext.clear();
+        RequestContext.get().setUser(BENCHMARK_USER, null);
+    }
+}
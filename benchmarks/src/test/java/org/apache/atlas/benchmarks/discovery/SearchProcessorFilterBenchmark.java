@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.benchmarks.discovery;
+
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.benchmarks.BenchmarkFixtures;
+import org.apache.atlas.benchmarks.EmbeddedRepository;
+import org.apache.atlas.discovery.EntitySearchProcessor;
+import org.apache.atlas.discovery.SearchContext;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
+import org.apache.atlas.model.discovery.SearchParameters.Operator;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graph.GraphBackedSearchIndexer;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.repository.store.graph.v2.AtlasEntityStream;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory filtering of vertices by EntitySearchProcessor.filter(), as done for every page of basic search results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=atlas-log4j.xml")
+public class SearchProcessorFilterBenchmark {
+    private static final int TABLE_COUNT = 1000;
+
+    @Param({ "EQ", "STARTS_WITH", "CONTAINS" })
+    public String operator;
+
+    private EntitySearchProcessor processor;
+    private List<AtlasVertex>     vertices;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        EmbeddedRepository repository   = EmbeddedRepository.get();
+        AtlasGraph         graph        = repository.getInstance(AtlasGraph.class);
+        AtlasTypeRegistry  typeRegistry = repository.getInstance(AtlasTypeRegistry.class);
+        AtlasEntityStore   entityStore  = repository.getInstance(AtlasEntityStore.class);
+
+        EmbeddedRepository.beginRequest();
+
+        for (int i = 0; i < TABLE_COUNT; i++) {
+            AtlasEntitiesWithExtInfo entities = BenchmarkFixtures.createTable("search_" + i, 0);
+
+            entities.getEntities().get(1).setAttribute("description", "table number " + i);
+
+            entityStore.createOrUpdate(new AtlasEntityStream(entities), false);
+        }
+
+        vertices = new ArrayList<>(TABLE_COUNT);
+
+        for (Object vertex : graph.query().has(Constants.ENTITY_TYPE_PROPERTY_KEY, TestUtilsV2.TABLE_TYPE).vertices()) {
+            vertices.add((AtlasVertex) vertex);
+        }
+
+        SearchParameters params = new SearchParameters();
+        FilterCriteria   filter = new FilterCriteria();
+
+        filter.setAttributeName("description");
+        filter.setOperator(Operator.valueOf(operator));
+        filter.setAttributeValue(Operator.valueOf(operator) == Operator.EQ ? "table number 10" : "number 1");
+
+        params.setTypeName(TestUtilsV2.TABLE_TYPE);
+        params.setEntityFilters(filter);
+        params.setLimit(TABLE_COUNT);
+
+        SearchContext context = new SearchContext(params, typeRegistry, graph, repository.getInstance(GraphBackedSearchIndexer.class).getVertexIndexKeys());
+
+        processor = new EntitySearchProcessor(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EmbeddedRepository.shutdown();
+    }
+
+    @Benchmark
+    public List<AtlasVertex> filter() {
+        List<AtlasVertex> ret = new ArrayList<>(vertices);
+
+        processor.filter(ret);
+
+        return ret;
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.benchmarks.store;
+
+import org.apache.atlas.benchmarks.BenchmarkFixtures;
+import org.apache.atlas.benchmarks.EmbeddedRepository;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.repository.store.graph.v2.AtlasEntityStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates and updates of entities through AtlasEntityStore, on the embedded repository. Time is dominated by
+ * EntityGraphMapper.mapAttributesAndClassifications(), which is not callable outside of the entity store as it needs
+ * the mutation context built by the store; the time includes the graph commit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=atlas-log4j.xml")
+public class EntityGraphMapperBenchmark {
+    @Param({ "10", "100" })
+    public int columnCount;
+
+    private AtlasEntityStore entityStore;
+    private AtlasEntity      table;
+    private long             seq;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        entityStore = EmbeddedRepository.get().getInstance(AtlasEntityStore.class);
+
+        EmbeddedRepository.beginRequest();
+
+        AtlasEntitiesWithExtInfo entities = BenchmarkFixtures.createTable("update_" + columnCount, columnCount);
+        AtlasEntity              created  = entities.getEntities().get(1);
+        EntityMutationResponse   response = entityStore.createOrUpdate(new AtlasEntityStream(entities), false);
+
+        table = new AtlasEntity(created.getTypeName());
+
+        table.setGuid(response.getGuidAssignments().get(created.getGuid()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EmbeddedRepository.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void beginRequest() {
+        EmbeddedRepository.beginRequest();
+    }
+
+    @Benchmark
+    public EntityMutationResponse createEntities() throws Exception {
+        AtlasEntitiesWithExtInfo entities = BenchmarkFixtures.createTable("create_" + columnCount + "_" + (seq++), columnCount);
+
+        return entityStore.createOrUpdate(new AtlasEntityStream(entities), false);
+    }
+
+    @Benchmark
+    public EntityMutationResponse updateEntity() throws Exception {
+        table.setAttribute("description", "updated " + (seq++));
+
+        return entityStore.createOrUpdate(new AtlasEntityStream(table), true);
+    }
+}
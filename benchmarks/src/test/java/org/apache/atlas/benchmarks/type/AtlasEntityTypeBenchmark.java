@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.benchmarks.type;
+
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.benchmarks.BenchmarkFixtures;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of entity types and their attributes, done for every attribute of every entity read or written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=atlas-log4j.xml")
+public class AtlasEntityTypeBenchmark {
+    @Param({ "name", "columns", "database", "unknownAttribute" })
+    public String attributeName;
+
+    private AtlasTypeRegistry typeRegistry;
+    private AtlasEntityType   tableType;
+
+    @Setup
+    public void setup() throws Exception {
+        typeRegistry = BenchmarkFixtures.createTypeRegistry();
+        tableType    = typeRegistry.getEntityTypeByName(TestUtilsV2.TABLE_TYPE);
+    }
+
+    @Benchmark
+    public AtlasAttribute getAttribute() {
+        return tableType.getAttribute(attributeName);
+    }
+
+    @Benchmark
+    public AtlasAttribute getRelationshipAttribute() {
+        return tableType.getRelationshipAttribute(attributeName, null);
+    }
+
+    @Benchmark
+    public AtlasAttribute getTypeAndAttribute() {
+        return typeRegistry.getEntityTypeByName(TestUtilsV2.TABLE_TYPE).getAttribute(attributeName);
+    }
+
+    @Benchmark
+    public boolean isSubTypeOf() {
+        return tableType.isSubTypeOf(TestUtilsV2.SUPER_TYPE_NAME);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.benchmarks.type;
+
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.benchmarks.BenchmarkFixtures;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasStruct;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of struct and entity values, done for every entity in create/update requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=atlas-log4j.xml")
+public class AtlasStructTypeBenchmark {
+    private AtlasEntityType tableType;
+    private AtlasStructType serdeType;
+    private AtlasEntity     table;
+    private AtlasStruct     serde;
+
+    @Setup
+    public void setup() throws Exception {
+        AtlasTypeRegistry typeRegistry = BenchmarkFixtures.createTypeRegistry();
+
+        tableType = typeRegistry.getEntityTypeByName(TestUtilsV2.TABLE_TYPE);
+        serdeType = typeRegistry.getStructTypeByName(TestUtilsV2.SERDE_TYPE);
+        table     = BenchmarkFixtures.createTable("validate", 0).getEntities().get(1);
+        serde     = new AtlasStruct(TestUtilsV2.SERDE_TYPE);
+
+        serde.setAttribute("name", "serde1");
+        serde.setAttribute("serde", "org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe");
+
+        table.setAttribute("serde1", serde);
+    }
+
+    @Benchmark
+    public List<String> validateStruct() {
+        List<String> messages = new ArrayList<>();
+
+        serdeType.validateValue(serde, "serde", messages);
+
+        return messages;
+    }
+
+    @Benchmark
+    public List<String> validateEntity() {
+        List<String> messages = new ArrayList<>();
+
+        tableType.validateValue(table, "table", messages);
+
+        return messages;
+    }
+
+    @Benchmark
+    public boolean isValidEntity() {
+        return tableType.isValidValue(table);
+    }
+
+    @Benchmark
+    public Object normalizeEntity() {
+        return tableType.getNormalizedValue(table);
+    }
+}
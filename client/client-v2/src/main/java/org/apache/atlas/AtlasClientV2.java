@@ -77,13 +77,19 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Map;
 import java.util.Set;
 
@@ -116,6 +122,7 @@ public class AtlasClientV2 extends AtlasBaseClient {
     private static final String FULL_TEXT_SEARCH_URI = DISCOVERY_URI + "/fulltext";
     private static final String BASIC_SEARCH_URI     = DISCOVERY_URI + "/basic";
     private static final String FACETED_SEARCH_URI   = BASIC_SEARCH_URI;
+    private static final String BASIC_SEARCH_STREAM_URI = BASIC_SEARCH_URI + "/stream";
     private static final String SAVED_SEARCH_URI     = DISCOVERY_URI + "/saved";
     private static final String QUICK_SEARCH_URI     = DISCOVERY_URI + "/quick";
 
@@ -688,6 +695,19 @@ public class AtlasClientV2 extends AtlasBaseClient {
         return callAPI(API_V2.FACETED_SEARCH, AtlasSearchResult.class, searchParameters);
     }
 
+    /**
+     * Searches for all entities satisfying the search parameters; entity headers are read from the server as they are
+     * iterated, without loading all results in memory. searchParameters.limit is the number of entities the server
+     * retrieves per page.
+     *
+     * The iterator should be closed if not iterated till the end, to release the connection.
+     */
+    public EntityHeaderIterator basicSearchStream(SearchParameters searchParameters) throws AtlasServiceException {
+        InputStream inputStream = callAPI(API_V2.BASIC_SEARCH_STREAM, InputStream.class, searchParameters);
+
+        return new EntityHeaderIterator(inputStream);
+    }
+
     public AtlasSearchResult attributeSearch(String typeName, String attrName, String attrValuePrefix, int limit, int offset) throws AtlasServiceException {
         MultivaluedMap<String, String> queryParams = new MultivaluedMapImpl();
 
@@ -874,6 +894,15 @@ public class AtlasClientV2 extends AtlasBaseClient {
         return callAPI(formatPathParameters(API_V2.GET_GLOSSARY_TERMS_HEADERS, glossaryGuid), List.class, queryParams);
     }
 
+    public List<AtlasRelatedTermHeader> getGlossaryTermHeaders(String glossaryGuid, String after, int limit) throws AtlasServiceException {
+        MultivaluedMap<String, String> queryParams = new MultivaluedMapImpl();
+
+        queryParams.add(LIMIT, String.valueOf(limit));
+        queryParams.add("after", after != null ? after : "");
+
+        return callAPI(formatPathParameters(API_V2.GET_GLOSSARY_TERMS_HEADERS, glossaryGuid), List.class, queryParams);
+    }
+
     public AtlasGlossaryCategory getGlossaryCategory(String categoryGuid) throws AtlasServiceException {
         return callAPI(API_V2.GET_GLOSSARY_CATEGORY, AtlasGlossaryCategory.class, null, categoryGuid);
     }
@@ -911,6 +940,15 @@ public class AtlasClientV2 extends AtlasBaseClient {
         return callAPI(formatPathParameters(API_V2.GET_CATEGORY_TERMS, categoryGuid), List.class, queryParams);
     }
 
+    public List<AtlasRelatedTermHeader> getCategoryTerms(String categoryGuid, String after, int limit) throws AtlasServiceException {
+        MultivaluedMap<String, String> queryParams = new MultivaluedMapImpl();
+
+        queryParams.add(LIMIT, String.valueOf(limit));
+        queryParams.add("after", after != null ? after : "");
+
+        return callAPI(formatPathParameters(API_V2.GET_CATEGORY_TERMS, categoryGuid), List.class, queryParams);
+    }
+
     public Map<AtlasGlossaryTerm.Relation, Set<AtlasRelatedTermHeader>> getRelatedTerms(String termGuid, String sortByAttribute, int limit, int offset) throws AtlasServiceException {
         MultivaluedMap<String, String> queryParams = new MultivaluedMapImpl();
 
@@ -999,6 +1037,15 @@ public class AtlasClientV2 extends AtlasBaseClient {
         return callAPI(formatPathParameters(API_V2.GET_ENTITIES_ASSIGNED_WITH_TERM, termGuid), List.class, queryParams);
     }
 
+    public List<AtlasRelatedObjectId> getEntitiesAssignedWithTerm(String termGuid, String after, int limit) throws AtlasServiceException {
+        MultivaluedMap<String, String> queryParams = new MultivaluedMapImpl();
+
+        queryParams.add(LIMIT, String.valueOf(limit));
+        queryParams.add("after", after != null ? after : "");
+
+        return callAPI(formatPathParameters(API_V2.GET_ENTITIES_ASSIGNED_WITH_TERM, termGuid), List.class, queryParams);
+    }
+
     public void assignTermToEntities(String termGuid, List<AtlasRelatedObjectId> relatedObjectIds) throws AtlasServiceException {
         callAPI(formatPathParameters(API_V2.ASSIGN_TERM_TO_ENTITIES, termGuid), (Class<?>) null, relatedObjectIds);
 
@@ -1144,6 +1191,67 @@ public class AtlasClientV2 extends AtlasBaseClient {
         return "";
     }
 
+    /**
+     * Iterates over entity headers read from newline-delimited JSON. Errors reading the stream, like a connection
+     * closed by the server after a failure during the search, are thrown as UncheckedIOException.
+     */
+    public static class EntityHeaderIterator implements Iterator<AtlasEntityHeader>, Closeable {
+        private final BufferedReader    reader;
+        private       AtlasEntityHeader next;
+        private       boolean           isEndOfStream;
+
+        public EntityHeaderIterator(InputStream inputStream) {
+            this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !isEndOfStream) {
+                try {
+                    String line = reader.readLine();
+
+                    while (line != null && line.isEmpty()) {
+                        line = reader.readLine();
+                    }
+
+                    if (line != null) {
+                        next = AtlasType.fromJson(line, AtlasEntityHeader.class);
+
+                        if (next == null) { // like a response truncated by an error on the server
+                            throw new IOException("invalid entity header in search results: " + line);
+                        }
+                    } else {
+                        close();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            return next != null;
+        }
+
+        @Override
+        public AtlasEntityHeader next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            AtlasEntityHeader ret = next;
+
+            next = null;
+
+            return ret;
+        }
+
+        @Override
+        public void close() throws IOException {
+            isEndOfStream = true;
+
+            reader.close();
+        }
+    }
+
     public static class API_V2 extends API {
         // TypeDef APIs
         public static final API_V2 GET_TYPEDEF_BY_NAME      = new API_V2(TYPEDEF_BY_NAME, HttpMethod.GET, Response.Status.OK);
@@ -1212,6 +1320,7 @@ public class AtlasClientV2 extends AtlasBaseClient {
         public static final API_V2 FULL_TEXT_SEARCH            = new API_V2(FULL_TEXT_SEARCH_URI, HttpMethod.GET, Response.Status.OK);
         public static final API_V2 BASIC_SEARCH                = new API_V2(BASIC_SEARCH_URI, HttpMethod.POST, Response.Status.OK);
         public static final API_V2 FACETED_SEARCH              = new API_V2(FACETED_SEARCH_URI, HttpMethod.POST, Response.Status.OK);
+        public static final API_V2 BASIC_SEARCH_STREAM         = new API_V2(BASIC_SEARCH_STREAM_URI, HttpMethod.POST, Response.Status.OK, JSON_MEDIA_TYPE, NDJSON_MEDIA_TYPE);
         public static final API_V2 ATTRIBUTE_SEARCH            = new API_V2(DISCOVERY_URI+ "/attribute", HttpMethod.GET, Response.Status.OK);
         public static final API_V2 RELATIONSHIP_SEARCH         = new API_V2(DISCOVERY_URI+ "/relationship", HttpMethod.GET, Response.Status.OK);
         public static final API_V2 QUICK_SEARCH_WITH_GET       = new API_V2(QUICK_SEARCH_URI, HttpMethod.GET, Response.Status.OK);
@@ -22,6 +22,8 @@ package org.apache.atlas;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.WebResource;
 import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.type.AtlasType;
 import org.apache.commons.configuration.Configuration;
 import org.mockito.Matchers;
 import org.mockito.Mock;
@@ -31,7 +33,13 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -124,6 +132,47 @@ public class AtlasClientV2Test {
 
     }
 
+    @Test
+    public void entityHeaderIteratorReadsNewlineDelimitedJson() throws Exception {
+        AtlasEntityHeader table  = new AtlasEntityHeader("hive_table");
+        AtlasEntityHeader column = new AtlasEntityHeader("hive_column");
 
-}
+        table.setGuid("abb672b1-e4bd-402d-a98f-73cd8f775e2a");
+        column.setGuid("6e5d8c0f-2f4a-4f3b-9a3e-2d0c8d1b7e41");
+
+        String json = AtlasType.toJson(table) + "\n" + AtlasType.toJson(column) + "\n";
+
+        List<AtlasEntityHeader> headers = new ArrayList<>();
+
+        try (AtlasClientV2.EntityHeaderIterator iter = new AtlasClientV2.EntityHeaderIterator(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            while (iter.hasNext()) {
+                headers.add(iter.next());
+            }
+
+            Assert.assertFalse(iter.hasNext());
+
+            try {
+                iter.next();
+                Assert.fail("NoSuchElementException expected");
+            } catch (NoSuchElementException excp) {
+                // expected
+            }
+        }
+
+        Assert.assertEquals(headers.size(), 2);
+        Assert.assertEquals(headers.get(0).getTypeName(), "hive_table");
+        Assert.assertEquals(headers.get(0).getGuid(), table.getGuid());
+        Assert.assertEquals(headers.get(1).getTypeName(), "hive_column");
+        Assert.assertEquals(headers.get(1).getGuid(), column.getGuid());
+    }
+
+    @Test(expectedExceptions = UncheckedIOException.class)
+    public void entityHeaderIteratorFailsOnTruncatedStream() {
+        String json = AtlasType.toJson(new AtlasEntityHeader("hive_table")) + "\n{\"typeName\":";
 
+        AtlasClientV2.EntityHeaderIterator iter = new AtlasClientV2.EntityHeaderIterator(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        iter.next();
+        iter.next();
+    }
+}
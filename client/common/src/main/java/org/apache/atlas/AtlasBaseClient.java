@@ -91,6 +91,7 @@ public abstract class AtlasBaseClient {
     public static final API API_METRICS = new API(BASE_URI + ADMIN_METRICS, HttpMethod.GET, Response.Status.OK);;
 
     static final        String JSON_MEDIA_TYPE                       = MediaType.APPLICATION_JSON + "; charset=UTF-8";
+    static final        String NDJSON_MEDIA_TYPE                     = "application/x-ndjson";
     static final        String UNKNOWN_STATUS                        = "Unknown status";
     static final        String ATLAS_CLIENT_HA_RETRIES_KEY           = "atlas.client.ha.retries";
     // Setting the default value based on testing failovers while client code like quickstart is running.
@@ -104,6 +104,27 @@ public final class Constants {
     public static final String PATCH_ACTION_PROPERTY_KEY      = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "patch.action");
     public static final String PATCH_STATE_PROPERTY_KEY       = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "patch.state");
 
+    /**
+     * Task vertices property keys.
+     */
+    public static final String TASK_GUID_PROPERTY_KEY          = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.guid");
+    public static final String TASK_TYPE_PROPERTY_KEY          = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.type");
+    public static final String TASK_STATUS_PROPERTY_KEY        = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.status");
+    public static final String TASK_CREATED_BY_PROPERTY_KEY    = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.createdBy");
+    public static final String TASK_CREATED_TIME_PROPERTY_KEY  = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.createdTime");
+    public static final String TASK_UPDATED_TIME_PROPERTY_KEY  = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.updatedTime");
+    public static final String TASK_START_TIME_PROPERTY_KEY    = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.startTime");
+    public static final String TASK_END_TIME_PROPERTY_KEY      = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.endTime");
+    public static final String TASK_PARAMETERS_PROPERTY_KEY    = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.parameters");
+    public static final String TASK_ATTEMPT_COUNT_PROPERTY_KEY = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.attemptCount");
+    public static final String TASK_ERROR_MESSAGE_PROPERTY_KEY = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.errorMessage");
+
+    /**
+     * online reindex status vertex property keys.
+     */
+    public static final String REINDEX_ID_PROPERTY_KEY     = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "reindex.id");
+    public static final String REINDEX_STATUS_PROPERTY_KEY = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "reindex.status");
+
     /**
      * The homeId field is used when saving into Atlas a copy of an object that is being imported from another
      * repository. The homeId will be set to a String that identifies the other repository. The specific format
@@ -186,6 +207,8 @@ public final class Constants {
     public static final String CLASSIFICATION_NAME_DELIMITER                  = "|";
     public static final String LABEL_NAME_DELIMITER                           = CLASSIFICATION_NAME_DELIMITER;
     public static final String TERM_ASSIGNMENT_LABEL                          = "r:AtlasGlossarySemanticAssignment";
+    public static final String TERM_ANCHOR_LABEL                              = "r:AtlasGlossaryTermAnchor";
+    public static final String TERM_CATEGORIZATION_LABEL                      = "r:AtlasGlossaryTermCategorization";
     public static final String ATTRIBUTE_INDEX_PROPERTY_KEY                   = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "index");
     public static final String ATTRIBUTE_KEY_PROPERTY_KEY                     = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "key");
     public static final String ATTRIBUTE_VALUE_DELIMITER                      = ",";
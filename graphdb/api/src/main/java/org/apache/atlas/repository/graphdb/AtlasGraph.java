@@ -26,6 +26,8 @@ import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -115,6 +117,34 @@ public interface AtlasGraph<V, E> {
      */
     AtlasVertex<V, E> getVertex(String vertexId);
 
+    /**
+     * Gets the vertices with the given ids, with batched reads where supported.
+     *
+     * @param vertexIds ids of the vertices
+     * @return vertices in the order of the given ids; ids of vertices that don't exist are skipped
+     */
+    List<AtlasVertex<V, E>> getVertices(Collection<String> vertexIds);
+
+    /**
+     * Loads properties of the given vertices from the storage backend, with batched reads, into the cache of the
+     * current transaction; subsequent reads of properties of these vertices in the transaction are served from the
+     * cache. Implementations that don't support batched reads can ignore this call.
+     *
+     * @param vertices vertices whose properties are to be loaded
+     */
+    void preloadProperties(Collection<AtlasVertex<V, E>> vertices);
+
+    /**
+     * Loads edges of the given vertices from the storage backend, with batched reads, into the cache of the current
+     * transaction; subsequent queries for edges of these vertices in the transaction are served from the cache.
+     * Implementations that don't support batched reads can ignore this call.
+     *
+     * @param vertices vertices whose edges are to be loaded
+     * @param direction direction of edges to load
+     * @param edgeLabels labels of edges to load; when none is given, all edges in the given direction are loaded
+     */
+    void preloadEdges(Collection<AtlasVertex<V, E>> vertices, AtlasEdgeDirection direction, String... edgeLabels);
+
     /**
      * Gets the names of the indexes on edges
      * type.
@@ -206,6 +236,14 @@ public interface AtlasGraph<V, E> {
      */
     void commit();
 
+    /**
+     * Commits changes made to the graph in the current transaction.
+     *
+     * @param asyncIndexWrites when true, and the index backend buffers index updates, index updates of the transaction
+     *                         can be written to the index after this returns
+     */
+    void commit(boolean asyncIndexWrites);
+
     /**
      * Rolls back changes made to the graph in the current transaction.
      */
@@ -362,4 +400,9 @@ public interface AtlasGraph<V, E> {
      * @throws AtlasException when error encountered in creating the client.
      */
     AtlasGraphIndexClient getGraphIndexClient()throws AtlasException;
+
+    /**
+     * @return statistics of index updates buffered by the index backend; empty if index updates are not buffered
+     */
+    Map<String, Number> getIndexWriteBufferStats();
 }
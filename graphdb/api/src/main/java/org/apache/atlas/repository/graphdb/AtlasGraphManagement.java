@@ -180,4 +180,13 @@ public interface AtlasGraphManagement {
      * @throws Exception
      */
     void reindex(String indexName, List<AtlasElement> elements) throws Exception;
+
+    /***
+     * Re-index elements in multiple indexes, in one transaction.
+     * @param indexNames: Names of the indexes that need to be operated on.
+     * @param elements: Elements to be re-indexed.
+     * @return elements that failed to be re-indexed in any of the indexes
+     * @throws Exception
+     */
+    List<AtlasElement> reindex(List<String> indexNames, List<AtlasElement> elements) throws Exception;
 }
@@ -84,4 +84,24 @@ public interface AtlasVertexQuery<V, E> {
      * @return
      */
     AtlasVertexQuery<V, E> has(String key, Object value);
+
+    /**
+     * Returns edges whose property compares with the given value as specified.
+     *
+     * @param key
+     * @param operator
+     * @param value
+     * @return
+     */
+    AtlasVertexQuery<V, E> has(String key, AtlasGraphQuery.ComparisionOperator operator, Object value);
+
+    /**
+     * Orders the edges by the given property. With a vertex-centric index on the edge label and property,
+     * edges are read in the index order, instead of being sorted in memory.
+     *
+     * @param key
+     * @param sortOrder
+     * @return
+     */
+    AtlasVertexQuery<V, E> orderBy(String key, AtlasGraphQuery.SortOrder sortOrder);
 }
@@ -28,6 +28,7 @@ import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.groovy.GroovyExpression;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasGraphIndexClient;
 import org.apache.atlas.repository.graphdb.AtlasGraphManagement;
@@ -61,12 +62,15 @@ import org.janusgraph.core.Cardinality;
 import org.janusgraph.core.JanusGraph;
 import org.janusgraph.core.JanusGraphFactory;
 import org.janusgraph.core.JanusGraphIndexQuery;
+import org.janusgraph.core.JanusGraphMultiVertexQuery;
+import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.SchemaViolationException;
 import org.janusgraph.core.schema.JanusGraphIndex;
 import org.janusgraph.core.schema.JanusGraphManagement;
 import org.janusgraph.core.schema.Parameter;
 import org.janusgraph.diskstorage.BackendException;
+import org.janusgraph.diskstorage.solr.Solr6Index;
 import org.janusgraph.graphdb.database.StandardJanusGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,7 +80,9 @@ import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -243,11 +249,33 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         }
     }
 
+    @Override
+    public Map<String, Number> getIndexWriteBufferStats() {
+        return Solr6Index.getWriteBehindStats();
+    }
+
     @Override
     public void commit() {
         getGraph().tx().commit();
     }
 
+    @Override
+    public void commit(boolean asyncIndexWrites) {
+        if (!asyncIndexWrites) {
+            commit();
+
+            return;
+        }
+
+        Solr6Index.setAsyncWrites(true); // index updates are sent to Solr in the thread committing the transaction
+
+        try {
+            commit();
+        } finally {
+            Solr6Index.setAsyncWrites(false);
+        }
+    }
+
     @Override
     public void rollback() {
         getGraph().tx().rollback();
@@ -300,6 +328,30 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         getGraph().close();
     }
 
+    @Override
+    public void preloadProperties(Collection<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> vertices) {
+        List<JanusGraphVertex> janusVertices = toJanusVertices(vertices);
+
+        if (!janusVertices.isEmpty()) {
+            getGraph().multiQuery(janusVertices).properties();
+        }
+    }
+
+    @Override
+    public void preloadEdges(Collection<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> vertices, AtlasEdgeDirection direction, String... edgeLabels) {
+        List<JanusGraphVertex> janusVertices = toJanusVertices(vertices);
+
+        if (!janusVertices.isEmpty()) {
+            JanusGraphMultiVertexQuery query = getGraph().multiQuery(janusVertices).direction(AtlasJanusObjectFactory.createDirection(direction));
+
+            if (edgeLabels != null && edgeLabels.length > 0) {
+                query.labels(edgeLabels);
+            }
+
+            query.edges();
+        }
+    }
+
     @Override
     public Set<String> getEdgeIndexKeys() {
         return getIndexKeys(Edge.class);
@@ -318,6 +370,33 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         return GraphDbObjectFactory.createVertex(this, vertex);
     }
 
+    @Override
+    public List<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> getVertices(Collection<String> vertexIds) {
+        List<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> ret = new ArrayList<>(vertexIds.size());
+
+        if (!vertexIds.isEmpty()) {
+            // existence of vertices not in the transaction cache is checked with a single multi-vertex read
+            Map<String, Vertex> vertices = new HashMap<>();
+            Iterator<Vertex>    it       = getGraph().vertices(vertexIds.toArray());
+
+            while (it.hasNext()) {
+                Vertex vertex = it.next();
+
+                vertices.put(vertex.id().toString(), vertex);
+            }
+
+            for (String vertexId : vertexIds) {
+                Vertex vertex = vertices.get(vertexId);
+
+                if (vertex != null) {
+                    ret.add(GraphDbObjectFactory.createVertex(this, vertex));
+                }
+            }
+        }
+
+        return ret;
+    }
+
     @Override
     public Iterable<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> getVertices(String key, Object value) {
         AtlasGraphQuery<AtlasJanusVertex, AtlasJanusEdge> query = query();
@@ -347,6 +426,27 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         }
     }
 
+    // new vertices have nothing to load; removed vertices can't be queried
+    private List<JanusGraphVertex> toJanusVertices(Collection<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> vertices) {
+        List<JanusGraphVertex> ret = new ArrayList<>(vertices == null ? 0 : vertices.size());
+
+        if (vertices != null) {
+            for (AtlasVertex<AtlasJanusVertex, AtlasJanusEdge> vertex : vertices) {
+                Vertex wrapped = vertex.getV().getWrappedElement();
+
+                if (wrapped instanceof JanusGraphVertex) {
+                    JanusGraphVertex janusVertex = (JanusGraphVertex) wrapped;
+
+                    if (!janusVertex.isNew() && !janusVertex.isRemoved()) {
+                        ret.add(janusVertex);
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+
     public JanusGraph getGraph() {
         return this.janusGraph;
     }
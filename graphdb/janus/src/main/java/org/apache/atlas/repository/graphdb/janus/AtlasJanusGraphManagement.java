@@ -50,6 +50,8 @@ import org.janusgraph.graphdb.types.MixedIndexType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -324,46 +326,72 @@ public class AtlasJanusGraphManagement implements AtlasGraphManagement {
 
     @Override
     public void reindex(String indexName, List<AtlasElement> elements) throws Exception {
+        reindex(Collections.singletonList(indexName), elements);
+    }
+
+    @Override
+    public List<AtlasElement> reindex(List<String> indexNames, List<AtlasElement> elements) throws Exception {
+        boolean[] isFailed = new boolean[elements.size()];
+
         try {
-            JanusGraphIndex index = management.getGraphIndex(indexName);
-            if (index == null || !(management instanceof ManagementSystem) || !(graph.getGraph() instanceof StandardJanusGraph)) {
-                LOG.error("Could not retrieve index for name: {} ", indexName);
-                return;
+            if (!(management instanceof ManagementSystem) || !(graph.getGraph() instanceof StandardJanusGraph)) {
+                LOG.error("Could not retrieve indexes for names: {} ", indexNames);
+                return Collections.emptyList();
             }
 
             ManagementSystem managementSystem = (ManagementSystem) management;
-            IndexType indexType = managementSystem.getSchemaVertex(index).asIndexType();
-            if (!(indexType instanceof MixedIndexType)) {
-                LOG.warn("Index: {}: Not of MixedIndexType ", indexName);
-                return;
-            }
+            IndexSerializer  indexSerializer  = ((StandardJanusGraph) graph.getGraph()).getIndexSerializer();
 
-            IndexSerializer indexSerializer = ((StandardJanusGraph) graph.getGraph()).getIndexSerializer();
-            reindexElement(managementSystem, indexSerializer, (MixedIndexType) indexType, elements);
-        } catch (Exception exception) {
-            throw exception;
+            for (String indexName : indexNames) {
+                JanusGraphIndex index = management.getGraphIndex(indexName);
+                if (index == null) {
+                    LOG.error("Could not retrieve index for name: {} ", indexName);
+                    continue;
+                }
+
+                IndexType indexType = managementSystem.getSchemaVertex(index).asIndexType();
+                if (!(indexType instanceof MixedIndexType)) {
+                    LOG.warn("Index: {}: Not of MixedIndexType ", indexName);
+                    continue;
+                }
+
+                reindexElement(managementSystem, indexSerializer, (MixedIndexType) indexType, elements, isFailed);
+            }
         } finally {
             management.commit();
         }
+
+        List<AtlasElement> ret = new ArrayList<>();
+
+        for (int i = 0; i < isFailed.length; i++) {
+            if (isFailed[i]) {
+                ret.add(elements.get(i));
+            }
+        }
+
+        return ret;
     }
 
-    private void reindexElement(ManagementSystem managementSystem, IndexSerializer indexSerializer, MixedIndexType indexType, List<AtlasElement> elements) throws Exception {
+    private void reindexElement(ManagementSystem managementSystem, IndexSerializer indexSerializer, MixedIndexType indexType, List<AtlasElement> elements, boolean[] isFailed) throws Exception {
         Map<String, Map<String, List<IndexEntry>>> documentsPerStore = new HashMap<>();
         StandardJanusGraphTx tx = managementSystem.getWrappedTx();
         BackendTransaction txHandle = tx.getTxHandle();
 
         try {
-            JanusGraphElement janusGraphElement = null;
-            for (AtlasElement element : elements) {
+            for (int i = 0; i < elements.size(); i++) {
+                AtlasElement element = elements.get(i);
+
                 try {
                     if (element == null || element.getWrappedElement() == null) {
                         continue;
                     }
 
-                    janusGraphElement = element.getWrappedElement();
+                    JanusGraphElement janusGraphElement = element.getWrappedElement();
                     indexSerializer.reindexElement(janusGraphElement, indexType, documentsPerStore);
                 } catch (Exception e) {
                     LOG.warn("{}: Exception: {}:{}", indexType.getName(), e.getClass().getSimpleName(), e.getMessage());
+
+                    isFailed[i] = true;
                 }
             }
         } finally {
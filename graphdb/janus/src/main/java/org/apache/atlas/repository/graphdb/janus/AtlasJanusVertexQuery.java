@@ -20,10 +20,14 @@ package org.apache.atlas.repository.graphdb.janus;
 import com.google.common.base.Preconditions;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.graphdb.AtlasVertexQuery;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.janusgraph.core.JanusGraphVertexQuery;
+import org.janusgraph.graphdb.query.JanusGraphPredicateUtils;
 
 /**
  * Janus implementation of AtlasVertexQuery.
@@ -87,4 +91,36 @@ public class AtlasJanusVertexQuery implements AtlasVertexQuery<AtlasJanusVertex,
         query.has(key, value);
         return this;
     }
+
+    @Override
+    public AtlasVertexQuery<AtlasJanusVertex, AtlasJanusEdge> has(String key, AtlasGraphQuery.ComparisionOperator operator, Object value) {
+        query.has(key, JanusGraphPredicateUtils.convert(getCompare(operator)), value);
+        return this;
+    }
+
+    @Override
+    public AtlasVertexQuery<AtlasJanusVertex, AtlasJanusEdge> orderBy(String key, AtlasGraphQuery.SortOrder sortOrder) {
+        query.orderBy(key, sortOrder == AtlasGraphQuery.SortOrder.DESC ? Order.decr : Order.incr);
+        return this;
+    }
+
+    private static Compare getCompare(AtlasGraphQuery.ComparisionOperator operator) {
+        switch (operator) {
+            case EQUAL:
+                return Compare.eq;
+            case GREATER_THAN:
+                return Compare.gt;
+            case GREATER_THAN_EQUAL:
+                return Compare.gte;
+            case LESS_THAN:
+                return Compare.lt;
+            case LESS_THAN_EQUAL:
+                return Compare.lte;
+            case NOT_EQUAL:
+                return Compare.neq;
+
+            default:
+                throw new RuntimeException("Unsupported comparison operator:" + operator);
+        }
+    }
 }
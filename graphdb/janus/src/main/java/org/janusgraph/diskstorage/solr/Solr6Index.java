@@ -143,6 +143,26 @@ public class Solr6Index implements IndexProvider {
     private static Solr6Index instance = null;
     public static final ConfigOption<Boolean> CREATE_SOLR_CLIENT_PER_REQUEST = new ConfigOption(SOLR_NS, "create-client-per-request", "when false, allows the sharing of solr client across other components.", org.janusgraph.diskstorage.configuration.ConfigOption.Type.LOCAL, false);
 
+    public static final ConfigOption<Boolean> WRITE_BEHIND_ENABLED = new ConfigOption<>(SOLR_NS, "write-behind.enabled",
+            "when true, index updates of concurrent transactions are merged into larger Solr update requests",
+            ConfigOption.Type.LOCAL, false);
+
+    public static final ConfigOption<Integer> WRITE_BEHIND_BATCH_SIZE = new ConfigOption<>(SOLR_NS, "write-behind.batch-size",
+            "maximum number of documents in a Solr update request of the write-behind buffer",
+            ConfigOption.Type.LOCAL, 1000);
+
+    public static final ConfigOption<Integer> WRITE_BEHIND_FLUSH_INTERVAL_MS = new ConfigOption<>(SOLR_NS, "write-behind.flush-interval-ms",
+            "time, in milliseconds, index updates of transactions that don't wait for them can stay in the write-behind buffer",
+            ConfigOption.Type.LOCAL, 100);
+
+    public static final ConfigOption<Integer> WRITE_BEHIND_MAX_PENDING = new ConfigOption<>(SOLR_NS, "write-behind.max-pending",
+            "maximum number of documents in the write-behind buffer; transactions wait for updates to be sent beyond this",
+            ConfigOption.Type.LOCAL, 10000);
+
+    private static final long WRITE_BEHIND_CLOSE_TIMEOUT_MS = 30000;
+
+    private static final ThreadLocal<Boolean> ASYNC_WRITES = new ThreadLocal<>();
+
     public enum Mode {
         HTTP, CLOUD;
 
@@ -182,6 +202,7 @@ public class Solr6Index implements IndexProvider {
     private final int batchSize;
     private final boolean waitSearcher;
     private final boolean kerberosEnabled;
+    private final Solr6IndexWriteBuffer writeBuffer;
 
     public Solr6Index(final Configuration config) throws BackendException {
         // Add Kerberos-enabled SolrHttpClientBuilder
@@ -213,9 +234,40 @@ public class Solr6Index implements IndexProvider {
         } else {
             logger.info("Solr Client will be shared for direct interation with SOLR.");
         }
+        if (config.get(WRITE_BEHIND_ENABLED)) {
+            writeBuffer = new Solr6IndexWriteBuffer((collection, request) -> solrClient.request(request, collection), waitSearcher,
+                                                    config.get(WRITE_BEHIND_BATCH_SIZE), config.get(WRITE_BEHIND_FLUSH_INTERVAL_MS),
+                                                    config.get(WRITE_BEHIND_MAX_PENDING));
+
+            writeBuffer.start();
+        } else {
+            writeBuffer = null;
+        }
+
         Solr6Index.instance = this;
     }
 
+    /**
+     * Sets whether index updates of the transactions committed by the current thread can be sent to Solr after the
+     * commit returns, when write-behind is enabled. By default, commit waits for the updates to be sent.
+     */
+    public static void setAsyncWrites(boolean asyncWrites) {
+        if (asyncWrites) {
+            ASYNC_WRITES.set(Boolean.TRUE);
+        } else {
+            ASYNC_WRITES.remove();
+        }
+    }
+
+    /**
+     * @return statistics of the write-behind buffer; empty if write-behind is not enabled
+     */
+    public static Map<String, Number> getWriteBehindStats() {
+        Solr6Index solr6Index = Solr6Index.instance;
+
+        return (solr6Index != null && solr6Index.writeBuffer != null) ? solr6Index.writeBuffer.getStats() : Collections.emptyMap();
+    }
+
     public static Mode getSolrMode() {
         Solr6Index solr6Index = Solr6Index.instance;
         Mode       ret        = (solr6Index != null) ? Mode.parse(solr6Index.configuration.get(SOLR_MODE)) : null;
@@ -445,12 +497,15 @@ public class Solr6Index implements IndexProvider {
                        BaseTransaction tx) throws BackendException {
         logger.debug("Mutating SOLR");
         try {
+            final Solr6IndexWriteBuffer.Write write = writeBuffer != null ? new Solr6IndexWriteBuffer.Write() : null;
+
             for (final Map.Entry<String, Map<String, IndexMutation>> stores : mutations.entrySet()) {
                 final String collectionName = stores.getKey();
                 final String keyIdField = getKeyFieldId(collectionName);
 
                 final List<String> deleteIds = new ArrayList<>();
                 final Collection<SolrInputDocument> changes = new ArrayList<>();
+                final Collection<SolrInputDocument> removals = new ArrayList<>();
 
                 for (final Map.Entry<String, IndexMutation> entry : stores.getValue().entrySet()) {
                     final String docId = entry.getKey();
@@ -471,7 +526,13 @@ public class Solr6Index implements IndexProvider {
                                     fieldDeletions.remove(indexEntry);
                                 }
                             }
-                            handleRemovalsFromIndex(collectionName, keyIdField, docId, fieldDeletions, information);
+                            final SolrInputDocument removalsDoc = getRemovalsFromIndex(collectionName, keyIdField, docId, fieldDeletions, information);
+
+                            if (write != null) {
+                                removals.add(removalsDoc);
+                            } else {
+                                commitChanges(collectionName, Collections.singletonList(removalsDoc));
+                            }
                         }
                     }
 
@@ -505,19 +566,33 @@ public class Solr6Index implements IndexProvider {
                     }
                 }
 
-                commitDeletes(collectionName, deleteIds);
-                commitChanges(collectionName, changes);
+                if (write != null) { // in the order of requests sent below
+                    write.add(collectionName, keyIdField, removals);
+                    write.delete(collectionName, deleteIds);
+                    write.add(collectionName, keyIdField, changes);
+                } else {
+                    commitDeletes(collectionName, deleteIds);
+                    commitChanges(collectionName, changes);
+                }
+            }
+
+            if (write != null) {
+                writeBuffer.write(write, Boolean.TRUE.equals(ASYNC_WRITES.get()));
             }
         } catch (final IllegalArgumentException e) {
             throw new PermanentBackendException("Unable to complete query on Solr.", e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw storageException(e);
         } catch (final Exception e) {
             throw storageException(e);
         }
     }
 
-    private void handleRemovalsFromIndex(String collectionName, String keyIdField, String docId,
-                                         List<IndexEntry> fieldDeletions, KeyInformation.IndexRetriever information)
-            throws SolrServerException, IOException, BackendException {
+    private SolrInputDocument getRemovalsFromIndex(String collectionName, String keyIdField, String docId,
+                                                   List<IndexEntry> fieldDeletions, KeyInformation.IndexRetriever information)
+            throws BackendException {
         final Map<String, String> fieldDeletes = new HashMap<>(1);
         fieldDeletes.put("set", null);
         final SolrInputDocument doc = new SolrInputDocument();
@@ -540,10 +615,7 @@ public class Solr6Index implements IndexProvider {
             });
         }
 
-        final UpdateRequest singleDocument = newUpdateRequest();
-        singleDocument.add(doc);
-        solrClient.request(singleDocument, collectionName);
-
+        return doc;
     }
 
     private Object convertValue(Object value) throws BackendException {
@@ -566,8 +638,12 @@ public class Solr6Index implements IndexProvider {
     public void restore(Map<String, Map<String, List<IndexEntry>>> documents,
                         KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
         try {
+            // with the write buffer, restored documents are queued after - and so are not overwritten by - updates queued earlier
+            final Solr6IndexWriteBuffer.Write write = writeBuffer != null ? new Solr6IndexWriteBuffer.Write() : null;
+
             for (final Map.Entry<String, Map<String, List<IndexEntry>>> stores : documents.entrySet()) {
                 final String collectionName = stores.getKey();
+                final String keyIdField = getKeyFieldId(collectionName);
 
                 final List<String> deleteIds = new ArrayList<>();
                 final List<SolrInputDocument> newDocuments = new ArrayList<>();
@@ -584,14 +660,28 @@ public class Solr6Index implements IndexProvider {
                         continue;
                     }
                     final SolrInputDocument doc = new SolrInputDocument();
-                    doc.setField(getKeyFieldId(collectionName), docID);
+                    doc.setField(keyIdField, docID);
                     final Map<String, Object> adds = collectFieldValues(content, collectionName, information);
                     adds.forEach(doc::setField);
                     newDocuments.add(doc);
                 }
-                commitDeletes(collectionName, deleteIds);
-                commitChanges(collectionName, newDocuments);
+
+                if (write != null) {
+                    write.delete(collectionName, deleteIds);
+                    write.add(collectionName, keyIdField, newDocuments);
+                } else {
+                    commitDeletes(collectionName, deleteIds);
+                    commitChanges(collectionName, newDocuments);
+                }
+            }
+
+            if (write != null) {
+                writeBuffer.write(write, false);
             }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new TemporaryBackendException("Could not restore Solr index", e);
         } catch (final Exception e) {
             throw new TemporaryBackendException("Could not restore Solr index", e);
         }
@@ -645,6 +735,12 @@ public class Solr6Index implements IndexProvider {
         }
     }
 
+    private void flushWriteBuffer() throws InterruptedException, SolrServerException, IOException {
+        if (writeBuffer != null) {
+            writeBuffer.flush();
+        }
+    }
+
     private void commitDeletes(String collectionName, List<String> deleteIds) throws SolrServerException, IOException {
         if (deleteIds.size() == 0) return;
         solrClient.request(newUpdateRequest().deleteById(deleteIds), collectionName);
@@ -1001,7 +1097,15 @@ public class Solr6Index implements IndexProvider {
     public void close() throws BackendException {
         logger.trace("Shutting down connection to Solr", solrClient);
         try {
+            if (writeBuffer != null) {
+                writeBuffer.close(WRITE_BEHIND_CLOSE_TIMEOUT_MS);
+            }
+
             solrClient.close();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new TemporaryBackendException(e);
         } catch (final IOException e) {
             throw new TemporaryBackendException(e);
         }
@@ -1015,6 +1119,7 @@ public class Solr6Index implements IndexProvider {
                 return;
             }
             logger.debug("Clearing storage from Solr: {}", solrClient);
+            flushWriteBuffer();
             final ZkStateReader zkStateReader = ((CloudSolrClient) solrClient).getZkStateReader();
             zkStateReader.forciblyRefreshAllClusterStateSlow();
             final ClusterState clusterState = zkStateReader.getClusterState();
@@ -0,0 +1,458 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.janusgraph.diskstorage.solr;
+
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrInputDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Merges the index updates of concurrent transactions into larger Solr update requests. Updates are queued, and sent
+ * by a single thread, in the order they were queued: when batchSize documents are queued, when flushIntervalMs elapsed
+ * since the first one was queued, or right away when a transaction waits for its updates to be sent. Updates queued
+ * while a batch is sent are sent together in the next batch.
+ *
+ * Up to maxPending documents are queued; transactions wait for queued updates to be sent beyond that.
+ */
+class Solr6IndexWriteBuffer {
+    private static final Logger LOG = LoggerFactory.getLogger(Solr6IndexWriteBuffer.class);
+
+    private static final String FLUSHER_THREAD_NAME = "atlas-solr-index-writer";
+
+    interface Sender {
+        void send(String collection, UpdateRequest request) throws SolrServerException, IOException;
+    }
+
+    private final Sender            sender;
+    private final boolean           commit;
+    private final int               batchSize;
+    private final long              flushIntervalNanos;
+    private final int               maxPending;
+    private final Thread            flusher;
+    private final ReentrantLock     lock           = new ReentrantLock();
+    private final Condition         notEmpty       = lock.newCondition();
+    private final Condition         notFull        = lock.newCondition();
+    private final ArrayDeque<Write> pending        = new ArrayDeque<>();
+    private       int               pendingCount;
+    private       int               waitingCount;
+    private       boolean           closed;
+    private final AtomicLong        batchCount     = new AtomicLong();
+    private final AtomicLong        documentCount  = new AtomicLong();
+    private final AtomicLong        failedCount    = new AtomicLong();
+    private final AtomicLong        maxBatchSize   = new AtomicLong();
+    private final AtomicLong        flushTimeNanos = new AtomicLong();
+    private final AtomicLong        maxFlushNanos  = new AtomicLong();
+
+    /**
+     * @param commit when true, the updates of each batch are committed, with waitSearcher, before the batch is complete
+     */
+    Solr6IndexWriteBuffer(Sender sender, boolean commit, int batchSize, long flushIntervalMs, int maxPending) {
+        this.sender             = sender;
+        this.commit             = commit;
+        this.batchSize          = Math.max(batchSize, 1);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(flushIntervalMs, 0));
+        this.maxPending         = Math.max(maxPending, this.batchSize);
+        this.flusher            = new Thread(this::flushPending, FLUSHER_THREAD_NAME);
+
+        flusher.setDaemon(true);
+    }
+
+    void start() {
+        flusher.start();
+
+        LOG.info("Solr6IndexWriteBuffer: started; batchSize={}, flushIntervalMs={}, maxPending={}", batchSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos), maxPending);
+    }
+
+    /**
+     * Queues the updates of a transaction.
+     *
+     * @param async when false, waits for the updates to be sent to Solr - and fails if they could not be sent; when
+     *              true, returns once the updates are queued, and failures are only logged
+     */
+    void write(Write write, boolean async) throws InterruptedException, SolrServerException, IOException {
+        if (async && write.operations.isEmpty()) {
+            return;
+        }
+
+        lock.lock();
+
+        try {
+            while (!closed && pendingCount > 0 && pendingCount + write.operations.size() > maxPending) {
+                notFull.await();
+            }
+
+            if (closed) {
+                throw new IOException("Solr index write buffer is closed");
+            }
+
+            write.async       = async;
+            write.queuedNanos = System.nanoTime();
+
+            pending.add(write);
+
+            pendingCount += write.operations.size();
+
+            if (!async) {
+                waitingCount++;
+            }
+
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!async) {
+            awaitResult(write);
+        }
+    }
+
+    /**
+     * Waits for the updates queued until now to be sent
+     */
+    void flush() throws InterruptedException, SolrServerException, IOException {
+        write(new Write(), false);
+    }
+
+    /**
+     * Sends the queued updates, waiting up to timeoutMs for them to be sent; updates not sent by then are discarded.
+     */
+    void close(long timeoutMs) throws InterruptedException {
+        lock.lock();
+
+        try {
+            closed = true;
+
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        flusher.join(timeoutMs);
+
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+            flusher.join(timeoutMs);
+        }
+
+        LOG.info("Solr6IndexWriteBuffer: closed; {}", getStats());
+    }
+
+    Map<String, Number> getStats() {
+        Map<String, Number> ret = new LinkedHashMap<>();
+
+        long batches   = batchCount.get();
+        long documents = documentCount.get();
+
+        ret.put("batches", batches);
+        ret.put("documents", documents);
+        ret.put("failedDocuments", failedCount.get());
+        ret.put("pendingDocuments", getPendingCount());
+        ret.put("avgBatchSize", batches > 0 ? documents / batches : 0);
+        ret.put("maxBatchSize", maxBatchSize.get());
+        ret.put("avgFlushTimeMs", batches > 0 ? TimeUnit.NANOSECONDS.toMillis(flushTimeNanos.get() / batches) : 0);
+        ret.put("maxFlushTimeMs", TimeUnit.NANOSECONDS.toMillis(maxFlushNanos.get()));
+
+        return ret;
+    }
+
+    private int getPendingCount() {
+        lock.lock();
+
+        try {
+            return pendingCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        try {
+            for (List<Write> batch = takeBatch(); batch != null; batch = takeBatch()) {
+                flush(batch);
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("Solr6IndexWriteBuffer: interrupted");
+        } finally {
+            List<Write> discarded;
+
+            lock.lock();
+
+            try {
+                closed    = true;
+                discarded = new ArrayList<>(pending);
+
+                pending.clear();
+
+                pendingCount = 0;
+
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            for (Write write : discarded) {
+                fail(write, new IOException("Solr index write buffer is closed"));
+            }
+        }
+    }
+
+    private List<Write> takeBatch() throws InterruptedException {
+        lock.lock();
+
+        try {
+            while (pending.isEmpty()) {
+                if (closed) {
+                    return null;
+                }
+
+                notEmpty.await();
+            }
+
+            // wait for more updates, unless a transaction waits for its updates to be sent
+            while (!closed && waitingCount == 0 && pendingCount < batchSize) {
+                long waitNanos = pending.peek().queuedNanos + flushIntervalNanos - System.nanoTime();
+
+                if (waitNanos <= 0) {
+                    break;
+                }
+
+                notEmpty.awaitNanos(waitNanos);
+            }
+
+            List<Write> ret   = new ArrayList<>();
+            int         count = 0;
+
+            while (!pending.isEmpty() && (ret.isEmpty() || count + pending.peek().operations.size() <= batchSize)) {
+                Write write = pending.poll();
+
+                ret.add(write);
+
+                count += write.operations.size();
+
+                if (!write.async) {
+                    waitingCount--;
+                }
+            }
+
+            pendingCount -= count;
+
+            notFull.signalAll();
+
+            return ret;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush(List<Write> batch) {
+        long startNanos = System.nanoTime();
+        int  count      = 0;
+
+        for (Write write : batch) {
+            count += write.operations.size();
+        }
+
+        Map<Write, Exception> failures = new IdentityHashMap<>();
+
+        try {
+            send(batch);
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                failures.put(batch.get(0), e);
+            } else { // so that a bad update fails only its own transaction
+                LOG.warn("Solr6IndexWriteBuffer: failed to send batch of {} documents; sending updates of {} transactions separately", count, batch.size(), e);
+
+                for (Write write : batch) {
+                    try {
+                        send(Collections.singletonList(write));
+                    } catch (Exception excp) {
+                        failures.put(write, excp);
+                    }
+                }
+            }
+        }
+
+        long flushNanos = System.nanoTime() - startNanos;
+
+        if (count > 0) {
+            batchCount.incrementAndGet();
+            documentCount.addAndGet(count);
+            flushTimeNanos.addAndGet(flushNanos);
+            maxBatchSize.accumulateAndGet(count, Math::max);
+            maxFlushNanos.accumulateAndGet(flushNanos, Math::max);
+        }
+
+        for (Write write : batch) {
+            Exception excp = failures.get(write);
+
+            if (excp == null) {
+                write.result.complete(null);
+            } else {
+                fail(write, excp);
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Solr6IndexWriteBuffer: sent {} documents of {} transactions in {} ms", count, batch.size(), TimeUnit.NANOSECONDS.toMillis(flushNanos));
+        }
+    }
+
+    // updates are sent in order; consecutive adds, or deletes, of a collection are sent in one request
+    private void send(List<Write> writes) throws SolrServerException, IOException {
+        List<Request> requests = new ArrayList<>();
+        Request       request  = null;
+
+        for (Write write : writes) {
+            for (Operation operation : write.operations) {
+                boolean isDelete = operation.document == null;
+
+                if (request == null || request.isDelete != isDelete || !request.collection.equals(operation.collection)) {
+                    request = new Request(operation.collection, isDelete);
+
+                    requests.add(request);
+                }
+
+                if (isDelete) {
+                    request.updateRequest.deleteById(operation.docId);
+                } else {
+                    request.updateRequest.add(operation.document);
+                }
+            }
+        }
+
+        if (commit) { // commit once per collection, with the last request of the collection
+            Set<String> collections = new HashSet<>();
+
+            for (int i = requests.size() - 1; i >= 0; i--) {
+                Request req = requests.get(i);
+
+                if (collections.add(req.collection)) {
+                    req.updateRequest.setAction(UpdateRequest.ACTION.COMMIT, true, true);
+                }
+            }
+        }
+
+        for (Request req : requests) {
+            sender.send(req.collection, req.updateRequest);
+        }
+    }
+
+    private void fail(Write write, Exception excp) {
+        failedCount.addAndGet(write.operations.size());
+
+        if (write.async) { // no transaction waits for the result
+            List<String> docIds = new ArrayList<>(write.operations.size());
+
+            for (Operation operation : write.operations) {
+                docIds.add(operation.collection + "/" + operation.docId);
+            }
+
+            LOG.error("Solr6IndexWriteBuffer: failed to write {} documents to index: {}", docIds.size(), docIds, excp);
+        }
+
+        write.result.completeExceptionally(excp);
+    }
+
+    private static void awaitResult(Write write) throws InterruptedException, SolrServerException, IOException {
+        try {
+            write.result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof SolrServerException) {
+                throw (SolrServerException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Index updates of a transaction
+     */
+    static class Write {
+        private final List<Operation>         operations = new ArrayList<>();
+        private final CompletableFuture<Void> result     = new CompletableFuture<>();
+        private       boolean                 async;
+        private       long                    queuedNanos;
+
+        void add(String collection, String keyIdField, Collection<SolrInputDocument> documents) {
+            for (SolrInputDocument document : documents) {
+                operations.add(new Operation(collection, String.valueOf(document.getFieldValue(keyIdField)), document));
+            }
+        }
+
+        void delete(String collection, Collection<String> docIds) {
+            for (String docId : docIds) {
+                operations.add(new Operation(collection, docId, null));
+            }
+        }
+
+        int size() {
+            return operations.size();
+        }
+    }
+
+    private static class Operation {
+        private final String            collection;
+        private final String            docId;
+        private final SolrInputDocument document; // null for delete
+
+        Operation(String collection, String docId, SolrInputDocument document) {
+            this.collection = collection;
+            this.docId      = docId;
+            this.document   = document;
+        }
+    }
+
+    private static class Request {
+        private final String        collection;
+        private final boolean       isDelete;
+        private final UpdateRequest updateRequest = new UpdateRequest();
+
+        Request(String collection, boolean isDelete) {
+            this.collection = collection;
+            this.isDelete   = isDelete;
+        }
+    }
+}
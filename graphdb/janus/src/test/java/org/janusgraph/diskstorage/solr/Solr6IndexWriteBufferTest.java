@@ -0,0 +1,272 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.janusgraph.diskstorage.solr;
+
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrInputDocument;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class Solr6IndexWriteBufferTest {
+    private static final String ID_FIELD   = "id";
+    private static final String COLLECTION = "vertex_index";
+
+    @Test
+    public void mergesWritesOfConcurrentTransactions() throws Exception {
+        RecordingSender       sender  = new RecordingSender();
+        Solr6IndexWriteBuffer buffer  = new Solr6IndexWriteBuffer(sender, false, 100, 60000, 1000);
+        ExecutorService       writers = Executors.newFixedThreadPool(10);
+
+        buffer.start();
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+
+            for (int i = 0; i < 10; i++) {
+                String docId = "doc" + i;
+
+                results.add(writers.submit(() -> { buffer.write(addWrite(docId), true); return null; }));
+            }
+
+            for (Future<?> result : results) {
+                result.get();
+            }
+
+            buffer.flush();
+
+            assertEquals(sender.getDocumentCount(), 10);
+            assertTrue(sender.requests.size() < 10, "writes of transactions are not merged: " + sender.requests.size() + " requests");
+            assertEquals(buffer.getStats().get("documents"), 10L);
+            assertEquals(buffer.getStats().get("pendingDocuments"), 0);
+        } finally {
+            writers.shutdownNow();
+            buffer.close(1000);
+        }
+    }
+
+    @Test
+    public void keepsOrderOfAddsAndDeletes() throws Exception {
+        RecordingSender       sender = new RecordingSender();
+        Solr6IndexWriteBuffer buffer = new Solr6IndexWriteBuffer(sender, true, 100, 60000, 1000);
+
+        buffer.start();
+
+        try {
+            Solr6IndexWriteBuffer.Write delete = new Solr6IndexWriteBuffer.Write();
+
+            delete.delete(COLLECTION, Collections.singletonList("doc1"));
+
+            buffer.write(addWrite("doc1"), true);
+            buffer.write(delete, true);
+            buffer.write(addWrite("doc1", "doc2"), false);
+
+            assertEquals(sender.requests.size(), 3);
+            assertEquals(sender.requests.get(0).getDocuments().size(), 1);
+            assertEquals(sender.requests.get(1).getDeleteById(), Collections.singletonList("doc1"));
+            assertEquals(sender.requests.get(2).getDocuments().size(), 2);
+
+            // only the last request of the collection commits
+            assertNull(sender.requests.get(0).getAction());
+            assertNull(sender.requests.get(1).getAction());
+            assertEquals(sender.requests.get(2).getAction(), UpdateRequest.ACTION.COMMIT);
+        } finally {
+            buffer.close(1000);
+        }
+    }
+
+    @Test
+    public void failsOnlyTransactionOfBadUpdate() throws Exception {
+        RecordingSender       sender  = new RecordingSender();
+        Solr6IndexWriteBuffer buffer  = new Solr6IndexWriteBuffer(sender, false, 100, 60000, 1000);
+        CountDownLatch        blocked = sender.block();
+
+        sender.failOn = "bad";
+
+        buffer.start();
+
+        ExecutorService writers = Executors.newFixedThreadPool(3);
+
+        try {
+            Future<?> first = writers.submit(() -> { buffer.write(addWrite("first"), false); return null; });
+
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+
+            // queued while the first batch is sent; sent together in the next batch
+            Future<?> good = writers.submit(() -> { buffer.write(addWrite("good"), false); return null; });
+            Future<?> bad  = writers.submit(() -> { buffer.write(addWrite("bad"), false); return null; });
+
+            while ((Integer) buffer.getStats().get("pendingDocuments") < 2) {
+                Thread.sleep(10);
+            }
+
+            sender.unblock();
+
+            first.get(10, TimeUnit.SECONDS);
+            good.get(10, TimeUnit.SECONDS);
+
+            try {
+                bad.get(10, TimeUnit.SECONDS);
+
+                fail("write of bad document should fail");
+            } catch (Exception excp) {
+                assertTrue(excp.getCause() instanceof IOException, "unexpected exception: " + excp);
+            }
+
+            assertEquals(buffer.getStats().get("failedDocuments"), 1L);
+        } finally {
+            writers.shutdownNow();
+            buffer.close(1000);
+        }
+    }
+
+    @Test
+    public void limitsPendingDocuments() throws Exception {
+        RecordingSender       sender  = new RecordingSender();
+        Solr6IndexWriteBuffer buffer  = new Solr6IndexWriteBuffer(sender, false, 2, 60000, 2);
+        CountDownLatch        blocked = sender.block();
+
+        buffer.start();
+
+        ExecutorService writers = Executors.newSingleThreadExecutor();
+
+        try {
+            buffer.write(addWrite("doc1", "doc2"), true);
+
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+
+            buffer.write(addWrite("doc3", "doc4"), true);
+
+            Future<?> full = writers.submit(() -> { buffer.write(addWrite("doc5"), true); return null; });
+
+            Thread.sleep(200);
+
+            assertFalse(full.isDone(), "write should wait while the buffer is full");
+
+            sender.unblock();
+
+            full.get(10, TimeUnit.SECONDS);
+
+            buffer.flush();
+
+            assertEquals(sender.getDocumentCount(), 5);
+            assertEquals(buffer.getStats().get("maxBatchSize"), 2L);
+        } finally {
+            writers.shutdownNow();
+            buffer.close(1000);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void writeAfterClose() throws Exception {
+        Solr6IndexWriteBuffer buffer = new Solr6IndexWriteBuffer(new RecordingSender(), false, 100, 100, 1000);
+
+        buffer.start();
+        buffer.close(1000);
+
+        buffer.write(addWrite("doc1"), true);
+    }
+
+    private static Solr6IndexWriteBuffer.Write addWrite(String... docIds) {
+        Solr6IndexWriteBuffer.Write ret  = new Solr6IndexWriteBuffer.Write();
+        List<SolrInputDocument>     docs = new ArrayList<>();
+
+        for (String docId : docIds) {
+            SolrInputDocument doc = new SolrInputDocument();
+
+            doc.setField(ID_FIELD, docId);
+
+            docs.add(doc);
+        }
+
+        ret.add(COLLECTION, ID_FIELD, docs);
+
+        return ret;
+    }
+
+    private static class RecordingSender implements Solr6IndexWriteBuffer.Sender {
+        private final List<UpdateRequest> requests = Collections.synchronizedList(new ArrayList<>());
+        private volatile String           failOn;
+        private volatile CountDownLatch   blocked;
+        private final CountDownLatch      unblocked = new CountDownLatch(1);
+
+        @Override
+        public void send(String collection, UpdateRequest request) throws SolrServerException, IOException {
+            CountDownLatch blocked = this.blocked;
+
+            if (blocked != null) {
+                this.blocked = null;
+
+                blocked.countDown();
+
+                try {
+                    unblocked.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            if (failOn != null && request.getDocuments() != null) {
+                for (SolrInputDocument doc : request.getDocuments()) {
+                    if (failOn.equals(doc.getFieldValue(ID_FIELD))) {
+                        throw new IOException("bad document: " + failOn);
+                    }
+                }
+            }
+
+            requests.add(request);
+        }
+
+        CountDownLatch block() {
+            blocked = new CountDownLatch(1);
+
+            return blocked;
+        }
+
+        void unblock() {
+            unblocked.countDown();
+        }
+
+        int getDocumentCount() {
+            int ret = 0;
+
+            synchronized (requests) {
+                for (UpdateRequest request : requests) {
+                    ret += request.getDocuments() != null ? request.getDocuments().size() : 0;
+                }
+            }
+
+            return ret;
+        }
+    }
+}
@@ -50,6 +50,7 @@ public enum AtlasConfiguration {
     NOTIFICATION_FIXED_BUFFER_ITEMS_INCREMENT_COUNT("atlas.notification.fixed.buffer.items.increment.count", 10),
 
     NOTIFICATION_CREATE_SHELL_ENTITY_FOR_NON_EXISTING_REF("atlas.notification.consumer.create.shell.entity.for.non-existing.ref", true),
+    NOTIFICATION_CONSUMER_ASYNC_INDEX_WRITES("atlas.notification.consumer.index.writes.async", false), // applies when atlas.graph.index.search.solr.write-behind.enabled=true
     REST_API_CREATE_SHELL_ENTITY_FOR_NON_EXISTING_REF("atlas.rest.create.shell.entity.for.non-existing.ref", false),
 
     GRAPHSTORE_INDEXED_STRING_SAFE_LENGTH("atlas.graphstore.indexed.string.safe.length", Short.MAX_VALUE),  // based on org.apache.hadoop.hbase.client.Mutation.checkRow()
@@ -59,9 +60,26 @@ public enum AtlasConfiguration {
 
     CLASSIFICATION_PROPAGATION_DEFAULT("atlas.classification.propagation.default", true),
 
+    //deferred tasks configuration
+    TASKS_USE_ENABLED("atlas.tasks.enabled", false),
+    TASKS_WORKER_COUNT("atlas.tasks.worker.count", 4),
+    TASKS_MAX_ATTEMPTS("atlas.tasks.max.attempts", 3),
+    TASKS_RETRY_DELAY_MS("atlas.tasks.retry.delay.ms", 30 * 1000), // doubled for each attempt after the first
+    TASKS_PROPAGATION_BATCH_SIZE("atlas.tasks.propagation.batch.size", 200),
+
+    //metrics configuration
+    METRICS_ENTITY_COUNT_INCREMENTAL_ENABLED("atlas.metrics.entity.count.incremental.enabled", true),
+    METRICS_ENTITY_COUNT_RECONCILE_INTERVAL_SECONDS("atlas.metrics.entity.count.reconcile.interval.seconds", 15 * 60),
+
+    //entity retrieval configuration
+    ENTITY_RETRIEVER_PREFETCH_ENABLED("atlas.entity.retriever.prefetch.enabled", true),
+    ENTITY_RETRIEVER_PREFETCH_BATCH_SIZE("atlas.entity.retriever.prefetch.batch.size", 500),
+    ENTITY_RETRIEVER_PREFETCH_MAX_VERTICES("atlas.entity.retriever.prefetch.max.vertices", 10000),
+
     //search configuration
     SEARCH_MAX_LIMIT("atlas.search.maxlimit", 10000),
     SEARCH_DEFAULT_LIMIT("atlas.search.defaultlimit", 100),
+    SEARCH_PREFETCH_THREADS("atlas.search.prefetch.threads", 4), // 0: don't prefetch index query pages of basic search
 
     CUSTOM_ATTRIBUTE_KEY_MAX_LENGTH("atlas.custom.attribute.key.max.length", 50),
     CUSTOM_ATTRIBUTE_VALUE_MAX_LENGTH("atlas.custom.attribute.value.max.length", 500),
@@ -70,11 +88,32 @@ public enum AtlasConfiguration {
     LABEL_MAX_LENGTH("atlas.entity.label.max.length", 50),
     IMPORT_TEMP_DIRECTORY("atlas.import.temp.directory", ""),
     MIGRATION_IMPORT_START_POSITION("atlas.migration.import.start.position", 0),
+    IMPORT_PARSE_THREADS("atlas.import.parse.threads", 4), // 1: parse zipDirect entities in the import request thread
+    EXPORT_FETCH_THREADS("atlas.export.fetch.threads", 4), // 1: fetch entities in the export request thread
+    EXPORT_FETCH_BATCH_SIZE("atlas.export.fetch.batch.size", 100),
+    IMPEXP_GUID_INDEX_MEMORY_MB("atlas.impexp.guid.index.memory.mb", 128), // shared by all guid indexes; beyond it, pages are memory-mapped from temporary files
+    GLOSSARY_IMPORT_THREADS("atlas.glossary.import.threads", 4),
+    GLOSSARY_IMPORT_BATCH_SIZE("atlas.glossary.import.batch.size", 100), // terms or relationships written in a transaction
     LINEAGE_USING_GREMLIN("atlas.lineage.query.use.gremlin", false),
+    LINEAGE_CACHE_ENABLED("atlas.lineage.cache.enabled", true),
+    LINEAGE_CACHE_MAX_SIZE_MB("atlas.lineage.cache.max.size.mb", 64),
+    LINEAGE_CACHE_TTL_SECONDS("atlas.lineage.cache.ttl.seconds", 60 * 60),
+    DSL_QUERY_CACHE_ENABLED("atlas.search.dsl.cache.enabled", true),
+    DSL_QUERY_CACHE_MAX_ENTRIES("atlas.search.dsl.cache.max.entries", 1000),
+    DSL_RESULT_CACHE_TTL_SECONDS("atlas.search.dsl.result.cache.ttl.seconds", 0), // 0: don't cache DSL search results
+    DSL_RESULT_CACHE_MAX_ENTRIES("atlas.search.dsl.result.cache.max.entries", 100),
 
     HTTP_HEADER_SERVER_VALUE("atlas.http.header.server.value","Apache Atlas"),
     STORAGE_CONSISTENCY_LOCK_ENABLED("atlas.graph.storage.consistency-lock.enabled", true),
-    REBUILD_INDEX("atlas.rebuild.index", false);
+    GRAPH_OBJECT_LOCK_TIMEOUT_MS("atlas.graph.object.lock.timeout.ms", 0), // 0: wait indefinitely for entity locks
+    REBUILD_INDEX("atlas.rebuild.index", false),
+
+    //online reindex configuration
+    REINDEX_WORKER_COUNT("atlas.reindex.worker.count", 4),
+    REINDEX_BATCH_SIZE("atlas.reindex.batch.size", 200), // elements in a range; each range is reindexed in a transaction
+    REINDEX_MAX_ELEMENTS_PER_SECOND("atlas.reindex.max.elements.per.second", 0), // 0: don't throttle
+    REINDEX_CHECKPOINT_INTERVAL_MS("atlas.reindex.checkpoint.interval.ms", 30 * 1000),
+    REINDEX_RECHECK_MARGIN_MS("atlas.reindex.recheck.margin.ms", 60 * 1000);
 
     private static final Configuration APPLICATION_PROPERTIES;
 
@@ -170,6 +170,10 @@ public enum AtlasErrorCode {
     INVALID_FILE_TYPE(400, "ATLAS-400-00-098", "The provided file type {0} is not supported."),
     INVALID_BUSINESS_ATTRIBUTES_IMPORT_DATA(400, "ATLAS-400-00-099","The uploaded file was not processed due to following errors : {0}"),
     ATTRIBUTE_NAME_INVALID_CHARS(400, "ATLAS-400-00-09A", "{0}: invalid name. Attribute names must begin with a letter followed by a sequence of letters, numbers, or '_' characters"),
+    TASK_STATUS_NOT_APPLICABLE(400, "ATLAS-400-00-09B", "Task {0} is in status {1}; operation {2} is not applicable"),
+    INVALID_CONTINUATION_TOKEN(400, "ATLAS-400-00-09C", "Invalid continuation token: {0}. Continuation token must be from the previous page of results of the same search"),
+    INVALID_REINDEX_INDEX_NAME(400, "ATLAS-400-00-09D", "Invalid index name {0} for reindex. Valid index names: {1}"),
+    REINDEX_NOT_RESUMABLE(400, "ATLAS-400-00-09E", "Reindex with status {0} cannot be resumed. Only a stopped or failed reindex can be resumed"),
     UNAUTHORIZED_ACCESS(403, "ATLAS-403-00-001", "{0} is not authorized to perform {1}"),
 
     // All Not found enums go here
@@ -195,6 +199,7 @@ public enum AtlasErrorCode {
     NO_DATA_FOUND(404, "ATLAS-404-00-014", "No data found in the uploaded file"),
     FILE_NAME_NOT_FOUND(404, "ATLAS-404-00-015", "File name should not be blank"),
     NO_TYPE_NAME_ON_VERTEX(404, "ATLAS-404-00-016", "No typename found for given entity with guid: {0}"),
+    TASK_NOT_FOUND(404, "ATLAS-404-00-017", "Given task guid {0} is invalid/not found"),
 
     // All data conflict errors go here
     TYPE_ALREADY_EXISTS(409, "ATLAS-409-00-001", "Given type {0} already exists"),
@@ -206,6 +211,8 @@ public enum AtlasErrorCode {
     GLOSSARY_ALREADY_EXISTS(409, "ATLAS-409-00-007", "Glossary with qualifiedName {0} already exists"),
     GLOSSARY_TERM_ALREADY_EXISTS(409, "ATLAS-409-00-009", "Glossary term with qualifiedName {0} already exists"),
     GLOSSARY_CATEGORY_ALREADY_EXISTS(409, "ATLAS-409-00-00A", "Glossary category with qualifiedName {0} already exists"),
+    FAILED_TO_OBTAIN_ENTITY_LOCK(409, "ATLAS-409-00-00B", "Failed to get the lock on entity {0}; another update of the entity might be in progress. Please try again"),
+    REINDEX_IN_PROGRESS(409, "ATLAS-409-00-00C", "Reindex is in progress, started at {0}. Stop it before starting another reindex"),
 
     // All internal errors go here
     INTERNAL_ERROR(500, "ATLAS-500-00-001", "Internal server error {0}"),
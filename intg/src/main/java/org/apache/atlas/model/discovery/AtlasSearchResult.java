@@ -53,6 +53,7 @@ public class AtlasSearchResult implements Serializable {
     private List<AtlasFullTextResult>      fullTextResult;
     private Map<String, AtlasEntityHeader> referredEntities;
     private long                           approximateCount = -1;
+    private String                         continuationToken;
 
     public AtlasSearchResult() {}
 
@@ -131,6 +132,13 @@ public class AtlasSearchResult implements Serializable {
 
     public void setApproximateCount(long approximateCount) { this.approximateCount = approximateCount; }
 
+    /**
+     * @return token to retrieve the next page of results with; null when there are no more results
+     */
+    public String getContinuationToken() { return continuationToken; }
+
+    public void setContinuationToken(String continuationToken) { this.continuationToken = continuationToken; }
+
     @Override
     public int hashCode() { return Objects.hash(queryType, searchParameters, queryText, type, classification, entities, attributes, fullTextResult, referredEntities); }
 
@@ -190,6 +198,7 @@ public class AtlasSearchResult implements Serializable {
                 ", fullTextResult=" + fullTextResult +
                 ", referredEntities=" + referredEntities +
                 ", approximateCount=" + approximateCount +
+                ", continuationToken=" + continuationToken +
                 '}';
     }
 
@@ -52,6 +52,7 @@ public class SearchParameters implements Serializable {
     private boolean includeSubClassifications       = true;
     private int     limit;
     private int     offset;
+    private String  continuationToken;
 
     private FilterCriteria entityFilters;
     private FilterCriteria tagFilters;
@@ -215,6 +216,21 @@ public class SearchParameters implements Serializable {
         this.offset = offset;
     }
 
+    /**
+     * @return Continuation token, from the previous page of results
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    /**
+     * Continue from the previous page of results; offset is ignored when specified
+     * @param continuationToken continuationToken of the previous page of results
+     */
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
     /**
      * Entity attribute filters for the type (if type name is specified)
      * @return
@@ -296,6 +312,7 @@ public class SearchParameters implements Serializable {
                 includeClassificationAttributes == that.includeClassificationAttributes &&
                 limit == that.limit &&
                 offset == that.offset &&
+                Objects.equals(continuationToken, that.continuationToken) &&
                 Objects.equals(query, that.query) &&
                 Objects.equals(typeName, that.typeName) &&
                 Objects.equals(classification, that.classification) &&
@@ -310,7 +327,7 @@ public class SearchParameters implements Serializable {
     @Override
     public int hashCode() {
         return Objects.hash(query, typeName, classification, termName, excludeDeletedEntities, includeClassificationAttributes,
-                            limit, offset, entityFilters, tagFilters, attributes, sortBy, sortOrder);
+                            limit, offset, continuationToken, entityFilters, tagFilters, attributes, sortBy, sortOrder);
     }
 
     public StringBuilder toString(StringBuilder sb) {
@@ -327,6 +344,7 @@ public class SearchParameters implements Serializable {
         sb.append(", includeClassificationAttributes=").append(includeClassificationAttributes);
         sb.append(", limit=").append(limit);
         sb.append(", offset=").append(offset);
+        sb.append(", continuationToken=").append(continuationToken);
         sb.append(", entityFilters=").append(entityFilters);
         sb.append(", tagFilters=").append(tagFilters);
         sb.append(", attributes=").append(attributes);
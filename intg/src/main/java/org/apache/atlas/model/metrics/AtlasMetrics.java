@@ -39,6 +39,10 @@ public class AtlasMetrics {
     public static final String PREFIX_CONNECTION_STATUS = "ConnectionStatus:";
     public static final String PREFIX_NOTIFICATION      = "Notification:";
     public static final String PREFIX_SERVER            = "Server:";
+    public static final String PREFIX_LINEAGE_CACHE     = "LineageCache:";
+    public static final String PREFIX_DSL_CACHE         = "DSLCache:";
+    public static final String PREFIX_ENTITY_LOCK       = "EntityLock:";
+    public static final String PREFIX_INDEX_WRITE       = "IndexWriteBuffer:";
 
     public static final String STAT_NOTIFY_COUNT_CURR_DAY              = PREFIX_NOTIFICATION + "currentDay";
     public static final String STAT_NOTIFY_AVG_TIME_CURR_DAY           = PREFIX_NOTIFICATION + "currentDayAvgTime";
@@ -79,6 +83,24 @@ public class AtlasMetrics {
     public static final String STAT_SERVER_STATUS_BACKEND_STORE        = PREFIX_SERVER + "statusBackendStore";
     public static final String STAT_SERVER_STATUS_INDEX_STORE          = PREFIX_SERVER + "statusIndexStore";
     public static final String STAT_SERVER_UP_TIME                     = PREFIX_SERVER + "upTime";
+    public static final String STAT_LINEAGE_CACHE_HITS                 = PREFIX_LINEAGE_CACHE + "hits";
+    public static final String STAT_LINEAGE_CACHE_MISSES               = PREFIX_LINEAGE_CACHE + "misses";
+    public static final String STAT_LINEAGE_CACHE_EVICTIONS            = PREFIX_LINEAGE_CACHE + "evictions";
+    public static final String STAT_LINEAGE_CACHE_INVALIDATIONS        = PREFIX_LINEAGE_CACHE + "invalidations";
+    public static final String STAT_LINEAGE_CACHE_ENTRIES              = PREFIX_LINEAGE_CACHE + "entries";
+    public static final String STAT_LINEAGE_CACHE_SIZE_BYTES           = PREFIX_LINEAGE_CACHE + "sizeBytes";
+    public static final String STAT_DSL_CACHE_QUERY_HITS               = PREFIX_DSL_CACHE + "queryHits";
+    public static final String STAT_DSL_CACHE_QUERY_MISSES             = PREFIX_DSL_CACHE + "queryMisses";
+    public static final String STAT_DSL_CACHE_QUERY_HIT_RATE           = PREFIX_DSL_CACHE + "queryHitRate";
+    public static final String STAT_DSL_CACHE_RESULT_HITS              = PREFIX_DSL_CACHE + "resultHits";
+    public static final String STAT_DSL_CACHE_RESULT_MISSES            = PREFIX_DSL_CACHE + "resultMisses";
+    public static final String STAT_DSL_CACHE_RESULT_HIT_RATE          = PREFIX_DSL_CACHE + "resultHitRate";
+    public static final String STAT_DSL_CACHE_INVALIDATIONS            = PREFIX_DSL_CACHE + "invalidations";
+    public static final String STAT_ENTITY_LOCK_ACQUIRED               = PREFIX_ENTITY_LOCK + "acquired";
+    public static final String STAT_ENTITY_LOCK_CONTENDED              = PREFIX_ENTITY_LOCK + "contended";
+    public static final String STAT_ENTITY_LOCK_TIMEOUTS               = PREFIX_ENTITY_LOCK + "timeouts";
+    public static final String STAT_ENTITY_LOCK_WAIT_TIME_MS           = PREFIX_ENTITY_LOCK + "waitTimeMs";
+    public static final String STAT_ENTITY_LOCK_ACTIVE                 = PREFIX_ENTITY_LOCK + "active";
 
     private Map<String, Map<String, Object>> data;
 
@@ -0,0 +1,253 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.model.reindex;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+/**
+ * Progress of an online reindex of the graph indexes, and the checkpoint it resumes from: the id of the last element,
+ * in scan order, up to which all elements have been reindexed.
+ */
+@JsonAutoDetect(getterVisibility = PUBLIC_ONLY, setterVisibility = PUBLIC_ONLY, fieldVisibility = NONE)
+@JsonSerialize(include = JsonSerialize.Inclusion.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@XmlRootElement
+@XmlAccessorType(XmlAccessType.PROPERTY)
+public class AtlasReindexStatus implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Status { NOT_STARTED, RUNNING, STOPPING, STOPPED, COMPLETE, FAILED }
+
+    public enum ElementType { VERTEX, EDGE }
+
+    private Status       status = Status.NOT_STARTED;
+    private List<String> indexNames;
+    private String       startedBy;
+    private long         startTime;
+    private long         endTime;
+    private long         updatedTime;
+    private int          maxElementsPerSecond;
+    private ElementType  phase;
+    private long         scannedCount;
+    private long         processedCount;
+    private long         failedCount;
+    private long         elementsPerSecond;
+    private ElementType  checkpointPhase;
+    private String       checkpointId;
+    private long         checkpointCount;
+    private String       errorMessage;
+
+    public AtlasReindexStatus() { }
+
+    public AtlasReindexStatus(AtlasReindexStatus other) {
+        if (other != null) {
+            this.status               = other.status;
+            this.indexNames           = other.indexNames != null ? new ArrayList<>(other.indexNames) : null;
+            this.startedBy            = other.startedBy;
+            this.startTime            = other.startTime;
+            this.endTime              = other.endTime;
+            this.updatedTime          = other.updatedTime;
+            this.maxElementsPerSecond = other.maxElementsPerSecond;
+            this.phase                = other.phase;
+            this.scannedCount         = other.scannedCount;
+            this.processedCount       = other.processedCount;
+            this.failedCount          = other.failedCount;
+            this.elementsPerSecond    = other.elementsPerSecond;
+            this.checkpointPhase      = other.checkpointPhase;
+            this.checkpointId         = other.checkpointId;
+            this.checkpointCount      = other.checkpointCount;
+            this.errorMessage         = other.errorMessage;
+        }
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public List<String> getIndexNames() {
+        return indexNames;
+    }
+
+    public void setIndexNames(List<String> indexNames) {
+        this.indexNames = indexNames;
+    }
+
+    public String getStartedBy() {
+        return startedBy;
+    }
+
+    public void setStartedBy(String startedBy) {
+        this.startedBy = startedBy;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    public long getUpdatedTime() {
+        return updatedTime;
+    }
+
+    public void setUpdatedTime(long updatedTime) {
+        this.updatedTime = updatedTime;
+    }
+
+    /**
+     * @return maximum number of elements reindexed per second; 0 for no limit
+     */
+    public int getMaxElementsPerSecond() {
+        return maxElementsPerSecond;
+    }
+
+    public void setMaxElementsPerSecond(int maxElementsPerSecond) {
+        this.maxElementsPerSecond = maxElementsPerSecond;
+    }
+
+    public ElementType getPhase() {
+        return phase;
+    }
+
+    public void setPhase(ElementType phase) {
+        this.phase = phase;
+    }
+
+    public long getScannedCount() {
+        return scannedCount;
+    }
+
+    public void setScannedCount(long scannedCount) {
+        this.scannedCount = scannedCount;
+    }
+
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    public void setProcessedCount(long processedCount) {
+        this.processedCount = processedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public long getElementsPerSecond() {
+        return elementsPerSecond;
+    }
+
+    public void setElementsPerSecond(long elementsPerSecond) {
+        this.elementsPerSecond = elementsPerSecond;
+    }
+
+    public ElementType getCheckpointPhase() {
+        return checkpointPhase;
+    }
+
+    public void setCheckpointPhase(ElementType checkpointPhase) {
+        this.checkpointPhase = checkpointPhase;
+    }
+
+    public String getCheckpointId() {
+        return checkpointId;
+    }
+
+    public void setCheckpointId(String checkpointId) {
+        this.checkpointId = checkpointId;
+    }
+
+    /**
+     * @return number of elements, in scan order, up to and including the element at checkpointId
+     */
+    public long getCheckpointCount() {
+        return checkpointCount;
+    }
+
+    public void setCheckpointCount(long checkpointCount) {
+        this.checkpointCount = checkpointCount;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public StringBuilder toString(StringBuilder sb) {
+        if (sb == null) {
+            sb = new StringBuilder();
+        }
+
+        sb.append("AtlasReindexStatus{");
+        sb.append("status=").append(status);
+        sb.append(", indexNames=").append(indexNames);
+        sb.append(", startedBy=").append(startedBy);
+        sb.append(", startTime=").append(startTime);
+        sb.append(", endTime=").append(endTime);
+        sb.append(", maxElementsPerSecond=").append(maxElementsPerSecond);
+        sb.append(", phase=").append(phase);
+        sb.append(", scannedCount=").append(scannedCount);
+        sb.append(", processedCount=").append(processedCount);
+        sb.append(", failedCount=").append(failedCount);
+        sb.append(", checkpointPhase=").append(checkpointPhase);
+        sb.append(", checkpointId=").append(checkpointId);
+        sb.append(", checkpointCount=").append(checkpointCount);
+        sb.append(", errorMessage=").append(errorMessage);
+        sb.append("}");
+
+        return sb;
+    }
+
+    @Override
+    public String toString() {
+        return toString(new StringBuilder()).toString();
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.model.tasks;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+/**
+ * A deferred unit of work, persisted in the graph and executed asynchronously by the task framework.
+ */
+@JsonAutoDetect(getterVisibility = PUBLIC_ONLY, setterVisibility = PUBLIC_ONLY, fieldVisibility = NONE)
+@JsonSerialize(include = JsonSerialize.Inclusion.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@XmlRootElement
+@XmlAccessorType(XmlAccessType.PROPERTY)
+public class AtlasTask implements Serializable {
+    private String              guid;
+    private String              type;
+    private String              createdBy;
+    private long                createdTime;
+    private long                updatedTime;
+    private long                startTime;
+    private long                endTime;
+    private Map<String, Object> parameters;
+    private int                 attemptCount;
+    private String              errorMessage;
+    private Status              status;
+
+    public enum Status { PENDING, IN_PROGRESS, COMPLETE, FAILED }
+
+    public AtlasTask() { }
+
+    public AtlasTask(String type, String createdBy, Map<String, Object> parameters) {
+        this.guid         = UUID.randomUUID().toString();
+        this.type         = type;
+        this.createdBy    = createdBy;
+        this.createdTime  = System.currentTimeMillis();
+        this.updatedTime  = this.createdTime;
+        this.parameters   = parameters != null ? parameters : new HashMap<>();
+        this.attemptCount = 0;
+        this.status       = Status.PENDING;
+    }
+
+    public String getGuid() {
+        return guid;
+    }
+
+    public void setGuid(String guid) {
+        this.guid = guid;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public long getCreatedTime() {
+        return createdTime;
+    }
+
+    public void setCreatedTime(long createdTime) {
+        this.createdTime = createdTime;
+    }
+
+    public long getUpdatedTime() {
+        return updatedTime;
+    }
+
+    public void setUpdatedTime(long updatedTime) {
+        this.updatedTime = updatedTime;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, Object> parameters) {
+        this.parameters = parameters;
+    }
+
+    public Object getParameter(String name) {
+        return parameters != null ? parameters.get(name) : null;
+    }
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    public void setAttemptCount(int attemptCount) {
+        this.attemptCount = attemptCount;
+    }
+
+    public void incrementAttemptCount() {
+        this.attemptCount++;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AtlasTask that = (AtlasTask) o;
+        return createdTime == that.createdTime &&
+                updatedTime == that.updatedTime &&
+                startTime == that.startTime &&
+                endTime == that.endTime &&
+                attemptCount == that.attemptCount &&
+                Objects.equals(guid, that.guid) &&
+                Objects.equals(type, that.type) &&
+                Objects.equals(createdBy, that.createdBy) &&
+                Objects.equals(parameters, that.parameters) &&
+                Objects.equals(errorMessage, that.errorMessage) &&
+                status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(guid, type, createdBy, createdTime, updatedTime, startTime, endTime, parameters, attemptCount, errorMessage, status);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AtlasTask{");
+
+        sb.append("guid='").append(guid).append('\'');
+        sb.append(", type='").append(type).append('\'');
+        sb.append(", createdBy='").append(createdBy).append('\'');
+        sb.append(", createdTime=").append(createdTime);
+        sb.append(", updatedTime=").append(updatedTime);
+        sb.append(", startTime=").append(startTime);
+        sb.append(", endTime=").append(endTime);
+        sb.append(", parameters=").append(parameters);
+        sb.append(", attemptCount=").append(attemptCount);
+        sb.append(", errorMessage='").append(errorMessage).append('\'');
+        sb.append(", status=").append(status);
+        sb.append('}');
+
+        return sb.toString();
+    }
+
+    @JsonAutoDetect(getterVisibility = PUBLIC_ONLY, setterVisibility = PUBLIC_ONLY, fieldVisibility = NONE)
+    @JsonSerialize(include = JsonSerialize.Inclusion.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @XmlRootElement
+    @XmlAccessorType(XmlAccessType.PROPERTY)
+    public static class AtlasTasks implements Serializable {
+        private List<AtlasTask> tasks;
+
+        public AtlasTasks() {
+        }
+
+        public AtlasTasks(List<AtlasTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        public List<AtlasTask> getTasks() {
+            return tasks;
+        }
+
+        public void setTasks(List<AtlasTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public String toString() {
+            return "AtlasTasks{tasks=" + tasks + '}';
+        }
+    }
+}
@@ -54,6 +54,10 @@ public abstract class AtlasHook {
     public static final String ATLAS_NOTIFICATION_ASYNCHRONOUS_MAX_THREADS        = "atlas.notification.hook.asynchronous.maxThreads";
     public static final String ATLAS_NOTIFICATION_ASYNCHRONOUS_KEEP_ALIVE_TIME_MS = "atlas.notification.hook.asynchronous.keepAliveTimeMs";
     public static final String ATLAS_NOTIFICATION_ASYNCHRONOUS_QUEUE_SIZE         = "atlas.notification.hook.asynchronous.queueSize";
+    public static final String ATLAS_NOTIFICATION_BATCH_ENABLED                   = "atlas.notification.hook.batch.enabled";
+    public static final String ATLAS_NOTIFICATION_BATCH_SIZE                      = "atlas.notification.hook.batch.size";
+    public static final String ATLAS_NOTIFICATION_BATCH_LINGER_MS                 = "atlas.notification.hook.batch.lingerMs";
+    public static final String ATLAS_NOTIFICATION_BATCH_MAX_IN_FLIGHT             = "atlas.notification.hook.batch.maxInFlight";
     public static final String ATLAS_NOTIFICATION_MAX_RETRIES                     = "atlas.notification.hook.retry.maxRetries";
     public static final String ATLAS_NOTIFICATION_RETRY_INTERVAL                  = "atlas.notification.hook.retry.interval";
     public static final String ATLAS_NOTIFICATION_FAILED_MESSAGES_FILENAME_KEY    = "atlas.notification.failed.messages.filename";
@@ -73,6 +77,7 @@ public abstract class AtlasHook {
     private static final int                  notificationMaxRetries;
     private static final int                  notificationRetryInterval;
     private static       ExecutorService      executor = null;
+    private static       AtlasHookProducer    producer = null;
 
 
     static {
@@ -110,7 +115,35 @@ public abstract class AtlasHook {
 
         boolean isAsync = atlasProperties.getBoolean(ATLAS_NOTIFICATION_ASYNCHRONOUS, Boolean.TRUE);
 
-        if (isAsync) {
+        boolean isBatch = atlasProperties.getBoolean(ATLAS_NOTIFICATION_BATCH_ENABLED, false);
+
+        if (isAsync && isBatch) {
+            int  queueSize   = atlasProperties.getInt(ATLAS_NOTIFICATION_ASYNCHRONOUS_QUEUE_SIZE, 10000);
+            int  batchSize   = atlasProperties.getInt(ATLAS_NOTIFICATION_BATCH_SIZE, 100);
+            long lingerMs    = atlasProperties.getLong(ATLAS_NOTIFICATION_BATCH_LINGER_MS, 50);
+            int  maxInFlight = atlasProperties.getInt(ATLAS_NOTIFICATION_BATCH_MAX_IN_FLIGHT, 1);
+
+            producer = new AtlasHookProducer(notificationInterface, queueSize, batchSize, lingerMs, maxInFlight, logFailedMessages, failedMessagesLogger);
+
+            producer.start();
+
+            ShutdownHookManager.get().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        LOG.info("==> Shutdown of Atlas Hook");
+
+                        producer.close(SHUTDOWN_HOOK_WAIT_TIME_MS);
+                        notificationInterface.close();
+                        producer = null;
+                    } catch (InterruptedException excp) {
+                        LOG.info("Interrupt received in shutdown.", excp);
+                    } finally {
+                        LOG.info("<== Shutdown of Atlas Hook");
+                    }
+                }
+            }, AtlasConstants.ATLAS_SHUTDOWN_HOOK_PRIORITY);
+        } else if (isAsync) {
             int  minThreads      = atlasProperties.getInt(ATLAS_NOTIFICATION_ASYNCHRONOUS_MIN_THREADS, 1);
             int  maxThreads      = atlasProperties.getInt(ATLAS_NOTIFICATION_ASYNCHRONOUS_MAX_THREADS, 1);
             long keepAliveTimeMs = atlasProperties.getLong(ATLAS_NOTIFICATION_ASYNCHRONOUS_KEEP_ALIVE_TIME_MS, 10000);
@@ -161,7 +194,9 @@ public abstract class AtlasHook {
      * @param maxRetries maximum number of retries while sending message to messaging system
      */
     public static void notifyEntities(List<HookNotification> messages, UserGroupInformation ugi, int maxRetries) {
-        if (executor == null) { // send synchronously
+        if (producer != null) { // send asynchronously, in batches
+            producer.send(messages, ugi, maxRetries);
+        } else if (executor == null) { // send synchronously
             notifyEntitiesInternal(messages, maxRetries, ugi, notificationInterface, logFailedMessages, failedMessagesLogger);
         } else {
             executor.submit(new Runnable() {
@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.hook;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.notification.AbstractNotification;
+import org.apache.atlas.notification.NotificationInterface;
+import org.apache.atlas.notification.NotificationInterface.NotificationType;
+import org.apache.atlas.notification.spool.AtlasFileSpool;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends hook notifications asynchronously, in batches. Notifications of hook invocations are queued, and coalesced into
+ * batches of up to batchSize messages, or of the messages queued within lingerMs of the first one. Notifications of
+ * the same user are coalesced, and sent as the user of the first notification of the batch.
+ *
+ * Up to maxInFlight batches are sent at a time. The default of 1 keeps notifications in order, as the hook consumer
+ * expects - an entity update isn't sent before the entity is created; the next batch is still coalesced while a batch
+ * is being sent. maxInFlight > 1 sends batches concurrently, for hooks whose notifications don't depend on each other.
+ *
+ * Adding notifications never blocks the hook: when the queue is full, notifications are written to the file spool, if
+ * enabled, to be published later - otherwise they are logged as failed messages.
+ */
+class AtlasHookProducer {
+    private static final Logger LOG = LoggerFactory.getLogger(AtlasHookProducer.class);
+
+    private static final String BATCHER_THREAD_NAME = "Atlas Notifier Batcher";
+    private static final String THREAD_NAME_FORMAT  = "Atlas Notifier %d";
+    private static final long   POLL_TIMEOUT_MS     = 1000;
+
+    private final NotificationInterface      notificationInterface;
+    private final BlockingQueue<HookRequest> queue;
+    private final int                        batchSize;
+    private final long                       lingerMs;
+    private final Semaphore                  inFlight;
+    private final ExecutorService            senders;
+    private final boolean                    logFailedMessages;
+    private final FailedMessagesLogger       failedMessagesLogger;
+    private final Thread                     batcher;
+    private final AtomicLong                 batchCount   = new AtomicLong();
+    private final AtomicLong                 spooledCount = new AtomicLong();
+    private final AtomicLong                 droppedCount = new AtomicLong();
+    private volatile boolean                 closed;
+
+    AtlasHookProducer(NotificationInterface notificationInterface, int queueSize, int batchSize, long lingerMs, int maxInFlight,
+                      boolean logFailedMessages, FailedMessagesLogger failedMessagesLogger) {
+        this.notificationInterface = notificationInterface;
+        this.queue                 = new ArrayBlockingQueue<>(Math.max(queueSize, 1));
+        this.batchSize             = Math.max(batchSize, 1);
+        this.lingerMs              = Math.max(lingerMs, 0);
+        this.inFlight              = new Semaphore(Math.max(maxInFlight, 1));
+        this.senders               = Executors.newFixedThreadPool(Math.max(maxInFlight, 1), new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_FORMAT).setDaemon(true).build());
+        this.logFailedMessages     = logFailedMessages;
+        this.failedMessagesLogger  = failedMessagesLogger;
+        this.batcher               = new Thread(this::batchAndSend, BATCHER_THREAD_NAME);
+
+        batcher.setDaemon(true);
+    }
+
+    void start() {
+        batcher.start();
+
+        LOG.info("AtlasHookProducer: started; batchSize={}, lingerMs={}, maxInFlight={}", batchSize, lingerMs, inFlight.availablePermits());
+    }
+
+    void send(List<HookNotification> messages, UserGroupInformation ugi, int maxRetries) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+
+        if (closed || !queue.offer(new HookRequest(messages, ugi, maxRetries))) {
+            spool(messages);
+        }
+    }
+
+    /**
+     * Sends the queued notifications, waiting up to timeoutMs for them to be sent.
+     */
+    void close(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+
+        closed = true;
+
+        batcher.join(timeoutMs);
+        senders.shutdown();
+        senders.awaitTermination(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+
+        LOG.info("AtlasHookProducer: closed; batches={}, spooled messages={}, dropped messages={}, pending requests={}", batchCount, spooledCount, droppedCount, queue.size());
+    }
+
+    long getBatchCount() {
+        return batchCount.get();
+    }
+
+    long getSpooledCount() {
+        return spooledCount.get();
+    }
+
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void batchAndSend() {
+        HookRequest next = null;
+
+        try {
+            while (true) {
+                HookRequest first = next != null ? next : (closed ? queue.poll() : queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+                next = null;
+
+                if (first == null) {
+                    if (closed) {
+                        break;
+                    }
+
+                    continue;
+                }
+
+                List<HookNotification> batch      = new ArrayList<>(first.messages);
+                int                    maxRetries = first.maxRetries;
+                long                   deadline   = System.currentTimeMillis() + lingerMs;
+
+                while (batch.size() < batchSize) {
+                    long        waitMs  = deadline - System.currentTimeMillis();
+                    HookRequest request = waitMs > 0 ? queue.poll(waitMs, TimeUnit.MILLISECONDS) : queue.poll();
+
+                    if (request == null) {
+                        break;
+                    }
+
+                    // notifications are sent as the user of the hook invocation
+                    if (!isSameUser(request.ugi, first.ugi) || batch.size() + request.messages.size() > batchSize) {
+                        next = request;
+
+                        break;
+                    }
+
+                    batch.addAll(request.messages);
+
+                    maxRetries = Math.max(maxRetries, request.maxRetries);
+                }
+
+                sendBatch(batch, first.ugi, maxRetries);
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("AtlasHookProducer: interrupted; {} requests not sent", queue.size());
+        }
+    }
+
+    private void sendBatch(List<HookNotification> batch, UserGroupInformation ugi, int maxRetries) throws InterruptedException {
+        inFlight.acquire();
+
+        batchCount.incrementAndGet();
+
+        senders.execute(() -> {
+            try {
+                AtlasHook.notifyEntitiesInternal(batch, maxRetries, ugi, notificationInterface, logFailedMessages, failedMessagesLogger);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private static boolean isSameUser(UserGroupInformation ugi1, UserGroupInformation ugi2) {
+        if (ugi1 == null || ugi2 == null) {
+            return ugi1 == ugi2;
+        }
+
+        return Objects.equals(ugi1.getUserName(), ugi2.getUserName());
+    }
+
+    private void spool(List<HookNotification> messages) {
+        if (notificationInterface instanceof AtlasFileSpool) {
+            try {
+                if (((AtlasFileSpool) notificationInterface).spool(NotificationType.HOOK, messages)) {
+                    spooledCount.addAndGet(messages.size());
+
+                    return;
+                }
+            } catch (Exception e) {
+                LOG.error("AtlasHookProducer: failed to spool {} messages", messages.size(), e);
+            }
+        }
+
+        droppedCount.addAndGet(messages.size());
+
+        LOG.error("AtlasHookProducer: notification queue is full; giving up on {} messages", messages.size());
+
+        if (logFailedMessages && failedMessagesLogger != null) {
+            List<String> failedMessages = new ArrayList<>();
+
+            for (HookNotification message : messages) {
+                AbstractNotification.createNotificationMessages(message, failedMessages);
+            }
+
+            for (String failedMessage : failedMessages) {
+                failedMessagesLogger.log(failedMessage);
+            }
+        }
+    }
+
+    private static class HookRequest {
+        private final List<HookNotification> messages;
+        private final UserGroupInformation   ugi;
+        private final int                    maxRetries;
+
+        HookRequest(List<HookNotification> messages, UserGroupInformation ugi, int maxRetries) {
+            this.messages   = messages;
+            this.ugi        = ugi;
+            this.maxRetries = maxRetries;
+        }
+    }
+}
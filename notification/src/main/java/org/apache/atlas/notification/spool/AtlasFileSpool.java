@@ -130,6 +130,21 @@ public class AtlasFileSpool implements NotificationInterface {
         }
     }
 
+    /**
+     * Writes the messages to the spool, to be published later, without attempting to send them first.
+     *
+     * @return false if the spool is not initialized
+     */
+    public <T> boolean spool(NotificationType type, List<T> messages) throws NotificationException {
+        if (!hasInitSucceeded()) {
+            return false;
+        }
+
+        spooler.send(type, messages);
+
+        return true;
+    }
+
     @Override
     public void close() {
         try {
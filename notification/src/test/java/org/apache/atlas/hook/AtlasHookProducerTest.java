@@ -0,0 +1,201 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.hook;
+
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.notification.NotificationInterface;
+import org.apache.atlas.notification.spool.AtlasFileSpool;
+import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateRequest;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class AtlasHookProducerTest {
+    @Mock
+    private NotificationInterface notificationInterface;
+
+    @Mock
+    private FailedMessagesLogger failedMessagesLogger;
+
+    @BeforeMethod
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test(timeOut = 10000)
+    public void testNotificationsAreSentInBatches() throws Exception {
+        AtlasHookProducer producer = new AtlasHookProducer(notificationInterface, 100, 4, 1000, 1, false, failedMessagesLogger);
+
+        producer.start();
+
+        for (int i = 0; i < 10; i++) {
+            producer.send(createMessages("user" + i), null, 1);
+        }
+
+        producer.close(5000);
+
+        ArgumentCaptor<List> batches = ArgumentCaptor.forClass(List.class);
+
+        verify(notificationInterface, atLeastOnce()).send(eq(NotificationInterface.NotificationType.HOOK), batches.capture());
+
+        List<Object> sent = new ArrayList<>();
+
+        for (List batch : batches.getAllValues()) {
+            assertTrue(batch.size() <= 4);
+
+            sent.addAll(batch);
+        }
+
+        assertEquals(sent.size(), 10);
+        assertEquals(batches.getAllValues().size(), 3); // 4 + 4 + 2, within lingerMs
+        assertEquals(producer.getBatchCount(), 3);
+
+        for (int i = 0; i < sent.size(); i++) { // in order, with maxInFlight = 1
+            assertEquals(((HookNotification) sent.get(i)).getUser(), "user" + i);
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testFullQueueDoesNotBlock() throws Exception {
+        CountDownLatch    sending  = new CountDownLatch(1);
+        CountDownLatch    release  = new CountDownLatch(1);
+        AtlasHookProducer producer = new AtlasHookProducer(notificationInterface, 1, 1, 0, 1, true, failedMessagesLogger);
+
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+
+            return null;
+        }).when(notificationInterface).send(any(NotificationInterface.NotificationType.class), anyList());
+
+        producer.start();
+
+        producer.send(createMessages("user0"), null, 1); // being sent
+        sending.await();
+
+        producer.send(createMessages("user1"), null, 1); // picked up by the batcher, waiting for the sender
+        producer.send(createMessages("user2"), null, 1); // queued, or dropped if the batcher hasn't picked up user1 yet
+        producer.send(createMessages("user3"), null, 1); // dropped
+
+        assertTrue(producer.getDroppedCount() >= 1);
+        assertEquals(producer.getSpooledCount(), 0);
+        verify(failedMessagesLogger, atLeastOnce()).log(any());
+
+        release.countDown();
+
+        producer.close(5000);
+
+        verify(notificationInterface, times((int) (4 - producer.getDroppedCount()))).send(eq(NotificationInterface.NotificationType.HOOK), anyList());
+    }
+
+    @Test(timeOut = 10000)
+    public void testFullQueueSpoolsMessages() throws Exception {
+        AtlasFileSpool    spool    = mock(AtlasFileSpool.class);
+        CountDownLatch    sending  = new CountDownLatch(1);
+        CountDownLatch    release  = new CountDownLatch(1);
+        AtlasHookProducer producer = new AtlasHookProducer(spool, 1, 1, 0, 1, true, failedMessagesLogger);
+
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+
+            return null;
+        }).when(spool).send(any(NotificationInterface.NotificationType.class), anyList());
+        when(spool.spool(any(NotificationInterface.NotificationType.class), anyList())).thenReturn(true);
+
+        producer.start();
+
+        producer.send(createMessages("user0"), null, 1); // being sent
+        sending.await();
+
+        producer.send(createMessages("user1"), null, 1); // picked up by the batcher, waiting for the sender
+        producer.send(createMessages("user2"), null, 1); // queued, or spooled if the batcher hasn't picked up user1 yet
+        producer.send(createMessages("user3"), null, 1); // spooled
+
+        assertTrue(producer.getSpooledCount() >= 1);
+        assertEquals(producer.getDroppedCount(), 0);
+        verify(spool, times((int) producer.getSpooledCount())).spool(eq(NotificationInterface.NotificationType.HOOK), anyList());
+        verify(failedMessagesLogger, never()).log(any());
+
+        release.countDown();
+
+        producer.close(5000);
+
+        verify(spool, times((int) (4 - producer.getSpooledCount()))).send(eq(NotificationInterface.NotificationType.HOOK), anyList());
+    }
+
+    @Test(timeOut = 10000)
+    public void testNotificationsOfSameUserAreBatched() throws Exception {
+        AtlasHookProducer producer = new AtlasHookProducer(notificationInterface, 100, 10, 1000, 1, false, failedMessagesLogger);
+
+        producer.start();
+
+        // different UserGroupInformation instances of the same user, like for each hook invocation
+        producer.send(createMessages("user0"), UserGroupInformation.createRemoteUser("hive"), 1);
+        producer.send(createMessages("user1"), UserGroupInformation.createRemoteUser("hive"), 1);
+        producer.send(createMessages("user2"), UserGroupInformation.createRemoteUser("impala"), 1);
+
+        producer.close(5000);
+
+        ArgumentCaptor<List> batches = ArgumentCaptor.forClass(List.class);
+
+        verify(notificationInterface, times(2)).send(eq(NotificationInterface.NotificationType.HOOK), batches.capture());
+
+        assertEquals(batches.getAllValues().get(0).size(), 2);
+        assertEquals(batches.getAllValues().get(1).size(), 1);
+    }
+
+    @Test
+    public void testSendAfterCloseIsNotQueued() throws Exception {
+        AtlasHookProducer producer = new AtlasHookProducer(notificationInterface, 100, 10, 0, 1, false, failedMessagesLogger);
+
+        producer.start();
+        producer.close(1000);
+
+        producer.send(createMessages("user"), null, 1);
+
+        assertEquals(producer.getDroppedCount(), 1);
+        assertEquals(producer.getBatchCount(), 0);
+    }
+
+    private static List<HookNotification> createMessages(String user) {
+        return Collections.singletonList(new EntityCreateRequest(user));
+    }
+}
@@ -35,11 +35,13 @@ import javax.inject.Inject;
 import javax.ws.rs.core.Response;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Component
@@ -47,7 +49,7 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
     private static final Logger LOG = LoggerFactory.getLogger(GraphTransactionInterceptor.class);
 
     @VisibleForTesting
-    private static final ObjectUpdateSynchronizer               OBJECT_UPDATE_SYNCHRONIZER = new ObjectUpdateSynchronizer();
+    private static final ObjectUpdateSynchronizer               OBJECT_UPDATE_SYNCHRONIZER = new ObjectUpdateSynchronizer(AtlasConfiguration.GRAPH_OBJECT_LOCK_TIMEOUT_MS.getLong());
     private static final ThreadLocal<List<PostTransactionHook>> postTransactionHooks       = new ThreadLocal<>();
     private static final ThreadLocal<Boolean>                   isTxnOpen                  = ThreadLocal.withInitial(() -> Boolean.FALSE);
     private static final ThreadLocal<Boolean>                   innerFailure               = ThreadLocal.withInitial(() -> Boolean.FALSE);
@@ -144,23 +146,7 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
                 innerFailure.set(Boolean.FALSE);
                 clearCache();
 
-                List<PostTransactionHook> trxHooks = postTransactionHooks.get();
-
-                if (trxHooks != null) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Processing post-txn hooks");
-                    }
-
-                    postTransactionHooks.remove();
-
-                    for (PostTransactionHook trxHook : trxHooks) {
-                        try {
-                            trxHook.onComplete(isSuccess);
-                        } catch (Throwable t) {
-                            LOG.error("postTransactionHook failed", t);
-                        }
-                    }
-                }
+                processPostTransactionHooks(isSuccess);
             }
 
             OBJECT_UPDATE_SYNCHRONIZER.releaseLockedObjects();
@@ -179,7 +165,7 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
     }
 
     private void doCommit(final String invokingClass, final String invokedMethodName) {
-        graph.commit();
+        graph.commit(RequestContext.get().isAsyncIndexWrites());
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("Graph commit txn {}.{}", invokingClass, invokedMethodName);
@@ -198,12 +184,41 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
         graph.rollback();
     }
 
-    public static void lockObjectAndReleasePostCommit(final String guid) {
-        OBJECT_UPDATE_SYNCHRONIZER.lockObject(guid);
+    /**
+     * Runs and removes the post-transaction hooks registered in the current thread. Called at the end of the outermost
+     * @GraphTransaction; code that commits the graph transaction itself, outside of a @GraphTransaction, must call this
+     * after each commit or rollback - otherwise hooks, like the ones that send entity notifications, never run.
+     */
+    public static void processPostTransactionHooks(boolean isSuccess) {
+        List<PostTransactionHook> trxHooks = postTransactionHooks.get();
+
+        if (trxHooks != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Processing post-txn hooks");
+            }
+
+            postTransactionHooks.remove();
+
+            for (PostTransactionHook trxHook : trxHooks) {
+                try {
+                    trxHook.onComplete(isSuccess);
+                } catch (Throwable t) {
+                    LOG.error("postTransactionHook failed", t);
+                }
+            }
+        }
+    }
+
+    public static void lockObjectAndReleasePostCommit(final String guid) throws AtlasBaseException {
+        OBJECT_UPDATE_SYNCHRONIZER.tryLockObject(guid);
+    }
+
+    public static void lockObjectAndReleasePostCommit(final List<String> guids) throws AtlasBaseException {
+        OBJECT_UPDATE_SYNCHRONIZER.tryLockObject(guids);
     }
 
-    public static void lockObjectAndReleasePostCommit(final List<String> guids) {
-        OBJECT_UPDATE_SYNCHRONIZER.lockObject(guids);
+    public static ObjectUpdateSynchronizer getObjectUpdateSynchronizer() {
+        return OBJECT_UPDATE_SYNCHRONIZER;
     }
 
     public static void addToVertexCache(String guid, AtlasVertex vertex) {
@@ -324,7 +339,7 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
     }
 
     private static class RefCountedReentrantLock extends ReentrantLock {
-        private int refCount;
+        private int refCount; // updated only within guidLockMap.compute()/computeIfPresent(), which serializes updates per guid
 
         public RefCountedReentrantLock() {
             this.refCount = 0;
@@ -341,42 +356,70 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
         public int getRefCount() { return refCount; }
     }
 
-
+    /**
+     * Per-entity locks held until the end of the outermost transaction.
+     *
+     * A lock is created on first use and removed when no thread holds or waits for it; reference counting is done
+     * with ConcurrentHashMap.compute(), so threads locking different guids don't contend with each other. Guids given
+     * in one call are locked in sorted order, so that concurrent calls with overlapping guids don't deadlock. When a
+     * timeout is set, tryLockObject() fails with FAILED_TO_OBTAIN_ENTITY_LOCK instead of waiting indefinitely - this
+     * covers transactions that lock entities across multiple calls, where the order can't be enforced.
+     */
     public static class ObjectUpdateSynchronizer {
-        private final Map<String, RefCountedReentrantLock> guidLockMap = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, RefCountedReentrantLock> guidLockMap = new ConcurrentHashMap<>();
         private final ThreadLocal<List<String>>  lockedGuids = new ThreadLocal<List<String>>() {
             @Override
             protected List<String> initialValue() {
                 return new ArrayList<>();
             }
         };
+        private final long      lockTimeoutMs;
+        private final LongAdder acquiredCount  = new LongAdder();
+        private final LongAdder contendedCount = new LongAdder();
+        private final LongAdder timeoutCount   = new LongAdder();
+        private final LongAdder waitTimeMs     = new LongAdder();
+
+        public ObjectUpdateSynchronizer() {
+            this(0);
+        }
+
+        /**
+         * @param lockTimeoutMs maximum time tryLockObject() waits for a lock; 0 to wait indefinitely
+         */
+        public ObjectUpdateSynchronizer(long lockTimeoutMs) {
+            this.lockTimeoutMs = lockTimeoutMs;
+        }
 
         public void lockObject(final List<String> guids) {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("==> lockObject(): guids: {}", guids);
             }
 
-            Collections.sort(guids);
-            for (String g : guids) {
+            for (String g : new TreeSet<>(guids)) {
                 lockObject(g);
             }
         }
 
-        private void lockObject(final String guid) {
+        public void tryLockObject(final List<String> guids) throws AtlasBaseException {
             if (LOG.isDebugEnabled()) {
-                LOG.debug("==> lockObject(): guid: {}, guidLockMap.size: {}", guid, guidLockMap.size());
+                LOG.debug("==> tryLockObject(): guids: {}", guids);
             }
 
-            ReentrantLock lock = getOrCreateObjectLock(guid);
-            lock.lock();
-
-            lockedGuids.get().add(guid);
+            for (String g : new TreeSet<>(guids)) {
+                tryLockObject(g);
+            }
+        }
 
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("<== lockObject(): guid: {}, guidLockMap.size: {}", guid, guidLockMap.size());
+        public void tryLockObject(final String guid) throws AtlasBaseException {
+            if (!acquireObjectLock(guid, lockTimeoutMs)) {
+                throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_OBTAIN_ENTITY_LOCK, guid);
             }
         }
 
+        private void lockObject(final String guid) {
+            acquireObjectLock(guid, 0);
+        }
+
         public void releaseLockedObjects() {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("==> releaseLockedObjects(): lockedGuids.size: {}", lockedGuids.get().size());
@@ -393,36 +436,99 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
             }
         }
 
-        private RefCountedReentrantLock getOrCreateObjectLock(String guid) {
-            synchronized (guidLockMap) {
-                RefCountedReentrantLock ret = guidLockMap.get(guid);
-                if (ret == null) {
-                    ret = new RefCountedReentrantLock();
-                    guidLockMap.put(guid, ret);
-                }
+        public long getAcquiredCount() {
+            return acquiredCount.sum();
+        }
 
-                ret.increment();
-                return ret;
-            }
+        public long getContendedCount() {
+            return contendedCount.sum();
         }
 
-        private RefCountedReentrantLock releaseObjectLock(String guid) {
-            synchronized (guidLockMap) {
-                RefCountedReentrantLock lock = guidLockMap.get(guid);
-                if (lock != null && lock.isHeldByCurrentThread()) {
-                    int refCount = lock.decrement();
+        public long getTimeoutCount() {
+            return timeoutCount.sum();
+        }
+
+        public long getWaitTimeMs() {
+            return waitTimeMs.sum();
+        }
+
+        public int getActiveLockCount() {
+            return guidLockMap.size();
+        }
+
+        private boolean acquireObjectLock(final String guid, long timeoutMs) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("==> acquireObjectLock(): guid: {}, guidLockMap.size: {}", guid, guidLockMap.size());
+            }
+
+            RefCountedReentrantLock lock     = getOrCreateObjectLock(guid);
+            boolean                 isLocked = lock.tryLock();
+
+            if (!isLocked) {
+                long startTime = System.currentTimeMillis();
 
-                    if (refCount == 0) {
-                        guidLockMap.remove(guid);
+                contendedCount.increment();
+
+                try {
+                    if (timeoutMs > 0) {
+                        isLocked = lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS);
+                    } else {
+                        lock.lock();
+
+                        isLocked = true;
                     }
+                } catch (InterruptedException excp) {
+                    LOG.warn("acquireObjectLock(): interrupted while waiting for lock on guid {}", guid);
 
-                    lock.unlock();
-                } else {
-                    LOG.warn("releaseLockedObjects: {} Attempting to release a lock not held by current thread.", guid);
+                    Thread.currentThread().interrupt();
+                } finally {
+                    waitTimeMs.add(System.currentTimeMillis() - startTime);
                 }
+            }
+
+            if (isLocked) {
+                acquiredCount.increment();
 
-                return lock;
+                lockedGuids.get().add(guid);
+            } else {
+                LOG.warn("acquireObjectLock(): failed to lock guid {} in {} ms", guid, timeoutMs);
+
+                timeoutCount.increment();
+
+                decrementRefCount(guid);
             }
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("<== acquireObjectLock(): guid: {}, isLocked: {}, guidLockMap.size: {}", guid, isLocked, guidLockMap.size());
+            }
+
+            return isLocked;
+        }
+
+        private RefCountedReentrantLock getOrCreateObjectLock(String guid) {
+            return guidLockMap.compute(guid, (key, lock) -> {
+                RefCountedReentrantLock ret = lock != null ? lock : new RefCountedReentrantLock();
+
+                ret.increment();
+
+                return ret;
+            });
+        }
+
+        private void releaseObjectLock(String guid) {
+            RefCountedReentrantLock lock = guidLockMap.get(guid);
+
+            if (lock != null && lock.isHeldByCurrentThread()) {
+                lock.unlock();
+
+                decrementRefCount(guid);
+            } else {
+                LOG.warn("releaseLockedObjects: {} Attempting to release a lock not held by current thread.", guid);
+            }
+        }
+
+        private void decrementRefCount(String guid) {
+            guidLockMap.computeIfPresent(guid, (key, lock) -> lock.decrement() == 0 ? null : lock);
         }
     }
 }
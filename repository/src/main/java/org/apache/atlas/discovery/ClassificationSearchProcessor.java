@@ -212,16 +212,30 @@ public class ClassificationSearchProcessor extends SearchProcessor {
         }
 
         try {
-            final int     startIdx   = context.getSearchParameters().getOffset();
-            final int     limit      = context.getSearchParameters().getLimit();
-
-            // query to start at 0, even though startIdx can be higher - because few results in earlier retrieval could
-            // have been dropped: like non-active-entities or duplicate-entities (same entity pointed to by multiple
-            // classifications in the result)
-            //
-            // first 'startIdx' number of entries will be ignored
-            int qryOffset = 0;
-            int resultIdx = qryOffset;
+            final SearchContinuationToken continuation = context.getContinuation();
+            final int                     limit        = context.getSearchParameters().getLimit();
+            final int                     startIdx;
+            int                           qryOffset;
+            int                           resultIdx;
+
+            if (continuation != null) {
+                // continue from the query page the previous page of results ended in, skipping the results already
+                // returned. Entities of classifications in earlier query pages aren't known: an entity with multiple
+                // classifications in the result can be returned again
+                startIdx  = continuation.getSkipCount();
+                qryOffset = continuation.getQueryOffset();
+                resultIdx = 0;
+            } else {
+                startIdx = context.getSearchParameters().getOffset();
+
+                // query to start at 0, even though startIdx can be higher - because few results in earlier retrieval could
+                // have been dropped: like non-active-entities or duplicate-entities (same entity pointed to by multiple
+                // classifications in the result)
+                //
+                // first 'startIdx' number of entries will be ignored
+                qryOffset = 0;
+                resultIdx = qryOffset;
+            }
 
             final Set<String>       processedGuids         = new HashSet<>();
             final List<AtlasVertex> entityVertices         = new ArrayList<>();
@@ -313,8 +327,12 @@ public class ClassificationSearchProcessor extends SearchProcessor {
 
                 super.filter(entityVertices);
 
+                int pageResultIdx = resultIdx;
+
                 resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
 
+                setNextContinuation(ret, limit, qryOffset, resultIdx - pageResultIdx, entityVertices, isLastResultPage);
+
                 if (isLastResultPage) {
                     break;
                 }
@@ -0,0 +1,222 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.listener.ChangedTypeDefs;
+import org.apache.atlas.listener.TypeDefChangeListener;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.AtlasSearchResult.AttributeSearchResult;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.query.GremlinQuery;
+import org.apache.atlas.util.AtlasMetricsUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches DSL queries translated to Gremlin, and optionally DSL search results for a short duration, keyed by
+ * (query, limit, offset, types version). The types version is incremented on every typedef change, after which
+ * both caches are cleared; entries added by a translation/search started before the change are never looked up.
+ *
+ * Results are cached before authorization scrubbing and are copied on put and get, since scrubbing updates entity
+ * headers in place. Cached results are not invalidated on entity changes - hence the short TTL.
+ */
+@Component
+public class DSLQueryCache implements TypeDefChangeListener {
+    private static final Logger LOG = LoggerFactory.getLogger(DSLQueryCache.class);
+
+    private final AtlasMetricsUtil                    metricsUtil;
+    private final Cache<CacheKey, GremlinQuery>       queryCache;
+    private final Cache<CacheKey, AtlasSearchResult>  resultCache;
+    private final AtomicLong                          typesVersion = new AtomicLong();
+
+    @Inject
+    public DSLQueryCache(AtlasMetricsUtil metricsUtil) {
+        this(metricsUtil, AtlasConfiguration.DSL_QUERY_CACHE_ENABLED.getBoolean() ? AtlasConfiguration.DSL_QUERY_CACHE_MAX_ENTRIES.getInt() : 0,
+             AtlasConfiguration.DSL_RESULT_CACHE_TTL_SECONDS.getLong(), AtlasConfiguration.DSL_RESULT_CACHE_MAX_ENTRIES.getInt());
+    }
+
+    @VisibleForTesting
+    DSLQueryCache(AtlasMetricsUtil metricsUtil, int maxQueries, long resultTtlSeconds, int maxResults) {
+        this.metricsUtil = metricsUtil;
+        this.queryCache  = maxQueries > 0 ? CacheBuilder.newBuilder().maximumSize(maxQueries).build() : null;
+        this.resultCache = resultTtlSeconds > 0 && maxResults > 0 ? CacheBuilder.newBuilder().maximumSize(maxResults).expireAfterWrite(resultTtlSeconds, TimeUnit.SECONDS).build() : null;
+
+        LOG.info("DSLQueryCache: maxQueries={}, resultTtlSeconds={}, maxResults={}", maxQueries, resultTtlSeconds, maxResults);
+    }
+
+    /**
+     * @return version of types, to be passed to get/put methods; must be read before translating/executing the query
+     */
+    public long getTypesVersion() {
+        return typesVersion.get();
+    }
+
+    public GremlinQuery getQuery(String query, int limit, int offset, long typesVersion) {
+        if (queryCache == null) {
+            return null;
+        }
+
+        GremlinQuery ret = queryCache.getIfPresent(new CacheKey(query, limit, offset, typesVersion));
+
+        metricsUtil.onDslQueryCacheLookup(ret != null);
+
+        return ret;
+    }
+
+    public void putQuery(String query, int limit, int offset, long typesVersion, GremlinQuery gremlinQuery) {
+        if (queryCache != null && gremlinQuery != null && typesVersion == this.typesVersion.get()) {
+            queryCache.put(new CacheKey(query, limit, offset, typesVersion), gremlinQuery);
+        }
+    }
+
+    public AtlasSearchResult getResult(String query, int limit, int offset, long typesVersion) {
+        if (resultCache == null) {
+            return null;
+        }
+
+        AtlasSearchResult ret = resultCache.getIfPresent(new CacheKey(query, limit, offset, typesVersion));
+
+        metricsUtil.onDslResultCacheLookup(ret != null);
+
+        return ret != null ? copyOf(ret) : null;
+    }
+
+    public void putResult(String query, int limit, int offset, long typesVersion, AtlasSearchResult result) {
+        if (resultCache != null && result != null && typesVersion == this.typesVersion.get()) {
+            resultCache.put(new CacheKey(query, limit, offset, typesVersion), copyOf(result));
+        }
+    }
+
+    @Override
+    public void onChange(ChangedTypeDefs changedTypeDefs) {
+        invalidateAll();
+    }
+
+    @Override
+    public void onLoadCompletion() {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        typesVersion.incrementAndGet();
+
+        if (queryCache != null) {
+            queryCache.invalidateAll();
+        }
+
+        if (resultCache != null) {
+            resultCache.invalidateAll();
+        }
+
+        metricsUtil.onDslCacheInvalidation();
+    }
+
+    private static AtlasSearchResult copyOf(AtlasSearchResult result) {
+        AtlasSearchResult ret = new AtlasSearchResult(result.getQueryText(), result.getQueryType());
+
+        if (result.getEntities() != null) {
+            List<AtlasEntityHeader> entities = new ArrayList<>(result.getEntities().size());
+
+            for (AtlasEntityHeader header : result.getEntities()) {
+                entities.add(copyOf(header));
+            }
+
+            ret.setEntities(entities);
+        }
+
+        if (result.getAttributes() != null) {
+            AttributeSearchResult attributes = result.getAttributes();
+            List<List<Object>>    values     = null;
+
+            if (attributes.getValues() != null) {
+                values = new ArrayList<>(attributes.getValues().size());
+
+                for (List<Object> row : attributes.getValues()) {
+                    values.add(row != null ? new ArrayList<>(row) : null);
+                }
+            }
+
+            ret.setAttributes(new AttributeSearchResult(attributes.getName() != null ? new ArrayList<>(attributes.getName()) : null, values));
+        }
+
+        ret.setApproximateCount(result.getApproximateCount());
+
+        return ret;
+    }
+
+    private static AtlasEntityHeader copyOf(AtlasEntityHeader header) {
+        AtlasEntityHeader ret = new AtlasEntityHeader(header.getTypeName(), header.getGuid(), header.getAttributes() != null ? new HashMap<>(header.getAttributes()) : null);
+
+        ret.setStatus(header.getStatus());
+        ret.setDisplayText(header.getDisplayText());
+        ret.setIsIncomplete(header.getIsIncomplete());
+        ret.setClassificationNames(header.getClassificationNames() != null ? new ArrayList<>(header.getClassificationNames()) : null);
+        ret.setClassifications(header.getClassifications() != null ? new ArrayList<>(header.getClassifications()) : null);
+        ret.setMeaningNames(header.getMeaningNames() != null ? new ArrayList<>(header.getMeaningNames()) : null);
+        ret.setMeanings(header.getMeanings() != null ? new ArrayList<>(header.getMeanings()) : null);
+        ret.setLabels(header.getLabels() != null ? new HashSet<>(header.getLabels()) : null);
+
+        return ret;
+    }
+
+    private static class CacheKey {
+        private final String query;
+        private final int    limit;
+        private final int    offset;
+        private final long   typesVersion;
+
+        CacheKey(String query, int limit, int offset, long typesVersion) {
+            this.query        = query;
+            this.limit        = limit;
+            this.offset       = offset;
+            this.typesVersion = typesVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            CacheKey that = (CacheKey) o;
+
+            return limit == that.limit && offset == that.offset && typesVersion == that.typesVersion && Objects.equals(query, that.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, limit, offset, typesVersion);
+        }
+    }
+}
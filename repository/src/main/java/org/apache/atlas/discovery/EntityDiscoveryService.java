@@ -96,13 +96,15 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
     private final String                          indexSearchPrefix;
     private final UserProfileService              userProfileService;
     private final SuggestionsProvider             suggestionsProvider;
+    private final DSLQueryCache                   dslQueryCache;
 
     @Inject
     EntityDiscoveryService(AtlasTypeRegistry typeRegistry,
                            AtlasGraph graph,
                            GraphBackedSearchIndexer indexer,
                            SearchTracker searchTracker,
-                           UserProfileService userProfileService) throws AtlasException {
+                           UserProfileService userProfileService,
+                           DSLQueryCache dslQueryCache) throws AtlasException {
         this.graph                    = graph;
         this.entityRetriever          = new EntityGraphRetriever(this.graph, typeRegistry);
         this.indexer                  = indexer;
@@ -115,13 +117,30 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         this.indexSearchPrefix        = AtlasGraphUtilsV2.getIndexSearchPrefix();
         this.userProfileService       = userProfileService;
         this.suggestionsProvider      = new SuggestionsProviderImpl(graph, typeRegistry);
+        this.dslQueryCache            = dslQueryCache;
     }
 
     @Override
     @GraphTransaction
     public AtlasSearchResult searchUsingDslQuery(String dslQuery, int limit, int offset) throws AtlasBaseException {
+        QueryParams       params       = QueryParams.getNormalizedParams(limit, offset);
+        long              typesVersion = dslQueryCache.getTypesVersion();
+        AtlasSearchResult ret          = dslQueryCache.getResult(dslQuery, params.limit(), params.offset(), typesVersion);
+
+        if (ret == null) {
+            ret = executeDslQuery(dslQuery, params, typesVersion);
+
+            dslQueryCache.putResult(dslQuery, params.limit(), params.offset(), typesVersion, ret);
+        }
+
+        scrubSearchResults(ret);
+
+        return ret;
+    }
+
+    private AtlasSearchResult executeDslQuery(String dslQuery, QueryParams params, long typesVersion) throws AtlasBaseException {
         AtlasSearchResult ret          = new AtlasSearchResult(dslQuery, AtlasQueryType.DSL);
-        GremlinQuery      gremlinQuery = toGremlinQuery(dslQuery, limit, offset);
+        GremlinQuery      gremlinQuery = toGremlinQuery(dslQuery, params, typesVersion);
         String            queryStr     = gremlinQuery.queryStr();
 
         if (LOG.isDebugEnabled()) {
@@ -168,8 +187,6 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
             }
         }
 
-        scrubSearchResults(ret);
-
         return ret;
     }
 
@@ -476,6 +493,7 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
             List<AtlasVertex> resultList = searchContext.getSearchProcessor().execute();
 
             ret.setApproximateCount(searchContext.getSearchProcessor().getResultCount());
+            ret.setContinuationToken(searchContext.getNextContinuationToken());
 
             // By default any attribute that shows up in the search parameter should be sent back in the response
             // If additional values are requested then the entityAttributes will be a superset of the all search attributes
@@ -516,6 +534,8 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
                 }
             }
 
+            entityRetriever.prefetchEntityHeaders(resultList);
+
             for (AtlasVertex atlasVertex : resultList) {
                 AtlasEntityHeader entity = entityRetriever.toAtlasEntityHeader(atlasVertex, resultAttributes);
 
@@ -764,9 +784,14 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         return ret;
     }
 
-    private GremlinQuery toGremlinQuery(String query, int limit, int offset) throws AtlasBaseException {
-        QueryParams                 params       = QueryParams.getNormalizedParams(limit, offset);
-        GremlinQuery                gremlinQuery = new AtlasDSL.Translator(query, typeRegistry, params.offset(), params.limit()).translate();
+    private GremlinQuery toGremlinQuery(String query, QueryParams params, long typesVersion) throws AtlasBaseException {
+        GremlinQuery gremlinQuery = dslQueryCache.getQuery(query, params.limit(), params.offset(), typesVersion);
+
+        if (gremlinQuery == null) {
+            gremlinQuery = new AtlasDSL.Translator(query, typeRegistry, params.offset(), params.limit()).translate();
+
+            dslQueryCache.putQuery(query, params.limit(), params.offset(), typesVersion, gremlinQuery);
+        }
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("Translated Gremlin Query: {}", gremlinQuery.queryStr());
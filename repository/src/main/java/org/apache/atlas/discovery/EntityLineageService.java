@@ -89,13 +89,15 @@ public class EntityLineageService implements AtlasLineageService {
     private final AtlasGremlinQueryProvider gremlinQueryProvider;
     private final EntityGraphRetriever      entityRetriever;
     private final AtlasTypeRegistry         atlasTypeRegistry;
+    private final LineageCache              lineageCache;
 
     @Inject
-    EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph) {
+    EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph, LineageCache lineageCache) {
         this.graph = atlasGraph;
         this.gremlinQueryProvider = AtlasGremlinQueryProvider.INSTANCE;
         this.entityRetriever = new EntityGraphRetriever(atlasGraph, typeRegistry);
         this.atlasTypeRegistry = typeRegistry;
+        this.lineageCache = lineageCache;
     }
 
     @Override
@@ -123,10 +125,19 @@ public class EntityLineageService implements AtlasLineageService {
             }
         }
 
-        if (LINEAGE_USING_GREMLIN) {
-            ret = getLineageInfoV1(guid, direction, depth, isDataSet);
-        } else {
-            ret = getLineageInfoV2(guid, direction, depth, isDataSet);
+        // access to the entity is verified above, before looking up the cache
+        ret = lineageCache.get(guid, direction, depth);
+
+        if (ret == null) {
+            long cacheSequence = lineageCache.getSequence();
+
+            if (LINEAGE_USING_GREMLIN) {
+                ret = getLineageInfoV1(guid, direction, depth, isDataSet);
+            } else {
+                ret = getLineageInfoV2(guid, direction, depth, isDataSet);
+            }
+
+            lineageCache.put(guid, direction, depth, ret, cacheSequence);
         }
 
         return ret;
@@ -18,6 +18,7 @@
 package org.apache.atlas.discovery;
 
 import org.apache.atlas.SortOrder;
+import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
@@ -50,6 +51,7 @@ public class EntitySearchProcessor extends SearchProcessor {
     private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("EntitySearchProcessor");
 
     private final AtlasIndexQuery indexQuery;
+    private final String          indexQueryString;
     private final AtlasGraphQuery graphQuery;
     private       Predicate       graphQueryPredicate;
     private       Predicate       filterGraphQueryPredicate;
@@ -123,9 +125,11 @@ public class EntitySearchProcessor extends SearchProcessor {
             indexQueryString = STRAY_OR_PATTERN.matcher(indexQueryString).replaceAll(")");
             indexQueryString = STRAY_ELIPSIS_PATTERN.matcher(indexQueryString).replaceAll("");
 
-            this.indexQuery = context.getGraph().indexQuery(Constants.VERTEX_INDEX, indexQueryString);
+            this.indexQuery       = context.getGraph().indexQuery(Constants.VERTEX_INDEX, indexQueryString);
+            this.indexQueryString = indexQueryString;
         } else {
-            this.indexQuery = null;
+            this.indexQuery       = null;
+            this.indexQueryString = null;
         }
 
         if (CollectionUtils.isNotEmpty(graphAttributes) || !typeSearchByIndex) {
@@ -226,28 +230,46 @@ public class EntitySearchProcessor extends SearchProcessor {
     }
 
     @Override
-    public List<AtlasVertex> execute() {
+    public List<AtlasVertex> execute() throws AtlasBaseException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("==> EntitySearchProcessor.execute({})", context);
         }
 
         List<AtlasVertex> ret = new ArrayList<>();
 
-        AtlasPerfTracer perf = null;
+        AtlasPerfTracer      perf       = null;
+        IndexQueryPrefetcher prefetcher = null;
+        int                  pageCount  = 0;
+        int                  prefetched = 0;
+        long                 queryTime  = 0; // index or graph query; for a prefetched page, the wait for the prefetch
+        long                 loadTime   = 0; // batched read of the vertices of a prefetched page
+        long                 filterTime = 0; // in-memory filtering, including reads of vertex properties
 
         if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
             perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntitySearchProcessor.execute(" + context +  ")");
         }
 
         try {
-            final int startIdx = context.getSearchParameters().getOffset();
-            final int limit    = context.getSearchParameters().getLimit();
+            final SearchContinuationToken continuation = context.getContinuation();
+            final int                     limit        = context.getSearchParameters().getLimit();
+            final int                     startIdx;
+            int                           qryOffset;
+            int                           resultIdx;
+
+            if (continuation != null) {
+                // continue from the query page the previous page of results ended in, skipping the results already returned
+                startIdx  = continuation.getSkipCount();
+                qryOffset = continuation.getQueryOffset();
+                resultIdx = 0;
+            } else {
+                startIdx = context.getSearchParameters().getOffset();
 
-            // when subsequent filtering stages are involved, query should start at 0 even though startIdx can be higher
-            //
-            // first 'startIdx' number of entries will be ignored
-            int qryOffset = (nextProcessor != null || (graphQuery != null && indexQuery != null)) ? 0 : startIdx;
-            int resultIdx = qryOffset;
+                // when subsequent filtering stages are involved, query should start at 0 even though startIdx can be higher
+                //
+                // first 'startIdx' number of entries will be ignored
+                qryOffset = (nextProcessor != null || (graphQuery != null && indexQuery != null)) ? 0 : startIdx;
+                resultIdx = qryOffset;
+            }
 
             final List<AtlasVertex> entityVertices = new ArrayList<>();
 
@@ -274,13 +296,48 @@ public class EntitySearchProcessor extends SearchProcessor {
                 }
 
                 final boolean isLastResultPage;
+                final long    filterStartTime;
+
+                pageCount++;
 
                 if (indexQuery != null) {
-                    Iterator<AtlasIndexQuery.Result> idxQueryResult = executeIndexQuery(context, indexQuery, qryOffset, limit);
+                    long         queryStartTime = System.currentTimeMillis();
+                    List<String> prefetchedIds  = prefetcher != null ? prefetcher.take(qryOffset) : null;
 
-                    getVerticesFromIndexQueryResult(idxQueryResult, entityVertices);
+                    if (prefetchedIds != null) {
+                        long loadStartTime = System.currentTimeMillis();
 
-                    isLastResultPage = entityVertices.size() < limit;
+                        entityVertices.addAll(context.getGraph().getVertices(prefetchedIds));
+
+                        isLastResultPage = prefetchedIds.size() < limit;
+                        filterStartTime  = System.currentTimeMillis();
+
+                        prefetched++;
+
+                        queryTime += loadStartTime - queryStartTime;
+                        loadTime  += filterStartTime - loadStartTime;
+                    } else {
+                        Iterator<AtlasIndexQuery.Result> idxQueryResult = executeIndexQuery(context, indexQuery, qryOffset, limit);
+
+                        getVerticesFromIndexQueryResult(idxQueryResult, entityVertices);
+
+                        isLastResultPage = entityVertices.size() < limit;
+                        filterStartTime  = System.currentTimeMillis();
+
+                        queryTime += filterStartTime - queryStartTime;
+                    }
+
+                    // a page didn't complete the result: likely a selective filter, that needs more pages. Query the
+                    // next page while this page is filtered
+                    if (!isLastResultPage && pageCount > 1) {
+                        if (prefetcher == null) {
+                            prefetcher = IndexQueryPrefetcher.create(context, Constants.VERTEX_INDEX, indexQueryString, limit);
+                        }
+
+                        if (prefetcher != null) {
+                            prefetcher.prefetch(qryOffset + limit);
+                        }
+                    }
 
                     // Do in-memory filtering before the graph query
                     CollectionUtils.filter(entityVertices, inMemoryPredicate);
@@ -289,11 +346,16 @@ public class EntitySearchProcessor extends SearchProcessor {
                         CollectionUtils.filter(entityVertices, graphQueryPredicate);
                     }
                 } else {
+                    long queryStartTime = System.currentTimeMillis();
+
                     Iterator<AtlasVertex> queryResult = graphQuery.vertices(qryOffset, limit).iterator();
 
                     getVertices(queryResult, entityVertices);
 
                     isLastResultPage = entityVertices.size() < limit;
+                    filterStartTime  = System.currentTimeMillis();
+
+                    queryTime += filterStartTime - queryStartTime;
 
                     // Do in-memory filtering
                     CollectionUtils.filter(entityVertices, inMemoryPredicate);
@@ -306,13 +368,27 @@ public class EntitySearchProcessor extends SearchProcessor {
 
                 super.filter(entityVertices);
 
+                int pageResultIdx = resultIdx;
+
                 resultIdx = collectResultVertices(ret, startIdx, limit, resultIdx, entityVertices);
 
+                setNextContinuation(ret, limit, qryOffset, resultIdx - pageResultIdx, entityVertices, isLastResultPage);
+
+                filterTime += System.currentTimeMillis() - filterStartTime;
+
                 if (isLastResultPage) {
                     break;
                 }
             }
         } finally {
+            if (prefetcher != null) {
+                prefetcher.cancel(); // the search has all results
+            }
+
+            if (perf != null) {
+                PERF_LOG.debug("EntitySearchProcessor.execute({}): pages={}, prefetchedPages={}, queryTime={}, loadTime={}, filterTime={}", context, pageCount, prefetched, queryTime, loadTime, filterTime);
+            }
+
             AtlasPerfTracer.log(perf);
         }
 
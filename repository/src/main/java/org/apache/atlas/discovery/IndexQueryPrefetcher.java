@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the index query for the next page of search results in the background, while the current page is filtered.
+ *
+ * Graph transactions are bound to a thread: the prefetch runs the index query in a transaction of the prefetch thread,
+ * and returns only the ids of the vertices in the page - which are then read in the transaction of the search with
+ * AtlasGraph.getVertices(), in a single batched read.
+ */
+class IndexQueryPrefetcher {
+    private static final Logger LOG = LoggerFactory.getLogger(IndexQueryPrefetcher.class);
+
+    private static final ExecutorService EXECUTOR = createExecutor(AtlasConfiguration.SEARCH_PREFETCH_THREADS.getInt());
+
+    private final SearchContext context;
+    private final String        indexName;
+    private final String        queryString;
+    private final int           limit;
+    private       PageFetch     next;
+
+    private IndexQueryPrefetcher(SearchContext context, String indexName, String queryString, int limit) {
+        this.context     = context;
+        this.indexName   = indexName;
+        this.queryString = queryString;
+        this.limit       = limit;
+    }
+
+    /**
+     * @return null if prefetch is disabled
+     */
+    static IndexQueryPrefetcher create(SearchContext context, String indexName, String queryString, int limit) {
+        return EXECUTOR != null ? new IndexQueryPrefetcher(context, indexName, queryString, limit) : null;
+    }
+
+    /**
+     * Starts the index query of the page at qryOffset in the background
+     */
+    void prefetch(int qryOffset) {
+        cancel();
+
+        next = new PageFetch(qryOffset);
+
+        next.future = EXECUTOR.submit(next::fetch);
+    }
+
+    /**
+     * @return ids of the vertices in the page at qryOffset, from the index query; null if the page was not prefetched,
+     *         or if the prefetch didn't start yet - in which case the page is better queried by the caller right away
+     * @throws AtlasBaseException if interrupted while waiting for the prefetch; the interrupt status is kept
+     */
+    List<String> take(int qryOffset) throws AtlasBaseException {
+        PageFetch fetch = next;
+
+        if (fetch == null || fetch.qryOffset != qryOffset) {
+            cancel();
+
+            return null;
+        }
+
+        next = null;
+
+        if (fetch.started.compareAndSet(false, true)) { // not started by the executor yet; claimed here, so it won't run
+            fetch.future.cancel(false);
+
+            return null;
+        }
+
+        try {
+            return fetch.future.get();
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+
+            fetch.future.cancel(true);
+
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, excp, "search interrupted while waiting for page " + qryOffset);
+        } catch (ExecutionException excp) {
+            LOG.warn("index query prefetch failed; querying page {} again", qryOffset, excp.getCause());
+
+            return null;
+        }
+    }
+
+    /**
+     * Cancels the prefetch of a page that won't be needed, like after the search has all results
+     */
+    void cancel() {
+        if (next != null) {
+            next.started.set(true);
+            next.future.cancel(false);
+
+            next = null;
+        }
+    }
+
+    private static ExecutorService createExecutor(int threads) {
+        return threads > 0 ? Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("atlas-search-prefetch-%d").setDaemon(true).build()) : null;
+    }
+
+    private class PageFetch {
+        private final int                  qryOffset;
+        private final AtomicBoolean        started = new AtomicBoolean();
+        private       Future<List<String>> future;
+
+        PageFetch(int qryOffset) {
+            this.qryOffset = qryOffset;
+        }
+
+        List<String> fetch() {
+            if (!started.compareAndSet(false, true)) { // claimed by take(), or cancelled
+                return null;
+            }
+
+            AtlasGraph   graph = context.getGraph();
+            List<String> ret   = new ArrayList<>(limit);
+
+            try {
+                AtlasIndexQuery                  indexQuery = graph.indexQuery(indexName, queryString);
+                Iterator<AtlasIndexQuery.Result> results    = SearchProcessor.executeIndexQuery(context, indexQuery, qryOffset, limit);
+
+                while (results.hasNext()) {
+                    ret.add(results.next().getVertex().getId().toString());
+                }
+            } finally {
+                graph.rollback(); // close the transaction of this thread; nothing is written
+            }
+
+            return ret;
+        }
+    }
+}
@@ -0,0 +1,567 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.listener.EntityChangeListenerV2;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasRelatedObjectId;
+import org.apache.atlas.model.instance.AtlasRelationship;
+import org.apache.atlas.model.lineage.AtlasLineageInfo;
+import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageDirection;
+import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageRelation;
+import org.apache.atlas.util.AtlasMetricsUtil;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.atlas.model.instance.AtlasObjectId.KEY_GUID;
+
+/**
+ * Caches lineage computed by EntityLineageService, keyed by (guid, direction, depth). Entries are bounded by their
+ * estimated size in memory and by a TTL.
+ *
+ * A cached lineage is invalidated when any entity in it - or an entity referencing one of them, like a process
+ * added with a cached dataset as input - is changed. Invalidation happens after the graph transaction commits; a
+ * lineage computed concurrently with an invalidation of one of its entities is not cached.
+ */
+@Component
+public class LineageCache implements EntityChangeListenerV2 {
+    private static final Logger LOG = LoggerFactory.getLogger(LineageCache.class);
+
+    private static final int ENTRY_OVERHEAD_BYTES    = 256;
+    private static final int HEADER_OVERHEAD_BYTES   = 512;
+    private static final int RELATION_OVERHEAD_BYTES = 128;
+    private static final int MAX_RECENT_INVALIDATIONS = 100000;
+
+    private final AtlasMetricsUtil                metricsUtil;
+    private final boolean                         isEnabled;
+    private final Cache<CacheKey, CacheEntry>     cache;
+    private final Map<String, Set<CacheEntry>>    guidEntries         = new ConcurrentHashMap<>();
+    private final Cache<String, Long>             recentInvalidations;
+    private final AtomicLong                      sequence            = new AtomicLong();
+    private final AtomicLong                      maxDroppedSequence  = new AtomicLong();
+    private final AtomicLong                      sizeBytes           = new AtomicLong();
+    private final ThreadLocal<InvalidationHook>   invalidationHooks   = new ThreadLocal<>();
+
+    @Inject
+    public LineageCache(AtlasMetricsUtil metricsUtil) {
+        this(metricsUtil, AtlasConfiguration.LINEAGE_CACHE_ENABLED.getBoolean(), AtlasConfiguration.LINEAGE_CACHE_MAX_SIZE_MB.getLong() * 1024 * 1024, AtlasConfiguration.LINEAGE_CACHE_TTL_SECONDS.getLong());
+    }
+
+    @VisibleForTesting
+    LineageCache(AtlasMetricsUtil metricsUtil, boolean isEnabled, long maxSizeBytes, long ttlSeconds) {
+        this.metricsUtil = metricsUtil;
+        this.isEnabled   = isEnabled && maxSizeBytes > 0;
+        this.cache       = CacheBuilder.newBuilder()
+                                       .maximumWeight(Math.max(maxSizeBytes, 1))
+                                       .weigher((CacheKey key, CacheEntry entry) -> entry.sizeBytes)
+                                       .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                                       .removalListener(this::onRemoval)
+                                       .build();
+
+        // invalidations that are no longer tracked are accounted in maxDroppedSequence, so that lineage computed before them is not cached
+        this.recentInvalidations = CacheBuilder.newBuilder()
+                                               .maximumSize(MAX_RECENT_INVALIDATIONS)
+                                               .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                                               .removalListener((RemovalNotification<String, Long> n) -> {
+                                                   if (n.wasEvicted()) {
+                                                       maxDroppedSequence.accumulateAndGet(n.getValue(), Math::max);
+                                                   }
+                                               })
+                                               .build();
+
+        LOG.info("LineageCache: enabled={}, maxSizeBytes={}, ttlSeconds={}", this.isEnabled, maxSizeBytes, ttlSeconds);
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * @return cached lineage for the given entity, or null if not cached
+     */
+    public AtlasLineageInfo get(String guid, LineageDirection direction, int depth) {
+        if (!isEnabled) {
+            return null;
+        }
+
+        CacheEntry entry = cache.getIfPresent(new CacheKey(guid, direction, depth));
+
+        if (entry == null) {
+            metricsUtil.onLineageCacheMiss();
+
+            return null;
+        }
+
+        metricsUtil.onLineageCacheHit();
+
+        return copyOf(entry.lineageInfo);
+    }
+
+    /**
+     * @return sequence to be passed to put(), for the lineage computed after this call
+     */
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Caches the given lineage, unless any of its entities has been invalidated after the given sequence.
+     */
+    public void put(String guid, LineageDirection direction, int depth, AtlasLineageInfo lineageInfo, long startSequence) {
+        if (!isEnabled || guid == null || lineageInfo == null) {
+            return;
+        }
+
+        CacheKey   key   = new CacheKey(guid, direction, depth);
+        CacheEntry entry = new CacheEntry(key, copyOf(lineageInfo));
+
+        if (isInvalidatedSince(entry.guids, startSequence)) {
+            return;
+        }
+
+        for (String entryGuid : entry.guids) {
+            guidEntries.computeIfAbsent(entryGuid, k -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+
+        if (cache.asMap().putIfAbsent(key, entry) == null) {
+            sizeBytes.addAndGet(entry.sizeBytes);
+
+            // an invalidation between the check above and indexing of the entry would not have removed it
+            if (isInvalidatedSince(entry.guids, startSequence)) {
+                cache.asMap().remove(key, entry);
+            }
+        } else {
+            removeFromIndex(entry);
+        }
+
+        updateSizeMetrics();
+    }
+
+    /**
+     * Removes cached lineage containing any of the given entities.
+     */
+    public void invalidate(Collection<String> guids) {
+        if (!isEnabled || CollectionUtils.isEmpty(guids)) {
+            return;
+        }
+
+        long seq = sequence.incrementAndGet();
+
+        for (String guid : guids) {
+            recentInvalidations.put(guid, seq);
+        }
+
+        for (String guid : guids) {
+            Set<CacheEntry> entries = guidEntries.get(guid);
+
+            if (entries != null) {
+                for (CacheEntry entry : entries) {
+                    if (cache.asMap().remove(entry.key, entry)) {
+                        metricsUtil.onLineageCacheInvalidation();
+                    }
+                }
+            }
+        }
+
+        updateSizeMetrics();
+    }
+
+    public void clear() {
+        sequence.incrementAndGet();
+        maxDroppedSequence.set(sequence.get());
+
+        cache.invalidateAll();
+        recentInvalidations.invalidateAll();
+
+        updateSizeMetrics();
+    }
+
+    @Override
+    public void onEntitiesAdded(List<AtlasEntity> entities, boolean isImport) throws AtlasBaseException {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesUpdated(List<AtlasEntity> entities, boolean isImport) throws AtlasBaseException {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesDeleted(List<AtlasEntity> entities, boolean isImport) throws AtlasBaseException {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesPurged(List<AtlasEntity> entities) throws AtlasBaseException {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onClassificationsAdded(AtlasEntity entity, List<AtlasClassification> classifications) throws AtlasBaseException {
+        onEntityHeaderChanged(entity);
+    }
+
+    @Override
+    public void onClassificationsAdded(List<AtlasEntity> entities, List<AtlasClassification> classifications) throws AtlasBaseException {
+        if (entities != null) {
+            entities.forEach(this::onEntityHeaderChanged);
+        }
+    }
+
+    @Override
+    public void onClassificationsUpdated(AtlasEntity entity, List<AtlasClassification> classifications) throws AtlasBaseException {
+        onEntityHeaderChanged(entity);
+    }
+
+    @Override
+    public void onClassificationsDeleted(AtlasEntity entity, List<AtlasClassification> classifications) throws AtlasBaseException {
+        onEntityHeaderChanged(entity);
+    }
+
+    @Override
+    public void onClassificationsDeleted(List<AtlasEntity> entities, List<AtlasClassification> classifications) throws AtlasBaseException {
+        if (entities != null) {
+            entities.forEach(this::onEntityHeaderChanged);
+        }
+    }
+
+    @Override
+    public void onTermAdded(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) throws AtlasBaseException {
+        onTermChanged(entities);
+    }
+
+    @Override
+    public void onTermDeleted(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) throws AtlasBaseException {
+        onTermChanged(entities);
+    }
+
+    @Override
+    public void onRelationshipsAdded(List<AtlasRelationship> relationships, boolean isImport) throws AtlasBaseException {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsUpdated(List<AtlasRelationship> relationships, boolean isImport) throws AtlasBaseException {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsDeleted(List<AtlasRelationship> relationships, boolean isImport) throws AtlasBaseException {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsPurged(List<AtlasRelationship> relationships) throws AtlasBaseException {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onLabelsAdded(AtlasEntity entity, Set<String> labels) throws AtlasBaseException {
+        onEntityHeaderChanged(entity);
+    }
+
+    @Override
+    public void onLabelsDeleted(AtlasEntity entity, Set<String> labels) throws AtlasBaseException {
+        onEntityHeaderChanged(entity);
+    }
+
+    @Override
+    public void onBusinessAttributesUpdated(AtlasEntity entity, Map<String, Map<String, Object>> updatedBusinessAttributes) throws AtlasBaseException {
+        // business attributes are not part of entity headers in lineage
+    }
+
+    @VisibleForTesting
+    long size() {
+        return cache.size();
+    }
+
+    // entities referenced by a changed entity are invalidated as well, as edges between them might have been added or removed
+    private void onEntitiesChanged(List<AtlasEntity> entities) {
+        InvalidationHook hook = getInvalidationHook();
+
+        if (hook != null && entities != null) {
+            for (AtlasEntity entity : entities) {
+                hook.add(entity.getGuid());
+
+                collectGuids(entity.getAttributes(), hook.guids);
+                collectGuids(entity.getRelationshipAttributes(), hook.guids);
+            }
+        }
+    }
+
+    private void onEntityHeaderChanged(AtlasEntity entity) {
+        InvalidationHook hook = getInvalidationHook();
+
+        if (hook != null && entity != null) {
+            hook.add(entity.getGuid());
+        }
+    }
+
+    private void onTermChanged(List<AtlasRelatedObjectId> entities) {
+        InvalidationHook hook = getInvalidationHook();
+
+        if (hook != null && entities != null) {
+            for (AtlasRelatedObjectId entity : entities) {
+                hook.add(entity.getGuid());
+            }
+        }
+    }
+
+    private void onRelationshipsChanged(List<AtlasRelationship> relationships) {
+        InvalidationHook hook = getInvalidationHook();
+
+        if (hook != null && relationships != null) {
+            for (AtlasRelationship relationship : relationships) {
+                if (relationship.getEnd1() != null) {
+                    hook.add(relationship.getEnd1().getGuid());
+                }
+
+                if (relationship.getEnd2() != null) {
+                    hook.add(relationship.getEnd2().getGuid());
+                }
+            }
+        }
+    }
+
+    private void collectGuids(Object value, Set<String> guids) {
+        if (value instanceof AtlasObjectId) {
+            String guid = ((AtlasObjectId) value).getGuid();
+
+            if (guid != null) {
+                guids.add(guid);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map  = (Map<?, ?>) value;
+            Object    guid = map.get(KEY_GUID);
+
+            if (guid instanceof String) {
+                guids.add((String) guid);
+            } else {
+                for (Object mapValue : map.values()) {
+                    collectGuids(mapValue, guids);
+                }
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                collectGuids(element, guids);
+            }
+        }
+    }
+
+    private InvalidationHook getInvalidationHook() {
+        if (!isEnabled) {
+            return null;
+        }
+
+        InvalidationHook ret = invalidationHooks.get();
+
+        if (ret == null) {
+            ret = new InvalidationHook();
+
+            invalidationHooks.set(ret);
+        }
+
+        return ret;
+    }
+
+    private boolean isInvalidatedSince(Set<String> guids, long startSequence) {
+        if (maxDroppedSequence.get() > startSequence) {
+            return true;
+        }
+
+        for (String guid : guids) {
+            Long seq = recentInvalidations.getIfPresent(guid);
+
+            if (seq != null && seq > startSequence) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void onRemoval(RemovalNotification<CacheKey, CacheEntry> notification) {
+        CacheEntry entry = notification.getValue();
+
+        if (entry != null) {
+            sizeBytes.addAndGet(-entry.sizeBytes);
+
+            removeFromIndex(entry);
+        }
+
+        if (notification.wasEvicted()) {
+            metricsUtil.onLineageCacheEviction();
+        }
+    }
+
+    private void removeFromIndex(CacheEntry entry) {
+        for (String guid : entry.guids) {
+            guidEntries.computeIfPresent(guid, (k, entries) -> {
+                entries.remove(entry);
+
+                return entries.isEmpty() ? null : entries;
+            });
+        }
+    }
+
+    private void updateSizeMetrics() {
+        metricsUtil.onLineageCacheSizeChange(cache.size(), sizeBytes.get());
+    }
+
+    private static AtlasLineageInfo copyOf(AtlasLineageInfo lineageInfo) {
+        Map<String, AtlasEntityHeader> guidEntityMap = lineageInfo.getGuidEntityMap() != null ? new HashMap<>(lineageInfo.getGuidEntityMap()) : new HashMap<>();
+        Set<LineageRelation>           relations     = lineageInfo.getRelations() != null ? new HashSet<>(lineageInfo.getRelations()) : new HashSet<>();
+
+        return new AtlasLineageInfo(lineageInfo.getBaseEntityGuid(), guidEntityMap, relations, lineageInfo.getLineageDirection(), lineageInfo.getLineageDepth());
+    }
+
+    private static int estimateSize(AtlasLineageInfo lineageInfo) {
+        long ret = ENTRY_OVERHEAD_BYTES;
+
+        if (MapUtils.isNotEmpty(lineageInfo.getGuidEntityMap())) {
+            for (AtlasEntityHeader header : lineageInfo.getGuidEntityMap().values()) {
+                ret += HEADER_OVERHEAD_BYTES + 2L * (length(header.getGuid()) + length(header.getTypeName()) + length(header.getDisplayText()));
+
+                if (header.getClassificationNames() != null) {
+                    for (String classificationName : header.getClassificationNames()) {
+                        ret += 2L * length(classificationName);
+                    }
+                }
+
+                if (header.getClassifications() != null) {
+                    ret += (long) header.getClassifications().size() * HEADER_OVERHEAD_BYTES;
+                }
+
+                if (header.getAttributes() != null) {
+                    for (Map.Entry<String, Object> attribute : header.getAttributes().entrySet()) {
+                        ret += 2L * (length(attribute.getKey()) + length(Objects.toString(attribute.getValue(), null)));
+                    }
+                }
+            }
+        }
+
+        if (CollectionUtils.isNotEmpty(lineageInfo.getRelations())) {
+            for (LineageRelation relation : lineageInfo.getRelations()) {
+                ret += RELATION_OVERHEAD_BYTES + 2L * (length(relation.getFromEntityId()) + length(relation.getToEntityId()) + length(relation.getRelationshipId()));
+            }
+        }
+
+        return (int) Math.min(ret, Integer.MAX_VALUE);
+    }
+
+    private static int length(String str) {
+        return str != null ? str.length() : 0;
+    }
+
+    private static class CacheKey {
+        private final String           guid;
+        private final LineageDirection direction;
+        private final int              depth;
+
+        CacheKey(String guid, LineageDirection direction, int depth) {
+            this.guid      = guid;
+            this.direction = direction;
+            this.depth     = depth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            CacheKey that = (CacheKey) o;
+
+            return depth == that.depth && Objects.equals(guid, that.guid) && direction == that.direction;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(guid, direction, depth);
+        }
+    }
+
+    // identity equality, so that an entry being removed doesn't affect a newer entry for the same key
+    private static class CacheEntry {
+        private final CacheKey         key;
+        private final AtlasLineageInfo lineageInfo;
+        private final Set<String>      guids;
+        private final int              sizeBytes;
+
+        CacheEntry(CacheKey key, AtlasLineageInfo lineageInfo) {
+            this.key         = key;
+            this.lineageInfo = lineageInfo;
+            this.guids       = new HashSet<>(lineageInfo.getGuidEntityMap().keySet());
+            this.sizeBytes   = estimateSize(lineageInfo);
+
+            guids.add(key.guid);
+        }
+    }
+
+    /**
+     * Collects guids of entities changed in the current graph transaction, to invalidate them after the transaction commits.
+     */
+    private class InvalidationHook extends GraphTransactionInterceptor.PostTransactionHook {
+        private final Set<String> guids = new HashSet<>();
+
+        void add(String guid) {
+            if (guid != null) {
+                guids.add(guid);
+            }
+        }
+
+        @Override
+        public void onComplete(boolean isSuccess) {
+            invalidationHooks.remove();
+
+            if (isSuccess) {
+                invalidate(guids);
+            }
+        }
+    }
+}
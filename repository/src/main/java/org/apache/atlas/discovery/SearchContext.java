@@ -69,8 +69,10 @@ public class SearchContext {
     private final Set<String>             classificationTypeAndSubTypes;
     private final String                  typeAndSubTypesQryStr;
     private final String                  classificationTypeAndSubTypesQryStr;
+    private final SearchContinuationToken continuation;
     private boolean                       terminateSearch = false;
     private SearchProcessor               searchProcessor;
+    private SearchContinuationToken       nextContinuation;
 
     public final static AtlasClassificationType MATCH_ALL_WILDCARD_CLASSIFICATION = new AtlasClassificationType(new AtlasClassificationDef(WILDCARD_CLASSIFICATIONS));
     public final static AtlasClassificationType MATCH_ALL_CLASSIFIED              = new AtlasClassificationType(new AtlasClassificationDef(ALL_CLASSIFICATIONS));
@@ -89,6 +91,7 @@ public class SearchContext {
         this.entityTypes        = getEntityTypes(searchParameters.getTypeName());
         this.classificationNames = getClassificationNames(searchParameters.getClassification());
         this.classificationTypes = getClassificationTypes(this.classificationNames);
+        this.continuation        = SearchContinuationToken.decode(searchParameters);
 
         AtlasVertex glossaryTermVertex = getGlossaryTermVertex(searchParameters.getTermName());
 
@@ -255,6 +258,20 @@ public class SearchContext {
 
     public void terminateSearch(boolean terminateSearch) { this.terminateSearch = terminateSearch; }
 
+    /**
+     * @return position to continue the search from, given by the continuation token in the search parameters; null if none
+     */
+    public SearchContinuationToken getContinuation() { return continuation; }
+
+    public void setNextContinuation(int queryOffset, int skipCount) {
+        this.nextContinuation = new SearchContinuationToken(queryOffset, skipCount, searchParameters);
+    }
+
+    /**
+     * @return token for the next page of results; null if there are no more results, or the search processor doesn't support continuation
+     */
+    public String getNextContinuationToken() { return nextContinuation != null ? nextContinuation.encode() : null; }
+
     public StringBuilder toString(StringBuilder sb) {
         if (sb == null) {
             sb = new StringBuilder();
@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.type.AtlasType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Position in the results of a basic search, from which the next page of results continues: the offset, in the results
+ * of the index or graph query of the search processor, of the query page the previous page of results ended in; and
+ * the number of results from that query page, after filtering, that were already returned.
+ *
+ * With the token, the next page is read starting at this query page - instead of reading and filtering every query
+ * page from offset 0, as is needed for offset based pagination when results are filtered after the query.
+ *
+ * The token is opaque to clients; it includes a hash of the search parameters, to reject tokens of a different search.
+ */
+public class SearchContinuationToken {
+    private static final String VERSION   = "1";
+    private static final String SEPARATOR = ":";
+
+    private final int    queryOffset;
+    private final int    skipCount;
+    private final String searchHash;
+
+    SearchContinuationToken(int queryOffset, int skipCount, SearchParameters searchParameters) {
+        this(queryOffset, skipCount, getSearchHash(searchParameters));
+    }
+
+    private SearchContinuationToken(int queryOffset, int skipCount, String searchHash) {
+        this.queryOffset = queryOffset;
+        this.skipCount   = skipCount;
+        this.searchHash  = searchHash;
+    }
+
+    public int getQueryOffset() {
+        return queryOffset;
+    }
+
+    public int getSkipCount() {
+        return skipCount;
+    }
+
+    public String encode() {
+        String value = VERSION + SEPARATOR + queryOffset + SEPARATOR + skipCount + SEPARATOR + searchHash;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null if searchParameters has no continuation token
+     * @throws AtlasBaseException if the token is invalid, or is of a different search
+     */
+    public static SearchContinuationToken decode(SearchParameters searchParameters) throws AtlasBaseException {
+        String token = searchParameters.getContinuationToken();
+
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        final SearchContinuationToken ret;
+
+        try {
+            String[] values = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR);
+
+            if (values.length != 4 || !VERSION.equals(values[0])) {
+                throw new AtlasBaseException(AtlasErrorCode.INVALID_CONTINUATION_TOKEN, token);
+            }
+
+            ret = new SearchContinuationToken(Integer.parseInt(values[1]), Integer.parseInt(values[2]), values[3]);
+        } catch (IllegalArgumentException excp) { // includes NumberFormatException
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_CONTINUATION_TOKEN, excp, token);
+        }
+
+        if (ret.queryOffset < 0 || ret.skipCount < 0 || !ret.searchHash.equals(getSearchHash(searchParameters))) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_CONTINUATION_TOKEN, token);
+        }
+
+        return ret;
+    }
+
+    // parameters that determine the results, and their order; not limit/offset, or the attributes to return
+    private static String getSearchHash(SearchParameters searchParameters) {
+        String value = AtlasType.toJson(Arrays.asList(searchParameters.getQuery(), searchParameters.getTypeName(),
+                                                      searchParameters.getClassification(), searchParameters.getTermName(),
+                                                      searchParameters.getExcludeDeletedEntities(), searchParameters.getIncludeSubTypes(),
+                                                      searchParameters.getIncludeSubClassifications(), searchParameters.getEntityFilters(),
+                                                      searchParameters.getTagFilters(), searchParameters.getSortBy(),
+                                                      searchParameters.getSortOrder()));
+
+        return Integer.toHexString(value.hashCode());
+    }
+}
@@ -147,7 +147,7 @@ public abstract class SearchProcessor {
         }
     }
 
-    public abstract List<AtlasVertex> execute();
+    public abstract List<AtlasVertex> execute() throws AtlasBaseException;
     public abstract long getResultCount();
 
     protected boolean isEntityRootType() {
@@ -195,6 +195,24 @@ public abstract class SearchProcessor {
         return resultIdx;
     }
 
+    /**
+     * After a page of query results is collected, records where the next page of results starts when the result is
+     * complete: in this query page, if not all of its results were collected - otherwise, in the next query page.
+     *
+     * @param consumedCount number of results of this query page that were collected, or skipped as before startIdx
+     */
+    protected void setNextContinuation(final List<AtlasVertex> ret, final int limit, final int qryOffset, final int consumedCount, final List<AtlasVertex> entityVertices, final boolean isLastResultPage) {
+        if (ret.size() < limit) {
+            return;
+        }
+
+        if (consumedCount < entityVertices.size()) {
+            context.setNextContinuation(qryOffset, consumedCount);
+        } else if (!isLastResultPage) {
+            context.setNextContinuation(qryOffset + limit, 0);
+        }
+    }
+
     public void filter(List<AtlasVertex> entityVertices) {
         if (nextProcessor != null && CollectionUtils.isNotEmpty(entityVertices)) {
             nextProcessor.filter(entityVertices);
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.glossary;
+
+import org.apache.atlas.annotation.GraphTransaction;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.model.instance.AtlasRelationship;
+import org.apache.atlas.repository.ogm.DataAccess;
+import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.List;
+
+/**
+ * Writes batches of glossary import, each batch in a single graph transaction. Terms and relationships are validated
+ * by GlossaryTermUtils before they are written.
+ */
+@Component
+public class GlossaryImportWriter {
+    private final DataAccess             dataAccess;
+    private final AtlasRelationshipStore relationshipStore;
+    private final GlossaryTermUtils      glossaryTermUtils;
+
+    @Inject
+    public GlossaryImportWriter(DataAccess dataAccess, AtlasRelationshipStore relationshipStore, AtlasTypeRegistry typeRegistry) {
+        this.dataAccess        = dataAccess;
+        this.relationshipStore = relationshipStore;
+        this.glossaryTermUtils = new GlossaryTermUtils(relationshipStore, typeRegistry, dataAccess);
+    }
+
+    /**
+     * Creates the terms and their anchors, with the validation of GlossaryService.createTerm(); guids assigned to the
+     * terms are set in the given objects.
+     */
+    @GraphTransaction
+    public void createTerms(List<AtlasGlossaryTerm> glossaryTerms) throws AtlasBaseException {
+        for (AtlasGlossaryTerm glossaryTerm : glossaryTerms) {
+            glossaryTermUtils.validateTermToCreate(glossaryTerm);
+
+            dataAccess.saveNoLoad(glossaryTerm);
+
+            glossaryTermUtils.createTermAnchor(glossaryTerm);
+        }
+    }
+
+    @GraphTransaction
+    public void createRelationships(List<AtlasRelationship> relationships) throws AtlasBaseException {
+        for (AtlasRelationship relationship : relationships) {
+            relationshipStore.getOrCreate(relationship);
+        }
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.apache.atlas.glossary;
 
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.SortOrder;
 import org.apache.atlas.annotation.GraphTransaction;
@@ -28,11 +29,16 @@ import org.apache.atlas.model.glossary.relations.AtlasRelatedCategoryHeader;
 import org.apache.atlas.model.glossary.relations.AtlasRelatedTermHeader;
 import org.apache.atlas.model.glossary.relations.AtlasTermCategorizationHeader;
 import org.apache.atlas.model.instance.AtlasRelatedObjectId;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.ogm.DataAccess;
+import org.apache.atlas.repository.ogm.glossary.AbstractGlossaryDTO;
 import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
 import org.apache.atlas.repository.store.graph.v2.AtlasEntityChangeNotifier;
 import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.FileUtils;
 import org.apache.commons.collections.CollectionUtils;
@@ -67,17 +73,22 @@ public class GlossaryService {
     private final GlossaryCategoryUtils     glossaryCategoryUtils;
     private final AtlasTypeRegistry         atlasTypeRegistry;
     private final AtlasEntityChangeNotifier entityChangeNotifier;
+    private final EntityGraphRetriever      entityRetriever;
+    private final GlossaryTermImporter      glossaryTermImporter;
 
     private static final char[] invalidNameChars = { '@', '.' };
 
     @Inject
     public GlossaryService(DataAccess dataAccess, final AtlasRelationshipStore relationshipStore,
-                           final AtlasTypeRegistry typeRegistry, AtlasEntityChangeNotifier entityChangeNotifier) {
+                           final AtlasTypeRegistry typeRegistry, AtlasEntityChangeNotifier entityChangeNotifier, AtlasGraph graph,
+                           GlossaryImportWriter glossaryImportWriter) {
         this.dataAccess           = dataAccess;
         atlasTypeRegistry         = typeRegistry;
         glossaryTermUtils         = new GlossaryTermUtils(relationshipStore, typeRegistry, dataAccess);
         glossaryCategoryUtils     = new GlossaryCategoryUtils(relationshipStore, typeRegistry, dataAccess);
         this.entityChangeNotifier = entityChangeNotifier;
+        this.entityRetriever      = new EntityGraphRetriever(graph, typeRegistry);
+        this.glossaryTermImporter = new GlossaryTermImporter(glossaryImportWriter, glossaryTermUtils, AtlasConfiguration.GLOSSARY_IMPORT_THREADS.getInt(), AtlasConfiguration.GLOSSARY_IMPORT_BATCH_SIZE.getInt());
     }
 
     /**
@@ -325,33 +336,8 @@ public class GlossaryService {
         if (DEBUG_ENABLED) {
             LOG.debug("==> GlossaryService.create({})", glossaryTerm);
         }
-        if (Objects.isNull(glossaryTerm)) {
-            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "GlossaryTerm definition missing");
-        }
-        if (Objects.isNull(glossaryTerm.getAnchor())) {
-            throw new AtlasBaseException(AtlasErrorCode.MISSING_MANDATORY_ANCHOR);
-        }
-        if (StringUtils.isEmpty(glossaryTerm.getName())) {
-            throw new AtlasBaseException(AtlasErrorCode.GLOSSARY_TERM_QUALIFIED_NAME_CANT_BE_DERIVED);
-        }
-
-        if (isNameInvalid(glossaryTerm.getName())){
-            throw new AtlasBaseException(AtlasErrorCode.INVALID_DISPLAY_NAME);
-        } else {
-            // Derive the qualifiedName
-            String        anchorGlossaryGuid = glossaryTerm.getAnchor().getGlossaryGuid();
-            AtlasGlossary glossary           = dataAccess.load(getGlossarySkeleton(anchorGlossaryGuid));
-            glossaryTerm.setQualifiedName(glossaryTerm.getName() + "@" + glossary.getQualifiedName());
 
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Derived qualifiedName = {}", glossaryTerm.getQualifiedName());
-            }
-        }
-
-        // This might fail for the case when the term's qualifiedName has been updated and the duplicate request comes in with old name
-        if (termExists(glossaryTerm)) {
-            throw new AtlasBaseException(AtlasErrorCode.GLOSSARY_TERM_ALREADY_EXISTS, glossaryTerm.getQualifiedName());
-        }
+        glossaryTermUtils.validateTermToCreate(glossaryTerm);
 
         AtlasGlossaryTerm storeObject = dataAccess.save(glossaryTerm);
         glossaryTermUtils.processTermRelations(storeObject, glossaryTerm, GlossaryUtils.RelationshipOperation.CREATE);
@@ -721,6 +707,35 @@ public class GlossaryService {
         return ret;
     }
 
+    /**
+     * Get a page of term headers of the glossary, in the order of relationship-guid. Only the terms in the page are read,
+     * unlike getGlossaryTermsHeaders(glossaryGuid, offset, limit, sortOrder) which loads all terms of the glossary.
+     *
+     * @param glossaryGuid unique identifier of the glossary
+     * @param after        relationGuid of the last term of the previous page; null/empty for the first page
+     * @param limit        page size; -1 for no paging
+     * @return page of term headers
+     * @throws AtlasBaseException
+     */
+    @GraphTransaction
+    public List<AtlasRelatedTermHeader> getGlossaryTermsHeaders(String glossaryGuid, String after, int limit) throws AtlasBaseException {
+        if (Objects.isNull(glossaryGuid)) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "glossaryGuid is null/empty");
+        }
+
+        if (DEBUG_ENABLED) {
+            LOG.debug("==> GlossaryService.getGlossaryTermsHeaders({}, {}, {})", glossaryGuid, after, limit);
+        }
+
+        List<AtlasRelatedTermHeader> ret = toTermHeaders(getRelationshipPage(glossaryGuid, ATLAS_GLOSSARY_TYPENAME, "terms", TERM_ANCHOR, after, limit));
+
+        if (DEBUG_ENABLED) {
+            LOG.debug("<== GlossaryService.getGlossaryTermsHeaders() : {}", ret);
+        }
+
+        return ret;
+    }
+
     @GraphTransaction
     public List<AtlasGlossaryTerm> getGlossaryTerms(String glossaryGuid, int offset, int limit, SortOrder sortOrder) throws AtlasBaseException {
         if (Objects.isNull(glossaryGuid)) {
@@ -834,6 +849,34 @@ public class GlossaryService {
         return ret;
     }
 
+    /**
+     * Get a page of terms of the category, in the order of relationship-guid.
+     *
+     * @param categoryGuid unique identifier of the category
+     * @param after        relationGuid of the last term of the previous page; null/empty for the first page
+     * @param limit        page size; -1 for no paging
+     * @return page of term headers
+     * @throws AtlasBaseException
+     */
+    @GraphTransaction
+    public List<AtlasRelatedTermHeader> getCategoryTerms(String categoryGuid, String after, int limit) throws AtlasBaseException {
+        if (Objects.isNull(categoryGuid)) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "categoryGuid is null/empty");
+        }
+
+        if (DEBUG_ENABLED) {
+            LOG.debug("==> GlossaryService.getCategoryTerms({}, {}, {})", categoryGuid, after, limit);
+        }
+
+        List<AtlasRelatedTermHeader> ret = toTermHeaders(getRelationshipPage(categoryGuid, ATLAS_GLOSSARY_CATEGORY_TYPENAME, "terms", TERM_CATEGORIZATION, after, limit));
+
+        if (DEBUG_ENABLED) {
+            LOG.debug("<== GlossaryService.getCategoryTerms() : {}", ret);
+        }
+
+        return ret;
+    }
+
     @GraphTransaction
     public Map<AtlasGlossaryTerm.Relation, Set<AtlasRelatedTermHeader>> getRelatedTerms(String termGuid, int offset, int limit, SortOrder sortOrder) throws AtlasBaseException {
         if (Objects.isNull(termGuid)) {
@@ -906,7 +949,7 @@ public class GlossaryService {
                                              o1.getDisplayText().compareTo(o2.getDisplayText()) :
                                              o2.getDisplayText().compareTo(o1.getDisplayText()));
             }
-            ret = new PaginationHelper<>(assignedEntities, offset, limit).getPaginatedList();
+            ret = new PaginationHelper<>(ret, offset, limit).getPaginatedList();
         } else {
             ret = Collections.emptyList();
         }
@@ -914,6 +957,63 @@ public class GlossaryService {
         return ret;
     }
 
+    /**
+     * Get a page of entities assigned with the term, in the order of relationship-guid. Only the entities in the page
+     * are read, unlike getAssignedEntities(termGuid, offset, limit, sortOrder) which loads all assignments of the term.
+     *
+     * @param termGuid unique identifier of the term
+     * @param after    relationshipGuid of the last entity of the previous page; null/empty for the first page
+     * @param limit    page size; -1 for no paging
+     * @return page of assigned entities
+     * @throws AtlasBaseException
+     */
+    @GraphTransaction
+    public List<AtlasRelatedObjectId> getAssignedEntities(final String termGuid, String after, int limit) throws AtlasBaseException {
+        if (Objects.isNull(termGuid)) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "termGuid is null/empty");
+        }
+
+        if (DEBUG_ENABLED) {
+            LOG.debug("==> GlossaryService.getAssignedEntities({}, {}, {})", termGuid, after, limit);
+        }
+
+        List<AtlasRelatedObjectId> ret = getRelationshipPage(termGuid, ATLAS_GLOSSARY_TERM_TYPENAME, "assignedEntities", TERM_ASSIGNMENT, after, limit);
+
+        if (DEBUG_ENABLED) {
+            LOG.debug("<== GlossaryService.getAssignedEntities() : {}", ret);
+        }
+
+        return ret;
+    }
+
+    // reads the relationship edges of the page from the vertex-centric index on relationship-guid
+    private List<AtlasRelatedObjectId> getRelationshipPage(String guid, String typeName, String attributeName, String relationshipType, String after, int limit) throws AtlasBaseException {
+        AtlasVertex vertex = AtlasGraphUtilsV2.findByGuid(guid);
+
+        if (vertex == null || !StringUtils.equals(typeName, AtlasGraphUtilsV2.getTypeName(vertex))) {
+            throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, guid);
+        }
+
+        AtlasEntityType entityType = atlasTypeRegistry.getEntityTypeByName(typeName);
+        AtlasAttribute  attribute  = entityType.getRelationshipAttribute(attributeName, relationshipType);
+
+        return entityRetriever.getRelationshipAttributePage(vertex, attribute, after, limit);
+    }
+
+    private List<AtlasRelatedTermHeader> toTermHeaders(List<AtlasRelatedObjectId> relatedObjectIds) {
+        List<AtlasRelatedTermHeader> ret = new ArrayList<>(relatedObjectIds.size());
+
+        for (AtlasRelatedObjectId relatedObjectId : relatedObjectIds) {
+            AtlasRelatedTermHeader termHeader = AbstractGlossaryDTO.constructRelatedTermId(relatedObjectId);
+
+            termHeader.setDisplayText(relatedObjectId.getDisplayText());
+
+            ret.add(termHeader);
+        }
+
+        return ret;
+    }
+
     private boolean glossaryExists(AtlasGlossary atlasGlossary) {
         AtlasVertex vertex = AtlasGraphUtilsV2.findByUniqueAttributes(atlasTypeRegistry.getEntityTypeByName(GlossaryUtils.ATLAS_GLOSSARY_TYPENAME), new HashMap<String, Object>() {{
             put(QUALIFIED_NAME_ATTR, atlasGlossary.getQualifiedName());
@@ -1089,7 +1189,8 @@ public class GlossaryService {
             List<String>   failedTermMsgs = new ArrayList<>();
 
             ret = glossaryTermUtils.getGlossaryTermDataList(fileData, failedTermMsgs);
-            ret = createGlossaryTerms(ret);
+            ret = glossaryTermImporter.importTerms(ret);
+            ret = loadTerms(ret);
         } catch (IOException e) {
             throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_UPLOAD, e);
         }
@@ -1097,15 +1198,14 @@ public class GlossaryService {
         return ret;
     }
 
-    private List<AtlasGlossaryTerm> createGlossaryTerms(List<AtlasGlossaryTerm> glossaryTerms) throws AtlasBaseException {
-        List<AtlasGlossaryTerm> ret = new ArrayList<>();
+    // Re-load terms after handling relations, like createTerm()
+    private List<AtlasGlossaryTerm> loadTerms(List<AtlasGlossaryTerm> glossaryTerms) throws AtlasBaseException {
+        List<AtlasGlossaryTerm> ret = new ArrayList<>(glossaryTerms.size());
 
-        for (AtlasGlossaryTerm glossaryTerm : glossaryTerms) {
-            try {
-                ret.add(createTerm(glossaryTerm));
-            } catch (AtlasBaseException e) {
-                throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_CREATE_GLOSSARY_TERM, e);
-            }
+        for (AtlasGlossaryTerm glossaryTerm : dataAccess.load(glossaryTerms)) {
+            setInfoForRelations(glossaryTerm);
+
+            ret.add(glossaryTerm);
         }
 
         return ret;
@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.glossary;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.model.instance.AtlasRelationship;
+import org.apache.atlas.type.AtlasTypeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Writes terms parsed from a glossary import file, in 2 stages: terms and their anchors are created first, then the
+ * relationships between terms - so that terms of the file can refer to each other in any order. Each stage writes
+ * batches in parallel, one graph transaction per batch; when a batch fails, its items are written one at a time to
+ * find the items that fail, which are reported at the end of the import.
+ *
+ * Batches of terms anchored to the same glossary are written one after the other, so that concurrent transactions
+ * don't add anchor edges to the same glossary vertex.
+ *
+ * Worker threads run as the user of the import request.
+ */
+class GlossaryTermImporter {
+    private static final Logger LOG = LoggerFactory.getLogger(GlossaryTermImporter.class);
+
+    private static final String THREAD_NAME_FORMAT = "atlas-glossary-import-%d";
+    private static final int    PROGRESS_LOG_STEPS = 10;
+
+    private final GlossaryImportWriter writer;
+    private final GlossaryTermUtils    glossaryTermUtils;
+    private final int                  threadCount;
+    private final int                  batchSize;
+
+    GlossaryTermImporter(GlossaryImportWriter writer, GlossaryTermUtils glossaryTermUtils, int threadCount, int batchSize) {
+        this.writer            = writer;
+        this.glossaryTermUtils = glossaryTermUtils;
+        this.threadCount       = Math.max(threadCount, 1);
+        this.batchSize         = Math.max(batchSize, 1);
+    }
+
+    public List<AtlasGlossaryTerm> importTerms(List<AtlasGlossaryTerm> glossaryTerms) throws AtlasBaseException {
+        List<AtlasGlossaryTerm>        ret             = new ArrayList<>(glossaryTerms.size());
+        List<String>                   failedTermMsgs  = Collections.synchronizedList(new ArrayList<>());
+        Map<AtlasGlossaryTerm, String> unassignedGuids = new IdentityHashMap<>();
+        ExecutorService                executor        = Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_FORMAT).setDaemon(true).build());
+
+        for (AtlasGlossaryTerm glossaryTerm : glossaryTerms) {
+            unassignedGuids.put(glossaryTerm, glossaryTerm.getGuid());
+        }
+
+        try {
+            write(executor, "terms", glossaryTerms, GlossaryTermImporter::getAnchorGlossaryGuid, AtlasGlossaryTerm::getQualifiedName, batch -> {
+                try {
+                    writer.createTerms(batch);
+                } catch (AtlasBaseException | RuntimeException excp) {
+                    // the transaction is rolled back, guids assigned in the batch are not valid
+                    batch.forEach(glossaryTerm -> glossaryTerm.setGuid(unassignedGuids.get(glossaryTerm)));
+
+                    throw excp;
+                }
+            }, failedTermMsgs);
+
+            Map<String, String> guidAssignments = new HashMap<>();
+
+            for (AtlasGlossaryTerm glossaryTerm : glossaryTerms) {
+                if (AtlasTypeUtil.isAssignedGuid(glossaryTerm.getGuid())) {
+                    guidAssignments.put(unassignedGuids.get(glossaryTerm), glossaryTerm.getGuid());
+
+                    ret.add(glossaryTerm);
+                }
+            }
+
+            glossaryTermUtils.resolveTermReferences(ret, guidAssignments);
+
+            List<AtlasRelationship> relationships = glossaryTermUtils.getTermRelationships(ret, failedTermMsgs);
+
+            write(executor, "term relationships", relationships, null, GlossaryTermImporter::toString, writer::createRelationships, failedTermMsgs);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (!failedTermMsgs.isEmpty()) {
+            throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_CREATE_GLOSSARY_TERM, ret.size() + " of " + glossaryTerms.size() + " terms are created; failed with the following errors : " + "\n" + failedTermMsgs.toString());
+        }
+
+        return ret;
+    }
+
+    /**
+     * @param groupOf items of the same group are written by a single worker, one batch after the other; null to write
+     *                all batches in parallel
+     */
+    private <T> void write(ExecutorService executor, String itemsName, List<T> items, Function<T, String> groupOf, Function<T, String> nameOf, BatchWriter<T> batchWriter, List<String> failedMsgs) throws AtlasBaseException {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        long            startTime       = System.currentTimeMillis();
+        AtomicInteger   writtenCount    = new AtomicInteger();
+        int             progressStep    = Math.max(items.size() / PROGRESS_LOG_STEPS, 1);
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        RequestContext  requestContext  = RequestContext.get();
+        String          user            = requestContext.getUser();
+        Set<String>     userGroups      = requestContext.getUserGroups();
+        String          clientIPAddress = requestContext.getClientIPAddress();
+        List<Future<?>> futures         = new ArrayList<>();
+
+        for (List<List<T>> batches : getBatches(items, groupOf)) {
+            futures.add(executor.submit((Callable<Void>) () -> {
+                SecurityContextHolder.setContext(securityContext);
+                RequestContext.get().setUser(user, userGroups);
+                RequestContext.get().setClientIPAddress(clientIPAddress);
+
+                try {
+                    for (List<T> batch : batches) {
+                        writeBatch(batch, nameOf, batchWriter, failedMsgs);
+
+                        int prevCount = writtenCount.getAndAdd(batch.size());
+
+                        if ((prevCount + batch.size()) / progressStep > prevCount / progressStep) {
+                            LOG.info("glossary import: written {} of {} {}", prevCount + batch.size(), items.size(), itemsName);
+                        }
+                    }
+                } finally {
+                    RequestContext.clear();
+                    SecurityContextHolder.clearContext();
+                }
+
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, excp, "glossary import interrupted");
+        } catch (ExecutionException excp) {
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, excp.getCause(), "glossary import failed");
+        }
+
+        LOG.info("glossary import: written {} {} in {} ms", items.size(), itemsName, System.currentTimeMillis() - startTime);
+    }
+
+    private <T> void writeBatch(List<T> batch, Function<T, String> nameOf, BatchWriter<T> batchWriter, List<String> failedMsgs) {
+        try {
+            batchWriter.write(batch);
+
+            return;
+        } catch (AtlasBaseException | RuntimeException excp) {
+            if (batch.size() == 1) {
+                LOG.warn("glossary import: failed to write {}", nameOf.apply(batch.get(0)), excp);
+
+                failedMsgs.add("\n" + "Failed to import " + nameOf.apply(batch.get(0)) + " : " + excp.getMessage());
+
+                return;
+            }
+
+            LOG.warn("glossary import: failed to write a batch of {}; retrying one at a time", batch.size(), excp);
+        }
+
+        for (T item : batch) {
+            writeBatch(Collections.singletonList(item), nameOf, batchWriter, failedMsgs);
+        }
+    }
+
+    /**
+     * @return batches of items for each worker task
+     */
+    private <T> List<List<List<T>>> getBatches(List<T> items, Function<T, String> groupOf) {
+        List<List<List<T>>> ret = new ArrayList<>();
+
+        if (groupOf == null) {
+            for (List<T> batch : Lists.partition(items, batchSize)) {
+                ret.add(Collections.singletonList(batch));
+            }
+        } else {
+            Map<String, List<T>> groups = new LinkedHashMap<>();
+
+            for (T item : items) {
+                groups.computeIfAbsent(groupOf.apply(item), k -> new ArrayList<>()).add(item);
+            }
+
+            for (List<T> group : groups.values()) {
+                ret.add(Lists.partition(group, batchSize));
+            }
+        }
+
+        return ret;
+    }
+
+    private static String getAnchorGlossaryGuid(AtlasGlossaryTerm glossaryTerm) {
+        return glossaryTerm.getAnchor() != null ? glossaryTerm.getAnchor().getGlossaryGuid() : null;
+    }
+
+    private static String toString(AtlasRelationship relationship) {
+        return relationship.getTypeName() + "(" + relationship.getEnd1().getGuid() + ", " + relationship.getEnd2().getGuid() + ")";
+    }
+
+    private interface BatchWriter<T> {
+        void write(List<T> batch) throws AtlasBaseException;
+    }
+}
@@ -28,12 +28,14 @@ import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.instance.AtlasRelatedObjectId;
 import org.apache.atlas.model.instance.AtlasRelationship;
 import org.apache.atlas.model.instance.AtlasStruct;
+import org.apache.atlas.model.typedef.AtlasRelationshipDef;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.ogm.DataAccess;
 import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
 import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
 import org.apache.atlas.type.AtlasRelationshipType;
 import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeUtil;
 import org.apache.atlas.util.FileUtils;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
@@ -47,6 +49,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -529,9 +532,16 @@ public class GlossaryTermUtils extends GlossaryUtils {
         }
     }
 
+    /**
+     * Parses the records of a glossary import file, validating terms in memory: terms with invalid names, terms repeated
+     * in the file and terms that already exist are reported for each record. A reference to a term defined in the same
+     * file has the unassigned guid of that term, to be replaced with the assigned guid once the term is created.
+     */
     protected List<AtlasGlossaryTerm> getGlossaryTermDataList(List<String[]> fileData, List<String> failedTermMsgs) throws AtlasBaseException {
         List<AtlasGlossaryTerm> glossaryTerms     = new ArrayList<>();
         Map<String, String>     glossaryNameCache = new HashMap<>();
+        Map<String, String>     termGuidCache     = new HashMap<>(); // term qualifiedName -> guid
+        List<String[]>          termRecords       = new ArrayList<>();
 
         for (String[] record : fileData) {
             AtlasGlossaryTerm glossaryTerm = new AtlasGlossaryTerm();
@@ -539,6 +549,8 @@ public class GlossaryTermUtils extends GlossaryUtils {
             if ((record.length < 1) || StringUtils.isBlank(record[0])) {
                 LOG.error("The GlossaryName is blank for the record : ", Arrays.toString(record));
                 failedTermMsgs.add("The GlossaryName is blank for the record : " + Arrays.toString(record));
+
+                continue;
             }
 
             String glossaryName = record[0];
@@ -569,11 +581,43 @@ public class GlossaryTermUtils extends GlossaryUtils {
 
             if (glossaryGuid != null) {
                 glossaryNameCache.put(glossaryName, glossaryGuid);
-                glossaryTerm = populateGlossaryTermObject(failedTermMsgs, record, glossaryGuid);
+
+                String termName = (record.length > 1) ? record[1] : null;
+
+                if (StringUtils.isNotBlank(termName)) {
+                    String qualifiedName = termName + invalidNameChars[0] + glossaryName;
+
+                    if (GlossaryService.isNameInvalid(termName)) {
+                        failedTermMsgs.add("\n" + "The provided TermName is invalid : " + termName + " for record with GlossaryName : " + glossaryName);
+
+                        continue;
+                    } else if (termGuidCache.containsKey(qualifiedName)) {
+                        failedTermMsgs.add("\n" + "The TermName is repeated in the uploaded file : " + termName + " for record with GlossaryName : " + glossaryName);
+
+                        continue;
+                    } else if (getTermGuid(qualifiedName, termGuidCache) != null) {
+                        failedTermMsgs.add("\n" + "The provided TermName already exists in the system : " + termName + " for record with GlossaryName : " + glossaryName);
+
+                        continue;
+                    }
+
+                    glossaryTerm.setQualifiedName(qualifiedName);
+
+                    termGuidCache.put(qualifiedName, glossaryTerm.getGuid());
+                }
+
+                glossaryTerm.setAnchor(new AtlasGlossaryHeader(glossaryGuid));
+
                 glossaryTerms.add(glossaryTerm);
+                termRecords.add(record);
             }
         }
 
+        // all terms of the file are known at this point; relations to terms later in the file are resolved as well
+        for (int i = 0; i < glossaryTerms.size(); i++) {
+            populateGlossaryTermObject(failedTermMsgs, termRecords.get(i), glossaryTerms.get(i), termGuidCache);
+        }
+
         if (failedTermMsgs.size() == 0) {
             return glossaryTerms;
         } else {
@@ -581,6 +625,130 @@ public class GlossaryTermUtils extends GlossaryUtils {
         }
     }
 
+    /**
+     * Replaces references to terms of an import file with the guids assigned to these terms.
+     */
+    protected void resolveTermReferences(Collection<AtlasGlossaryTerm> glossaryTerms, Map<String, String> guidAssignments) {
+        for (AtlasGlossaryTerm glossaryTerm : glossaryTerms) {
+            for (Set<AtlasRelatedTermHeader> termHeaders : glossaryTerm.getRelatedTerms().values()) {
+                List<AtlasRelatedTermHeader> resolvedHeaders = new ArrayList<>(termHeaders);
+
+                for (AtlasRelatedTermHeader termHeader : resolvedHeaders) {
+                    String assignedGuid = guidAssignments.get(termHeader.getTermGuid());
+
+                    if (assignedGuid != null) {
+                        termHeader.setTermGuid(assignedGuid);
+                    }
+                }
+
+                // headers are hashed by termGuid
+                termHeaders.clear();
+                termHeaders.addAll(resolvedHeaders);
+            }
+        }
+    }
+
+    /**
+     * @return relationships to create for the related terms of imported terms; a relationship listed at both ends,
+     * like seeAlso of 2 terms referring to each other, is returned once
+     */
+    protected List<AtlasRelationship> getTermRelationships(Collection<AtlasGlossaryTerm> glossaryTerms, List<String> failedTermMsgs) {
+        Map<String, AtlasRelationship> ret = new LinkedHashMap<>();
+
+        for (AtlasGlossaryTerm glossaryTerm : glossaryTerms) {
+            for (Map.Entry<AtlasGlossaryTerm.Relation, Set<AtlasRelatedTermHeader>> entry : glossaryTerm.getRelatedTerms().entrySet()) {
+                for (AtlasRelatedTermHeader termHeader : entry.getValue()) {
+                    if (!AtlasTypeUtil.isAssignedGuid(termHeader.getTermGuid())) {
+                        failedTermMsgs.add("\n" + "The related term " + termHeader.getDisplayText() + " was not imported; " + entry.getKey().getAttrName() + " relation of term " + glossaryTerm.getQualifiedName() + " is not created");
+
+                        continue;
+                    }
+
+                    AtlasRelationship relationship = defineTermRelation(entry.getKey(), glossaryTerm.getGuid(), termHeader);
+
+                    ret.putIfAbsent(getRelationshipKey(relationship), relationship);
+                }
+            }
+        }
+
+        return new ArrayList<>(ret.values());
+    }
+
+    /**
+     * Validates a term to be created, and derives its qualifiedName from the anchor glossary.
+     */
+    protected void validateTermToCreate(AtlasGlossaryTerm glossaryTerm) throws AtlasBaseException {
+        if (Objects.isNull(glossaryTerm)) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "GlossaryTerm definition missing");
+        }
+        if (Objects.isNull(glossaryTerm.getAnchor())) {
+            throw new AtlasBaseException(AtlasErrorCode.MISSING_MANDATORY_ANCHOR);
+        }
+        if (StringUtils.isEmpty(glossaryTerm.getName())) {
+            throw new AtlasBaseException(AtlasErrorCode.GLOSSARY_TERM_QUALIFIED_NAME_CANT_BE_DERIVED);
+        }
+
+        if (GlossaryService.isNameInvalid(glossaryTerm.getName())) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_DISPLAY_NAME);
+        } else {
+            // Derive the qualifiedName
+            String        anchorGlossaryGuid = glossaryTerm.getAnchor().getGlossaryGuid();
+            AtlasGlossary glossary           = dataAccess.load(getGlossarySkeleton(anchorGlossaryGuid));
+            glossaryTerm.setQualifiedName(glossaryTerm.getName() + "@" + glossary.getQualifiedName());
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Derived qualifiedName = {}", glossaryTerm.getQualifiedName());
+            }
+        }
+
+        // This might fail for the case when the term's qualifiedName has been updated and the duplicate request comes in with old name
+        AtlasVertex vertex = AtlasGraphUtilsV2.findByTypeAndUniquePropertyName(GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME, GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME + invalidNameChars[1] + QUALIFIED_NAME_ATTR, glossaryTerm.getQualifiedName());
+
+        if (vertex != null) {
+            throw new AtlasBaseException(AtlasErrorCode.GLOSSARY_TERM_ALREADY_EXISTS, glossaryTerm.getQualifiedName());
+        }
+    }
+
+    protected void createTermAnchor(AtlasGlossaryTerm glossaryTerm) throws AtlasBaseException {
+        if (Objects.isNull(glossaryTerm.getAnchor().getGlossaryGuid())) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_NEW_ANCHOR_GUID);
+        }
+
+        createRelationship(defineTermAnchorRelation(glossaryTerm.getAnchor().getGlossaryGuid(), glossaryTerm.getGuid()));
+    }
+
+    private String getRelationshipKey(AtlasRelationship relationship) {
+        AtlasRelationshipDef relationshipDef = typeRegistry.getRelationshipDefByName(relationship.getTypeName());
+        String               end1Guid        = relationship.getEnd1().getGuid();
+        String               end2Guid        = relationship.getEnd2().getGuid();
+
+        // both ends of relationships like seeAlso and synonyms have the same name, their order doesn't matter
+        if (StringUtils.equals(relationshipDef.getEndDef1().getName(), relationshipDef.getEndDef2().getName()) && end1Guid.compareTo(end2Guid) > 0) {
+            String temp = end1Guid;
+
+            end1Guid = end2Guid;
+            end2Guid = temp;
+        }
+
+        return relationship.getTypeName() + ":" + end1Guid + ":" + end2Guid;
+    }
+
+    private String getTermGuid(String qualifiedName, Map<String, String> termGuidCache) {
+        String ret = termGuidCache.get(qualifiedName);
+
+        if (ret == null) {
+            AtlasVertex vertex = AtlasGraphUtilsV2.findByTypeAndUniquePropertyName(GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME, GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME + invalidNameChars[1] + QUALIFIED_NAME_ATTR, qualifiedName);
+
+            if (vertex != null) {
+                ret = AtlasGraphUtilsV2.getIdFromVertex(vertex);
+
+                termGuidCache.put(qualifiedName, ret);
+            }
+        }
+
+        return ret;
+    }
+
     public static String getGlossaryTermHeaders() {
         List<String> ret = new ArrayList<>();
 
@@ -641,33 +809,36 @@ public class GlossaryTermUtils extends GlossaryUtils {
         return ret;
     }
 
-    protected Set getAtlasRelatedTermHeaderSet(String csvRecord, String termName, String glossaryName, List<String> failedTermMsgs) {
+    protected Set getAtlasRelatedTermHeaderSet(String csvRecord, String termName, String glossaryName, Map<String, String> termGuidCache, List<String> failedTermMsgs) {
         Set ret = null;
 
         if (StringUtils.isNotBlank(csvRecord)) {
             ret                                     = new HashSet();
             String                 csvRecordArray[] = csvRecord.split(FileUtils.ESCAPE_CHARACTER + FileUtils.PIPE_CHARACTER);
+            String                 termGuid         = termGuidCache.get(termName + invalidNameChars[0] + glossaryName);
             AtlasRelatedTermHeader relatedTermHeader;
 
             for (String data : csvRecordArray) {
-                AtlasVertex vertex      = null;
-                String      dataArray[] = data.split(FileUtils.ESCAPE_CHARACTER + FileUtils.COLON_CHARACTER);
+                String dataArray[] = data.split(FileUtils.ESCAPE_CHARACTER + FileUtils.COLON_CHARACTER);
 
-                if ((dataArray.length % 2) == 0) {
-                    vertex = AtlasGraphUtilsV2.findByTypeAndUniquePropertyName(GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME,
-                            GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME + invalidNameChars[1] + QUALIFIED_NAME_ATTR, dataArray[1] + invalidNameChars[0] + dataArray[0]);
-                } else {
+                if ((dataArray.length % 2) != 0) {
                     failedTermMsgs.add("\n" + "Either incorrect data specified for Term or Term does not exist : " +termName);
+
+                    continue;
                 }
 
-                if (vertex != null) {
-                    String glossaryTermGuid = AtlasGraphUtilsV2.getIdFromVertex(vertex);
-                    relatedTermHeader       = new AtlasRelatedTermHeader();
-                    relatedTermHeader.setTermGuid(glossaryTermGuid);
-                    ret.add(relatedTermHeader);
-                } else {
+                String relatedTermGuid = getTermGuid(dataArray[1] + invalidNameChars[0] + dataArray[0], termGuidCache);
+
+                if (relatedTermGuid == null) {
                     failedTermMsgs.add("\n" + "The provided Reference Glossary and TermName does not exist in the system " +
                             dataArray[1] + FileUtils.COLON_CHARACTER + dataArray[0] + " for record with TermName  : " + termName + " and GlossaryName : " + glossaryName);
+                } else if (relatedTermGuid.equals(termGuid)) {
+                    failedTermMsgs.add("\n" + "The Term can't have a relationship with self : " + termName + " for record with GlossaryName : " + glossaryName);
+                } else {
+                    relatedTermHeader = new AtlasRelatedTermHeader();
+                    relatedTermHeader.setTermGuid(relatedTermGuid);
+                    relatedTermHeader.setDisplayText(dataArray[1]);
+                    ret.add(relatedTermHeader);
                 }
             }
 
@@ -677,8 +848,7 @@ public class GlossaryTermUtils extends GlossaryUtils {
         return ret;
     }
 
-    protected AtlasGlossaryTerm populateGlossaryTermObject(List<String> failedTermMsgList, String[] record, String glossaryGuid) {
-        AtlasGlossaryTerm ret    = new AtlasGlossaryTerm();
+    protected AtlasGlossaryTerm populateGlossaryTermObject(List<String> failedTermMsgList, String[] record, AtlasGlossaryTerm ret, Map<String, String> termGuidCache) {
         int               i      = 0;
         int               length = record.length;
 
@@ -699,33 +869,31 @@ public class GlossaryTermUtils extends GlossaryUtils {
 
             ret.setAdditionalAttributes(((length > ++i) ? (Map<String, Object>) getMapValue(record[i], failedTermMsgList) : null));
 
-            ret.setTranslationTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
-
-            ret.setValidValuesFor((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setTranslationTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setSynonyms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setValidValuesFor((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setReplacedBy((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setSynonyms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setValidValues((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setReplacedBy((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setReplacementTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setValidValues((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setSeeAlso((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setReplacementTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setTranslatedTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setSeeAlso((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setIsA((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setTranslatedTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setAnchor(new AtlasGlossaryHeader(glossaryGuid));
+            ret.setIsA((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setAntonyms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setAntonyms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setClassifies((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setClassifies((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setPreferredToTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setPreferredToTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
 
-            ret.setPreferredTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setPreferredTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], termGuidCache, failedTermMsgList) : null);
         }
 
         return ret;
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.repository.audit;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Row keys of the entity audit index table:
+ * <p>
+ * A:action:timestamp:eventKey - events by action and time; to find entities with classification changes in a time range <br>
+ * E:entityId:action:timestamp:eventKey - events of an entity by action, in time order <br>
+ * M:startTime - time from which events are indexed <br>
+ * <p>
+ * Timestamps are zero-padded, so that the order of keys matches the order of time. Column COLUMN_EVENT_KEY of index
+ * rows has the key of the event in the audit table.
+ */
+final class HBaseAuditIndex {
+    static final byte[] COLUMN_EVENT_KEY  = Bytes.toBytes("k");
+    static final byte[] COLUMN_START_TIME = Bytes.toBytes("t");
+    static final byte[] START_TIME_ROW    = Bytes.toBytes("M:startTime");
+
+    private static final String PREFIX_ACTION_TIME   = "A";
+    private static final String PREFIX_ENTITY_ACTION = "E";
+    private static final String SEPARATOR            = ":";
+    private static final String SEPARATOR_NEXT       = ";"; // the character after SEPARATOR; to end a prefix scan
+
+    private HBaseAuditIndex() {
+    }
+
+    static List<String> getIndexKeys(String entityId, String action, long timestamp, String eventKey) {
+        String ts = toString(timestamp);
+
+        return Arrays.asList(PREFIX_ACTION_TIME + SEPARATOR + action + SEPARATOR + ts + SEPARATOR + eventKey,
+                             PREFIX_ENTITY_ACTION + SEPARATOR + entityId + SEPARATOR + action + SEPARATOR + ts + SEPARATOR + eventKey);
+    }
+
+    /**
+     * @return key before all index rows of the given action at or after the given time
+     */
+    static byte[] getActionTimeKey(String action, long timestamp) {
+        return Bytes.toBytes(PREFIX_ACTION_TIME + SEPARATOR + action + SEPARATOR + toString(timestamp));
+    }
+
+    static byte[] getEntityActionStartKey(String entityId, String action) {
+        return Bytes.toBytes(PREFIX_ENTITY_ACTION + SEPARATOR + entityId + SEPARATOR + action + SEPARATOR);
+    }
+
+    static byte[] getEntityActionStopKey(String entityId, String action) {
+        return Bytes.toBytes(PREFIX_ENTITY_ACTION + SEPARATOR + entityId + SEPARATOR + action + SEPARATOR_NEXT);
+    }
+
+    static String getEntityId(String eventKey) {
+        int idx = eventKey.indexOf(SEPARATOR);
+
+        return idx == -1 ? eventKey : eventKey.substring(0, idx);
+    }
+
+    private static String toString(long timestamp) {
+        return String.format("%019d", Math.max(timestamp, 0));
+    }
+}
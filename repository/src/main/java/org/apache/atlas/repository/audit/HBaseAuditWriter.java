@@ -0,0 +1,458 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.lang.StringUtils;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.atlas.repository.audit.HBaseBasedAuditRepository.COLUMN_FAMILY;
+
+/**
+ * Writes audit rows to HBase asynchronously: rows queued by concurrent requests are written by a single thread, in
+ * batches of up to batchSize rows per BufferedMutator flush. Index rows of the batch, if any, are written after the
+ * audit rows.
+ *
+ * When the queue is full, callers wait up to offerTimeoutMs for space, after which their rows are appended to a local
+ * fallback file instead. Rows that fail to be written to HBase are appended to the fallback file as well; fallback
+ * files are replayed to HBase, and deleted, once writes succeed again - including after a restart.
+ */
+public class HBaseAuditWriter implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(HBaseAuditWriter.class);
+
+    private static final String FALLBACK_FILE_PREFIX = "audit-";
+    private static final String FALLBACK_FILE_SUFFIX = ".json";
+    private static final long   POLL_INTERVAL_MS     = 100;
+
+    private final BufferedMutator          mutator;
+    private final BufferedMutator          indexMutator;
+    private final File                     fallbackDir;
+    private final BlockingQueue<AuditRow>  queue;
+    private final int                      batchSize;
+    private final long                     offerTimeoutMs;
+    private final long                     retryIntervalMs;
+    private final Thread                   writerThread;
+    private final Object                   fallbackLock  = new Object();
+    private final AtomicLong               writtenCount  = new AtomicLong();
+    private final AtomicLong               spilledCount  = new AtomicLong();
+    private final AtomicLong               replayedCount = new AtomicLong();
+    private       FileOutputStream         fallbackStream;
+    private       int                      fallbackFileSeq;
+    private volatile boolean               fallbackPending;
+    private volatile boolean               closed;
+    private       long                     lastReplayTime;
+
+    public HBaseAuditWriter(BufferedMutator mutator, BufferedMutator indexMutator, File fallbackDir, int queueSize, int batchSize, long offerTimeoutMs, long retryIntervalMs) {
+        this.mutator         = mutator;
+        this.indexMutator    = indexMutator;
+        this.fallbackDir     = fallbackDir;
+        this.queue           = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize       = batchSize;
+        this.offerTimeoutMs  = offerTimeoutMs;
+        this.retryIntervalMs = retryIntervalMs;
+        this.writerThread    = new Thread(this::run, "atlas-audit-writer");
+        this.fallbackPending = getFallbackFiles().length > 0;
+
+        writerThread.setDaemon(true);
+
+        LOG.info("HBaseAuditWriter: queueSize={}, batchSize={}, offerTimeoutMs={}, retryIntervalMs={}, fallbackDir={}, fallbackPending={}",
+                 queueSize, batchSize, offerTimeoutMs, retryIntervalMs, fallbackDir, fallbackPending);
+    }
+
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * Queues the given rows to be written to HBase. Blocks when the queue is full, for up to offerTimeoutMs per row;
+     * rows that can't be queued in time are written to the fallback file.
+     */
+    public void write(List<AuditRow> rows) {
+        List<AuditRow> notQueued = null;
+
+        for (int i = 0; i < rows.size(); i++) {
+            AuditRow row = rows.get(i);
+
+            try {
+                if (closed || !queue.offer(row, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    notQueued = rows.subList(i, rows.size());
+                }
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+
+                notQueued = rows.subList(i, rows.size());
+            }
+
+            if (notQueued != null) {
+                break;
+            }
+        }
+
+        if (notQueued != null) {
+            LOG.warn("Audit queue is full, or the writer is closed. Writing {} audit events to fallback file", notQueued.size());
+
+            spill(notQueued);
+        }
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    public long getReplayedCount() {
+        return replayedCount.get();
+    }
+
+    public boolean isFallbackPending() {
+        return fallbackPending;
+    }
+
+    /**
+     * Stops the writer thread after the queued rows are written, or are written to the fallback file.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+
+        try {
+            writerThread.join();
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+        }
+
+        // rows queued by callers racing with close(), or left over if the wait above was interrupted
+        List<AuditRow> remaining = new ArrayList<>();
+
+        queue.drainTo(remaining);
+
+        if (!remaining.isEmpty()) {
+            writeOrSpill(remaining);
+        }
+
+        synchronized (fallbackLock) {
+            closeFallbackStream();
+        }
+
+        mutator.close();
+
+        if (indexMutator != null) {
+            indexMutator.close();
+        }
+
+        LOG.info("HBaseAuditWriter closed: written={}, spilled={}, replayed={}", writtenCount.get(), spilledCount.get(), replayedCount.get());
+    }
+
+    private void run() {
+        List<AuditRow> batch = new ArrayList<>(batchSize);
+
+        while (!closed || !queue.isEmpty()) {
+            try {
+                AuditRow row = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+                if (row != null) {
+                    batch.add(row);
+
+                    queue.drainTo(batch, batchSize - 1);
+
+                    writeOrSpill(batch);
+
+                    batch.clear();
+                }
+
+                if (fallbackPending && !closed && System.currentTimeMillis() - lastReplayTime >= retryIntervalMs) {
+                    replayFallback();
+                }
+            } catch (InterruptedException excp) {
+                LOG.warn("HBaseAuditWriter: interrupted");
+
+                break;
+            } catch (Throwable t) {
+                LOG.error("HBaseAuditWriter: unexpected error", t);
+
+                if (!batch.isEmpty()) {
+                    spill(batch);
+
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void writeOrSpill(List<AuditRow> rows) {
+        try {
+            writeToHBase(rows);
+
+            writtenCount.addAndGet(rows.size());
+        } catch (IOException excp) {
+            LOG.warn("Failed to write {} audit events to HBase. Writing them to fallback file", rows.size(), excp);
+
+            spill(rows);
+        }
+    }
+
+    private void writeToHBase(List<AuditRow> rows) throws IOException {
+        List<Put> puts      = new ArrayList<>(rows.size());
+        List<Put> indexPuts = new ArrayList<>();
+
+        for (AuditRow row : rows) {
+            puts.add(row.toPut());
+            indexPuts.addAll(row.toIndexPuts());
+        }
+
+        mutator.mutate(puts);
+        mutator.flush();
+
+        if (indexMutator != null && !indexPuts.isEmpty()) {
+            indexMutator.mutate(indexPuts);
+            indexMutator.flush();
+        }
+    }
+
+    private void spill(List<AuditRow> rows) {
+        synchronized (fallbackLock) {
+            try {
+                if (fallbackStream == null) {
+                    if (!fallbackDir.exists() && !fallbackDir.mkdirs()) {
+                        throw new IOException("failed to create directory " + fallbackDir);
+                    }
+
+                    File file = new File(fallbackDir, FALLBACK_FILE_PREFIX + System.currentTimeMillis() + "-" + (fallbackFileSeq++) + FALLBACK_FILE_SUFFIX);
+
+                    fallbackStream = new FileOutputStream(file, true);
+                }
+
+                StringBuilder sb = new StringBuilder();
+
+                for (AuditRow row : rows) {
+                    sb.append(AtlasType.toJson(row)).append('\n');
+                }
+
+                fallbackStream.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+                fallbackStream.getFD().sync();
+
+                fallbackPending = true;
+
+                spilledCount.addAndGet(rows.size());
+            } catch (IOException excp) {
+                LOG.error("Failed to write {} audit events to fallback directory {}. These events are lost", rows.size(), fallbackDir, excp);
+            }
+        }
+    }
+
+    private void replayFallback() {
+        lastReplayTime = System.currentTimeMillis();
+
+        File[] files;
+
+        synchronized (fallbackLock) {
+            closeFallbackStream(); // rows spilled from now on go to a new file, to be replayed next time
+
+            files = getFallbackFiles();
+        }
+
+        for (File file : files) {
+            try {
+                long count = replay(file);
+
+                if (!file.delete()) {
+                    LOG.warn("Failed to delete audit fallback file {}", file);
+                }
+
+                replayedCount.addAndGet(count);
+
+                LOG.info("Replayed {} audit events from fallback file {}", count, file);
+            } catch (IOException excp) {
+                LOG.warn("Failed to replay audit fallback file {}. Will retry in {}ms", file, retryIntervalMs, excp);
+
+                return;
+            }
+        }
+
+        synchronized (fallbackLock) {
+            fallbackPending = fallbackStream != null;
+        }
+    }
+
+    // rows of a partially replayed file are written again on retry; being puts of the same key, this is harmless
+    private long replay(File file) throws IOException {
+        long ret = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            List<AuditRow> batch = new ArrayList<>(batchSize);
+
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+
+                AuditRow row;
+
+                try {
+                    row = AtlasType.fromJson(line, AuditRow.class);
+                } catch (Exception excp) { // likely a partial line, written when the server stopped
+                    LOG.warn("Ignoring invalid audit event in fallback file {}: {}", file, line);
+
+                    continue;
+                }
+
+                if (row == null || row.getKey() == null) {
+                    continue;
+                }
+
+                batch.add(row);
+
+                if (batch.size() >= batchSize) {
+                    writeToHBase(batch);
+
+                    ret += batch.size();
+
+                    batch.clear();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                writeToHBase(batch);
+
+                ret += batch.size();
+            }
+        }
+
+        return ret;
+    }
+
+    private File[] getFallbackFiles() {
+        File[] ret = fallbackDir.listFiles((dir, name) -> name.startsWith(FALLBACK_FILE_PREFIX) && name.endsWith(FALLBACK_FILE_SUFFIX));
+
+        if (ret == null) {
+            ret = new File[0];
+        }
+
+        Arrays.sort(ret);
+
+        return ret;
+    }
+
+    private void closeFallbackStream() {
+        if (fallbackStream != null) {
+            try {
+                fallbackStream.close();
+            } catch (IOException excp) {
+                LOG.warn("Failed to close audit fallback file", excp);
+            }
+
+            fallbackStream = null;
+        }
+    }
+
+    /**
+     * An audit event row: key and the values of columns in COLUMN_FAMILY, along with keys of its index rows
+     */
+    public static class AuditRow {
+        private String              key;
+        private Map<String, String> columns = new LinkedHashMap<>();
+        private List<String>        indexKeys;
+
+        public AuditRow() {
+        }
+
+        public AuditRow(byte[] key) {
+            this.key = Bytes.toString(key);
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public Map<String, String> getColumns() {
+            return columns;
+        }
+
+        public void setColumns(Map<String, String> columns) {
+            this.columns = columns;
+        }
+
+        public List<String> getIndexKeys() {
+            return indexKeys;
+        }
+
+        public void setIndexKeys(List<String> indexKeys) {
+            this.indexKeys = indexKeys;
+        }
+
+        public <T> void addColumn(byte[] columnName, T columnValue) {
+            if (columnValue != null && !columnValue.toString().isEmpty()) {
+                columns.put(Bytes.toString(columnName), columnValue.toString());
+            }
+        }
+
+        public Put toPut() {
+            Put ret = new Put(Bytes.toBytes(key));
+
+            if (columns != null) {
+                for (Map.Entry<String, String> entry : columns.entrySet()) {
+                    ret.addColumn(COLUMN_FAMILY, Bytes.toBytes(entry.getKey()), Bytes.toBytes(entry.getValue()));
+                }
+            }
+
+            return ret;
+        }
+
+        public List<Put> toIndexPuts() {
+            List<Put> ret = new ArrayList<>();
+
+            if (indexKeys != null) {
+                for (String indexKey : indexKeys) {
+                    ret.add(new Put(Bytes.toBytes(indexKey)).addColumn(COLUMN_FAMILY, HBaseAuditIndex.COLUMN_EVENT_KEY, Bytes.toBytes(key)));
+                }
+            }
+
+            return ret;
+        }
+    }
+}
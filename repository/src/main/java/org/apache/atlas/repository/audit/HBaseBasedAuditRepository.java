@@ -28,6 +28,7 @@ import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.ha.HAConfiguration;
 import org.apache.atlas.model.audit.EntityAuditEventV2;
 import org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2;
+import org.apache.atlas.repository.audit.HBaseAuditWriter.AuditRow;
 import org.apache.atlas.utils.AtlasPerfMetrics;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.configuration.Configuration;
@@ -39,6 +40,7 @@ import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
@@ -48,6 +50,9 @@ import org.apache.hadoop.hbase.filter.BinaryComparator;
 import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter;
 import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
 import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
 import org.apache.hadoop.hbase.filter.PageFilter;
 import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
@@ -62,6 +67,7 @@ import org.springframework.core.annotation.Order;
 
 import javax.inject.Singleton;
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -86,6 +92,9 @@ import java.util.Set;
  * entity id + timestamp, and only 1 version is kept, there can be just 1 audit event per entity
  * id + timestamp. This is ok for one atlas server. But if there are more than one atlas servers,
  * we should use server id in the key
+ * <p>
+ * When atlas.audit.hbase.async.enabled is true, V2 events are written asynchronously by {@link HBaseAuditWriter}; such
+ * events are listed only after the writer flushes them to HBase.
  */
 @Singleton
 @Component
@@ -98,6 +107,14 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
     public static final String CONFIG_TABLE_NAME = CONFIG_PREFIX + ".hbase.tablename";
     public static final String DEFAULT_TABLE_NAME = "ATLAS_ENTITY_AUDIT_EVENTS";
     public static final String CONFIG_PERSIST_ENTITY_DEFINITION = CONFIG_PREFIX + ".persistEntityDefinition";
+    public static final String CONFIG_ASYNC_ENABLED = CONFIG_PREFIX + ".hbase.async.enabled";
+    public static final String CONFIG_ASYNC_QUEUE_SIZE = CONFIG_PREFIX + ".hbase.async.queue.size";
+    public static final String CONFIG_ASYNC_BATCH_SIZE = CONFIG_PREFIX + ".hbase.async.batch.size";
+    public static final String CONFIG_ASYNC_OFFER_TIMEOUT_MS = CONFIG_PREFIX + ".hbase.async.offer.timeout.ms";
+    public static final String CONFIG_ASYNC_RETRY_INTERVAL_MS = CONFIG_PREFIX + ".hbase.async.retry.interval.ms";
+    public static final String CONFIG_ASYNC_FALLBACK_DIR = CONFIG_PREFIX + ".hbase.async.fallback.dir";
+    public static final String CONFIG_INDEX_ENABLED = CONFIG_PREFIX + ".hbase.index.enabled";
+    public static final String CONFIG_INDEX_TABLE_NAME = CONFIG_PREFIX + ".hbase.index.tablename";
 
     public static final byte[] COLUMN_FAMILY = Bytes.toBytes("dt");
     public static final byte[] COLUMN_ACTION = Bytes.toBytes("a");
@@ -124,7 +141,10 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         }
     }
     private TableName tableName;
+    private TableName indexTableName;
     private Connection connection;
+    private HBaseAuditWriter auditWriter;
+    private volatile long indexStartTime = Long.MAX_VALUE; // time from which events are indexed; unknown till the index table is initialized
 
     /**
      * Add events to the event repository
@@ -191,33 +211,57 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
             LOG.debug("Putting {} events", events.size());
         }
 
-        Table table = null;
+        List<AuditRow> rows = new ArrayList<>(events.size());
 
-        try {
-            table          = connection.getTable(tableName);
-            List<Put> puts = new ArrayList<>(events.size());
+        for (int index = 0; index < events.size(); index++) {
+            EntityAuditEventV2 event = events.get(index);
 
-            for (int index = 0; index < events.size(); index++) {
-                EntityAuditEventV2 event = events.get(index);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Adding entity audit event {}", event);
+            }
 
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("Adding entity audit event {}", event);
-                }
+            AuditRow row = new AuditRow(getKey(event.getEntityId(), event.getTimestamp(), index));
 
-                Put put = new Put(getKey(event.getEntityId(), event.getTimestamp(), index));
+            row.addColumn(COLUMN_ACTION, event.getAction());
+            row.addColumn(COLUMN_USER, event.getUser());
+            row.addColumn(COLUMN_DETAIL, event.getDetails());
 
-                addColumn(put, COLUMN_ACTION, event.getAction());
-                addColumn(put, COLUMN_USER, event.getUser());
-                addColumn(put, COLUMN_DETAIL, event.getDetails());
+            if (persistEntityDefinition) {
+                row.addColumn(COLUMN_DEFINITION, event.getEntityDefinitionString());
+            }
 
-                if (persistEntityDefinition) {
-                    addColumn(put, COLUMN_DEFINITION, event.getEntityDefinitionString());
-                }
+            if (indexTableName != null && event.getAction() != null) {
+                row.setIndexKeys(HBaseAuditIndex.getIndexKeys(event.getEntityId(), event.getAction().toString(), event.getTimestamp(), row.getKey()));
+            }
 
-                puts.add(put);
+            rows.add(row);
+        }
+
+        if (auditWriter != null) {
+            auditWriter.write(rows);
+
+            return;
+        }
+
+        Table table = null;
+
+        try {
+            table          = connection.getTable(tableName);
+            List<Put> puts      = new ArrayList<>(rows.size());
+            List<Put> indexPuts = new ArrayList<>();
+
+            for (AuditRow row : rows) {
+                puts.add(row.toPut());
+                indexPuts.addAll(row.toIndexPuts());
             }
 
             table.put(puts);
+
+            if (!indexPuts.isEmpty()) {
+                try (Table indexTable = connection.getTable(indexTableName)) {
+                    indexTable.put(indexPuts);
+                }
+            }
         } catch (IOException e) {
             throw new AtlasBaseException(e);
         } finally {
@@ -348,6 +392,18 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         }
 
         try (Table table = connection.getTable(tableName)) {
+            if (StringUtils.equalsIgnoreCase(sortByColumn, EntityAuditEventV2.SORT_COLUMN_TIMESTAMP) && StringUtils.isNotEmpty(entityId)) {
+                List<EntityAuditEventV2> events = listEventsV2ByTimestamp(table, entityId, auditAction, sortOrderDesc, offset, limit);
+
+                if (events != null) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("<== HBaseBasedAuditRepository.listEventsV2(entityId={}, auditAction={}, sortByColumn={}, sortOrderDesc={}, offset={}, limit={}): #recored returned {}", entityId, auditAction, sortByColumn, sortOrderDesc, offset, limit, events.size());
+                    }
+
+                    return events;
+                }
+            }
+
             /*
              * HBase Does not support query with sorted results. To support this API inmemory sort has to be performed.
              * Audit entry can potentially have entire entity dumped into it. Loading entire audit entries for an entity can be
@@ -642,6 +698,10 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
     }
 
     private void createTableIfNotExists() throws AtlasException {
+        createTableIfNotExists(tableName);
+    }
+
+    private void createTableIfNotExists(TableName tableName) throws AtlasException {
         Admin admin = null;
         try {
             admin = connection.getAdmin();
@@ -666,8 +726,48 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         }
     }
 
+    /**
+     * Creates the index table if required, and reads the time from which events are indexed - recorded in the table
+     * when it is first used. Index-backed queries are used only for events after this time.
+     */
+    private void initIndex() throws AtlasException {
+        if (indexTableName == null) {
+            return;
+        }
+
+        createTableIfNotExists(indexTableName);
+
+        try (Table indexTable = connection.getTable(indexTableName)) {
+            Result result = indexTable.get(new Get(HBaseAuditIndex.START_TIME_ROW));
+            byte[] value  = result.getValue(COLUMN_FAMILY, HBaseAuditIndex.COLUMN_START_TIME);
+
+            if (value == null) {
+                value = Bytes.toBytes(System.currentTimeMillis());
+
+                indexTable.checkAndMutate(HBaseAuditIndex.START_TIME_ROW, COLUMN_FAMILY).qualifier(HBaseAuditIndex.COLUMN_START_TIME).ifNotExists()
+                          .thenPut(new Put(HBaseAuditIndex.START_TIME_ROW).addColumn(COLUMN_FAMILY, HBaseAuditIndex.COLUMN_START_TIME, value));
+
+                value = indexTable.get(new Get(HBaseAuditIndex.START_TIME_ROW)).getValue(COLUMN_FAMILY, HBaseAuditIndex.COLUMN_START_TIME);
+            }
+
+            indexStartTime = Bytes.toLong(value);
+
+            LOG.info("Audit index table {}: events are indexed from {}", indexTableName.getNameAsString(), indexStartTime);
+        } catch (IOException e) {
+            throw new AtlasException(e);
+        }
+    }
+
+    private boolean isIndexed(long fromTimestamp) {
+        return indexTableName != null && fromTimestamp >= indexStartTime;
+    }
+
     @Override
     public Set<String> getEntitiesWithTagChanges(long fromTimestamp, long toTimestamp) throws AtlasBaseException {
+        if (isIndexed(fromTimestamp)) {
+            return getEntitiesWithTagChangesFromIndex(fromTimestamp, toTimestamp);
+        }
+
         final String classificationUpdatesAction = "CLASSIFICATION_";
 
         if (LOG.isDebugEnabled()) {
@@ -712,6 +812,142 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         }
     }
 
+    private Set<String> getEntitiesWithTagChangesFromIndex(long fromTimestamp, long toTimestamp) throws AtlasBaseException {
+        Set<String> ret = new HashSet<>();
+
+        try (Table indexTable = connection.getTable(indexTableName)) {
+            for (EntityAuditActionV2 action : EntityAuditActionV2.values()) {
+                if (!action.name().startsWith("CLASSIFICATION_")) {
+                    continue;
+                }
+
+                Scan scan = new Scan().withStartRow(HBaseAuditIndex.getActionTimeKey(action.name(), fromTimestamp))
+                                      .withStopRow(HBaseAuditIndex.getActionTimeKey(action.name(), toTimestamp))
+                                      .addColumn(COLUMN_FAMILY, HBaseAuditIndex.COLUMN_EVENT_KEY)
+                                      .setCaching(DEFAULT_CACHING);
+
+                try (ResultScanner scanner = indexTable.getScanner(scan)) {
+                    for (Result result = scanner.next(); result != null; result = scanner.next()) {
+                        String eventKey = getResultString(result, HBaseAuditIndex.COLUMN_EVENT_KEY);
+
+                        if (eventKey != null) {
+                            ret.add(HBaseAuditIndex.getEntityId(eventKey));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new AtlasBaseException(e);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("getEntitiesWithTagChangesFromIndex(fromTimestamp={}, toTimestamp={}): {} entities", fromTimestamp, toTimestamp, ret.size());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Lists events of the given entity in the order of time, with a range scan that reads only offset + limit keys.
+     * Events of an action are scanned in the index table, others in the audit table - whose keys are ordered by time for
+     * an entity.
+     * @return null if the events can't be listed this way, as the entity has events before the index start time
+     */
+    private List<EntityAuditEventV2> listEventsV2ByTimestamp(Table table, String entityId, EntityAuditActionV2 auditAction, boolean sortOrderDesc, int offset, short limit) throws IOException {
+        final Table  keysTable;
+        final byte[] startRow;
+        final byte[] stopRow;
+        final Scan   scan;
+
+        if (auditAction == null) {
+            keysTable = table;
+            startRow  = Bytes.toBytes(entityId + FIELD_SEPARATOR);
+            stopRow   = Bytes.toBytes(entityId + (char) (FIELD_SEPARATOR.charAt(0) + 1));
+            scan      = new Scan().setFilter(new FilterList(new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+        } else if (indexTableName != null && isIndexed(getFirstEventTimestamp(table, entityId))) {
+            keysTable = connection.getTable(indexTableName);
+            startRow  = HBaseAuditIndex.getEntityActionStartKey(entityId, auditAction.toString());
+            stopRow   = HBaseAuditIndex.getEntityActionStopKey(entityId, auditAction.toString());
+            scan      = new Scan().addColumn(COLUMN_FAMILY, HBaseAuditIndex.COLUMN_EVENT_KEY);
+        } else {
+            return null;
+        }
+
+        List<Get> gets = new ArrayList<>(limit);
+
+        try {
+            if (sortOrderDesc) {
+                scan.setReversed(true).withStartRow(stopRow).withStopRow(startRow);
+            } else {
+                scan.withStartRow(startRow).withStopRow(stopRow);
+            }
+
+            scan.setLimit(offset + limit).setCaching(Math.min(offset + limit, DEFAULT_CACHING));
+
+            try (ResultScanner scanner = keysTable.getScanner(scan)) {
+                int count = 0;
+
+                for (Result result = scanner.next(); result != null && gets.size() < limit; result = scanner.next()) {
+                    if (count++ < offset) {
+                        continue;
+                    }
+
+                    byte[] eventKey = auditAction == null ? result.getRow() : result.getValue(COLUMN_FAMILY, HBaseAuditIndex.COLUMN_EVENT_KEY);
+
+                    if (eventKey != null) {
+                        gets.add(new Get(eventKey));
+                    }
+                }
+            }
+        } finally {
+            if (keysTable != table) {
+                keysTable.close();
+            }
+        }
+
+        List<EntityAuditEventV2> ret = new ArrayList<>(gets.size());
+
+        if (!gets.isEmpty()) {
+            for (Result result : table.get(gets)) {
+                if (result == null || result.isEmpty()) { // index entry of an event no longer in the audit table
+                    continue;
+                }
+
+                EntityAuditEventV2 event = fromKeyV2(result.getRow());
+
+                event.setUser(getResultString(result, COLUMN_USER));
+                event.setAction(EntityAuditActionV2.fromString(getResultString(result, COLUMN_ACTION)));
+                event.setDetails(getResultString(result, COLUMN_DETAIL));
+
+                if (persistEntityDefinition) {
+                    String colDef = getResultString(result, COLUMN_DEFINITION);
+
+                    if (colDef != null) {
+                        event.setEntityDefinition(colDef);
+                    }
+                }
+
+                ret.add(event);
+            }
+        }
+
+        return ret;
+    }
+
+    // timestamp of the earliest event of the entity in the audit table; Long.MAX_VALUE if the entity has no events
+    private long getFirstEventTimestamp(Table table, String entityId) throws IOException {
+        Scan scan = new Scan().withStartRow(Bytes.toBytes(entityId + FIELD_SEPARATOR))
+                              .withStopRow(Bytes.toBytes(entityId + (char) (FIELD_SEPARATOR.charAt(0) + 1)))
+                              .setFilter(new FilterList(new FirstKeyOnlyFilter(), new KeyOnlyFilter()))
+                              .setLimit(1);
+
+        try (ResultScanner scanner = table.getScanner(scan)) {
+            Result result = scanner.next();
+
+            return result != null ? fromKeyV2(result.getRow()).getTimestamp() : Long.MAX_VALUE;
+        }
+    }
+
     @Override
     public void start() throws AtlasException {
         Configuration configuration = ApplicationProperties.get();
@@ -725,6 +961,10 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         String tableNameStr = atlasConf.getString(CONFIG_TABLE_NAME, DEFAULT_TABLE_NAME);
         tableName = TableName.valueOf(tableNameStr);
 
+        if (atlasConf.getBoolean(CONFIG_INDEX_ENABLED, false)) {
+            indexTableName = TableName.valueOf(atlasConf.getString(CONFIG_INDEX_TABLE_NAME, tableNameStr + "_index"));
+        }
+
         try {
             connection = createConnection(hbaseConf);
         } catch (IOException e) {
@@ -734,6 +974,25 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
         if (!HAConfiguration.isHAEnabled(atlasConf)) {
             LOG.info("HA is disabled. Hence creating table on startup.");
             createTableIfNotExists();
+            initIndex();
+        }
+
+        if (atlasConf.getBoolean(CONFIG_ASYNC_ENABLED, false)) {
+            String fallbackDir = atlasConf.getString(CONFIG_ASYNC_FALLBACK_DIR, System.getProperty("atlas.data", System.getProperty("java.io.tmpdir")) + File.separator + "audit-fallback");
+
+            try {
+                auditWriter = new HBaseAuditWriter(connection.getBufferedMutator(tableName),
+                                                   indexTableName != null ? connection.getBufferedMutator(indexTableName) : null,
+                                                   new File(fallbackDir),
+                                                   atlasConf.getInt(CONFIG_ASYNC_QUEUE_SIZE, 10000),
+                                                   atlasConf.getInt(CONFIG_ASYNC_BATCH_SIZE, 500),
+                                                   atlasConf.getLong(CONFIG_ASYNC_OFFER_TIMEOUT_MS, 1000),
+                                                   atlasConf.getLong(CONFIG_ASYNC_RETRY_INTERVAL_MS, 30000));
+            } catch (IOException e) {
+                throw new AtlasException(e);
+            }
+
+            auditWriter.start();
         }
     }
 
@@ -744,6 +1003,12 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
 
     @Override
     public void stop() throws AtlasException {
+        if (auditWriter != null) {
+            close(auditWriter);
+
+            auditWriter = null;
+        }
+
         close(connection);
     }
 
@@ -751,6 +1016,7 @@ public class HBaseBasedAuditRepository extends AbstractStorageBasedAuditReposito
     public void instanceIsActive() throws AtlasException {
         LOG.info("Reacting to active: Creating HBase table for Audit if required.");
         createTableIfNotExists();
+        initIndex();
     }
 
     @Override
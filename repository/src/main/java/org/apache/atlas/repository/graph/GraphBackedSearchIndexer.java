@@ -344,6 +344,13 @@ public class GraphBackedSearchIndexer implements SearchIndexer, ActiveStateChang
             createCommonVertexIndex(management, PATCH_ACTION_PROPERTY_KEY, UniqueKind.NONE, String.class, SINGLE, true, false);
             createCommonVertexIndex(management, PATCH_STATE_PROPERTY_KEY, UniqueKind.NONE, String.class, SINGLE, true, false);
 
+            createCommonVertexIndex(management, TASK_GUID_PROPERTY_KEY, UniqueKind.NONE, String.class, SINGLE, true, false);
+            createCommonVertexIndex(management, TASK_TYPE_PROPERTY_KEY, UniqueKind.NONE, String.class, SINGLE, true, false);
+            createCommonVertexIndex(management, TASK_STATUS_PROPERTY_KEY, UniqueKind.NONE, String.class, SINGLE, true, false);
+            createCommonVertexIndex(management, TASK_CREATED_TIME_PROPERTY_KEY, UniqueKind.NONE, Long.class, SINGLE, true, false);
+
+            createCommonVertexIndex(management, REINDEX_ID_PROPERTY_KEY, UniqueKind.NONE, String.class, SINGLE, true, false);
+
             // create vertex-centric index
             createVertexCentricIndex(management, CLASSIFICATION_LABEL, AtlasEdgeDirection.BOTH, CLASSIFICATION_EDGE_NAME_PROPERTY_KEY, String.class, SINGLE);
             createVertexCentricIndex(management, CLASSIFICATION_LABEL, AtlasEdgeDirection.BOTH, CLASSIFICATION_EDGE_IS_PROPAGATED_PROPERTY_KEY, Boolean.class, SINGLE);
@@ -353,6 +360,11 @@ public class GraphBackedSearchIndexer implements SearchIndexer, ActiveStateChang
             createEdgeIndex(management, RELATIONSHIP_GUID_PROPERTY_KEY, String.class, SINGLE, true);
             createEdgeIndex(management, EDGE_ID_IN_IMPORT_KEY, String.class, SINGLE, true);
 
+            // glossary relationships are listed in pages ordered by relationship-guid
+            createVertexCentricIndex(management, TERM_ANCHOR_LABEL, AtlasEdgeDirection.BOTH, RELATIONSHIP_GUID_PROPERTY_KEY, String.class, SINGLE);
+            createVertexCentricIndex(management, TERM_CATEGORIZATION_LABEL, AtlasEdgeDirection.BOTH, RELATIONSHIP_GUID_PROPERTY_KEY, String.class, SINGLE);
+            createVertexCentricIndex(management, TERM_ASSIGNMENT_LABEL, AtlasEdgeDirection.BOTH, RELATIONSHIP_GUID_PROPERTY_KEY, String.class, SINGLE);
+
             // create fulltext indexes
             createFullTextIndex(management, ENTITY_TEXT_PROPERTY_KEY, String.class, SINGLE);
 
@@ -360,6 +372,15 @@ public class GraphBackedSearchIndexer implements SearchIndexer, ActiveStateChang
             createPropertyKey(management, PROVENANCE_TYPE_KEY, Integer.class, SINGLE);
             createPropertyKey(management, HOME_ID_KEY, String.class, SINGLE);
 
+            createPropertyKey(management, TASK_CREATED_BY_PROPERTY_KEY, String.class, SINGLE);
+            createPropertyKey(management, TASK_UPDATED_TIME_PROPERTY_KEY, Long.class, SINGLE);
+            createPropertyKey(management, TASK_START_TIME_PROPERTY_KEY, Long.class, SINGLE);
+            createPropertyKey(management, TASK_END_TIME_PROPERTY_KEY, Long.class, SINGLE);
+            createPropertyKey(management, TASK_PARAMETERS_PROPERTY_KEY, String.class, SINGLE);
+            createPropertyKey(management, TASK_ATTEMPT_COUNT_PROPERTY_KEY, Integer.class, SINGLE);
+            createPropertyKey(management, TASK_ERROR_MESSAGE_PROPERTY_KEY, String.class, SINGLE);
+            createPropertyKey(management, REINDEX_STATUS_PROPERTY_KEY, String.class, SINGLE);
+
             commit(management);
 
             LOG.info("Index creation for global keys complete.");
@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads entities to be exported, in parallel when more than 1 thread is configured. Guids are split into contiguous
+ * partitions, one for each thread; results are returned in the order of the given guids, so that ExportService can
+ * write them to the sink in the same order as a sequential export.
+ *
+ * Each worker thread reads in its own graph transaction, which is rolled back after every partition.
+ */
+class ExportEntityFetcher {
+    private static final Logger LOG = LoggerFactory.getLogger(ExportEntityFetcher.class);
+
+    private static final String THREAD_NAME_FORMAT = "atlas-export-fetch-%d";
+
+    private final AtlasGraph           graph;
+    private final EntityGraphRetriever entityGraphRetriever;
+    private final int                  threadCount;
+    private final ExecutorService      executor;
+    private       long                 fetchCount;
+    private       long                 fetchTimeMs;
+
+    ExportEntityFetcher(AtlasGraph graph, EntityGraphRetriever entityGraphRetriever, int threadCount) {
+        this.graph                = graph;
+        this.entityGraphRetriever = entityGraphRetriever;
+        this.threadCount          = Math.max(threadCount, 1);
+        this.executor             = this.threadCount > 1 ? Executors.newFixedThreadPool(this.threadCount, new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_FORMAT).setDaemon(true).build()) : null;
+    }
+
+    public List<FetchResult> fetch(List<String> guids) throws AtlasBaseException {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            if (executor == null || guids.size() <= 1) {
+                return fetchPartition(guids);
+            }
+
+            List<Future<List<FetchResult>>> futures = new ArrayList<>(threadCount);
+
+            for (final List<String> partition : Lists.partition(guids, (guids.size() + threadCount - 1) / threadCount)) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return fetchPartition(partition);
+                    } finally {
+                        graph.rollback();
+
+                        RequestContext.clear();
+                    }
+                }));
+            }
+
+            List<FetchResult> ret = new ArrayList<>(guids.size());
+
+            for (Future<List<FetchResult>> future : futures) {
+                ret.addAll(future.get());
+            }
+
+            return ret;
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, excp, "export interrupted");
+        } catch (ExecutionException excp) {
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, excp.getCause(), "export fetch failed");
+        } finally {
+            fetchCount  += guids.size();
+            fetchTimeMs += (System.currentTimeMillis() - startTime);
+        }
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public long getFetchCount() {
+        return fetchCount;
+    }
+
+    public long getFetchTimeMs() {
+        return fetchTimeMs;
+    }
+
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<FetchResult> fetchPartition(List<String> guids) {
+        List<FetchResult> ret = new ArrayList<>(guids.size());
+
+        for (String guid : guids) {
+            try {
+                ret.add(new FetchResult(guid, entityGraphRetriever.toAtlasEntityWithExtInfo(guid), null));
+            } catch (AtlasBaseException | RuntimeException excp) {
+                LOG.debug("fetch({}) failed", guid, excp);
+
+                ret.add(new FetchResult(guid, null, excp));
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Entity read for a guid; failure to read is reported only when the entity is processed, as in sequential export.
+     */
+    static class FetchResult {
+        private final String                 guid;
+        private final AtlasEntityWithExtInfo entityWithExtInfo;
+        private final Exception              exception;
+
+        FetchResult(String guid, AtlasEntityWithExtInfo entityWithExtInfo, Exception exception) {
+            this.guid              = guid;
+            this.entityWithExtInfo = entityWithExtInfo;
+            this.exception         = exception;
+        }
+
+        public String getGuid() {
+            return guid;
+        }
+
+        public AtlasEntityWithExtInfo get() throws AtlasBaseException {
+            if (exception instanceof AtlasBaseException) {
+                throw (AtlasBaseException) exception;
+            } else if (exception != null) {
+                throw (RuntimeException) exception;
+            }
+
+            return entityWithExtInfo;
+        }
+    }
+}
@@ -18,6 +18,8 @@
 package org.apache.atlas.repository.impexp;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.RequestContext;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.glossary.GlossaryService;
@@ -34,7 +36,10 @@ import org.apache.atlas.model.typedef.AtlasRelationshipDef;
 import org.apache.atlas.model.typedef.AtlasStructDef;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.impexp.ExportEntityFetcher.FetchResult;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
+import org.apache.atlas.repository.util.GuidIndex;
+import org.apache.atlas.repository.util.GuidSet;
 import org.apache.atlas.repository.util.UniqueList;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.AtlasGremlinQueryProvider;
@@ -60,6 +65,9 @@ import static org.apache.atlas.model.impexp.AtlasExportRequest.FETCH_TYPE_INCREM
 public class ExportService {
     private static final Logger LOG = LoggerFactory.getLogger(ExportService.class);
 
+    private static final int FETCH_THREADS    = AtlasConfiguration.EXPORT_FETCH_THREADS.getInt();
+    private static final int FETCH_BATCH_SIZE = Math.max(AtlasConfiguration.EXPORT_FETCH_BATCH_SIZE.getInt(), 1);
+
     private final AtlasTypeRegistry         typeRegistry;
     private final StartEntityFetchByExportRequest startEntityFetchByExportRequest;
     private final EntitiesExtractor         entitiesExtractor;
@@ -68,12 +76,14 @@ public class ExportService {
     private       ExportTypeProcessor       exportTypeProcessor;
     private final HdfsPathEntityCreator     hdfsPathEntityCreator;
     private final GlossaryService           glossaryService;
+    private final AtlasGraph                graph;
 
     @Inject
     public ExportService(final AtlasTypeRegistry typeRegistry, AtlasGraph graph,
                          AuditsWriter auditsWriter, HdfsPathEntityCreator hdfsPathEntityCreator,
                          GlossaryService glossaryService) {
         this.typeRegistry         = typeRegistry;
+        this.graph                = graph;
         this.entityGraphRetriever = new EntityGraphRetriever(graph, this.typeRegistry);
         this.auditsWriter         = auditsWriter;
         this.hdfsPathEntityCreator = hdfsPathEntityCreator;
@@ -88,7 +98,7 @@ public class ExportService {
         AtlasExportResult result = new AtlasExportResult(request, userName, requestingIP,
                 hostName, startTime, getCurrentChangeMarker());
 
-        ExportContext context = new ExportContext(result, exportSink);
+        ExportContext context = new ExportContext(result, exportSink, new ExportEntityFetcher(graph, entityGraphRetriever, FETCH_THREADS));
         exportTypeProcessor = new ExportTypeProcessor(typeRegistry, glossaryService);
 
         try {
@@ -103,6 +113,7 @@ public class ExportService {
             LOG.error("Operation failed: ", ex);
         } finally {
             entitiesExtractor.close();
+            context.fetcher.close();
 
             LOG.info("<== export(user={}, from={}): status {}: changeMarker: {}",
                     userName, requestingIP, context.result.getOperationStatus(), context.result.getChangeMarker());
@@ -123,11 +134,15 @@ public class ExportService {
         int duration = getOperationDuration(startTime, endTime);
         context.result.setSourceClusterName(AuditsWriter.getCurrentClusterName());
 
-        context.sink.setExportOrder(context.entityCreationOrder.getList());
+        context.sink.setExportOrder(context.entityCreationOrder.asList());
         context.sink.setTypesDef(context.result.getData().getTypesDef());
         context.result.setOperationStatus(getOverallOperationStatus(statuses));
         context.result.incrementMeticsCounter("duration", duration);
-        auditsWriter.write(userName, context.result, startTime, endTime, context.entityCreationOrder.getList());
+        context.result.setMetric("fetch:threads", context.fetcher.getThreadCount());
+        context.result.setMetric("fetch:count", (int) context.fetcher.getFetchCount());
+        context.result.setMetric("fetch:duration", (int) context.fetcher.getFetchTimeMs());
+        context.result.setMetric("throughput", getEntitiesPerSecond(context.entityCreationOrder.size(), duration));
+        auditsWriter.write(userName, context.result, startTime, endTime, context.entityCreationOrder.asList());
 
         context.result.setData(null);
         context.sink.setResult(context.result);
@@ -137,6 +152,10 @@ public class ExportService {
         return (int) (endTime - startTime);
     }
 
+    private static int getEntitiesPerSecond(long entityCount, long durationMs) {
+        return durationMs > 0 ? (int) (entityCount * 1000 / durationMs) : (int) entityCount;
+    }
+
     private void processTypesDef(ExportContext context) {
         AtlasTypesDef typesDef = context.result.getData().getTypesDef();
 
@@ -214,14 +233,13 @@ public class ExportService {
 
             entitiesExtractor.setExtractor(typeRegistry.getEntityDefByName(item.getTypeName()));
 
-            for (String guid : entityGuids) {
-                processEntityGuid(guid, context);
+            for (List<String> guids : Lists.partition(entityGuids, FETCH_BATCH_SIZE)) {
+                processEntityGuids(guids, context);
             }
 
             while (!context.guidsToProcess.isEmpty()) {
                 while (!context.guidsToProcess.isEmpty()) {
-                    String guid = context.guidsToProcess.remove(0);
-                    processEntityGuid(guid, context);
+                    processEntityGuids(context.guidsToProcess.removeFirst(FETCH_BATCH_SIZE), context);
                 }
 
                 if (!context.lineageToProcess.isEmpty()) {
@@ -250,21 +268,38 @@ public class ExportService {
         return startEntityFetchByExportRequest.get(context.result.getRequest(), item);
     }
 
-    private void processEntityGuid(String guid, ExportContext context) throws AtlasBaseException {
-
+    /**
+     * Entities are read by context.fetcher, possibly in parallel, and then processed in the order of the given guids.
+     * Processing an entity can mark entities later in the list as processed - for example, when they are referred
+     * entities; hence guidsProcessed is checked again before processing each entity.
+     */
+    private void processEntityGuids(List<String> guids, ExportContext context) throws AtlasBaseException {
         if (LOG.isDebugEnabled()) {
-            LOG.debug("==> processEntityGuid({})", guid);
+            LOG.debug("==> processEntityGuids({})", guids.size());
         }
 
-        if (context.guidsProcessed.contains(guid)) {
+        List<String> guidsToFetch = new ArrayList<>(guids.size());
+
+        for (String guid : guids) {
+            if (!context.guidsProcessed.contains(guid)) {
+                guidsToFetch.add(guid);
+            }
+        }
+
+        if (guidsToFetch.isEmpty()) {
             return;
         }
 
-        AtlasEntityWithExtInfo entityWithExtInfo = entityGraphRetriever.toAtlasEntityWithExtInfo(guid);
+        for (FetchResult fetchResult : context.fetcher.fetch(guidsToFetch)) {
+            if (context.guidsProcessed.contains(fetchResult.getGuid())) {
+                continue;
+            }
+
+            processEntity(fetchResult.get(), context);
+        }
 
-        processEntity(entityWithExtInfo, context);
         if (LOG.isDebugEnabled()) {
-            LOG.debug("<== processEntityGuid({})", guid);
+            LOG.debug("<== processEntityGuids({})", guids.size());
         }
     }
 
@@ -374,11 +409,11 @@ public class ExportService {
         private static final String ATLAS_TYPE_HIVE_TABLE = "hive_table";
 
 
-        final UniqueList<String>              entityCreationOrder = new UniqueList<>();
-        final Set<String>                     guidsProcessed = new HashSet<>();
+        final GuidIndex                       entityCreationOrder = new GuidIndex();
+        final Set<String>                     guidsProcessed = new GuidSet();
         final UniqueList<String>              guidsToProcess = new UniqueList<>();
         final UniqueList<String>              lineageToProcess = new UniqueList<>();
-        final Set<String>                     lineageProcessed = new HashSet<>();
+        final Set<String>                     lineageProcessed = new GuidSet();
         final Map<String, TraversalDirection> guidDirection  = new HashMap<>();
         final Set<String>                     entityTypes         = new HashSet<>();
         final Set<String>                     classificationTypes = new HashSet<>();
@@ -390,6 +425,7 @@ public class ExportService {
 
         final AtlasExportResult               result;
         private final ZipSink                 sink;
+        final ExportEntityFetcher             fetcher;
 
         final ExportFetchType             fetchType;
         final boolean                     skipLineage;
@@ -399,10 +435,12 @@ public class ExportService {
         private final boolean isHiveTableIncremental;
 
         private       int                 progressReportCount = 0;
+        private final long                startTime = System.currentTimeMillis();
 
-        ExportContext(AtlasExportResult result, ZipSink sink) {
-            this.result = result;
-            this.sink   = sink;
+        ExportContext(AtlasExportResult result, ZipSink sink, ExportEntityFetcher fetcher) {
+            this.result  = result;
+            this.sink    = sink;
+            this.fetcher = fetcher;
 
             fetchType    = ExportFetchType.from(result.getRequest().getFetchTypeOptionValue());
             skipLineage  = result.getRequest().getSkipLineageOptionValue();
@@ -456,6 +494,7 @@ public class ExportService {
             guidsToProcess.clear();
             guidsProcessed.clear();
             guidDirection.clear();
+            entityCreationOrder.close();
         }
 
         public void addToBeProcessed(boolean isSuperTypeProcess, String guid, TraversalDirection direction) {
@@ -472,7 +511,8 @@ public class ExportService {
             if ((guidsProcessed.size() - progressReportCount) > REPORTING_THREASHOLD) {
                 progressReportCount = guidsProcessed.size();
 
-                LOG.info("export(): in progress.. number of entities exported: {}", this.guidsProcessed.size());
+                LOG.info("export(): in progress.. number of entities exported: {} ({} entities/second)", this.guidsProcessed.size(),
+                         getEntitiesPerSecond(this.guidsProcessed.size(), System.currentTimeMillis() - startTime));
             }
         }
 
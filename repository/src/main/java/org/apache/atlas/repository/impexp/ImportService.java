@@ -229,10 +229,19 @@ public class ImportService {
 
     private void processEntities(String userName, EntityImportStream importSource, AtlasImportResult result) throws AtlasBaseException {
         result.setExportResult(importSource.getExportResult());
+
+        int  startPosition     = importSource.getPosition();
+        long entitiesStartTime = System.currentTimeMillis();
+
         this.bulkImporter.bulkImport(importSource, result);
 
         endTimestamp = System.currentTimeMillis();
         result.incrementMeticsCounter("duration", getDuration(this.endTimestamp, this.startTimestamp));
+        result.incrementMeticsCounter("throughput", getThroughput(importSource.getPosition() - startPosition, getDuration(this.endTimestamp, entitiesStartTime)));
+
+        if (importSource instanceof ZipSourceDirect) {
+            result.incrementMeticsCounter("duration:parseWait", (int) ((ZipSourceDirect) importSource).getParseWaitTime());
+        }
 
         result.setOperationStatus(AtlasImportResult.OperationStatus.SUCCESS);
         if (isMigrationMode(result.getRequest())) {
@@ -252,6 +261,10 @@ public class ImportService {
         return (int) (endTime - startTime);
     }
 
+    private int getThroughput(int entityCount, int duration) { // entities per second
+        return (int) ((entityCount * 1000L) / Math.max(duration, 1));
+    }
+
     private EntityImportStream createZipSource(AtlasImportRequest request, InputStream inputStream, String configuredTemporaryDirectory) throws AtlasBaseException {
         try {
             if (isMigrationMode(request) || (request.getOptions().containsKey(AtlasImportRequest.OPTION_KEY_FORMAT) &&
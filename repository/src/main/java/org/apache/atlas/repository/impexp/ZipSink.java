@@ -17,11 +17,14 @@
  */
 package org.apache.atlas.repository.impexp;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasExportResult;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.util.GuidIndex;
 import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.utils.AtlasJson;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,9 +32,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -41,7 +42,7 @@ public class ZipSink {
     private static String FILE_EXTENSION_JSON = ".json";
 
     private ZipOutputStream zipOutputStream;
-    final Set<String>       guids = new HashSet<>();
+    final GuidIndex         guids = new GuidIndex();
 
     public ZipSink(OutputStream outputStream) {
         zipOutputStream = new ZipOutputStream(outputStream);
@@ -69,12 +70,34 @@ public class ZipSink {
         saveToZip(ZipExportFileNames.ATLAS_TYPESDEF_NAME, jsonData);
     }
 
+    // the export order is streamed to the ZIP, instead of being converted to a JSON string
     public void setExportOrder(List<String> result) throws AtlasBaseException {
-        String jsonData = convertToJSON(result);
-        saveToZip(ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME, jsonData);
+        String fileName = ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME.toString();
+
+        try {
+            zipOutputStream.putNextEntry(new ZipEntry(fileName + FILE_EXTENSION_JSON));
+
+            JsonGenerator generator = AtlasJson.getMapper().getFactory().createGenerator(zipOutputStream);
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+
+            for (String guid : result) {
+                generator.writeString(guid);
+            }
+
+            generator.writeEndArray();
+            generator.close();
+
+            zipOutputStream.closeEntry();
+        } catch (IOException e) {
+            throw new AtlasBaseException(String.format("Error writing file %s.", fileName), e);
+        }
     }
 
     public void close() {
+        guids.close();
+
         try {
             if(zipOutputStream != null) {
                 zipOutputStream.close();
@@ -24,6 +24,7 @@ import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.store.graph.v2.EntityImportStream;
+import org.apache.atlas.repository.util.GuidIndex;
 import org.apache.atlas.type.AtlasType;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
@@ -47,7 +48,7 @@ public class ZipSource implements EntityImportStream {
     private static final Logger LOG = LoggerFactory.getLogger(ZipSource.class);
 
     private final InputStream       inputStream;
-    private List<String>            creationOrder;
+    private GuidIndex               creationOrder;
     private Iterator<String>        iterator;
     private Map<String, String>     guidEntityJsonMap;
     private ImportTransforms        importTransform;
@@ -121,9 +122,9 @@ public class ZipSource implements EntityImportStream {
 
         try {
             String s = getFromCache(fileName);
-            this.creationOrder = convertFromJson(List.class, s);
+            this.creationOrder = GuidIndex.fromJson(s);
             this.iterator = this.creationOrder.iterator();
-        } catch (AtlasBaseException e) {
+        } catch (IOException e) {
             LOG.error(String.format("Error retrieving '%s' from zip.", fileName), e);
         }
     }
@@ -155,7 +156,7 @@ public class ZipSource implements EntityImportStream {
 
     @Override
     public List<String> getCreationOrder() {
-        return this.creationOrder;
+        return this.creationOrder != null ? this.creationOrder.asList() : null;
     }
 
     public AtlasEntityWithExtInfo getEntityWithExtInfo(String guid) throws AtlasBaseException {
@@ -222,6 +223,10 @@ public class ZipSource implements EntityImportStream {
         try {
             inputStream.close();
             guidEntityJsonMap.clear();
+
+            if (creationOrder != null) {
+                creationOrder.close();
+            }
         }
         catch(IOException ex) {
             LOG.warn("{}: Error closing streams.");
@@ -22,6 +22,8 @@ import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.entitytransform.BaseEntityHandler;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasExportResult;
@@ -41,6 +43,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -49,8 +58,15 @@ import static org.apache.atlas.AtlasErrorCode.IMPORT_ATTEMPTING_EMPTY_ZIP;
 public class ZipSourceDirect implements EntityImportStream {
     private static final Logger LOG = LoggerFactory.getLogger(ZipSourceDirect.class);
     private static final String ZIP_ENTRY_ENTITIES = "entities.json";
+    private static final String READER_THREAD_NAME = "zip-direct-reader";
+    private static final String THREAD_NAME_FORMAT = "zip-direct-parser-%d";
+    private static final int    QUEUE_SIZE_PER_THREAD = 10;
+    private static final long   READER_JOIN_TIMEOUT_MS = 1000;
+
+    private static final Future<AtlasEntity.AtlasEntityWithExtInfo> END_OF_STREAM = CompletableFuture.completedFuture(null);
 
     private final ZipInputStream zipInputStream;
+    private final int parseThreads;
     private int currentPosition;
 
     private ImportTransforms importTransform;
@@ -60,9 +76,23 @@ public class ZipSourceDirect implements EntityImportStream {
 
     EntitiesArrayParser entitiesArrayParser;
 
+    // entities are read from the ZIP by the reader thread, parsed and transformed by the parse threads,
+    // and handed out in the order of the stream, so that entities of a type are still imported together
+    private ExecutorService parseExecutor;
+    private Thread reader;
+    private BlockingQueue<Future<AtlasEntity.AtlasEntityWithExtInfo>> parsedEntities;
+    private Future<AtlasEntity.AtlasEntityWithExtInfo> nextParsedEntity;
+    private volatile boolean closed;
+    private long parseWaitTime;
+
     public ZipSourceDirect(InputStream inputStream, int streamSize) throws IOException, AtlasBaseException {
+        this(inputStream, streamSize, AtlasConfiguration.IMPORT_PARSE_THREADS.getInt());
+    }
+
+    public ZipSourceDirect(InputStream inputStream, int streamSize, int parseThreads) throws IOException, AtlasBaseException {
         this.zipInputStream = new ZipInputStream(inputStream);
         this.streamSize = streamSize;
+        this.parseThreads = parseThreads;
         prepareStreamForFetch();
 
         if (this.streamSize == 1) {
@@ -131,6 +161,10 @@ public class ZipSourceDirect implements EntityImportStream {
 
     @Override
     public boolean hasNext() {
+        if (isParallelParse()) {
+            return getNextParsedEntity() != END_OF_STREAM;
+        }
+
         return (this.entitiesArrayParser != null && entitiesArrayParser.hasNext());
     }
 
@@ -143,6 +177,10 @@ public class ZipSourceDirect implements EntityImportStream {
 
     @Override
     public AtlasEntity.AtlasEntityWithExtInfo getNextEntityWithExtInfo() {
+        if (isParallelParse()) {
+            return getNextParsedEntityWithExtInfo();
+        }
+
         try {
             if (hasNext()) {
                 String json = moveNext();
@@ -186,11 +224,158 @@ public class ZipSourceDirect implements EntityImportStream {
 
     @Override
     public void close() {
+        closed = true;
+
+        if (reader != null) {
+            reader.interrupt();
+
+            try {
+                reader.join(READER_JOIN_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            parseExecutor.shutdownNow();
+
+            LOG.info("ZipSourceDirect: {} entities parsed using {} threads; waited {} ms for entities to be parsed", currentPosition, parseThreads, parseWaitTime);
+        }
+
         if (this.entitiesArrayParser != null) {
             this.entitiesArrayParser.close();
         }
     }
 
+    /**
+     * @return time, in milliseconds, the import waited for entities to be read and parsed; 0 when entities are parsed in the import thread
+     */
+    public long getParseWaitTime() {
+        return parseWaitTime;
+    }
+
+    private boolean isParallelParse() {
+        return parseThreads > 1 && entitiesArrayParser != null;
+    }
+
+    private AtlasEntity.AtlasEntityWithExtInfo getNextParsedEntityWithExtInfo() {
+        Future<AtlasEntity.AtlasEntityWithExtInfo> parsedEntity = getNextParsedEntity();
+
+        if (parsedEntity == END_OF_STREAM) {
+            return null;
+        }
+
+        nextParsedEntity = null;
+        currentPosition++;
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            return parsedEntity.get();
+        } catch (InterruptedException e) {
+            throw interrupted(parsedEntity, e);
+        } catch (ExecutionException e) {
+            // fail the import, instead of skipping the entity that failed to parse or transform
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new IllegalStateException("failed to parse entity at position " + currentPosition, cause);
+        } finally {
+            parseWaitTime += System.currentTimeMillis() - startTime;
+        }
+    }
+
+    private Future<AtlasEntity.AtlasEntityWithExtInfo> getNextParsedEntity() {
+        if (nextParsedEntity == null) {
+            if (reader == null) {
+                startParsing();
+            }
+
+            long startTime = System.currentTimeMillis();
+
+            try {
+                nextParsedEntity = parsedEntities.take();
+            } catch (InterruptedException e) {
+                throw interrupted(null, e);
+            } finally {
+                parseWaitTime += System.currentTimeMillis() - startTime;
+            }
+        }
+
+        return nextParsedEntity;
+    }
+
+    // fail the import, instead of ending it after the entities parsed so far
+    private IllegalStateException interrupted(Future<AtlasEntity.AtlasEntityWithExtInfo> parsedEntity, InterruptedException excp) {
+        Thread.currentThread().interrupt();
+
+        List<Future<AtlasEntity.AtlasEntityWithExtInfo>> pending = new ArrayList<>();
+
+        if (parsedEntity != null) {
+            pending.add(parsedEntity);
+        }
+
+        parsedEntities.drainTo(pending);
+
+        for (Future<AtlasEntity.AtlasEntityWithExtInfo> future : pending) {
+            future.cancel(true);
+        }
+
+        return new IllegalStateException("import interrupted while waiting for entity at position " + currentPosition, excp);
+    }
+
+    private void startParsing() {
+        parsedEntities = new ArrayBlockingQueue<>(parseThreads * QUEUE_SIZE_PER_THREAD);
+        parseExecutor  = Executors.newFixedThreadPool(parseThreads, new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_FORMAT).setDaemon(true).build());
+        reader         = new Thread(this::readEntities, READER_THREAD_NAME);
+
+        reader.setDaemon(true);
+        reader.start();
+
+        LOG.info("ZipSourceDirect: parsing entities using {} threads", parseThreads);
+    }
+
+    private void readEntities() {
+        IOException failure = null;
+
+        try {
+            while (!closed && entitiesArrayParser.hasNext()) {
+                String json = entitiesArrayParser.next();
+
+                if (json == null) {
+                    continue;
+                }
+
+                parsedEntities.put(parseExecutor.submit(() -> getEntityWithExtInfo(json)));
+            }
+        } catch (IOException e) {
+            LOG.error("moveNext failed!", e);
+
+            failure = e;
+        } catch (InterruptedException e) {
+            LOG.debug("ZipSourceDirect: reader interrupted");
+        } finally {
+            if (!closed) {
+                try {
+                    if (failure != null) { // fail the import, like an entity that failed to parse, instead of ending it after the entities read so far
+                        CompletableFuture<AtlasEntity.AtlasEntityWithExtInfo> failedEntity = new CompletableFuture<>();
+
+                        failedEntity.completeExceptionally(failure);
+
+                        parsedEntities.put(failedEntity);
+                    }
+
+                    parsedEntities.put(END_OF_STREAM);
+                } catch (InterruptedException e) {
+                    LOG.debug("ZipSourceDirect: reader interrupted");
+                }
+            }
+        }
+    }
+
     private void applyTransformers(AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo) {
         if (entityWithExtInfo == null) {
             return;
@@ -24,6 +24,7 @@ import org.apache.atlas.model.impexp.AtlasExportResult;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.store.graph.v2.EntityImportStream;
+import org.apache.atlas.repository.util.GuidIndex;
 import org.apache.atlas.type.AtlasType;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.io.FileUtils;
@@ -38,7 +39,6 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.zip.ZipEntry;
@@ -56,7 +56,7 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
     private ImportTransforms importTransform;
     private List<BaseEntityHandler> entityHandlers;
 
-    private ArrayList<String> creationOrder = new ArrayList<>();
+    private GuidIndex creationOrder = new GuidIndex();
     private int currentPosition;
     private int numberOfEntries;
 
@@ -101,7 +101,7 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
 
     @Override
     public List<String> getCreationOrder() {
-        return creationOrder;
+        return creationOrder.asList();
     }
 
     @Override
@@ -191,20 +191,18 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
             return;
         }
 
-        String current;
-        while (currentPosition < numberOfEntries) {
-            current = creationOrder.get(currentPosition);
-            if (current.equals(guid)) {
-                return;
-            }
+        int index = creationOrder.indexOf(guid);
 
-            moveNext();
+        if (index >= currentPosition && index < numberOfEntries) {
+            currentPosition = index;
+        } else if (currentPosition < numberOfEntries) {
+            currentPosition = numberOfEntries;
         }
     }
 
     @Override
     public void close() {
-        creationOrder.clear();
+        creationOrder.close();
         try {
             LOG.error("Import: Removing temporary directory: {}", tempDirectory.toString());
             FileUtils.deleteDirectory(tempDirectory.toFile());
@@ -286,9 +284,11 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
     }
 
     private void setupIterator() {
-        try {
-            creationOrder = getJsonFromEntry(ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME.toString(), ArrayList.class);
-        } catch (AtlasBaseException e) {
+        final File file = getFileFromTemporaryDirectory(ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME.toString() + EXT_JSON);
+
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            creationOrder = GuidIndex.fromJson(inputStream);
+        } catch (IOException e) {
             LOG.error("Error fetching: {}. Error generating order.", ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME.toString(), e);
         }
 
@@ -41,7 +41,7 @@ public abstract class AbstractGlossaryDTO<T extends AtlasBaseModelObject> extend
         super(typeRegistry, tClass, entityTypeName);
     }
 
-    protected AtlasRelatedTermHeader constructRelatedTermId(AtlasRelatedObjectId relatedObjectId) {
+    public static AtlasRelatedTermHeader constructRelatedTermId(AtlasRelatedObjectId relatedObjectId) {
         AtlasRelatedTermHeader ret = new AtlasRelatedTermHeader();
 
         ret.setTermGuid(relatedObjectId.getGuid());
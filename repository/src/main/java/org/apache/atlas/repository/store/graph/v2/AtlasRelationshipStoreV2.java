@@ -45,6 +45,8 @@ import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
 import org.apache.atlas.repository.store.graph.v1.DeleteHandlerDelegate;
+import org.apache.atlas.repository.store.graph.v2.tasks.ClassificationTask;
+import org.apache.atlas.tasks.TaskManagement;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasRelationshipType;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
@@ -91,6 +93,7 @@ import static org.apache.atlas.repository.graph.GraphHelper.getPropagatableClass
 import static org.apache.atlas.repository.graph.GraphHelper.getPropagateTags;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getState;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getTypeName;
+import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory.CLASSIFICATION_REFRESH_PROPAGATION;
 
 @Component
 public class AtlasRelationshipStoreV2 implements AtlasRelationshipStore {
@@ -105,15 +108,21 @@ public class AtlasRelationshipStoreV2 implements AtlasRelationshipStore {
     private final DeleteHandlerDelegate     deleteDelegate;
     private final GraphHelper               graphHelper;
     private final IAtlasEntityChangeNotifier entityChangeNotifier;
+    private final TaskManagement            taskManagement;
 
-    @Inject
     public AtlasRelationshipStoreV2(AtlasGraph graph, AtlasTypeRegistry typeRegistry, DeleteHandlerDelegate deleteDelegate, IAtlasEntityChangeNotifier entityChangeNotifier) {
+        this(graph, typeRegistry, deleteDelegate, entityChangeNotifier, null);
+    }
+
+    @Inject
+    public AtlasRelationshipStoreV2(AtlasGraph graph, AtlasTypeRegistry typeRegistry, DeleteHandlerDelegate deleteDelegate, IAtlasEntityChangeNotifier entityChangeNotifier, TaskManagement taskManagement) {
         this.graph                = graph;
         this.typeRegistry         = typeRegistry;
         this.graphHelper          = new GraphHelper(graph);
         this.entityRetriever      = new EntityGraphRetriever(graph, typeRegistry);
         this.deleteDelegate       = deleteDelegate;
         this.entityChangeNotifier = entityChangeNotifier;
+        this.taskManagement       = taskManagement;
     }
 
     @Override
@@ -481,6 +490,14 @@ public class AtlasRelationshipStoreV2 implements AtlasRelationshipStore {
             List<AtlasVertex> propagationChangedClassifications = (List<AtlasVertex>) CollectionUtils.disjunction(classificationsToBlock, currBlockedClassifications);
 
             for (AtlasVertex classificationVertex : propagationChangedClassifications) {
+                if (taskManagement != null && TaskManagement.isEnabled()) {
+                    Map<String, Object> taskParams = ClassificationTask.toParameters(getClassificationEntityGuid(classificationVertex), classificationVertex.getIdForDisplay(), null);
+
+                    taskManagement.createTask(CLASSIFICATION_REFRESH_PROPAGATION, taskParams);
+
+                    continue;
+                }
+
                 List<AtlasVertex> propagationsToRemove = new ArrayList<>();
                 List<AtlasVertex> propagationsToAdd    = new ArrayList<>();
 
@@ -48,6 +48,8 @@ import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
 import org.apache.atlas.repository.store.graph.EntityGraphDiscoveryContext;
 import org.apache.atlas.repository.store.graph.v1.DeleteHandlerDelegate;
+import org.apache.atlas.repository.store.graph.v2.tasks.ClassificationTask;
+import org.apache.atlas.tasks.TaskManagement;
 import org.apache.atlas.type.AtlasArrayType;
 import org.apache.atlas.type.AtlasBuiltInTypes;
 import org.apache.atlas.type.AtlasClassificationType;
@@ -95,6 +97,7 @@ import static org.apache.atlas.repository.graph.GraphHelper.getClassificationVer
 import static org.apache.atlas.repository.graph.GraphHelper.getDelimitedClassificationNames;
 import static org.apache.atlas.repository.graph.GraphHelper.getLabels;
 import static org.apache.atlas.repository.graph.GraphHelper.getMapElementsProperty;
+import static org.apache.atlas.repository.graph.GraphHelper.getPropagatedEdges;
 import static org.apache.atlas.repository.graph.GraphHelper.getStatus;
 import static org.apache.atlas.repository.graph.GraphHelper.getTraitLabel;
 import static org.apache.atlas.repository.graph.GraphHelper.getTraitNames;
@@ -107,6 +110,8 @@ import static org.apache.atlas.repository.graph.GraphHelper.string;
 import static org.apache.atlas.repository.graph.GraphHelper.updateModificationMetadata;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getIdFromVertex;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.isReference;
+import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory.CLASSIFICATION_PROPAGATION_ADD;
+import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory.CLASSIFICATION_PROPAGATION_DELETE;
 import static org.apache.atlas.type.AtlasStructType.AtlasAttribute.AtlasRelationshipEdgeDirection.IN;
 import static org.apache.atlas.type.AtlasStructType.AtlasAttribute.AtlasRelationshipEdgeDirection.OUT;
 
@@ -128,6 +133,7 @@ public class EntityGraphMapper {
 
     private static final boolean ENTITY_CHANGE_NOTIFY_IGNORE_RELATIONSHIP_ATTRIBUTES = AtlasConfiguration.ENTITY_CHANGE_NOTIFY_IGNORE_RELATIONSHIP_ATTRIBUTES.getBoolean();
     private static final boolean CLASSIFICATION_PROPAGATION_DEFAULT                  = AtlasConfiguration.CLASSIFICATION_PROPAGATION_DEFAULT.getBoolean();
+    private static final int     TASKS_PROPAGATION_BATCH_SIZE                        = AtlasConfiguration.TASKS_PROPAGATION_BATCH_SIZE.getInt();
 
     private final GraphHelper               graphHelper;
     private final AtlasGraph                graph;
@@ -138,11 +144,12 @@ public class EntityGraphMapper {
     private final AtlasInstanceConverter    instanceConverter;
     private final EntityGraphRetriever      entityRetriever;
     private final IFullTextMapper fullTextMapperV2;
+    private final TaskManagement            taskManagement;
 
     @Inject
     public EntityGraphMapper(DeleteHandlerDelegate deleteDelegate, AtlasTypeRegistry typeRegistry, AtlasGraph graph,
                              AtlasRelationshipStore relationshipStore, IAtlasEntityChangeNotifier entityChangeNotifier,
-                             AtlasInstanceConverter instanceConverter, IFullTextMapper fullTextMapperV2) {
+                             AtlasInstanceConverter instanceConverter, IFullTextMapper fullTextMapperV2, TaskManagement taskManagement) {
         this.graphHelper          = new GraphHelper(graph);
         this.deleteDelegate       = deleteDelegate;
         this.typeRegistry         = typeRegistry;
@@ -152,6 +159,7 @@ public class EntityGraphMapper {
         this.instanceConverter    = instanceConverter;
         this.entityRetriever      = new EntityGraphRetriever(graph, typeRegistry);
         this.fullTextMapperV2     = fullTextMapperV2;
+        this.taskManagement       = taskManagement;
     }
 
     public AtlasVertex createVertex(AtlasEntity entity) throws AtlasBaseException {
@@ -1952,7 +1960,9 @@ public class EntityGraphMapper {
                 //Add current Vertex to be notified
                 addedClassifications.get(classification).add(entityVertex);
 
-                if (propagateTags) {
+                if (propagateTags && isDeferredPropagationEnabled()) {
+                    createAndQueueTask(CLASSIFICATION_PROPAGATION_ADD, guid, classificationVertex.getIdForDisplay());
+                } else if (propagateTags) {
                     // compute propagatedEntityVertices only once
                     if (entitiesToPropagateTo == null) {
                         entitiesToPropagateTo = entityRetriever.getImpactedVerticesV2(entityVertex);
@@ -2057,7 +2067,12 @@ public class EntityGraphMapper {
         // remove classification from propagated entities if propagation is turned on
         final List<AtlasVertex> entityVertices;
 
-        if (isPropagationEnabled(classificationVertex)) {
+        if (isPropagationEnabled(classificationVertex) && isDeferredPropagationEnabled()) {
+            // propagated classifications, and the classification vertex itself, will be removed by the task
+            createAndQueueTask(CLASSIFICATION_PROPAGATION_DELETE, entityGuid, classificationVertex.getIdForDisplay());
+
+            entityVertices = new ArrayList<>();
+        } else if (isPropagationEnabled(classificationVertex)) {
             entityVertices = deleteDelegate.getHandler().removeTagPropagation(classificationVertex);
 
             if (LOG.isDebugEnabled()) {
@@ -2103,6 +2118,249 @@ public class EntityGraphMapper {
         AtlasPerfTracer.log(perf);
     }
 
+    /**
+     * Propagates the classification to entities impacted by the given entity, committing in batches of
+     * atlas.tasks.propagation.batch.size entities. Entities that already have the classification are skipped,
+     * hence this can safely be re-run after a failure.
+     */
+    public void propagateClassification(String entityGuid, String classificationVertexId, String relationshipGuid) throws AtlasBaseException {
+        AtlasPerfTracer perf = null;
+
+        if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityGraphMapper.propagateClassification(" + entityGuid + "," + classificationVertexId + ")");
+        }
+
+        try {
+            AtlasVertex entityVertex         = AtlasGraphUtilsV2.findByGuid(this.graph, entityGuid);
+            AtlasVertex classificationVertex = graph.getVertex(classificationVertexId);
+
+            if (entityVertex == null || classificationVertex == null) {
+                LOG.warn("propagateClassification(entityGuid={}, classificationVertexId={}): entity or classification not found; nothing to propagate", entityGuid, classificationVertexId);
+
+                return;
+            }
+
+            if (!isPropagationEnabled(classificationVertex)) {
+                LOG.info("propagateClassification(entityGuid={}, classificationVertexId={}): propagation is disabled for the classification", entityGuid, classificationVertexId);
+
+                return;
+            }
+
+            AtlasClassification classification        = entityRetriever.toAtlasClassification(classificationVertex);
+            List<AtlasVertex>   impactedEntityVertices = entityRetriever.getImpactedVerticesV2(entityVertex, relationshipGuid, classificationVertexId);
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("propagateClassification(): propagating classification {} to {} entities", classification.getTypeName(), impactedEntityVertices.size());
+            }
+
+            for (List<AtlasVertex> batch : getBatches(impactedEntityVertices)) {
+                List<AtlasVertex> propagatedVertices = deleteDelegate.getHandler().addTagPropagation(classificationVertex, batch);
+                List<AtlasEntity> propagatedEntities = updateClassificationText(classification, propagatedVertices);
+
+                graph.commit();
+
+                try {
+                    if (CollectionUtils.isNotEmpty(propagatedEntities)) {
+                        entityChangeNotifier.onClassificationsAddedToEntities(propagatedEntities, Collections.singletonList(classification));
+                    }
+                } finally {
+                    completeBatch();
+                }
+            }
+        } catch (Exception e) {
+            rollbackBatch();
+
+            throw e;
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
+    /**
+     * Removes propagations of the given classification in batches, and deletes the classification vertex once it has
+     * no more references.
+     */
+    public void deleteClassificationPropagation(String classificationVertexId) throws AtlasBaseException {
+        AtlasPerfTracer perf = null;
+
+        if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityGraphMapper.deleteClassificationPropagation(" + classificationVertexId + ")");
+        }
+
+        try {
+            AtlasVertex classificationVertex = graph.getVertex(classificationVertexId);
+
+            if (classificationVertex == null) {
+                LOG.warn("deleteClassificationPropagation(classificationVertexId={}): classification not found; nothing to delete", classificationVertexId);
+
+                return;
+            }
+
+            AtlasClassification classification  = entityRetriever.toAtlasClassification(classificationVertex);
+            List<AtlasEdge>     propagatedEdges = getPropagatedEdges(classificationVertex);
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("deleteClassificationPropagation(): removing classification {} from {} entities", classification.getTypeName(), propagatedEdges.size());
+            }
+
+            for (List<AtlasEdge> batch : getBatches(propagatedEdges)) {
+                List<AtlasVertex> entityVertices = new ArrayList<>(batch.size());
+
+                for (AtlasEdge propagatedEdge : batch) {
+                    entityVertices.add(propagatedEdge.getOutVertex());
+
+                    deleteDelegate.getHandler().deletePropagatedEdge(propagatedEdge);
+                }
+
+                List<AtlasEntity> propagatedEntities = updateClassificationText(classification, entityVertices);
+
+                graph.commit();
+
+                try {
+                    if (CollectionUtils.isNotEmpty(propagatedEntities)) {
+                        entityChangeNotifier.onClassificationsDeletedFromEntities(propagatedEntities, Collections.singletonList(classification));
+                    }
+                } finally {
+                    completeBatch();
+                }
+            }
+
+            deleteDelegate.getHandler().deleteClassificationVertex(classificationVertex, true);
+
+            graph.commit();
+
+            GraphTransactionInterceptor.processPostTransactionHooks(true);
+        } catch (Exception e) {
+            rollbackBatch();
+
+            throw e;
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
+    /**
+     * Re-evaluates the entities the given classification should be propagated to - for example after a relationship
+     * is deleted or its propagateTags is updated - and adds/removes propagations in batches.
+     */
+    public void refreshClassificationPropagation(String classificationVertexId) throws AtlasBaseException {
+        AtlasPerfTracer perf = null;
+
+        if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityGraphMapper.refreshClassificationPropagation(" + classificationVertexId + ")");
+        }
+
+        try {
+            AtlasVertex classificationVertex = graph.getVertex(classificationVertexId);
+
+            if (classificationVertex == null) {
+                LOG.warn("refreshClassificationPropagation(classificationVertexId={}): classification not found; nothing to refresh", classificationVertexId);
+
+                return;
+            }
+
+            AtlasClassification classification     = entityRetriever.toAtlasClassification(classificationVertex);
+            List<AtlasVertex>   entitiesToAdd      = new ArrayList<>();
+            List<AtlasVertex>   entitiesToRemove   = new ArrayList<>();
+
+            entityRetriever.evaluateClassificationPropagation(classificationVertex, entitiesToAdd, entitiesToRemove);
+
+            for (List<AtlasVertex> batch : getBatches(entitiesToAdd)) {
+                List<AtlasVertex> propagatedVertices = deleteDelegate.getHandler().addTagPropagation(classificationVertex, batch);
+                List<AtlasEntity> propagatedEntities = updateClassificationText(classification, propagatedVertices);
+
+                graph.commit();
+
+                try {
+                    if (CollectionUtils.isNotEmpty(propagatedEntities)) {
+                        entityChangeNotifier.onClassificationsAddedToEntities(propagatedEntities, Collections.singletonList(classification));
+                    }
+                } finally {
+                    completeBatch();
+                }
+            }
+
+            for (List<AtlasVertex> batch : getBatches(entitiesToRemove)) {
+                deleteDelegate.getHandler().removeTagPropagation(classificationVertex, batch);
+
+                List<AtlasEntity> propagatedEntities = updateClassificationText(classification, batch);
+
+                graph.commit();
+
+                try {
+                    if (CollectionUtils.isNotEmpty(propagatedEntities)) {
+                        entityChangeNotifier.onClassificationsDeletedFromEntities(propagatedEntities, Collections.singletonList(classification));
+                    }
+                } finally {
+                    completeBatch();
+                }
+            }
+        } catch (Exception e) {
+            rollbackBatch();
+
+            throw e;
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
+    private boolean isDeferredPropagationEnabled() {
+        return taskManagement != null && TaskManagement.isEnabled();
+    }
+
+    private void createAndQueueTask(String taskType, String entityGuid, String classificationVertexId) {
+        createAndQueueTask(taskType, entityGuid, classificationVertexId, null);
+    }
+
+    private void createAndQueueTask(String taskType, String entityGuid, String classificationVertexId, String relationshipGuid) {
+        Map<String, Object> taskParams = ClassificationTask.toParameters(entityGuid, classificationVertexId, relationshipGuid);
+
+        taskManagement.createTask(taskType, taskParams);
+    }
+
+    /**
+     * Called after a batch is committed, and its notifications are queued: these methods commit the graph transaction
+     * themselves, not in a @GraphTransaction, hence post-transaction hooks - that send entity notifications, update
+     * entity counts and invalidate cached lineage - are run here for each batch.
+     */
+    private void completeBatch() {
+        GraphTransactionInterceptor.processPostTransactionHooks(true);
+
+        resetBatchContext();
+    }
+
+    private void rollbackBatch() {
+        graph.rollback();
+
+        GraphTransactionInterceptor.processPostTransactionHooks(false);
+
+        resetBatchContext();
+    }
+
+    private void resetBatchContext() {
+        RequestContext requestContext = RequestContext.get();
+
+        requestContext.clearCache();
+        requestContext.clearAddedPropagations();
+        requestContext.clearRemovePropagations();
+
+        GraphTransactionInterceptor.clearCache();
+    }
+
+    private static <T> List<List<T>> getBatches(List<T> elements) {
+        List<List<T>> ret = new ArrayList<>();
+
+        if (CollectionUtils.isNotEmpty(elements)) {
+            int batchSize = Math.max(1, TASKS_PROPAGATION_BATCH_SIZE);
+
+            for (int i = 0; i < elements.size(); i += batchSize) {
+                ret.add(new ArrayList<>(elements.subList(i, Math.min(elements.size(), i + batchSize))));
+            }
+        }
+
+        return ret;
+    }
+
     private AtlasEntity updateClassificationText(AtlasVertex vertex) throws AtlasBaseException {
         String guid        = graphHelper.getGuid(vertex);
         AtlasEntity entity = instanceConverter.getAndCacheEntity(guid, ENTITY_CHANGE_NOTIFY_IGNORE_RELATIONSHIP_ATTRIBUTES);
@@ -2268,7 +2526,9 @@ public class EntityGraphMapper {
             Boolean updatedTagPropagation = classification.isPropagate();
 
             // compute propagatedEntityVertices once and use it for subsequent iterations and notifications
-            if (updatedTagPropagation != null && currentTagPropagation != updatedTagPropagation) {
+            if (updatedTagPropagation != null && currentTagPropagation != updatedTagPropagation && isDeferredPropagationEnabled()) {
+                createAndQueueTask(updatedTagPropagation ? CLASSIFICATION_PROPAGATION_ADD : CLASSIFICATION_PROPAGATION_DELETE, guid, classificationVertex.getIdForDisplay());
+            } else if (updatedTagPropagation != null && currentTagPropagation != updatedTagPropagation) {
                 if (updatedTagPropagation) {
                     if (CollectionUtils.isEmpty(entitiesToPropagateTo)) {
                         entitiesToPropagateTo = entityRetriever.getImpactedVerticesV2(entityVertex, null, classificationVertex.getIdForDisplay());
@@ -18,7 +18,10 @@
 package org.apache.atlas.repository.store.graph.v2;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.collect.Lists;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.RequestContext;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.TimeBoundary;
 import org.apache.atlas.model.glossary.enums.AtlasTermAssignmentStatus;
@@ -44,7 +47,9 @@ import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
 import org.apache.atlas.repository.graphdb.AtlasElement;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.graphdb.AtlasVertexQuery;
 import org.apache.atlas.type.AtlasArrayType;
 import org.apache.atlas.type.AtlasBuiltInTypes.AtlasObjectIdType;
 import org.apache.atlas.type.AtlasEntityType;
@@ -58,6 +63,7 @@ import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.type.AtlasTypeUtil;
 import org.apache.atlas.utils.AtlasEntityUtil;
 import org.apache.atlas.utils.AtlasJson;
+import org.apache.atlas.utils.AtlasPerfMetrics.MetricRecorder;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -132,6 +138,11 @@ public class EntityGraphRetriever {
     public static final String QUALIFIED_NAME = "qualifiedName";
 
     private static final TypeReference<List<TimeBoundary>> TIME_BOUNDARIES_LIST_TYPE = new TypeReference<List<TimeBoundary>>() {};
+
+    private static final boolean PREFETCH_ENABLED    = AtlasConfiguration.ENTITY_RETRIEVER_PREFETCH_ENABLED.getBoolean();
+    private static final int     PREFETCH_BATCH_SIZE = AtlasConfiguration.ENTITY_RETRIEVER_PREFETCH_BATCH_SIZE.getInt();
+    private static final int     PREFETCH_MAX_COUNT  = AtlasConfiguration.ENTITY_RETRIEVER_PREFETCH_MAX_VERTICES.getInt();
+
     private final GraphHelper graphHelper;
 
     private final AtlasTypeRegistry typeRegistry;
@@ -184,6 +195,8 @@ public class EntityGraphRetriever {
     }
 
     public AtlasEntityWithExtInfo toAtlasEntityWithExtInfo(AtlasVertex entityVertex, boolean isMinExtInfo) throws AtlasBaseException {
+        prefetchEntities(Collections.singletonList(entityVertex), isMinExtInfo);
+
         AtlasEntityExtInfo     entityExtInfo = new AtlasEntityExtInfo();
         AtlasEntity            entity        = mapVertexToAtlasEntity(entityVertex, entityExtInfo, isMinExtInfo);
         AtlasEntityWithExtInfo ret           = new AtlasEntityWithExtInfo(entity, entityExtInfo);
@@ -387,11 +400,16 @@ public class EntityGraphRetriever {
     }
 
     public AtlasEntitiesWithExtInfo toAtlasEntitiesWithExtInfo(List<String> guids, boolean isMinExtInfo) throws AtlasBaseException {
-        AtlasEntitiesWithExtInfo ret = new AtlasEntitiesWithExtInfo();
+        AtlasEntitiesWithExtInfo ret      = new AtlasEntitiesWithExtInfo();
+        List<AtlasVertex>        vertices = new ArrayList<>(guids.size());
 
         for (String guid : guids) {
-            AtlasVertex vertex = getEntityVertex(guid);
+            vertices.add(getEntityVertex(guid));
+        }
+
+        prefetchEntities(vertices, isMinExtInfo);
 
+        for (AtlasVertex vertex : vertices) {
             AtlasEntity entity = mapVertexToAtlasEntity(vertex, ret, isMinExtInfo);
 
             ret.addEntity(entity);
@@ -429,14 +447,14 @@ public class EntityGraphRetriever {
         AtlasEntityType          entityType = typeRegistry.getEntityTypeByName(typeName);
 
         if (entityType != null) {
+            List<AtlasVertex> vertices = new ArrayList<>(uniqueAttributesList.size());
+
             for (Map<String, Object> uniqAttributes : uniqueAttributesList) {
                 try {
                     AtlasVertex vertex = AtlasGraphUtilsV2.getVertexByUniqueAttributes(this.graph, entityType, uniqAttributes);
 
                     if (vertex != null) {
-                        AtlasEntity entity = mapVertexToAtlasEntity(vertex, ret, isMinExtInfo);
-
-                        ret.addEntity(entity);
+                        vertices.add(vertex);
                     }
                 } catch(AtlasBaseException e) {
                     if (e.getAtlasErrorCode() != AtlasErrorCode.INSTANCE_BY_UNIQUE_ATTRIBUTE_NOT_FOUND) {
@@ -444,6 +462,14 @@ public class EntityGraphRetriever {
                     }
                 }
             }
+
+            prefetchEntities(vertices, isMinExtInfo);
+
+            for (AtlasVertex vertex : vertices) {
+                AtlasEntity entity = mapVertexToAtlasEntity(vertex, ret, isMinExtInfo);
+
+                ret.addEntity(entity);
+            }
         }
 
         ret.compact();
@@ -451,6 +477,160 @@ public class EntityGraphRetriever {
         return ret;
     }
 
+    /**
+     * Loads, with batched reads, what is needed to map the given entity vertices to AtlasEntityWithExtInfo: properties
+     * and edges of the entities, and properties of vertices at the other end of these edges - referenced entities,
+     * classifications, glossary terms. Entities referenced by owned-ref attributes, like columns of a table, are mapped
+     * along with the entity, hence their edges and adjacent vertices are loaded as well.
+     *
+     * Only edges of attributes, relationship attributes, classifications and terms of the entity type are loaded, and
+     * no more than atlas.entity.retriever.prefetch.max.vertices vertices; the rest are read when mapped. With
+     * isMinExtInfo, referenced entities are mapped as headers, hence nothing is prefetched.
+     */
+    public void prefetchEntities(Collection<AtlasVertex> entityVertices, boolean isMinExtInfo) {
+        if (!PREFETCH_ENABLED || isMinExtInfo || CollectionUtils.isEmpty(entityVertices)) {
+            return;
+        }
+
+        MetricRecorder              metric         = RequestContext.get().startMetricRecord("prefetchEntities");
+        Set<AtlasVertex>            loadedVertices = new HashSet<>(entityVertices);
+        List<AtlasVertex>           vertices       = new ArrayList<>(loadedVertices);
+        Map<String, PrefetchLabels> typeLabels     = new HashMap<>();
+        boolean                     isMaxReached   = loadedVertices.size() >= PREFETCH_MAX_COUNT;
+
+        while (!vertices.isEmpty()) {
+            List<AtlasVertex> ownedVertices      = new ArrayList<>();
+            List<AtlasVertex> referencedVertices = new ArrayList<>();
+            Set<String>       edgeLabels         = new HashSet<>();
+
+            preloadVertices(vertices, false);
+
+            for (AtlasVertex vertex : vertices) {
+                edgeLabels.addAll(getPrefetchLabels(vertex, typeLabels).edgeLabels);
+            }
+
+            if (!edgeLabels.isEmpty()) {
+                preloadEdges(vertices, edgeLabels.toArray(new String[0]));
+            }
+
+            for (AtlasVertex vertex : vertices) {
+                PrefetchLabels labels = getPrefetchLabels(vertex, typeLabels);
+
+                if (isMaxReached || labels.edgeLabels.isEmpty()) {
+                    continue;
+                }
+
+                for (Object obj : vertex.getEdges(AtlasEdgeDirection.BOTH, labels.edgeLabels.toArray(new String[0]))) {
+                    AtlasEdge   edge           = (AtlasEdge) obj;
+                    AtlasVertex adjacentVertex = getOtherVertex(edge, vertex);
+
+                    if (loadedVertices.add(adjacentVertex)) {
+                        if (labels.ownedRefEdgeLabels.contains(edge.getLabel())) {
+                            ownedVertices.add(adjacentVertex);
+                        } else {
+                            referencedVertices.add(adjacentVertex);
+                        }
+
+                        if (loadedVertices.size() >= PREFETCH_MAX_COUNT) {
+                            LOG.debug("prefetchEntities(): limit of {} vertices reached", PREFETCH_MAX_COUNT);
+
+                            isMaxReached = true;
+
+                            break;
+                        }
+                    }
+                }
+            }
+
+            preloadVertices(referencedVertices, false);
+
+            vertices = ownedVertices;
+        }
+
+        RequestContext.get().endMetricRecord(metric);
+    }
+
+    /**
+     * Loads, with batched reads, what is needed to map the given entity vertices to AtlasEntityHeader: properties of the
+     * entities, their classification and glossary term edges, and properties of the classifications and terms.
+     */
+    public void prefetchEntityHeaders(Collection<AtlasVertex> entityVertices) {
+        if (!PREFETCH_ENABLED || CollectionUtils.isEmpty(entityVertices)) {
+            return;
+        }
+
+        MetricRecorder    metric           = RequestContext.get().startMetricRecord("prefetchEntityHeaders");
+        List<AtlasVertex> vertices         = new ArrayList<>(entityVertices);
+        Set<AtlasVertex>  adjacentVertices = new HashSet<>();
+
+        preloadVertices(vertices, true, CLASSIFICATION_LABEL, TERM_ASSIGNMENT_LABEL);
+
+        for (AtlasVertex vertex : vertices) {
+            for (Object obj : vertex.getEdges(AtlasEdgeDirection.BOTH, new String[] { CLASSIFICATION_LABEL, TERM_ASSIGNMENT_LABEL })) {
+                adjacentVertices.add(getOtherVertex((AtlasEdge) obj, vertex));
+            }
+        }
+
+        preloadVertices(new ArrayList<>(adjacentVertices), false);
+
+        RequestContext.get().endMetricRecord(metric);
+    }
+
+    private void preloadVertices(List<AtlasVertex> vertices, boolean loadEdges, String... edgeLabels) {
+        for (List<AtlasVertex> batch : Lists.partition(vertices, PREFETCH_BATCH_SIZE)) {
+            graph.preloadProperties(batch);
+
+            if (loadEdges) {
+                graph.preloadEdges(batch, AtlasEdgeDirection.BOTH, edgeLabels);
+            }
+        }
+    }
+
+    private void preloadEdges(List<AtlasVertex> vertices, String[] edgeLabels) {
+        for (List<AtlasVertex> batch : Lists.partition(vertices, PREFETCH_BATCH_SIZE)) {
+            graph.preloadEdges(batch, AtlasEdgeDirection.BOTH, edgeLabels);
+        }
+    }
+
+    private PrefetchLabels getPrefetchLabels(AtlasVertex entityVertex, Map<String, PrefetchLabels> typeLabels) {
+        String typeName = getTypeName(entityVertex);
+
+        return typeLabels.computeIfAbsent(typeName != null ? typeName : "", k -> new PrefetchLabels(typeRegistry.getEntityTypeByName(k)));
+    }
+
+    /**
+     * Labels of edges read to map entities of a type: edges of attributes, relationship attributes, classifications
+     * and terms; and labels of owned-ref attribute edges, whose adjacent entities are mapped along with the entity.
+     */
+    private static class PrefetchLabels {
+        final Set<String> edgeLabels         = new HashSet<>();
+        final Set<String> ownedRefEdgeLabels = new HashSet<>();
+
+        PrefetchLabels(AtlasEntityType entityType) {
+            if (entityType != null) {
+                for (AtlasAttribute attribute : entityType.getAllAttributes().values()) {
+                    if (attribute.isObjectRef()) {
+                        edgeLabels.add(attribute.getRelationshipEdgeLabel());
+                    }
+                }
+
+                for (Map<String, AtlasAttribute> attributes : entityType.getRelationshipAttributes().values()) {
+                    for (AtlasAttribute attribute : attributes.values()) {
+                        edgeLabels.add(attribute.getRelationshipEdgeLabel());
+                    }
+                }
+
+                for (AtlasAttribute attribute : entityType.getOwnedRefAttributes()) {
+                    ownedRefEdgeLabels.add(attribute.getRelationshipEdgeLabel());
+                }
+
+                edgeLabels.add(CLASSIFICATION_LABEL);
+                edgeLabels.add(TERM_ASSIGNMENT_LABEL);
+                edgeLabels.remove(null);
+            }
+        }
+    }
+
     public void evaluateClassificationPropagation(AtlasVertex classificationVertex, List<AtlasVertex> entitiesToAddPropagation, List<AtlasVertex> entitiesToRemovePropagation) {
         if (classificationVertex != null) {
             String            entityGuid         = getClassificationEntityGuid(classificationVertex);
@@ -1453,6 +1633,49 @@ public class EntityGraphRetriever {
         return ret;
     }
 
+    /**
+     * Returns a page of active relationships of a relationship-array attribute, ordered by relationship-guid.
+     * @param entityVertex          vertex of the entity
+     * @param attribute             relationship attribute of the entity
+     * @param afterRelationshipGuid relationship-guid of the last item of the previous page; null/empty for the first page
+     * @param limit                 page size; -1 for no limit
+     */
+    public List<AtlasRelatedObjectId> getRelationshipAttributePage(AtlasVertex entityVertex, AtlasAttribute attribute, String afterRelationshipGuid, int limit) throws AtlasBaseException {
+        List<AtlasRelatedObjectId> ret   = new ArrayList<>();
+        AtlasVertexQuery           query = entityVertex.query().direction(toEdgeDirection(attribute.getRelationshipEdgeDirection()))
+                                                               .label(attribute.getRelationshipEdgeLabel())
+                                                               .has(Constants.STATE_PROPERTY_KEY, ACTIVE.name());
+
+        if (StringUtils.isNotEmpty(afterRelationshipGuid)) {
+            query.has(Constants.RELATIONSHIP_GUID_PROPERTY_KEY, AtlasGraphQuery.ComparisionOperator.GREATER_THAN, afterRelationshipGuid);
+        }
+
+        query.orderBy(Constants.RELATIONSHIP_GUID_PROPERTY_KEY, AtlasGraphQuery.SortOrder.ASC);
+
+        Iterable<AtlasEdge> edges = limit < 0 ? query.edges() : query.edges(limit);
+
+        for (AtlasEdge edge : edges) {
+            AtlasRelatedObjectId relatedObjectId = mapVertexToRelatedObjectId(entityVertex, edge, false, null, false);
+
+            if (relatedObjectId != null) {
+                ret.add(relatedObjectId);
+            }
+        }
+
+        return ret;
+    }
+
+    private static AtlasEdgeDirection toEdgeDirection(AtlasRelationshipEdgeDirection direction) {
+        switch (direction) {
+            case IN:
+                return AtlasEdgeDirection.IN;
+            case OUT:
+                return AtlasEdgeDirection.OUT;
+            default:
+                return AtlasEdgeDirection.BOTH;
+        }
+    }
+
     private AtlasRelatedObjectId mapVertexToRelatedObjectId(AtlasVertex entityVertex, AtlasEdge edge, boolean isOwnedRef, AtlasEntityExtInfo entityExtInfo, boolean isMinExtInfo) throws AtlasBaseException {
         AtlasRelatedObjectId ret = null;
 
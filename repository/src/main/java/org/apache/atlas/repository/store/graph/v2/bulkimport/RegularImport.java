@@ -40,6 +40,7 @@ import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
 import org.apache.atlas.repository.store.graph.v2.BulkImporterImpl;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
 import org.apache.atlas.repository.store.graph.v2.EntityImportStream;
+import org.apache.atlas.repository.util.GuidIndex;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.commons.collections.MapUtils;
@@ -49,9 +50,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import static org.apache.atlas.repository.Constants.HISTORICAL_GUID_PROPERTY_KEY;
 import static org.apache.atlas.repository.store.graph.v2.BulkImporterImpl.updateImportProgress;
@@ -87,7 +86,7 @@ public class RegularImport extends ImportStrategy {
         EntityMutationResponse ret = new EntityMutationResponse();
         ret.setGuidAssignments(new HashMap<>());
 
-        Set<String> processedGuids = new HashSet<>();
+        GuidIndex    processedGuids = GuidIndex.onHeap(); // kept in the import result
         float        currentPercent = 0f;
         List<String> residualList   = new ArrayList<>();
 
@@ -147,7 +146,7 @@ public class RegularImport extends ImportStrategy {
             }
         }
 
-        importResult.getProcessedEntities().addAll(processedGuids);
+        importResult.setProcessedEntities(processedGuids.asList());
         LOG.info("bulkImport(): done. Total number of entities (including referred entities) imported: {}", processedGuids.size());
 
         return ret;
@@ -221,7 +220,7 @@ public class RegularImport extends ImportStrategy {
     private float updateImportMetrics(AtlasEntity.AtlasEntityWithExtInfo currentEntity,
                                       EntityMutationResponse             resp,
                                       AtlasImportResult                  importResult,
-                                      Set<String>                        processedGuids,
+                                      GuidIndex                          processedGuids,
                                       int currentIndex, int streamSize, float currentPercent) {
         if (!directoryBasedImportConfigured) {
             BulkImporterImpl.updateImportMetrics("entity:%s:created", resp.getCreatedEntities(), processedGuids, importResult);
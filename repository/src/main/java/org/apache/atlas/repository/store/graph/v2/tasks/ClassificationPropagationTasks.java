@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2.tasks;
+
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphMapper;
+
+public class ClassificationPropagationTasks {
+    public static class Add extends ClassificationTask {
+        public Add(AtlasTask task, EntityGraphMapper entityGraphMapper) {
+            super(task, entityGraphMapper);
+        }
+
+        @Override
+        protected void run() throws Exception {
+            entityGraphMapper.propagateClassification(getEntityGuid(), getClassificationVertexId(), getRelationshipGuid());
+        }
+    }
+
+    public static class Delete extends ClassificationTask {
+        public Delete(AtlasTask task, EntityGraphMapper entityGraphMapper) {
+            super(task, entityGraphMapper);
+        }
+
+        @Override
+        protected void run() throws Exception {
+            entityGraphMapper.deleteClassificationPropagation(getClassificationVertexId());
+        }
+    }
+
+    public static class RefreshPropagation extends ClassificationTask {
+        public RefreshPropagation(AtlasTask task, EntityGraphMapper entityGraphMapper) {
+            super(task, entityGraphMapper);
+        }
+
+        @Override
+        protected void run() throws Exception {
+            entityGraphMapper.refreshClassificationPropagation(getClassificationVertexId());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2.tasks;
+
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphMapper;
+import org.apache.atlas.tasks.AbstractTask;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base class for tasks that update propagations of a classification.
+ */
+public abstract class ClassificationTask extends AbstractTask {
+    public static final String PARAM_ENTITY_GUID              = "entityGuid";
+    public static final String PARAM_CLASSIFICATION_VERTEX_ID = "classificationVertexId";
+    public static final String PARAM_RELATIONSHIP_GUID        = "relationshipGuid";
+
+    protected final EntityGraphMapper entityGraphMapper;
+
+    protected ClassificationTask(AtlasTask task, EntityGraphMapper entityGraphMapper) {
+        super(task);
+
+        this.entityGraphMapper = entityGraphMapper;
+    }
+
+    public static Map<String, Object> toParameters(String entityGuid, String classificationVertexId, String relationshipGuid) {
+        Map<String, Object> ret = new HashMap<>();
+
+        ret.put(PARAM_ENTITY_GUID, entityGuid);
+        ret.put(PARAM_CLASSIFICATION_VERTEX_ID, classificationVertexId);
+
+        if (StringUtils.isNotEmpty(relationshipGuid)) {
+            ret.put(PARAM_RELATIONSHIP_GUID, relationshipGuid);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Updates to propagations of a classification are applied in the order they were requested.
+     */
+    @Override
+    public String getOrderingKey() {
+        return getClassificationVertexId();
+    }
+
+    @Override
+    public Status perform() throws Exception {
+        run();
+
+        return Status.COMPLETE;
+    }
+
+    protected String getEntityGuid() {
+        return getParameter(PARAM_ENTITY_GUID);
+    }
+
+    protected String getClassificationVertexId() {
+        return getParameter(PARAM_CLASSIFICATION_VERTEX_ID);
+    }
+
+    protected String getRelationshipGuid() {
+        return getParameter(PARAM_RELATIONSHIP_GUID);
+    }
+
+    protected abstract void run() throws Exception;
+
+    private String getParameter(String name) {
+        Object ret = getTaskDef().getParameter(name);
+
+        return ret != null ? ret.toString() : null;
+    }
+}
@@ -0,0 +1,465 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.utils.AtlasJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ordered set of guids, for a large number of entities - like the creation order of entities in export and import.
+ * Guids in canonical UUID format are stored as fixed-width 16 byte records, with an open-addressing hash index of
+ * record positions for indexOf() and contains(): about 24 bytes per guid. Other values are stored on heap.
+ *
+ * Records are stored in direct buffers, while the memory budget shared by all guid indexes allows; further pages are
+ * memory-mapped from temporary files. close() returns the memory of the index to the budget and deletes its files;
+ * the buffers themselves are released when they are garbage collected - allocateDirect() triggers a collection when
+ * the JVM's direct memory limit is reached. An index created with onHeap() stores records in heap buffers instead,
+ * and doesn't need to be closed.
+ *
+ * Guids can only be added; remove() is not supported. asList() is a read-only view of the guids, in the order they
+ * were added.
+ *
+ * Not thread-safe.
+ */
+public class GuidIndex extends AbstractSet<String> implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(GuidIndex.class);
+
+    private static final int    RECORD_SIZE       = 16; // msb, lsb
+    private static final int    SLOT_SIZE         = 4;  // 1 + position of the record; 0 for an empty slot
+    private static final int    PAGE_SIZE         = 1024 * 1024;
+    private static final int    MIN_SLOT_COUNT    = 1024;
+    private static final float  LOAD_FACTOR       = 0.5f;
+    private static final String SPILL_FILE_PREFIX = "atlas-guid-index-";
+    private static final String SPILL_FILE_SUFFIX = ".tmp";
+
+    private static final MemoryBudget SHARED_BUDGET = new MemoryBudget(AtlasConfiguration.IMPEXP_GUID_INDEX_MEMORY_MB.getLong() * 1024 * 1024);
+
+    private final MemoryBudget         budget; // null for heap buffers
+    private final Map<String, Integer> otherPositions = new HashMap<>();
+    private final Map<Integer, String> otherGuids     = new HashMap<>();
+    private       PagedBuffer          records;
+    private       PagedBuffer          slots;
+    private       int                  slotCount;
+    private       int                  size;
+
+    public GuidIndex() {
+        this(SHARED_BUDGET);
+    }
+
+    GuidIndex(MemoryBudget budget) {
+        this.budget  = budget;
+        this.records = new PagedBuffer(PAGE_SIZE);
+    }
+
+    /**
+     * @return an index that stores records in heap buffers, for guids that are kept after an operation completes
+     */
+    public static GuidIndex onHeap() {
+        return new GuidIndex(null);
+    }
+
+    /**
+     * Reads a JSON array of guids, like the export order in an export ZIP, without loading the whole array in heap.
+     */
+    public static GuidIndex fromJson(InputStream inputStream) throws IOException {
+        try (JsonParser parser = AtlasJson.getMapper().getFactory().createParser(inputStream)) {
+            return fromJson(parser);
+        }
+    }
+
+    public static GuidIndex fromJson(String json) throws IOException {
+        try (JsonParser parser = AtlasJson.getMapper().getFactory().createParser(json)) {
+            return fromJson(parser);
+        }
+    }
+
+    @Override
+    public boolean add(String guid) {
+        if (contains(guid)) {
+            return false;
+        }
+
+        long[] uuid   = GuidSet.toUuid(guid);
+        long   offset = (long) size * RECORD_SIZE;
+
+        records.ensureCapacity(offset + RECORD_SIZE);
+
+        if (uuid == null) {
+            otherPositions.put(guid, size);
+            otherGuids.put(size, guid);
+        } else {
+            records.putLong(offset, uuid[0]);
+            records.putLong(offset + 8, uuid[1]);
+
+            if (slots == null) {
+                slotCount = MIN_SLOT_COUNT;
+                slots     = createSlots(slotCount);
+            } else if (size + 1 > slotCount * LOAD_FACTOR) {
+                resize();
+            }
+
+            insert(slots, slotCount, uuid[0], uuid[1], size);
+        }
+
+        size++;
+
+        return true;
+    }
+
+    /**
+     * @return guid at the given position, in the order guids were added
+     */
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        if (!otherGuids.isEmpty() && otherGuids.containsKey(index)) {
+            return otherGuids.get(index);
+        }
+
+        long offset = (long) index * RECORD_SIZE;
+
+        return new UUID(records.getLong(offset), records.getLong(offset + 8)).toString();
+    }
+
+    /**
+     * @return position of the guid, in the order guids were added; -1 if the guid is not in the index
+     */
+    public int indexOf(Object obj) {
+        if (obj != null && !(obj instanceof String)) {
+            return -1;
+        }
+
+        long[] uuid = GuidSet.toUuid((String) obj);
+
+        if (uuid == null) {
+            Integer ret = otherPositions.get(obj);
+
+            return ret != null ? ret : -1;
+        }
+
+        return slots != null ? findPosition(uuid[0], uuid[1]) : -1;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        return indexOf(obj) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return asList().iterator();
+    }
+
+    /**
+     * @return read-only view of the guids, in the order they were added
+     */
+    public List<String> asList() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return GuidIndex.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public int indexOf(Object obj) {
+                return GuidIndex.this.indexOf(obj);
+            }
+
+            @Override
+            public int lastIndexOf(Object obj) {
+                return GuidIndex.this.indexOf(obj);
+            }
+
+            @Override
+            public boolean contains(Object obj) {
+                return GuidIndex.this.contains(obj);
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        records.close();
+
+        if (slots != null) {
+            slots.close();
+        }
+
+        records   = new PagedBuffer(PAGE_SIZE);
+        slots     = null;
+        slotCount = 0;
+        size      = 0;
+
+        otherPositions.clear();
+        otherGuids.clear();
+    }
+
+    /**
+     * Returns the memory of the index to the budget and deletes its temporary files; the index is empty afterwards.
+     */
+    @Override
+    public void close() {
+        clear();
+    }
+
+    private static GuidIndex fromJson(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("JSON array of guids expected");
+        }
+
+        GuidIndex ret = new GuidIndex();
+
+        try {
+            for (JsonToken token = parser.nextToken(); token != null && token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                ret.add(parser.getValueAsString());
+            }
+        } catch (IOException | RuntimeException e) {
+            ret.close();
+
+            throw e;
+        }
+
+        return ret;
+    }
+
+    private static int homeSlot(long msb, long lsb, int slotCount) {
+        long hash = msb * 0x9E3779B97F4A7C15L ^ lsb;
+
+        hash ^= (hash >>> 32);
+
+        return (int) (hash & (slotCount - 1));
+    }
+
+    private int findPosition(long msb, long lsb) {
+        int mask = slotCount - 1;
+
+        for (int slot = homeSlot(msb, lsb, slotCount); ; slot = (slot + 1) & mask) {
+            int value = slots.getInt((long) slot * SLOT_SIZE);
+
+            if (value == 0) {
+                return -1;
+            }
+
+            long offset = (long) (value - 1) * RECORD_SIZE;
+
+            if (records.getLong(offset) == msb && records.getLong(offset + 8) == lsb) {
+                return value - 1;
+            }
+        }
+    }
+
+    private static void insert(PagedBuffer slots, int slotCount, long msb, long lsb, int position) {
+        int mask = slotCount - 1;
+        int slot = homeSlot(msb, lsb, slotCount);
+
+        while (slots.getInt((long) slot * SLOT_SIZE) != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        slots.putInt((long) slot * SLOT_SIZE, position + 1);
+    }
+
+    private PagedBuffer createSlots(int slotCount) {
+        long        bytes = (long) slotCount * SLOT_SIZE;
+        PagedBuffer ret   = new PagedBuffer((int) Math.min(PAGE_SIZE, bytes));
+
+        ret.ensureCapacity(bytes);
+
+        return ret;
+    }
+
+    private void resize() {
+        int         newSlotCount = slotCount * 2;
+        PagedBuffer newSlots     = createSlots(newSlotCount);
+
+        for (int position = 0; position < size; position++) {
+            if (otherGuids.isEmpty() || !otherGuids.containsKey(position)) {
+                long offset = (long) position * RECORD_SIZE;
+
+                insert(newSlots, newSlotCount, records.getLong(offset), records.getLong(offset + 8), position);
+            }
+        }
+
+        slots.close();
+
+        slots     = newSlots;
+        slotCount = newSlotCount;
+    }
+
+    private class PagedBuffer {
+        private final int              pageSize; // power of 2
+        private final int              pageShift;
+        private final List<ByteBuffer> pages = new ArrayList<>();
+        private       long             pagesDirectBytes;
+        private       File             spillFile;
+        private       FileChannel      spillChannel;
+        private       long             spillBytes;
+
+        PagedBuffer(int pageSize) {
+            this.pageSize  = pageSize;
+            this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+        }
+
+        long getLong(long offset) {
+            return pages.get((int) (offset >>> pageShift)).getLong((int) (offset & (pageSize - 1)));
+        }
+
+        void putLong(long offset, long value) {
+            pages.get((int) (offset >>> pageShift)).putLong((int) (offset & (pageSize - 1)), value);
+        }
+
+        int getInt(long offset) {
+            return pages.get((int) (offset >>> pageShift)).getInt((int) (offset & (pageSize - 1)));
+        }
+
+        void putInt(long offset, int value) {
+            pages.get((int) (offset >>> pageShift)).putInt((int) (offset & (pageSize - 1)), value);
+        }
+
+        void ensureCapacity(long bytes) {
+            while ((long) pages.size() * pageSize < bytes) {
+                pages.add(newPage());
+            }
+        }
+
+        void close() {
+            pages.clear();
+
+            if (budget != null) {
+                budget.release(pagesDirectBytes);
+            }
+
+            pagesDirectBytes = 0;
+
+            if (spillChannel != null) {
+                try {
+                    spillChannel.close();
+
+                    Files.deleteIfExists(spillFile.toPath());
+                } catch (IOException e) {
+                    LOG.warn("Error deleting guid index file {}", spillFile, e);
+                }
+
+                spillChannel = null;
+                spillFile    = null;
+                spillBytes   = 0;
+            }
+        }
+
+        // pages are zero-filled, both when allocated and when mapped from the extended file
+        private ByteBuffer newPage() {
+            if (budget == null) {
+                return ByteBuffer.allocate(pageSize);
+            }
+
+            if (budget.reserve(pageSize)) {
+                pagesDirectBytes += pageSize;
+
+                return ByteBuffer.allocateDirect(pageSize);
+            }
+
+            try {
+                if (spillChannel == null) {
+                    spillFile    = File.createTempFile(SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX);
+                    spillChannel = FileChannel.open(spillFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+                    spillFile.deleteOnExit();
+
+                    LOG.info("Guid index: size {}; memory of guid indexes exceeds {} bytes; spilling to {}", size, budget.getSize(), spillFile);
+                }
+
+                ByteBuffer ret = spillChannel.map(FileChannel.MapMode.READ_WRITE, spillBytes, pageSize);
+
+                spillBytes += pageSize;
+
+                return ret;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error extending guid index file " + spillFile, e);
+            }
+        }
+    }
+
+    /**
+     * Bytes of direct buffers that guid indexes can hold, beyond which pages are memory-mapped.
+     */
+    static class MemoryBudget {
+        private final long       size;
+        private final AtomicLong used = new AtomicLong();
+
+        MemoryBudget(long size) {
+            this.size = size;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        long getUsed() {
+            return used.get();
+        }
+
+        boolean reserve(long bytes) {
+            for (long current = used.get(); current + bytes <= size; current = used.get()) {
+                if (used.compareAndSet(current, current + bytes)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        void release(long bytes) {
+            used.addAndGet(-bytes);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.util;
+
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set of guids, for tracking large number of entities - like in export. Guids in canonical UUID format, as generated
+ * by Atlas, are stored as 2 longs in an open-addressing table: about 32 bytes per guid, instead of over 100 bytes
+ * for a String in a HashSet. Other values are stored in a HashSet.
+ *
+ * Not thread-safe.
+ */
+public class GuidSet extends AbstractSet<String> {
+    private static final int   UUID_STRING_LENGTH = 36;
+    private static final int   MIN_CAPACITY       = 16;
+    private static final float LOAD_FACTOR        = 0.5f;
+
+    private long[]            table; // msb, lsb pairs; an empty slot has both 0
+    private int               uuidCount;
+    private boolean           hasZeroUuid;
+    private final Set<String> others = new HashSet<>();
+
+    public GuidSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public GuidSet(int expectedSize) {
+        this.table = new long[2 * tableCapacity(expectedSize)];
+    }
+
+    @Override
+    public boolean add(String guid) {
+        long[] uuid = toUuid(guid);
+
+        if (uuid == null) {
+            return others.add(guid);
+        }
+
+        if (uuid[0] == 0 && uuid[1] == 0) {
+            boolean ret = !hasZeroUuid;
+
+            hasZeroUuid = true;
+
+            return ret;
+        }
+
+        if (findSlot(table, uuid[0], uuid[1]) >= 0) {
+            return false;
+        }
+
+        if (uuidCount + 1 > (table.length / 2) * LOAD_FACTOR) {
+            resize();
+        }
+
+        insert(table, uuid[0], uuid[1]);
+
+        uuidCount++;
+
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        if (!(obj instanceof String)) {
+            return false;
+        }
+
+        long[] uuid = toUuid((String) obj);
+
+        if (uuid == null) {
+            return others.contains(obj);
+        }
+
+        if (uuid[0] == 0 && uuid[1] == 0) {
+            return hasZeroUuid;
+        }
+
+        return findSlot(table, uuid[0], uuid[1]) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+        if (!(obj instanceof String)) {
+            return false;
+        }
+
+        long[] uuid = toUuid((String) obj);
+
+        if (uuid == null) {
+            return others.remove(obj);
+        }
+
+        if (uuid[0] == 0 && uuid[1] == 0) {
+            boolean ret = hasZeroUuid;
+
+            hasZeroUuid = false;
+
+            return ret;
+        }
+
+        int slot = findSlot(table, uuid[0], uuid[1]);
+
+        if (slot < 0) {
+            return false;
+        }
+
+        deleteSlot(slot);
+
+        uuidCount--;
+
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return uuidCount + (hasZeroUuid ? 1 : 0) + others.size();
+    }
+
+    @Override
+    public void clear() {
+        table       = new long[2 * MIN_CAPACITY];
+        uuidCount   = 0;
+        hasZeroUuid = false;
+
+        others.clear();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new GuidIterator();
+    }
+
+    // returns null if guid is not a UUID in canonical format, i.e. "xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx" in lowercase
+    static long[] toUuid(String guid) {
+        if (guid == null || guid.length() != UUID_STRING_LENGTH) {
+            return null;
+        }
+
+        long msb = 0;
+        long lsb = 0;
+
+        for (int i = 0; i < UUID_STRING_LENGTH; i++) {
+            char c = guid.charAt(i);
+
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+
+                continue;
+            }
+
+            final int digit;
+
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else {
+                return null;
+            }
+
+            if (i < 18) {
+                msb = (msb << 4) | digit;
+            } else {
+                lsb = (lsb << 4) | digit;
+            }
+        }
+
+        return new long[] { msb, lsb };
+    }
+
+    private static int tableCapacity(int expectedSize) {
+        int ret = MIN_CAPACITY;
+
+        while (ret * LOAD_FACTOR < expectedSize) {
+            ret <<= 1;
+        }
+
+        return ret;
+    }
+
+    private static int homeSlot(long[] table, long msb, long lsb) {
+        long hash = msb * 0x9E3779B97F4A7C15L ^ lsb;
+
+        hash ^= (hash >>> 32);
+
+        return (int) (hash & ((table.length / 2) - 1));
+    }
+
+    private static int findSlot(long[] table, long msb, long lsb) {
+        int mask = (table.length / 2) - 1;
+
+        for (int slot = homeSlot(table, msb, lsb); ; slot = (slot + 1) & mask) {
+            long slotMsb = table[2 * slot];
+            long slotLsb = table[2 * slot + 1];
+
+            if (slotMsb == 0 && slotLsb == 0) {
+                return -1;
+            } else if (slotMsb == msb && slotLsb == lsb) {
+                return slot;
+            }
+        }
+    }
+
+    private static void insert(long[] table, long msb, long lsb) {
+        int mask = (table.length / 2) - 1;
+        int slot = homeSlot(table, msb, lsb);
+
+        while (table[2 * slot] != 0 || table[2 * slot + 1] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        table[2 * slot]     = msb;
+        table[2 * slot + 1] = lsb;
+    }
+
+    private void resize() {
+        long[] newTable = new long[2 * table.length];
+
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != 0 || table[i + 1] != 0) {
+                insert(newTable, table[i], table[i + 1]);
+            }
+        }
+
+        table = newTable;
+    }
+
+    // backward-shift deletion: moves following entries of the probe sequence into the freed slot, so that lookups
+    // don't need tombstones
+    private void deleteSlot(int slot) {
+        int mask = (table.length / 2) - 1;
+        int free = slot;
+
+        for (int next = (free + 1) & mask; table[2 * next] != 0 || table[2 * next + 1] != 0; next = (next + 1) & mask) {
+            int home = homeSlot(table, table[2 * next], table[2 * next + 1]);
+
+            // move the entry if its home slot is not in the range (free, next], considering wrap-around
+            if ((next > free && (home <= free || home > next)) || (next < free && (home <= free && home > next))) {
+                table[2 * free]     = table[2 * next];
+                table[2 * free + 1] = table[2 * next + 1];
+
+                free = next;
+            }
+        }
+
+        table[2 * free]     = 0;
+        table[2 * free + 1] = 0;
+    }
+
+    private class GuidIterator implements Iterator<String> {
+        private final Iterator<String> othersIterator = others.iterator();
+        private       int              slot           = hasZeroUuid ? -1 : nextUsedSlot(0);
+
+        @Override
+        public boolean hasNext() {
+            return slot < table.length / 2 || othersIterator.hasNext();
+        }
+
+        @Override
+        public String next() {
+            final String ret;
+
+            if (slot == -1) {
+                ret  = new UUID(0, 0).toString();
+                slot = nextUsedSlot(0);
+            } else if (slot < table.length / 2) {
+                ret  = new UUID(table[2 * slot], table[2 * slot + 1]).toString();
+                slot = nextUsedSlot(slot + 1);
+            } else if (othersIterator.hasNext()) {
+                ret = othersIterator.next();
+            } else {
+                throw new NoSuchElementException();
+            }
+
+            return ret;
+        }
+
+        private int nextUsedSlot(int from) {
+            int ret = from;
+
+            while (ret < table.length / 2 && table[2 * ret] == 0 && table[2 * ret + 1] == 0) {
+                ret++;
+            }
+
+            return ret;
+        }
+    }
+}
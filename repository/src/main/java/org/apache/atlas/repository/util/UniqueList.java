@@ -57,6 +57,19 @@ public class UniqueList<T> {
         return e;
     }
 
+    public List<T> removeFirst(int count) {
+        List<T> head = list.subList(0, Math.min(count, list.size()));
+        List<T> ret  = new ArrayList<>(head);
+
+        head.clear();
+
+        for (T e : ret) {
+            set.remove(e);
+        }
+
+        return ret;
+    }
+
     public boolean contains(T e) {
         return set.contains(e);
     }
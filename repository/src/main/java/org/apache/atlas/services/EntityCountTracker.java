@@ -0,0 +1,560 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.services;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.listener.EntityChangeListenerV2;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.Status;
+import org.apache.atlas.model.instance.AtlasRelatedObjectId;
+import org.apache.atlas.model.instance.AtlasRelationship;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.graph.v1.DeleteHandlerDelegate;
+import org.apache.atlas.repository.store.graph.v1.HardDeleteHandlerV1;
+import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
+import org.apache.atlas.service.Service;
+import org.apache.atlas.type.AtlasClassificationType;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.utils.AtlasPerfTracer;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.atlas.discovery.SearchProcessor.AND_STR;
+import static org.apache.atlas.model.instance.AtlasEntity.Status.ACTIVE;
+import static org.apache.atlas.model.instance.AtlasEntity.Status.DELETED;
+import static org.apache.atlas.repository.Constants.ENTITY_TYPE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.INCOMPLETE_ENTITY_VALUE;
+import static org.apache.atlas.repository.Constants.IS_INCOMPLETE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.STATE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.VERTEX_INDEX;
+
+/**
+ * Maintains count of entities and classifications per type, for MetricsService. Counts are updated from entity change
+ * notifications once the graph transaction commits, and are periodically reconciled with the index - to correct drift
+ * from changes not reported by notifications, like a shell entity being updated with complete details.
+ *
+ * Until counts are loaded from the index for the first time, or when incremental counts are disabled, counts are
+ * retrieved from the index on every call.
+ */
+@Component
+@Order(7)
+public class EntityCountTracker implements EntityChangeListenerV2, Service, ActiveStateChangeHandler {
+    private static final Logger LOG      = LoggerFactory.getLogger(EntityCountTracker.class);
+    private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("service.EntityCountTracker");
+
+    private final AtlasGraph                       graph;
+    private final AtlasTypeRegistry                typeRegistry;
+    private final DeleteHandlerDelegate            deleteDelegate;
+    private final Configuration                    configuration;
+    private final boolean                          isIncrementalEnabled;
+    private final long                             reconcileIntervalSeconds;
+    private final String                           indexSearchPrefix = AtlasGraphUtilsV2.getIndexSearchPrefix();
+    private final ThreadLocal<CountUpdateHook>     countUpdateHooks  = new ThreadLocal<>();
+    private final Object                           countsLock        = new Object();
+    private volatile Counts                        counts;
+    private Counts                                 reconcilingCounts; // counts being loaded by reconcile(); guarded by countsLock
+    private ScheduledExecutorService               reconciler;
+
+    @Inject
+    public EntityCountTracker(AtlasGraph graph, AtlasTypeRegistry typeRegistry, DeleteHandlerDelegate deleteDelegate, Configuration configuration) {
+        this.graph                    = graph;
+        this.typeRegistry             = typeRegistry;
+        this.deleteDelegate           = deleteDelegate;
+        this.configuration            = configuration;
+        this.isIncrementalEnabled     = AtlasConfiguration.METRICS_ENTITY_COUNT_INCREMENTAL_ENABLED.getBoolean();
+        this.reconcileIntervalSeconds = AtlasConfiguration.METRICS_ENTITY_COUNT_RECONCILE_INTERVAL_SECONDS.getLong();
+    }
+
+    public long getEntityCount(String typeName, Status status) {
+        Counts counts = this.counts;
+
+        if (counts != null) {
+            return counts.get(status == DELETED ? counts.deletedEntities : counts.activeEntities, typeName);
+        }
+
+        return getIndexCount(typeName, status);
+    }
+
+    public long getShellEntityCount(String typeName) {
+        Counts counts = this.counts;
+
+        if (counts != null) {
+            return counts.get(counts.shellEntities, typeName);
+        }
+
+        return getIndexShellCount(typeName);
+    }
+
+    public long getClassificationCount(String classificationName) {
+        Counts counts = this.counts;
+
+        if (counts != null) {
+            return counts.get(counts.classifications, classificationName);
+        }
+
+        return getIndexCount(classificationName, ACTIVE);
+    }
+
+    /**
+     * Loads counts of all entity and classification types from the index, replacing the current counts. Updates
+     * committed after the count of a type is read from the index are applied to the loaded count as well, so that
+     * they are not lost when the current counts are replaced.
+     */
+    public void reconcile() {
+        AtlasPerfTracer perf      = null;
+        Counts          newCounts = new Counts();
+
+        if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+            perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityCountTracker.reconcile()");
+        }
+
+        synchronized (countsLock) {
+            reconcilingCounts = newCounts;
+        }
+
+        try {
+            for (AtlasEntityType entityType : typeRegistry.getAllEntityTypes()) {
+                String typeName = entityType.getTypeName();
+
+                newCounts.set(newCounts.activeEntities, typeName, getIndexCount(typeName, ACTIVE));
+                newCounts.set(newCounts.deletedEntities, typeName, getIndexCount(typeName, DELETED));
+                newCounts.set(newCounts.shellEntities, typeName, getIndexShellCount(typeName));
+            }
+
+            for (AtlasClassificationType classificationType : typeRegistry.getAllClassificationTypes()) {
+                String typeName = classificationType.getTypeName();
+
+                newCounts.set(newCounts.classifications, typeName, getIndexCount(typeName, ACTIVE));
+            }
+
+            synchronized (countsLock) {
+                if (counts != null) {
+                    logDrift(counts, newCounts);
+                }
+
+                counts = newCounts;
+            }
+        } finally {
+            synchronized (countsLock) {
+                reconcilingCounts = null;
+            }
+
+            graph.commit();
+
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        if (!isIncrementalEnabled) {
+            LOG.info("EntityCountTracker.start(): incremental entity counts are disabled");
+        } else if (!HAConfiguration.isHAEnabled(configuration)) {
+            startReconciler();
+        } else {
+            LOG.info("EntityCountTracker.start(): deferring until instance activation");
+        }
+    }
+
+    @Override
+    public void stop() throws AtlasException {
+        stopReconciler();
+    }
+
+    @Override
+    public void instanceIsActive() throws AtlasException {
+        if (isIncrementalEnabled) {
+            startReconciler();
+        }
+    }
+
+    @Override
+    public void instanceIsPassive() throws AtlasException {
+        stopReconciler();
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.ENTITY_COUNT_TRACKER.getOrder();
+    }
+
+    @Override
+    public void onEntitiesAdded(List<AtlasEntity> entities, boolean isImport) throws AtlasBaseException {
+        CountUpdateHook hook = getCountUpdateHook();
+
+        if (hook != null) {
+            for (AtlasEntity entity : entities) {
+                hook.add(Counts.ACTIVE_ENTITIES, entity.getTypeName(), 1);
+
+                if (Boolean.TRUE.equals(entity.getIsIncomplete())) {
+                    hook.add(Counts.SHELL_ENTITIES, entity.getTypeName(), 1);
+                }
+
+                addClassifications(hook, entity, entity.getClassifications(), 1);
+            }
+        }
+    }
+
+    @Override
+    public void onEntitiesUpdated(List<AtlasEntity> entities, boolean isImport) throws AtlasBaseException {
+        // updates don't change the counts, except when a shell entity is completed - which is corrected by reconcile()
+    }
+
+    @Override
+    public void onEntitiesDeleted(List<AtlasEntity> entities, boolean isImport) throws AtlasBaseException {
+        CountUpdateHook hook = getCountUpdateHook();
+
+        if (hook != null) {
+            boolean isHardDelete = deleteDelegate.getHandler() instanceof HardDeleteHandlerV1;
+
+            for (AtlasEntity entity : entities) {
+                hook.add(Counts.ACTIVE_ENTITIES, entity.getTypeName(), -1);
+
+                if (!isHardDelete) {
+                    hook.add(Counts.DELETED_ENTITIES, entity.getTypeName(), 1);
+                }
+
+                if (Boolean.TRUE.equals(entity.getIsIncomplete())) {
+                    hook.add(Counts.SHELL_ENTITIES, entity.getTypeName(), -1);
+                }
+
+                addClassifications(hook, entity, entity.getClassifications(), -1);
+            }
+        }
+    }
+
+    @Override
+    public void onEntitiesPurged(List<AtlasEntity> entities) throws AtlasBaseException {
+        CountUpdateHook hook = getCountUpdateHook();
+
+        if (hook != null) {
+            for (AtlasEntity entity : entities) {
+                hook.add(Counts.DELETED_ENTITIES, entity.getTypeName(), -1);
+            }
+        }
+    }
+
+    @Override
+    public void onClassificationsAdded(AtlasEntity entity, List<AtlasClassification> classifications) throws AtlasBaseException {
+        CountUpdateHook hook = getCountUpdateHook();
+
+        if (hook != null) {
+            addClassifications(hook, entity, classifications, 1);
+        }
+    }
+
+    @Override
+    public void onClassificationsAdded(List<AtlasEntity> entities, List<AtlasClassification> classifications) throws AtlasBaseException {
+        CountUpdateHook hook = getCountUpdateHook();
+
+        if (hook != null) {
+            for (AtlasEntity entity : entities) {
+                addClassifications(hook, entity, classifications, 1);
+            }
+        }
+    }
+
+    @Override
+    public void onClassificationsUpdated(AtlasEntity entity, List<AtlasClassification> classifications) throws AtlasBaseException {
+        // no-op
+    }
+
+    @Override
+    public void onClassificationsDeleted(AtlasEntity entity, List<AtlasClassification> classifications) throws AtlasBaseException {
+        CountUpdateHook hook = getCountUpdateHook();
+
+        if (hook != null) {
+            addClassifications(hook, entity, classifications, -1);
+        }
+    }
+
+    @Override
+    public void onClassificationsDeleted(List<AtlasEntity> entities, List<AtlasClassification> classifications) throws AtlasBaseException {
+        CountUpdateHook hook = getCountUpdateHook();
+
+        if (hook != null) {
+            for (AtlasEntity entity : entities) {
+                addClassifications(hook, entity, classifications, -1);
+            }
+        }
+    }
+
+    @Override
+    public void onTermAdded(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) throws AtlasBaseException {
+        // no-op
+    }
+
+    @Override
+    public void onTermDeleted(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) throws AtlasBaseException {
+        // no-op
+    }
+
+    @Override
+    public void onRelationshipsAdded(List<AtlasRelationship> relationships, boolean isImport) throws AtlasBaseException {
+        // no-op
+    }
+
+    @Override
+    public void onRelationshipsUpdated(List<AtlasRelationship> relationships, boolean isImport) throws AtlasBaseException {
+        // no-op
+    }
+
+    @Override
+    public void onRelationshipsDeleted(List<AtlasRelationship> relationships, boolean isImport) throws AtlasBaseException {
+        // no-op
+    }
+
+    @Override
+    public void onRelationshipsPurged(List<AtlasRelationship> relationships) throws AtlasBaseException {
+        // no-op
+    }
+
+    @Override
+    public void onLabelsAdded(AtlasEntity entity, Set<String> labels) throws AtlasBaseException {
+        // no-op
+    }
+
+    @Override
+    public void onLabelsDeleted(AtlasEntity entity, Set<String> labels) throws AtlasBaseException {
+        // no-op
+    }
+
+    @Override
+    public void onBusinessAttributesUpdated(AtlasEntity entity, Map<String, Map<String, Object>> updatedBusinessAttributes) throws AtlasBaseException {
+        // no-op
+    }
+
+    @VisibleForTesting
+    void applyUpdates(Map<String, Map<String, Long>> updates) {
+        synchronized (countsLock) {
+            Counts counts = this.counts;
+
+            for (Map.Entry<String, Map<String, Long>> entry : updates.entrySet()) {
+                for (Map.Entry<String, Long> typeEntry : entry.getValue().entrySet()) {
+                    if (counts != null) {
+                        counts.getCounts(entry.getKey()).computeIfAbsent(typeEntry.getKey(), k -> new AtomicLong()).addAndGet(typeEntry.getValue());
+                    }
+
+                    // counts of types not yet read by reconcile() will include the update, as it is committed already
+                    AtomicLong reconcilingCount = reconcilingCounts != null ? reconcilingCounts.getCounts(entry.getKey()).get(typeEntry.getKey()) : null;
+
+                    if (reconcilingCount != null) {
+                        reconcilingCount.addAndGet(typeEntry.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void setCounts(Map<String, Long> activeEntities, Map<String, Long> deletedEntities, Map<String, Long> shellEntities, Map<String, Long> classifications) {
+        Counts newCounts = new Counts();
+
+        activeEntities.forEach((k, v) -> newCounts.set(newCounts.activeEntities, k, v));
+        deletedEntities.forEach((k, v) -> newCounts.set(newCounts.deletedEntities, k, v));
+        shellEntities.forEach((k, v) -> newCounts.set(newCounts.shellEntities, k, v));
+        classifications.forEach((k, v) -> newCounts.set(newCounts.classifications, k, v));
+
+        counts = newCounts;
+    }
+
+    // counts only the classifications attached directly to the entity - propagated classifications share the vertex
+    private void addClassifications(CountUpdateHook hook, AtlasEntity entity, List<AtlasClassification> classifications, long delta) {
+        if (CollectionUtils.isNotEmpty(classifications)) {
+            for (AtlasClassification classification : classifications) {
+                if (classification.getEntityGuid() == null || StringUtils.equals(classification.getEntityGuid(), entity.getGuid())) {
+                    hook.add(Counts.CLASSIFICATIONS, classification.getTypeName(), delta);
+                }
+            }
+        }
+    }
+
+    private CountUpdateHook getCountUpdateHook() {
+        if (counts == null) { // counts are not loaded yet, or are disabled; nothing to update
+            return null;
+        }
+
+        CountUpdateHook ret = countUpdateHooks.get();
+
+        if (ret == null) {
+            ret = new CountUpdateHook();
+
+            countUpdateHooks.set(ret);
+        }
+
+        return ret;
+    }
+
+    private synchronized void startReconciler() {
+        if (reconciler == null) {
+            reconciler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-entity-count-reconciler-%d").setDaemon(true).build());
+
+            reconciler.scheduleWithFixedDelay(this::reconcileSafely, 0, reconcileIntervalSeconds, TimeUnit.SECONDS);
+
+            LOG.info("EntityCountTracker: started; reconcile interval {} seconds", reconcileIntervalSeconds);
+        }
+    }
+
+    private synchronized void stopReconciler() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+
+            reconciler = null;
+        }
+
+        counts = null; // counts will not be updated while the instance is passive
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (Throwable t) {
+            LOG.warn("EntityCountTracker: failed to reconcile counts with index", t);
+        }
+    }
+
+    private void logDrift(Counts oldCounts, Counts newCounts) {
+        if (LOG.isDebugEnabled()) {
+            for (String countName : Counts.COUNT_NAMES) {
+                Map<String, AtomicLong> oldTypeCounts = oldCounts.getCounts(countName);
+
+                for (Map.Entry<String, AtomicLong> entry : newCounts.getCounts(countName).entrySet()) {
+                    long oldCount = oldCounts.get(oldTypeCounts, entry.getKey());
+
+                    if (oldCount != entry.getValue().get()) {
+                        LOG.debug("EntityCountTracker.reconcile(): {}[{}]: {} => {}", countName, entry.getKey(), oldCount, entry.getValue().get());
+                    }
+                }
+            }
+        }
+    }
+
+    private long getIndexCount(String typeName, Status status) {
+        Long   ret        = null;
+        String indexQuery = indexSearchPrefix + "\"" + ENTITY_TYPE_PROPERTY_KEY + "\" : (%s)" + AND_STR +
+                indexSearchPrefix + "\"" + STATE_PROPERTY_KEY       + "\" : (%s)";
+
+        indexQuery = String.format(indexQuery, typeName, status.name());
+
+        try {
+            ret = graph.indexQuery(VERTEX_INDEX, indexQuery).vertexTotals();
+        }catch (Exception e){
+            LOG.error("Failed fetching using indexQuery: " + e.getMessage());
+        }
+
+        return ret == null ? 0L : ret;
+    }
+
+    private long getIndexShellCount(String typeName) {
+        Long   ret        = null;
+        String indexQuery = indexSearchPrefix + "\"" + ENTITY_TYPE_PROPERTY_KEY + "\" : (%s)" + AND_STR +
+                indexSearchPrefix + "\"" + IS_INCOMPLETE_PROPERTY_KEY + "\" : " + INCOMPLETE_ENTITY_VALUE.intValue();
+
+        indexQuery = String.format(indexQuery, typeName);
+
+        try {
+            ret = graph.indexQuery(VERTEX_INDEX, indexQuery).vertexTotals();
+        }catch (Exception e){
+            LOG.error("Failed fetching using indexQuery: " + e.getMessage());
+        }
+
+        return ret == null ? 0L : ret;
+    }
+
+    private static class Counts {
+        static final String   ACTIVE_ENTITIES  = "activeEntities";
+        static final String   DELETED_ENTITIES = "deletedEntities";
+        static final String   SHELL_ENTITIES   = "shellEntities";
+        static final String   CLASSIFICATIONS  = "classifications";
+        static final String[] COUNT_NAMES      = { ACTIVE_ENTITIES, DELETED_ENTITIES, SHELL_ENTITIES, CLASSIFICATIONS };
+
+        final Map<String, AtomicLong> activeEntities  = new ConcurrentHashMap<>();
+        final Map<String, AtomicLong> deletedEntities = new ConcurrentHashMap<>();
+        final Map<String, AtomicLong> shellEntities   = new ConcurrentHashMap<>();
+        final Map<String, AtomicLong> classifications = new ConcurrentHashMap<>();
+
+        Map<String, AtomicLong> getCounts(String countName) {
+            switch (countName) {
+                case ACTIVE_ENTITIES:
+                    return activeEntities;
+                case DELETED_ENTITIES:
+                    return deletedEntities;
+                case SHELL_ENTITIES:
+                    return shellEntities;
+                default:
+                    return classifications;
+            }
+        }
+
+        long get(Map<String, AtomicLong> typeCounts, String typeName) {
+            AtomicLong ret = typeCounts.get(typeName);
+
+            return ret != null ? Math.max(ret.get(), 0) : 0;
+        }
+
+        void set(Map<String, AtomicLong> typeCounts, String typeName, long count) {
+            typeCounts.put(typeName, new AtomicLong(count));
+        }
+    }
+
+    /**
+     * Collects count updates in the current graph transaction, to apply them only after the transaction commits.
+     */
+    private class CountUpdateHook extends GraphTransactionInterceptor.PostTransactionHook {
+        private final Map<String, Map<String, Long>> updates = new HashMap<>();
+
+        void add(String countName, String typeName, long delta) {
+            updates.computeIfAbsent(countName, k -> new HashMap<>()).merge(typeName, delta, Long::sum);
+        }
+
+        @Override
+        public void onComplete(boolean isSuccess) {
+            countUpdateHooks.remove();
+
+            if (isSuccess) {
+                applyUpdates(updates);
+            }
+        }
+    }
+}
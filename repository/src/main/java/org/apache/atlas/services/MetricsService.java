@@ -21,14 +21,11 @@ import org.apache.atlas.annotation.AtlasService;
 import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.authorize.AtlasAuthorizationUtils;
 import org.apache.atlas.authorize.AtlasTypesDefFilterRequest;
-import org.apache.atlas.model.instance.AtlasEntity.Status;
 import org.apache.atlas.model.metrics.AtlasMetrics;
 import org.apache.atlas.model.typedef.AtlasClassificationDef;
 import org.apache.atlas.model.typedef.AtlasEntityDef;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
-import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
-import org.apache.atlas.type.AtlasClassificationType;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.AtlasMetricJVMUtil;
@@ -43,10 +40,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
-import static org.apache.atlas.discovery.SearchProcessor.AND_STR;
 import static org.apache.atlas.model.instance.AtlasEntity.Status.ACTIVE;
 import static org.apache.atlas.model.instance.AtlasEntity.Status.DELETED;
-import static org.apache.atlas.repository.Constants.*;
 
 @AtlasService
 public class MetricsService {
@@ -78,16 +73,17 @@ public class MetricsService {
     protected static final String METRIC_ENTITY_DELETED_INCL_SUBTYPES = ENTITY + "Deleted"+"-"+TYPE_SUBTYPES;
     protected static final String METRIC_ENTITY_SHELL_INCL_SUBTYPES = ENTITY + "Shell"+"-"+TYPE_SUBTYPES;
 
-    private final AtlasGraph        atlasGraph;
-    private final AtlasTypeRegistry typeRegistry;
-    private final AtlasMetricsUtil  metricsUtil;
-    private final String            indexSearchPrefix = AtlasGraphUtilsV2.getIndexSearchPrefix();
+    private final AtlasGraph         atlasGraph;
+    private final AtlasTypeRegistry  typeRegistry;
+    private final AtlasMetricsUtil   metricsUtil;
+    private final EntityCountTracker entityCountTracker;
 
     @Inject
-    public MetricsService(final AtlasGraph graph, final AtlasTypeRegistry typeRegistry, AtlasMetricsUtil metricsUtil) {
-        this.atlasGraph   = graph;
-        this.typeRegistry = typeRegistry;
-        this.metricsUtil  = metricsUtil;
+    public MetricsService(final AtlasGraph graph, final AtlasTypeRegistry typeRegistry, AtlasMetricsUtil metricsUtil, EntityCountTracker entityCountTracker) {
+        this.atlasGraph         = graph;
+        this.typeRegistry       = typeRegistry;
+        this.metricsUtil        = metricsUtil;
+        this.entityCountTracker = entityCountTracker;
     }
 
     @SuppressWarnings("unchecked")
@@ -112,9 +108,9 @@ public class MetricsService {
 
         if (entityDefs != null) {
             for (AtlasEntityDef entityDef : entityDefs) {
-                long activeCount  = getTypeCount(entityDef.getName(), ACTIVE);
-                long deletedCount = getTypeCount(entityDef.getName(), DELETED);
-                long shellCount = getTypeShellCount(entityDef.getName());
+                long activeCount  = entityCountTracker.getEntityCount(entityDef.getName(), ACTIVE);
+                long deletedCount = entityCountTracker.getEntityCount(entityDef.getName(), DELETED);
+                long shellCount = entityCountTracker.getShellEntityCount(entityDef.getName());
 
                 if (activeCount > 0) {
                     activeEntityCount.put(entityDef.getName(), activeCount);
@@ -164,7 +160,7 @@ public class MetricsService {
 
         if (classificationDefs != null) {
             for (AtlasClassificationDef classificationDef : classificationDefs) {
-                long count = getTypeCount(classificationDef.getName(), ACTIVE);
+                long count = entityCountTracker.getClassificationCount(classificationDef.getName());
 
                 if (count > 0) {
                     taggedEntityCount.put(classificationDef.getName(), count);
@@ -196,38 +192,6 @@ public class MetricsService {
         return metrics;
     }
 
-    private long getTypeCount(String typeName, Status status) {
-        Long   ret        = null;
-        String indexQuery = indexSearchPrefix + "\"" + ENTITY_TYPE_PROPERTY_KEY + "\" : (%s)" + AND_STR +
-                indexSearchPrefix + "\"" + STATE_PROPERTY_KEY       + "\" : (%s)";
-
-        indexQuery = String.format(indexQuery, typeName, status.name());
-
-        try {
-            ret = atlasGraph.indexQuery(VERTEX_INDEX, indexQuery).vertexTotals();
-        }catch (Exception e){
-            LOG.error("Failed fetching using indexQuery: " + e.getMessage());
-        }
-
-        return ret == null ? 0L : ret;
-    }
-
-    private long getTypeShellCount(String typeName) {
-        Long   ret        = null;
-        String indexQuery = indexSearchPrefix + "\"" + ENTITY_TYPE_PROPERTY_KEY + "\" : (%s)" + AND_STR +
-                indexSearchPrefix + "\"" + IS_INCOMPLETE_PROPERTY_KEY + "\" : " + INCOMPLETE_ENTITY_VALUE.intValue();
-
-        indexQuery = String.format(indexQuery, typeName);
-
-        try {
-            ret = atlasGraph.indexQuery(VERTEX_INDEX, indexQuery).vertexTotals();
-        }catch (Exception e){
-            LOG.error("Failed fetching using indexQuery: " + e.getMessage());
-        }
-
-        return ret == null ? 0L : ret;
-    }
-
     private int getAllTypesCount() {
         Collection<String> allTypeNames = typeRegistry.getAllTypeNames();
 
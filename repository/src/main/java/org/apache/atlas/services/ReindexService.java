@@ -0,0 +1,835 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.services;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.model.reindex.AtlasReindexStatus;
+import org.apache.atlas.model.reindex.AtlasReindexStatus.ElementType;
+import org.apache.atlas.model.reindex.AtlasReindexStatus.Status;
+import org.apache.atlas.pc.WorkItemBuilder;
+import org.apache.atlas.pc.WorkItemConsumer;
+import org.apache.atlas.pc.WorkItemManager;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasElement;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.service.Service;
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.atlas.repository.Constants.EDGE_INDEX;
+import static org.apache.atlas.repository.Constants.FULLTEXT_INDEX;
+import static org.apache.atlas.repository.Constants.MODIFICATION_TIMESTAMP_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.REINDEX_ID_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.REINDEX_STATUS_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.VERTEX_INDEX;
+import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getEncodedProperty;
+import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.setEncodedProperty;
+
+/**
+ * Reindexes the graph indexes while the server is online.
+ *
+ * Vertices, and then edges, are scanned in the order of the storage backend and split into ranges of consecutive
+ * elements; ranges are reindexed by a pool of workers through WorkItemManager, each in its own transaction. As the
+ * element ids can't be queried by range, the checkpoint is the id of the last element, in scan order, up to which all
+ * ranges were reindexed; it is saved periodically, and a reindex stopped by the user or by a server restart resumes
+ * by skipping the scan until that element.
+ *
+ * Elements updated while their range is reindexed could be written to the index with the state read before the update;
+ * after a range is reindexed, elements with a modification time after the range was read - less a margin, for
+ * transactions that were in progress - are read and reindexed again.
+ */
+@Component
+@Order(8)
+public class ReindexService implements Service, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(ReindexService.class);
+
+    static final List<String> VERTEX_INDEX_NAMES = Arrays.asList(VERTEX_INDEX, FULLTEXT_INDEX);
+    static final List<String> EDGE_INDEX_NAMES   = Collections.singletonList(EDGE_INDEX);
+
+    private static final String REINDEX_ID           = "reindex"; // value of REINDEX_ID_PROPERTY_KEY in the status vertex
+    private static final String WORKER_PREFIX        = "atlas-reindex-worker";
+    private static final int    QUEUED_RANGES        = 2;         // per worker
+    private static final long   STOP_WAIT_TIME_MS    = 60 * 1000;
+
+    private final AtlasGraph               graph;
+    private final Configuration            configuration;
+    private final int                      workerCount;
+    private final int                      batchSize;
+    private final long                     checkpointIntervalMs;
+    private final long                     recheckMarginMs;
+    private final ExecutorService          executor;
+    private final ScheduledExecutorService checkpointer;
+    private final Object                   saveLock = new Object();
+    private ReindexRun                     run;
+
+    @Inject
+    public ReindexService(AtlasGraph graph, Configuration configuration) {
+        this.graph                = graph;
+        this.configuration        = configuration;
+        this.workerCount          = Math.max(1, AtlasConfiguration.REINDEX_WORKER_COUNT.getInt());
+        this.batchSize            = Math.max(1, AtlasConfiguration.REINDEX_BATCH_SIZE.getInt());
+        this.checkpointIntervalMs = Math.max(1000, AtlasConfiguration.REINDEX_CHECKPOINT_INTERVAL_MS.getLong());
+        this.recheckMarginMs      = AtlasConfiguration.REINDEX_RECHECK_MARGIN_MS.getLong();
+        this.executor             = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-reindex").setDaemon(true).build());
+        this.checkpointer         = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-reindex-checkpoint").setDaemon(true).build());
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        if (!HAConfiguration.isHAEnabled(configuration)) {
+            resumeInterrupted();
+        } else {
+            LOG.info("ReindexService.start(): deferring until instance activation");
+        }
+    }
+
+    @Override
+    public void stop() throws AtlasException {
+        interruptRun();
+
+        executor.shutdownNow();
+        checkpointer.shutdownNow();
+    }
+
+    @Override
+    public void instanceIsActive() throws AtlasException {
+        resumeInterrupted();
+    }
+
+    @Override
+    public void instanceIsPassive() throws AtlasException {
+        interruptRun();
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.REINDEX_SERVICE.getOrder();
+    }
+
+    public synchronized AtlasReindexStatus getStatus() {
+        if (run != null) {
+            return run.getStatus();
+        }
+
+        AtlasReindexStatus ret = loadStatus();
+
+        return ret != null ? ret : new AtlasReindexStatus();
+    }
+
+    synchronized boolean isRunning() {
+        return run != null;
+    }
+
+    /**
+     * Starts reindex of the given indexes - all indexes if indexNames is empty.
+     *
+     * @param maxElementsPerSecond null for the configured default; 0 for no limit
+     */
+    public synchronized AtlasReindexStatus startReindex(List<String> indexNames, Integer maxElementsPerSecond) throws AtlasBaseException {
+        checkNotRunning();
+
+        AtlasReindexStatus status = new AtlasReindexStatus();
+
+        status.setStatus(Status.RUNNING);
+        status.setIndexNames(validateIndexNames(indexNames));
+        status.setStartedBy(RequestContext.getCurrentUser());
+        status.setStartTime(System.currentTimeMillis());
+        status.setMaxElementsPerSecond(maxElementsPerSecond != null ? validateMaxElementsPerSecond(maxElementsPerSecond) : AtlasConfiguration.REINDEX_MAX_ELEMENTS_PER_SECOND.getInt());
+
+        startRun(status);
+
+        return run.getStatus();
+    }
+
+    /**
+     * Resumes a stopped or failed reindex from its last checkpoint.
+     *
+     * @param maxElementsPerSecond null to keep the limit of the reindex; 0 for no limit
+     */
+    public synchronized AtlasReindexStatus resumeReindex(Integer maxElementsPerSecond) throws AtlasBaseException {
+        checkNotRunning();
+
+        AtlasReindexStatus status = loadStatus();
+
+        if (status == null || (status.getStatus() != Status.STOPPED && status.getStatus() != Status.FAILED)) {
+            throw new AtlasBaseException(AtlasErrorCode.REINDEX_NOT_RESUMABLE, status != null ? status.getStatus().name() : Status.NOT_STARTED.name());
+        }
+
+        status.setStatus(Status.RUNNING);
+        status.setEndTime(0);
+        status.setErrorMessage(null);
+
+        if (maxElementsPerSecond != null) {
+            status.setMaxElementsPerSecond(validateMaxElementsPerSecond(maxElementsPerSecond));
+        }
+
+        startRun(status);
+
+        return run.getStatus();
+    }
+
+    /**
+     * Stops the reindex in progress, after the ranges being reindexed complete; returns without waiting for them.
+     */
+    public synchronized AtlasReindexStatus stopReindex() {
+        if (run != null) {
+            run.stop();
+
+            return run.getStatus();
+        }
+
+        return getStatus();
+    }
+
+    /**
+     * Changes the throttle of the reindex in progress.
+     *
+     * @param maxElementsPerSecond 0 for no limit
+     */
+    public synchronized AtlasReindexStatus setMaxElementsPerSecond(int maxElementsPerSecond) throws AtlasBaseException {
+        validateMaxElementsPerSecond(maxElementsPerSecond);
+
+        if (run != null) {
+            run.setMaxElementsPerSecond(maxElementsPerSecond);
+        }
+
+        return getStatus();
+    }
+
+    private void checkNotRunning() throws AtlasBaseException {
+        if (run != null) {
+            throw new AtlasBaseException(AtlasErrorCode.REINDEX_IN_PROGRESS, new Date(run.getStatus().getStartTime()).toString());
+        }
+    }
+
+    private void startRun(AtlasReindexStatus status) {
+        LOG.info("ReindexService: starting reindex: {}", status);
+
+        run = new ReindexRun(status);
+
+        run.start();
+    }
+
+    private synchronized void runFinished(ReindexRun finished) {
+        if (run == finished) {
+            run = null;
+        }
+    }
+
+    /**
+     * Resumes the reindex that was in progress when the server stopped, or when the instance became passive.
+     */
+    private void resumeInterrupted() {
+        try {
+            synchronized (this) {
+                if (run == null) {
+                    AtlasReindexStatus status = loadStatus();
+
+                    if (status != null && status.getStatus() == Status.RUNNING) {
+                        LOG.info("ReindexService: resuming interrupted reindex");
+
+                        startRun(status);
+                    }
+                }
+            }
+        } catch (Exception excp) {
+            LOG.error("ReindexService: failed to resume interrupted reindex", excp);
+        }
+    }
+
+    /**
+     * Stops the reindex in progress, leaving its status as RUNNING to resume when the instance is active again.
+     */
+    private void interruptRun() {
+        ReindexRun current;
+
+        synchronized (this) {
+            current = run;
+        }
+
+        if (current != null) {
+            current.interrupt();
+
+            try {
+                if (!current.done.await(STOP_WAIT_TIME_MS, TimeUnit.MILLISECONDS)) {
+                    LOG.warn("ReindexService: reindex didn't stop in {}ms", STOP_WAIT_TIME_MS);
+                }
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private AtlasReindexStatus loadStatus() {
+        try {
+            AtlasVertex vertex = findStatusVertex();
+            String      json   = vertex != null ? getEncodedProperty(vertex, REINDEX_STATUS_PROPERTY_KEY, String.class) : null;
+
+            return json != null ? AtlasType.fromJson(json, AtlasReindexStatus.class) : null;
+        } finally {
+            graph.commit();
+        }
+    }
+
+    private void saveStatus(AtlasReindexStatus status) {
+        synchronized (saveLock) {
+            try {
+                AtlasVertex vertex = findStatusVertex();
+
+                if (vertex == null) {
+                    vertex = graph.addVertex();
+
+                    setEncodedProperty(vertex, REINDEX_ID_PROPERTY_KEY, REINDEX_ID);
+                }
+
+                setEncodedProperty(vertex, REINDEX_STATUS_PROPERTY_KEY, AtlasType.toJson(status));
+            } finally {
+                graph.commit();
+            }
+        }
+    }
+
+    private AtlasVertex findStatusVertex() {
+        Iterator<AtlasVertex> results = graph.query().has(REINDEX_ID_PROPERTY_KEY, REINDEX_ID).vertices().iterator();
+
+        return results.hasNext() ? results.next() : null;
+    }
+
+    private static List<String> validateIndexNames(List<String> indexNames) throws AtlasBaseException {
+        List<String> validNames = new ArrayList<>(VERTEX_INDEX_NAMES);
+
+        validNames.addAll(EDGE_INDEX_NAMES);
+
+        if (CollectionUtils.isEmpty(indexNames)) {
+            return validNames;
+        }
+
+        List<String> ret = new ArrayList<>();
+
+        for (String indexName : indexNames) {
+            if (!validNames.contains(indexName)) {
+                throw new AtlasBaseException(AtlasErrorCode.INVALID_REINDEX_INDEX_NAME, indexName, validNames.toString());
+            }
+
+            if (!ret.contains(indexName)) {
+                ret.add(indexName);
+            }
+        }
+
+        return ret;
+    }
+
+    private static int validateMaxElementsPerSecond(int maxElementsPerSecond) throws AtlasBaseException {
+        if (maxElementsPerSecond < 0) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "maxElementsPerSecond=" + maxElementsPerSecond);
+        }
+
+        return maxElementsPerSecond;
+    }
+
+    private static List<String> getIndexNames(List<String> indexNames, ElementType elementType) {
+        List<String> ret = new ArrayList<>(elementType == ElementType.VERTEX ? VERTEX_INDEX_NAMES : EDGE_INDEX_NAMES);
+
+        ret.retainAll(indexNames);
+
+        return ret;
+    }
+
+    private class ReindexRun implements Runnable {
+        private final AtlasReindexStatus status; // guarded by this
+        private final CheckpointTracker  tracker;
+        private final AtomicLong         scannedCount;
+        private final AtomicLong         processedCount;
+        private final AtomicLong         failedCount;
+        private final long               runStartTime;
+        private final long               runStartProcessedCount;
+        private final CountDownLatch     done = new CountDownLatch(1);
+        private volatile RateLimiter     rateLimiter;
+        private volatile boolean         isStopRequested;
+        private volatile boolean         isInterrupted;
+        private boolean                  isFinalSaved; // guarded by saveLock
+
+        ReindexRun(AtlasReindexStatus status) {
+            this.status                 = status;
+            this.tracker                = new CheckpointTracker(status.getCheckpointPhase(), status.getCheckpointId(), status.getCheckpointCount());
+            this.scannedCount           = new AtomicLong(status.getCheckpointCount());
+            this.processedCount         = new AtomicLong(status.getProcessedCount());
+            this.failedCount            = new AtomicLong(status.getFailedCount());
+            this.runStartTime           = System.currentTimeMillis();
+            this.runStartProcessedCount = status.getProcessedCount();
+
+            setMaxElementsPerSecond(status.getMaxElementsPerSecond());
+        }
+
+        void start() {
+            executor.execute(this);
+        }
+
+        void stop() {
+            isStopRequested = true;
+
+            synchronized (this) {
+                status.setStatus(Status.STOPPING);
+            }
+        }
+
+        void interrupt() {
+            isInterrupted = true;
+        }
+
+        boolean isStopped() {
+            return isStopRequested || isInterrupted;
+        }
+
+        void setMaxElementsPerSecond(int maxElementsPerSecond) {
+            synchronized (this) {
+                status.setMaxElementsPerSecond(maxElementsPerSecond);
+
+                if (maxElementsPerSecond <= 0) {
+                    rateLimiter = null;
+                } else if (rateLimiter != null) {
+                    rateLimiter.setRate(maxElementsPerSecond);
+                } else {
+                    rateLimiter = RateLimiter.create(maxElementsPerSecond);
+                }
+            }
+        }
+
+        synchronized AtlasReindexStatus getStatus() {
+            AtlasReindexStatus ret     = new AtlasReindexStatus(status);
+            long               now     = System.currentTimeMillis();
+            long               elapsed = now - runStartTime;
+
+            ret.setUpdatedTime(now);
+            ret.setScannedCount(scannedCount.get());
+            ret.setProcessedCount(processedCount.get());
+            ret.setFailedCount(failedCount.get());
+            ret.setElementsPerSecond(elapsed > 0 ? (processedCount.get() - runStartProcessedCount) * 1000 / elapsed : 0);
+
+            tracker.copyTo(ret);
+
+            return ret;
+        }
+
+        @Override
+        public void run() {
+            ScheduledFuture<?> checkpoints = null;
+
+            try {
+                save(false);
+
+                checkpoints = checkpointer.scheduleWithFixedDelay(() -> save(false), checkpointIntervalMs, checkpointIntervalMs, TimeUnit.MILLISECONDS);
+
+                for (ElementType elementType : ElementType.values()) {
+                    if (tracker.isPhaseComplete(elementType)) {
+                        continue;
+                    }
+
+                    synchronized (this) {
+                        status.setPhase(elementType);
+                    }
+
+                    List<String> indexNames = getIndexNames(status.getIndexNames(), elementType);
+
+                    if (!indexNames.isEmpty()) {
+                        reindexPhase(elementType, indexNames);
+                    }
+
+                    if (isStopped()) {
+                        break;
+                    }
+
+                    if (elementType.ordinal() + 1 < ElementType.values().length) {
+                        tracker.startPhase(ElementType.values()[elementType.ordinal() + 1], scannedCount.get());
+                    }
+                }
+
+                synchronized (this) {
+                    if (isStopRequested) {
+                        status.setStatus(Status.STOPPED);
+                    } else if (!isInterrupted) {
+                        status.setStatus(Status.COMPLETE);
+                    } // else: leave as RUNNING, to resume when the server starts or the instance is active again
+
+                    if (!isInterrupted) {
+                        status.setEndTime(System.currentTimeMillis());
+                    }
+                }
+            } catch (Throwable t) {
+                LOG.error("ReindexService: reindex failed", t);
+
+                synchronized (this) {
+                    status.setStatus(Status.FAILED);
+                    status.setEndTime(System.currentTimeMillis());
+                    status.setErrorMessage(t.getMessage());
+                }
+            } finally {
+                if (checkpoints != null) {
+                    checkpoints.cancel(false);
+                }
+
+                try {
+                    save(true);
+                } finally {
+                    runFinished(this);
+
+                    done.countDown();
+                }
+
+                LOG.info("ReindexService: reindex done: {}", getStatus());
+            }
+        }
+
+        private void save(boolean isFinal) {
+            synchronized (saveLock) {
+                if (isFinalSaved) { // a periodic save must not overwrite the final status
+                    return;
+                }
+
+                isFinalSaved = isFinal;
+
+                try {
+                    saveStatus(getStatus());
+                } catch (Exception excp) {
+                    LOG.warn("ReindexService: failed to save reindex status", excp);
+                }
+            }
+        }
+
+        private void reindexPhase(ElementType elementType, List<String> indexNames) {
+            String                                  checkpointId = tracker.getResumeId(elementType);
+            WorkItemManager<Range, ReindexConsumer> manager      = new WorkItemManager<>(new ReindexConsumerBuilder(this, indexNames), WORKER_PREFIX, QUEUED_RANGES, workerCount, false);
+
+            LOG.info("ReindexService: reindexing {} of indexes {}, after {}", elementType, indexNames, checkpointId);
+
+            try {
+                if (checkpointId != null && getElement(elementType, checkpointId) == null) {
+                    LOG.warn("ReindexService: checkpoint {} {} not found; reindexing all {}", elementType, checkpointId, elementType);
+
+                    checkpointId = null;
+                }
+
+                if (!scan(elementType, checkpointId, manager) && !isStopped()) {
+                    LOG.warn("ReindexService: checkpoint {} {} not found in scan; reindexing all {}", elementType, checkpointId, elementType);
+
+                    scan(elementType, null, manager);
+                }
+
+                manager.drain();
+            } finally {
+                try {
+                    manager.shutdown();
+                } catch (InterruptedException excp) {
+                    LOG.error("ReindexService: interrupted during WorkItemManager shutdown", excp);
+
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /**
+         * @return false if the scan didn't find the element at skipToId
+         */
+        private boolean scan(ElementType elementType, String skipToId, WorkItemManager<Range, ReindexConsumer> manager) {
+            boolean      isSkipping = skipToId != null;
+            List<String> ids        = new ArrayList<>(batchSize);
+
+            try {
+                Iterator<AtlasElement> elements = (elementType == ElementType.VERTEX ? graph.getVertices() : graph.getEdges()).iterator();
+
+                while (elements.hasNext() && !isStopped()) {
+                    String id = elements.next().getId().toString();
+
+                    if (isSkipping) {
+                        isSkipping = !id.equals(skipToId);
+
+                        continue;
+                    }
+
+                    ids.add(id);
+
+                    if (ids.size() == batchSize) {
+                        manager.checkProduce(tracker.add(elementType, ids, scannedCount.addAndGet(ids.size())));
+
+                        ids = new ArrayList<>(batchSize);
+                    }
+                }
+
+                if (!ids.isEmpty() && !isStopped()) {
+                    manager.checkProduce(tracker.add(elementType, ids, scannedCount.addAndGet(ids.size())));
+                }
+            } finally {
+                graph.rollback(); // close the transaction of the scan; nothing is written
+            }
+
+            return !isSkipping;
+        }
+
+        void reindex(Range range, List<String> indexNames) {
+            if (isStopped()) { // left for resume, as the range is after the checkpoint
+                return;
+            }
+
+            RateLimiter rateLimiter = this.rateLimiter;
+
+            if (rateLimiter != null) {
+                rateLimiter.acquire(range.ids.size());
+            }
+
+            try {
+                long               readTime  = System.currentTimeMillis();
+                List<AtlasElement> elements  = getElements(range.elementType, range.ids);
+                Set<String>        failedIds = getIds(graph.getManagementSystem().reindex(indexNames, elements));
+
+                graph.rollback();
+
+                List<AtlasElement> updated = getUpdatedElements(getElements(range.elementType, range.ids), readTime - recheckMarginMs);
+
+                if (!updated.isEmpty()) {
+                    LOG.debug("ReindexService: reindexing {} elements updated during reindex", updated.size());
+
+                    failedIds.removeAll(getIds(updated)); // the result of the recheck replaces the earlier one
+                    failedIds.addAll(getIds(graph.getManagementSystem().reindex(indexNames, updated)));
+                }
+
+                if (!failedIds.isEmpty()) {
+                    LOG.warn("ReindexService: failed to reindex {} {} elements: {}", failedIds.size(), range.elementType, failedIds);
+                }
+
+                processedCount.addAndGet(elements.size() - failedIds.size());
+                failedCount.addAndGet(failedIds.size());
+            } catch (Exception excp) {
+                LOG.warn("ReindexService: failed to reindex {} {} elements, from {}", range.ids.size(), range.elementType, range.ids.get(0), excp);
+
+                failedCount.addAndGet(range.ids.size());
+            } finally {
+                graph.rollback();
+
+                tracker.complete(range);
+            }
+        }
+
+        private Set<String> getIds(List<AtlasElement> elements) {
+            Set<String> ret = new HashSet<>();
+
+            for (AtlasElement element : elements) {
+                ret.add(element.getId().toString());
+            }
+
+            return ret;
+        }
+
+        private List<AtlasElement> getElements(ElementType elementType, List<String> ids) {
+            List<AtlasElement> ret;
+
+            if (elementType == ElementType.VERTEX) {
+                List<AtlasElement> vertices = graph.getVertices(ids);
+
+                ret = vertices;
+            } else {
+                ret = new ArrayList<>(ids.size());
+
+                for (String id : ids) {
+                    AtlasEdge edge = graph.getEdge(id);
+
+                    if (edge != null) {
+                        ret.add(edge);
+                    }
+                }
+            }
+
+            return ret;
+        }
+
+        private AtlasElement getElement(ElementType elementType, String id) {
+            try {
+                return elementType == ElementType.VERTEX ? graph.getVertex(id) : graph.getEdge(id);
+            } finally {
+                graph.rollback();
+            }
+        }
+
+        private List<AtlasElement> getUpdatedElements(List<AtlasElement> elements, long updatedSince) {
+            List<AtlasElement> ret = new ArrayList<>();
+
+            for (AtlasElement element : elements) {
+                Long modificationTime = element.getProperty(MODIFICATION_TIMESTAMP_PROPERTY_KEY, Long.class);
+
+                if (modificationTime != null && modificationTime >= updatedSince) {
+                    ret.add(element);
+                }
+            }
+
+            return ret;
+        }
+    }
+
+    private static class ReindexConsumerBuilder implements WorkItemBuilder<ReindexConsumer, Range> {
+        private final ReindexRun   run;
+        private final List<String> indexNames;
+
+        ReindexConsumerBuilder(ReindexRun run, List<String> indexNames) {
+            this.run        = run;
+            this.indexNames = indexNames;
+        }
+
+        @Override
+        public ReindexConsumer build(BlockingQueue<Range> queue) {
+            return new ReindexConsumer(queue, run, indexNames);
+        }
+    }
+
+    private static class ReindexConsumer extends WorkItemConsumer<Range> {
+        private final ReindexRun   run;
+        private final List<String> indexNames;
+
+        ReindexConsumer(BlockingQueue<Range> queue, ReindexRun run, List<String> indexNames) {
+            super(queue);
+
+            this.run        = run;
+            this.indexNames = indexNames;
+        }
+
+        @Override
+        protected void processItem(Range range) {
+            run.reindex(range, indexNames);
+        }
+
+        @Override
+        protected void doCommit() {
+            // each range is committed by reindex, in processItem()
+        }
+    }
+
+    /**
+     * Consecutive elements in scan order, reindexed together.
+     */
+    static class Range {
+        final long         ordinal;
+        final ElementType  elementType;
+        final List<String> ids;
+        final long         endCount; // number of elements scanned, up to the last element of this range
+        boolean            isComplete;
+
+        Range(long ordinal, ElementType elementType, List<String> ids, long endCount) {
+            this.ordinal     = ordinal;
+            this.elementType = elementType;
+            this.ids         = ids;
+            this.endCount    = endCount;
+        }
+    }
+
+    /**
+     * Tracks the checkpoint: the last element of the last range up to which all ranges are complete. Ranges complete
+     * out of order, as they are reindexed by multiple workers.
+     */
+    static class CheckpointTracker {
+        private final NavigableMap<Long, Range> pending = new TreeMap<>();
+        private long                            nextOrdinal;
+        private ElementType                     phase;
+        private String                          lastId;
+        private long                            count;
+
+        CheckpointTracker(ElementType phase, String lastId, long count) {
+            this.phase  = phase;
+            this.lastId = lastId;
+            this.count  = count;
+        }
+
+        synchronized Range add(ElementType elementType, List<String> ids, long endCount) {
+            Range ret = new Range(nextOrdinal++, elementType, ids, endCount);
+
+            pending.put(ret.ordinal, ret);
+
+            return ret;
+        }
+
+        synchronized void complete(Range range) {
+            range.isComplete = true;
+
+            for (Map.Entry<Long, Range> first = pending.firstEntry(); first != null && first.getValue().isComplete; first = pending.firstEntry()) {
+                Range completed = pending.pollFirstEntry().getValue();
+
+                phase  = completed.elementType;
+                lastId = completed.ids.get(completed.ids.size() - 1);
+                count  = completed.endCount;
+            }
+        }
+
+        /**
+         * Called after all ranges of the previous phase are complete.
+         */
+        synchronized void startPhase(ElementType elementType, long count) {
+            this.phase  = elementType;
+            this.lastId = null;
+            this.count  = count;
+        }
+
+        synchronized boolean isPhaseComplete(ElementType elementType) {
+            return phase != null && phase.ordinal() > elementType.ordinal();
+        }
+
+        /**
+         * @return id of the element to resume the scan after; null to scan from the first element
+         */
+        synchronized String getResumeId(ElementType elementType) {
+            return elementType == phase ? lastId : null;
+        }
+
+        synchronized void copyTo(AtlasReindexStatus status) {
+            status.setCheckpointPhase(phase);
+            status.setCheckpointId(lastId);
+            status.setCheckpointCount(count);
+        }
+    }
+}
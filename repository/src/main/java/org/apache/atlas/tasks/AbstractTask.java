@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+
+/**
+ * Base class for tasks executed by TaskExecutor. Implementations must be idempotent, as a task that was
+ * interrupted - by a failure or by server shutdown - is run again from the beginning.
+ */
+public abstract class AbstractTask {
+    private final AtlasTask task;
+
+    protected AbstractTask(AtlasTask task) {
+        this.task = task;
+    }
+
+    public AtlasTask getTaskDef() {
+        return task;
+    }
+
+    public String getTaskGuid() {
+        return task.getGuid();
+    }
+
+    public String getTaskType() {
+        return task.getType();
+    }
+
+    /**
+     * Tasks having the same ordering key are executed one at a time, in the order of submission.
+     */
+    public String getOrderingKey() {
+        return task.getGuid();
+    }
+
+    public abstract Status perform() throws Exception;
+}
@@ -0,0 +1,206 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.atlas.utils.AtlasPerfTracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs tasks on a pool of workers. Each worker has its own queue and tasks are routed to workers by their
+ * ordering key, so that tasks on the same object are never run concurrently or out of order. A failed task is retried
+ * after a delay that doubles with each attempt; tasks queued in the meantime may run before the retry.
+ */
+public class TaskExecutor {
+    private static final Logger LOG      = LoggerFactory.getLogger(TaskExecutor.class);
+    private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("TaskExecutor");
+
+    private static final String THREADNAME_PREFIX   = "atlas-task-worker";
+    private static final int    MAX_RETRY_DELAY_EXP = 10;
+
+    private final TaskRegistry              registry;
+    private final Map<String, TaskFactory>  taskTypeFactoryMap;
+    private final int                       maxAttempts;
+    private final long                      retryDelayMs;
+    private final ExecutorService[]         workers;
+    private final ScheduledExecutorService  retryScheduler;
+    private final AtomicLong                completedCount = new AtomicLong();
+    private final AtomicLong                failedCount    = new AtomicLong();
+
+    public TaskExecutor(TaskRegistry registry, Map<String, TaskFactory> taskTypeFactoryMap, int workerCount, int maxAttempts, long retryDelayMs) {
+        this.registry           = registry;
+        this.taskTypeFactoryMap = taskTypeFactoryMap;
+        this.maxAttempts        = maxAttempts;
+        this.retryDelayMs       = Math.max(retryDelayMs, 0);
+        this.workers            = new ExecutorService[Math.max(workerCount, 1)];
+        this.retryScheduler     = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-task-retry").setDaemon(true).build());
+
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(THREADNAME_PREFIX + "-" + i).setDaemon(true).build());
+        }
+    }
+
+    public void submit(AtlasTask task) {
+        TaskFactory factory = taskTypeFactoryMap.get(task.getType());
+
+        if (factory == null) {
+            LOG.error("TaskExecutor.submit(): no factory registered for task type {}; ignoring task {}", task.getType(), task.getGuid());
+
+            return;
+        }
+
+        AbstractTask runnableTask = factory.create(task);
+
+        if (runnableTask == null) {
+            LOG.error("TaskExecutor.submit(): factory {} could not create task {} of type {}", factory.getClass().getSimpleName(), task.getGuid(), task.getType());
+
+            return;
+        }
+
+        getWorker(runnableTask.getOrderingKey()).submit(new TaskConsumer(runnableTask));
+    }
+
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public void stop() {
+        retryScheduler.shutdownNow();
+
+        for (ExecutorService worker : workers) {
+            worker.shutdownNow();
+        }
+
+        for (ExecutorService worker : workers) {
+            try {
+                worker.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                LOG.warn("TaskExecutor.stop(): interrupted while waiting for workers to terminate");
+
+                Thread.currentThread().interrupt();
+
+                break;
+            }
+        }
+    }
+
+    // retryDelayMs, doubled for each attempt after the first
+    long getRetryDelayMs(int attemptCount) {
+        return retryDelayMs << Math.min(Math.max(attemptCount - 1, 0), MAX_RETRY_DELAY_EXP);
+    }
+
+    private ExecutorService getWorker(String orderingKey) {
+        int idx = orderingKey == null ? 0 : Math.floorMod(orderingKey.hashCode(), workers.length);
+
+        return workers[idx];
+    }
+
+    private class TaskConsumer implements Runnable {
+        private final AbstractTask task;
+
+        TaskConsumer(AbstractTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            AtlasTask       taskDef = task.getTaskDef();
+            AtlasPerfTracer perf    = null;
+
+            try {
+                if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                    perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "TaskExecutor.run(type=" + taskDef.getType() + ", guid=" + taskDef.getGuid() + ")");
+                }
+
+                RequestContext.clear();
+                RequestContext.get().setUser(taskDef.getCreatedBy(), null);
+
+                taskDef.incrementAttemptCount();
+                taskDef.setStartTime(System.currentTimeMillis());
+                taskDef.setStatus(Status.IN_PROGRESS);
+
+                registry.updateStatus(taskDef);
+
+                Status status = task.perform();
+
+                taskDef.setEndTime(System.currentTimeMillis());
+
+                if (status == Status.COMPLETE) {
+                    registry.deleteByGuid(taskDef.getGuid());
+
+                    completedCount.incrementAndGet();
+
+                    LOG.info("Task {} of type {} completed in {} ms", taskDef.getGuid(), taskDef.getType(), taskDef.getEndTime() - taskDef.getStartTime());
+                } else {
+                    onFailure(taskDef, "task returned status " + status);
+                }
+            } catch (Throwable t) {
+                LOG.error("Task {} of type {} failed; attempt {} of {}", taskDef.getGuid(), taskDef.getType(), taskDef.getAttemptCount(), maxAttempts, t);
+
+                taskDef.setEndTime(System.currentTimeMillis());
+
+                onFailure(taskDef, t.getMessage() != null ? t.getMessage() : t.getClass().getName());
+            } finally {
+                // tasks commit outside of @GraphTransaction; hooks not run by the task are dropped, so they don't pile up in the worker thread
+                GraphTransactionInterceptor.processPostTransactionHooks(false);
+
+                RequestContext.clear();
+
+                AtlasPerfTracer.log(perf);
+            }
+        }
+
+        private void onFailure(AtlasTask taskDef, String errorMessage) {
+            taskDef.setErrorMessage(errorMessage);
+
+            if (taskDef.getAttemptCount() < maxAttempts) {
+                long delayMs = getRetryDelayMs(taskDef.getAttemptCount());
+
+                taskDef.setStatus(Status.PENDING);
+
+                registry.updateStatus(taskDef);
+
+                LOG.info("Task {} of type {} will be retried in {} ms", taskDef.getGuid(), taskDef.getType(), delayMs);
+
+                retryScheduler.schedule(() -> submit(taskDef), delayMs, TimeUnit.MILLISECONDS);
+            } else {
+                taskDef.setStatus(Status.FAILED);
+
+                registry.updateStatus(taskDef);
+
+                failedCount.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.atlas.service.Service;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entry point of the deferred task framework: creates tasks, persists them in TaskRegistry and
+ * hands them over to TaskExecutor once the graph transaction that created them commits.
+ * Pending tasks are resumed when the server starts, or when the instance becomes active in HA mode.
+ */
+@Component
+@Order(6)
+public class TaskManagement implements Service, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(TaskManagement.class);
+
+    private final Configuration            configuration;
+    private final TaskRegistry             registry;
+    private final Map<String, TaskFactory> taskTypeFactoryMap = new ConcurrentHashMap<>();
+    private final int                      workerCount;
+    private final int                      maxAttempts;
+    private volatile TaskExecutor          taskExecutor;
+
+    @Inject
+    public TaskManagement(Configuration configuration, TaskRegistry registry) {
+        this.configuration = configuration;
+        this.registry      = registry;
+        this.workerCount   = AtlasConfiguration.TASKS_WORKER_COUNT.getInt();
+        this.maxAttempts   = AtlasConfiguration.TASKS_MAX_ATTEMPTS.getInt();
+    }
+
+    public static boolean isEnabled() {
+        return AtlasConfiguration.TASKS_USE_ENABLED.getBoolean();
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        LOG.info("==> TaskManagement.start()");
+
+        if (!isEnabled()) {
+            LOG.info("TaskManagement.start(): deferred tasks are disabled");
+        } else if (!HAConfiguration.isHAEnabled(configuration)) {
+            startInternal();
+        } else {
+            LOG.info("TaskManagement.start(): deferring task execution until instance activation");
+        }
+
+        LOG.info("<== TaskManagement.start()");
+    }
+
+    @Override
+    public void stop() throws AtlasException {
+        stopInternal();
+
+        LOG.info("TaskManagement.stop(): stopped");
+    }
+
+    @Override
+    public void instanceIsActive() throws AtlasException {
+        LOG.info("==> TaskManagement.instanceIsActive()");
+
+        if (isEnabled()) {
+            startInternal();
+        }
+
+        LOG.info("<== TaskManagement.instanceIsActive()");
+    }
+
+    @Override
+    public void instanceIsPassive() throws AtlasException {
+        LOG.info("==> TaskManagement.instanceIsPassive()");
+
+        stopInternal();
+
+        LOG.info("<== TaskManagement.instanceIsPassive()");
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.TASK_MANAGEMENT.getOrder();
+    }
+
+    public void registerFactory(TaskFactory factory) {
+        for (String taskType : factory.getSupportedTypes()) {
+            TaskFactory existing = taskTypeFactoryMap.put(taskType, factory);
+
+            if (existing != null && existing != factory) {
+                LOG.warn("TaskManagement.registerFactory(): task type {} is now handled by {}, instead of {}", taskType, factory.getClass().getSimpleName(), existing.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Creates a task in the current graph transaction. The task is submitted for execution only after the transaction
+     * commits successfully; if the transaction is rolled back, the task is discarded along with other changes.
+     */
+    public AtlasTask createTask(String taskType, Map<String, Object> parameters) {
+        if (!taskTypeFactoryMap.containsKey(taskType)) {
+            throw new IllegalArgumentException("no factory registered for task type " + taskType);
+        }
+
+        AtlasTask ret = registry.save(new AtlasTask(taskType, RequestContext.getCurrentUser(), parameters));
+
+        new GraphTransactionInterceptor.PostTransactionHook() {
+            @Override
+            public void onComplete(boolean isSuccess) {
+                if (isSuccess) {
+                    submit(ret);
+                }
+            }
+        };
+
+        return ret;
+    }
+
+    public List<AtlasTask> getAll() {
+        return registry.getAll();
+    }
+
+    public List<AtlasTask> getByStatus(Status status) {
+        return registry.getTasksByStatus(status);
+    }
+
+    public AtlasTask getByGuid(String guid) throws AtlasBaseException {
+        AtlasTask ret = registry.getByGuid(guid);
+
+        if (ret == null) {
+            throw new AtlasBaseException(AtlasErrorCode.TASK_NOT_FOUND, guid);
+        }
+
+        return ret;
+    }
+
+    public AtlasTask retry(String guid) throws AtlasBaseException {
+        AtlasTask ret = getByGuid(guid);
+
+        if (ret.getStatus() != Status.FAILED) {
+            throw new AtlasBaseException(AtlasErrorCode.TASK_STATUS_NOT_APPLICABLE, guid, ret.getStatus().name(), "retry");
+        }
+
+        ret.setStatus(Status.PENDING);
+        ret.setAttemptCount(0);
+        ret.setErrorMessage(null);
+
+        registry.updateStatus(ret);
+
+        submit(ret);
+
+        return ret;
+    }
+
+    public void delete(String guid) throws AtlasBaseException {
+        AtlasTask task = getByGuid(guid);
+
+        if (task.getStatus() == Status.IN_PROGRESS) {
+            throw new AtlasBaseException(AtlasErrorCode.TASK_STATUS_NOT_APPLICABLE, guid, task.getStatus().name(), "delete");
+        }
+
+        registry.deleteByGuid(guid);
+    }
+
+    public long getCompletedCount() {
+        TaskExecutor executor = taskExecutor;
+
+        return executor != null ? executor.getCompletedCount() : 0;
+    }
+
+    public long getFailedCount() {
+        TaskExecutor executor = taskExecutor;
+
+        return executor != null ? executor.getFailedCount() : 0;
+    }
+
+    private void submit(AtlasTask task) {
+        TaskExecutor executor = taskExecutor;
+
+        if (executor != null) {
+            executor.submit(task);
+        } else {
+            LOG.info("TaskManagement: task {} of type {} will be executed when task management starts", task.getGuid(), task.getType());
+        }
+    }
+
+    private synchronized void startInternal() {
+        if (taskExecutor != null) {
+            LOG.info("TaskManagement: already started");
+
+            return;
+        }
+
+        taskExecutor = new TaskExecutor(registry, taskTypeFactoryMap, workerCount, maxAttempts, AtlasConfiguration.TASKS_RETRY_DELAY_MS.getLong());
+
+        List<AtlasTask> pendingTasks = registry.getPendingTasks();
+
+        LOG.info("TaskManagement: started with {} workers; resuming {} pending tasks", workerCount, pendingTasks.size());
+
+        for (AtlasTask task : pendingTasks) {
+            if (StringUtils.isEmpty(task.getType())) {
+                continue;
+            }
+
+            taskExecutor.submit(task);
+        }
+    }
+
+    private synchronized void stopInternal() {
+        if (taskExecutor != null) {
+            taskExecutor.stop();
+
+            taskExecutor = null;
+        }
+    }
+}
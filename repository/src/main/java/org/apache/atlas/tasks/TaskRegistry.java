@@ -0,0 +1,215 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.atlas.repository.Constants.*;
+import static org.apache.atlas.repository.graphdb.AtlasGraphQuery.ComparisionOperator.EQUAL;
+import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getEncodedProperty;
+import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.setEncodedProperty;
+
+/**
+ * Persists tasks as vertices in the graph, so that pending work survives server restarts.
+ */
+@Component
+public class TaskRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(TaskRegistry.class);
+
+    private final AtlasGraph graph;
+
+    @Inject
+    public TaskRegistry(AtlasGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Adds the task vertex in the current graph transaction; caller is responsible for commit.
+     */
+    public AtlasTask save(AtlasTask task) {
+        AtlasVertex vertex = graph.addVertex();
+
+        setEncodedProperty(vertex, TASK_GUID_PROPERTY_KEY, task.getGuid());
+        setEncodedProperty(vertex, TASK_TYPE_PROPERTY_KEY, task.getType());
+        setEncodedProperty(vertex, TASK_CREATED_BY_PROPERTY_KEY, task.getCreatedBy());
+        setEncodedProperty(vertex, TASK_CREATED_TIME_PROPERTY_KEY, task.getCreatedTime());
+        setEncodedProperty(vertex, TASK_PARAMETERS_PROPERTY_KEY, AtlasType.toJson(task.getParameters()));
+
+        updateVertex(vertex, task);
+
+        return task;
+    }
+
+    public void updateStatus(AtlasTask task) {
+        try {
+            AtlasVertex vertex = findByGuid(task.getGuid());
+
+            if (vertex != null) {
+                task.setUpdatedTime(System.currentTimeMillis());
+
+                updateVertex(vertex, task);
+            } else {
+                LOG.warn("updateStatus(): task {} not found in registry", task.getGuid());
+            }
+        } finally {
+            graph.commit();
+        }
+    }
+
+    public void deleteByGuid(String guid) {
+        try {
+            AtlasVertex vertex = findByGuid(guid);
+
+            if (vertex != null) {
+                graph.removeVertex(vertex);
+            }
+        } finally {
+            graph.commit();
+        }
+    }
+
+    public AtlasTask getByGuid(String guid) {
+        try {
+            AtlasVertex vertex = findByGuid(guid);
+
+            return vertex != null ? toAtlasTask(vertex) : null;
+        } finally {
+            graph.commit();
+        }
+    }
+
+    /**
+     * Returns tasks that have not run to completion - including the ones that were in progress when the server stopped.
+     */
+    public List<AtlasTask> getPendingTasks() {
+        List<AtlasTask> ret = new ArrayList<>();
+
+        ret.addAll(getTasksByStatus(Status.IN_PROGRESS));
+        ret.addAll(getTasksByStatus(Status.PENDING));
+
+        ret.sort(Comparator.comparingLong(AtlasTask::getCreatedTime));
+
+        return ret;
+    }
+
+    public List<AtlasTask> getTasksByStatus(Status status) {
+        AtlasGraphQuery query = graph.query().has(TASK_STATUS_PROPERTY_KEY, EQUAL, status.name());
+
+        return getTasks(query);
+    }
+
+    public List<AtlasTask> getAll() {
+        List<AtlasTask> ret = new ArrayList<>();
+
+        for (Status status : Status.values()) {
+            ret.addAll(getTasksByStatus(status));
+        }
+
+        ret.sort(Comparator.comparingLong(AtlasTask::getCreatedTime));
+
+        return ret;
+    }
+
+    private List<AtlasTask> getTasks(AtlasGraphQuery query) {
+        List<AtlasTask> ret = new ArrayList<>();
+
+        try {
+            Iterator<AtlasVertex> results = query.vertices().iterator();
+
+            while (results.hasNext()) {
+                ret.add(toAtlasTask(results.next()));
+            }
+        } catch (Throwable t) {
+            LOG.warn("getTasks(): failed to retrieve tasks", t);
+        } finally {
+            graph.commit();
+        }
+
+        return ret;
+    }
+
+    private AtlasVertex findByGuid(String guid) {
+        if (StringUtils.isEmpty(guid)) {
+            return null;
+        }
+
+        Iterator<AtlasVertex> results = graph.query().has(TASK_GUID_PROPERTY_KEY, guid).vertices().iterator();
+
+        return results.hasNext() ? results.next() : null;
+    }
+
+    private void updateVertex(AtlasVertex vertex, AtlasTask task) {
+        setEncodedProperty(vertex, TASK_STATUS_PROPERTY_KEY, task.getStatus().name());
+        setEncodedProperty(vertex, TASK_UPDATED_TIME_PROPERTY_KEY, task.getUpdatedTime());
+        setEncodedProperty(vertex, TASK_START_TIME_PROPERTY_KEY, task.getStartTime());
+        setEncodedProperty(vertex, TASK_END_TIME_PROPERTY_KEY, task.getEndTime());
+        setEncodedProperty(vertex, TASK_ATTEMPT_COUNT_PROPERTY_KEY, task.getAttemptCount());
+
+        if (task.getErrorMessage() != null) {
+            setEncodedProperty(vertex, TASK_ERROR_MESSAGE_PROPERTY_KEY, task.getErrorMessage());
+        } else {
+            vertex.removeProperty(TASK_ERROR_MESSAGE_PROPERTY_KEY);
+        }
+    }
+
+    private static AtlasTask toAtlasTask(AtlasVertex vertex) {
+        AtlasTask ret        = new AtlasTask();
+        String    parameters = getEncodedProperty(vertex, TASK_PARAMETERS_PROPERTY_KEY, String.class);
+        String    status     = getEncodedProperty(vertex, TASK_STATUS_PROPERTY_KEY, String.class);
+
+        ret.setGuid(getEncodedProperty(vertex, TASK_GUID_PROPERTY_KEY, String.class));
+        ret.setType(getEncodedProperty(vertex, TASK_TYPE_PROPERTY_KEY, String.class));
+        ret.setCreatedBy(getEncodedProperty(vertex, TASK_CREATED_BY_PROPERTY_KEY, String.class));
+        ret.setCreatedTime(getLong(vertex, TASK_CREATED_TIME_PROPERTY_KEY));
+        ret.setUpdatedTime(getLong(vertex, TASK_UPDATED_TIME_PROPERTY_KEY));
+        ret.setStartTime(getLong(vertex, TASK_START_TIME_PROPERTY_KEY));
+        ret.setEndTime(getLong(vertex, TASK_END_TIME_PROPERTY_KEY));
+        ret.setErrorMessage(getEncodedProperty(vertex, TASK_ERROR_MESSAGE_PROPERTY_KEY, String.class));
+        ret.setStatus(status != null ? Status.valueOf(status) : Status.PENDING);
+
+        Integer attemptCount = getEncodedProperty(vertex, TASK_ATTEMPT_COUNT_PROPERTY_KEY, Integer.class);
+
+        ret.setAttemptCount(attemptCount != null ? attemptCount : 0);
+        ret.setParameters(parameters != null ? AtlasType.fromJson(parameters, Map.class) : new HashMap<>());
+
+        return ret;
+    }
+
+    private static long getLong(AtlasVertex vertex, String propertyName) {
+        Long ret = getEncodedProperty(vertex, propertyName, Long.class);
+
+        return ret != null ? ret : 0L;
+    }
+}
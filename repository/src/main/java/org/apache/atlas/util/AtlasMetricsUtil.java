@@ -17,6 +17,8 @@
  */
 package org.apache.atlas.util;
 
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.GraphTransactionInterceptor.ObjectUpdateSynchronizer;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
@@ -33,6 +35,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.atlas.model.metrics.AtlasMetrics.*;
 import static org.apache.atlas.repository.Constants.TYPE_NAME_INTERNAL;
@@ -59,6 +62,17 @@ public class AtlasMetricsUtil {
     private final AtlasMetricsCounter     entityCreates     = new AtlasMetricsCounter("entityCreates");
     private final AtlasMetricsCounter     entityUpdates     = new AtlasMetricsCounter("entityUpdates");
     private final AtlasMetricsCounter     entityDeletes     = new AtlasMetricsCounter("entityDeletes");
+    private final AtomicLong              lineageCacheHits          = new AtomicLong();
+    private final AtomicLong              lineageCacheMisses        = new AtomicLong();
+    private final AtomicLong              lineageCacheEvictions     = new AtomicLong();
+    private final AtomicLong              lineageCacheInvalidations = new AtomicLong();
+    private volatile long                 lineageCacheEntries       = 0;
+    private volatile long                 lineageCacheSizeBytes     = 0;
+    private final AtomicLong              dslQueryCacheHits         = new AtomicLong();
+    private final AtomicLong              dslQueryCacheMisses       = new AtomicLong();
+    private final AtomicLong              dslResultCacheHits        = new AtomicLong();
+    private final AtomicLong              dslResultCacheMisses      = new AtomicLong();
+    private final AtomicLong              dslCacheInvalidations     = new AtomicLong();
 
     @Inject
     public AtlasMetricsUtil(AtlasGraph graph) {
@@ -116,6 +130,39 @@ public class AtlasMetricsUtil {
         partitionStat.setLastMessageProcessedTime(messagesProcessed.getLastIncrTime().toEpochMilli());
     }
 
+    public void onLineageCacheHit() {
+        lineageCacheHits.incrementAndGet();
+    }
+
+    public void onLineageCacheMiss() {
+        lineageCacheMisses.incrementAndGet();
+    }
+
+    public void onLineageCacheEviction() {
+        lineageCacheEvictions.incrementAndGet();
+    }
+
+    public void onLineageCacheInvalidation() {
+        lineageCacheInvalidations.incrementAndGet();
+    }
+
+    public void onLineageCacheSizeChange(long entries, long sizeBytes) {
+        lineageCacheEntries   = entries;
+        lineageCacheSizeBytes = sizeBytes;
+    }
+
+    public void onDslQueryCacheLookup(boolean isHit) {
+        (isHit ? dslQueryCacheHits : dslQueryCacheMisses).incrementAndGet();
+    }
+
+    public void onDslResultCacheLookup(boolean isHit) {
+        (isHit ? dslResultCacheHits : dslResultCacheMisses).incrementAndGet();
+    }
+
+    public void onDslCacheInvalidation() {
+        dslCacheInvalidations.incrementAndGet();
+    }
+
     public Map<String, Object> getStats() {
         Map<String, Object> ret = new HashMap<>();
 
@@ -189,9 +236,47 @@ public class AtlasMetricsUtil {
         ret.put(STAT_NOTIFY_UPDATES_COUNT_PREV_DAY, entityUpdates.getCount(PREV_DAY));
         ret.put(STAT_NOTIFY_DELETES_COUNT_PREV_DAY, entityDeletes.getCount(PREV_DAY));
 
+        ret.put(STAT_LINEAGE_CACHE_HITS,          lineageCacheHits.get());
+        ret.put(STAT_LINEAGE_CACHE_MISSES,        lineageCacheMisses.get());
+        ret.put(STAT_LINEAGE_CACHE_EVICTIONS,     lineageCacheEvictions.get());
+        ret.put(STAT_LINEAGE_CACHE_INVALIDATIONS, lineageCacheInvalidations.get());
+        ret.put(STAT_LINEAGE_CACHE_ENTRIES,       lineageCacheEntries);
+        ret.put(STAT_LINEAGE_CACHE_SIZE_BYTES,    lineageCacheSizeBytes);
+
+        ret.put(STAT_DSL_CACHE_QUERY_HITS,      dslQueryCacheHits.get());
+        ret.put(STAT_DSL_CACHE_QUERY_MISSES,    dslQueryCacheMisses.get());
+        ret.put(STAT_DSL_CACHE_QUERY_HIT_RATE,  getHitRate(dslQueryCacheHits.get(), dslQueryCacheMisses.get()));
+        ret.put(STAT_DSL_CACHE_RESULT_HITS,     dslResultCacheHits.get());
+        ret.put(STAT_DSL_CACHE_RESULT_MISSES,   dslResultCacheMisses.get());
+        ret.put(STAT_DSL_CACHE_RESULT_HIT_RATE, getHitRate(dslResultCacheHits.get(), dslResultCacheMisses.get()));
+        ret.put(STAT_DSL_CACHE_INVALIDATIONS,   dslCacheInvalidations.get());
+
+        ObjectUpdateSynchronizer entityLocks = GraphTransactionInterceptor.getObjectUpdateSynchronizer();
+
+        ret.put(STAT_ENTITY_LOCK_ACQUIRED,     entityLocks.getAcquiredCount());
+        ret.put(STAT_ENTITY_LOCK_CONTENDED,    entityLocks.getContendedCount());
+        ret.put(STAT_ENTITY_LOCK_TIMEOUTS,     entityLocks.getTimeoutCount());
+        ret.put(STAT_ENTITY_LOCK_WAIT_TIME_MS, entityLocks.getWaitTimeMs());
+        ret.put(STAT_ENTITY_LOCK_ACTIVE,       entityLocks.getActiveLockCount());
+
+        Map<String, Number> indexWriteStats = graph.getIndexWriteBufferStats();
+
+        if (indexWriteStats != null) {
+            for (Map.Entry<String, Number> entry : indexWriteStats.entrySet()) {
+                ret.put(PREFIX_INDEX_WRITE + entry.getKey(), entry.getValue());
+            }
+        }
+
         return ret;
     }
 
+    // percentage of lookups found in cache
+    private static double getHitRate(long hits, long misses) {
+        long lookups = hits + misses;
+
+        return lookups > 0 ? Math.round(hits * 10000.0 / lookups) / 100.0 : 0;
+    }
+
     private boolean getBackendStoreStatus(){
         try {
             runWithTimeout(new Runnable() {
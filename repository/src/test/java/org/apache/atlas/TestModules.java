@@ -26,8 +26,10 @@ import com.google.inject.multibindings.Multibinder;
 import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.discovery.AtlasDiscoveryService;
 import org.apache.atlas.discovery.AtlasLineageService;
+import org.apache.atlas.discovery.DSLQueryCache;
 import org.apache.atlas.discovery.EntityDiscoveryService;
 import org.apache.atlas.discovery.EntityLineageService;
+import org.apache.atlas.discovery.LineageCache;
 import org.apache.atlas.glossary.GlossaryService;
 import org.apache.atlas.graph.GraphSandboxUtil;
 import org.apache.atlas.listener.EntityChangeListener;
@@ -64,9 +66,13 @@ import org.apache.atlas.repository.store.graph.v2.AtlasTypeDefGraphStoreV2;
 import org.apache.atlas.repository.store.graph.v2.BulkImporterImpl;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphMapper;
 import org.apache.atlas.repository.store.graph.v2.IAtlasEntityChangeNotifier;
+import org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory;
 import org.apache.atlas.runner.LocalSolrRunner;
 import org.apache.atlas.service.Service;
+import org.apache.atlas.services.EntityCountTracker;
 import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.tasks.TaskManagement;
+import org.apache.atlas.tasks.TaskRegistry;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.AtlasRepositoryConfiguration;
 import org.apache.atlas.util.SearchTracker;
@@ -138,10 +144,17 @@ public class TestModules {
             bind(EntityGraphMapper.class).asEagerSingleton();
             bind(ExportService.class).asEagerSingleton();
 
+            // deferred tasks
+            bind(TaskRegistry.class).asEagerSingleton();
+            bind(TaskManagement.class).asEagerSingleton();
+            bind(EntityCountTracker.class).asEagerSingleton();
+            bind(ClassificationPropagateTaskFactory.class).asEagerSingleton();
+
             // New typesdef/instance change listener should also be bound to the corresponding implementation
             Multibinder<TypeDefChangeListener> typeDefChangeListenerMultibinder =
                     Multibinder.newSetBinder(binder(), TypeDefChangeListener.class);
             typeDefChangeListenerMultibinder.addBinding().to(GraphBackedSearchIndexer.class).asEagerSingleton();
+            typeDefChangeListenerMultibinder.addBinding().to(DSLQueryCache.class);
 
             bind(SearchTracker.class).asEagerSingleton();
 
@@ -151,8 +164,10 @@ public class TestModules {
             bind(IFullTextMapper.class).to(FullTextMapperV2.class);
 
             // bind the DiscoveryService interface to an implementation
+            bind(DSLQueryCache.class).asEagerSingleton();
             bind(AtlasDiscoveryService.class).to(EntityDiscoveryService.class).asEagerSingleton();
 
+            bind(LineageCache.class).asEagerSingleton();
             bind(AtlasLineageService.class).to(EntityLineageService.class).asEagerSingleton();
             bind(BulkImporter.class).to(BulkImporterImpl.class).asEagerSingleton();
             bind(GraphDBMigrator.class).to(GraphDBGraphSONMigrator.class).asEagerSingleton();
@@ -165,6 +180,8 @@ public class TestModules {
             Multibinder<EntityChangeListenerV2> entityChangeListenerV2Binder =
                     Multibinder.newSetBinder(binder(), EntityChangeListenerV2.class);
             entityChangeListenerV2Binder.addBinding().to(EntityAuditListenerV2.class);
+            entityChangeListenerV2Binder.addBinding().to(EntityCountTracker.class);
+            entityChangeListenerV2Binder.addBinding().to(LineageCache.class);
 
             // OGM related mappings
             Multibinder<DataTransferObject> availableDTOs = Multibinder.newSetBinder(binder(), DataTransferObject.class);
@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.AtlasSearchResult.AtlasQueryType;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.query.GremlinQuery;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.util.AtlasMetricsUtil;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_DSL_CACHE_INVALIDATIONS;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_DSL_CACHE_QUERY_HITS;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_DSL_CACHE_QUERY_HIT_RATE;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_DSL_CACHE_QUERY_MISSES;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_DSL_CACHE_RESULT_HITS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+public class DSLQueryCacheTest {
+    private static final String QUERY = "hive_table where name = 'sales'";
+
+    private AtlasMetricsUtil metricsUtil;
+    private DSLQueryCache    cache;
+
+    @BeforeMethod
+    public void setup() {
+        AtlasGraph graph = (AtlasGraph) Proxy.newProxyInstance(AtlasGraph.class.getClassLoader(), new Class[] { AtlasGraph.class }, (proxy, method, args) -> null);
+
+        metricsUtil = new AtlasMetricsUtil(graph);
+        cache       = new DSLQueryCache(metricsUtil, 100, 60, 100);
+    }
+
+    @Test
+    public void testQueryCache() {
+        long         typesVersion = cache.getTypesVersion();
+        GremlinQuery gremlinQuery = new GremlinQuery("g.V().limit(25).toList()", false);
+
+        assertNull(cache.getQuery(QUERY, 25, 0, typesVersion));
+
+        cache.putQuery(QUERY, 25, 0, typesVersion, gremlinQuery);
+
+        assertSame(cache.getQuery(QUERY, 25, 0, typesVersion), gremlinQuery);
+        assertNull(cache.getQuery(QUERY, 25, 25, typesVersion));
+        assertNull(cache.getQuery(QUERY, 100, 0, typesVersion));
+
+        Map<String, Object> stats = metricsUtil.getStats();
+
+        assertEquals(stats.get(STAT_DSL_CACHE_QUERY_HITS), 1L);
+        assertEquals(stats.get(STAT_DSL_CACHE_QUERY_MISSES), 3L);
+        assertEquals(stats.get(STAT_DSL_CACHE_QUERY_HIT_RATE), 25.0);
+    }
+
+    @Test
+    public void testTypeDefChangeInvalidates() {
+        long typesVersion = cache.getTypesVersion();
+
+        cache.putQuery(QUERY, 25, 0, typesVersion, new GremlinQuery("g.V().limit(25).toList()", false));
+        cache.putResult(QUERY, 25, 0, typesVersion, result("guid-1"));
+
+        cache.onChange(null);
+
+        long newTypesVersion = cache.getTypesVersion();
+
+        assertNull(cache.getQuery(QUERY, 25, 0, newTypesVersion));
+        assertNull(cache.getResult(QUERY, 25, 0, newTypesVersion));
+        assertEquals(metricsUtil.getStats().get(STAT_DSL_CACHE_INVALIDATIONS), 1L);
+
+        // translated with types before the change
+        cache.putQuery(QUERY, 25, 0, typesVersion, new GremlinQuery("g.V().limit(25).toList()", false));
+
+        assertNull(cache.getQuery(QUERY, 25, 0, newTypesVersion));
+    }
+
+    @Test
+    public void testResultIsCopied() {
+        long              typesVersion = cache.getTypesVersion();
+        AtlasSearchResult result       = result("guid-1");
+
+        cache.putResult(QUERY, 25, 0, typesVersion, result);
+
+        result.getEntities().get(0).getAttributes().clear(); // changes to the given result should not affect the cached result
+
+        AtlasSearchResult cached = cache.getResult(QUERY, 25, 0, typesVersion);
+
+        assertNotNull(cached);
+        assertEquals(cached.getEntities().get(0).getAttribute("name"), "sales");
+
+        // scrubbing of a returned result should not affect the cached result
+        cached.getEntities().get(0).setGuid("-1");
+        cached.getEntities().get(0).getAttributes().clear();
+        cached.getEntities().get(0).getClassificationNames().clear();
+
+        AtlasSearchResult cachedAgain = cache.getResult(QUERY, 25, 0, typesVersion);
+
+        assertEquals(cachedAgain.getEntities().get(0).getGuid(), "guid-1");
+        assertEquals(cachedAgain.getEntities().get(0).getAttribute("name"), "sales");
+        assertEquals(cachedAgain.getEntities().get(0).getClassificationNames(), Collections.singletonList("PII"));
+        assertEquals(metricsUtil.getStats().get(STAT_DSL_CACHE_RESULT_HITS), 2L);
+    }
+
+    @Test
+    public void testResultCacheDisabledWithZeroTtl() {
+        DSLQueryCache cache = new DSLQueryCache(metricsUtil, 100, 0, 100);
+
+        cache.putResult(QUERY, 25, 0, cache.getTypesVersion(), result("guid-1"));
+
+        assertNull(cache.getResult(QUERY, 25, 0, cache.getTypesVersion()));
+    }
+
+    private static AtlasSearchResult result(String guid) {
+        AtlasSearchResult   ret        = new AtlasSearchResult(QUERY, AtlasQueryType.DSL);
+        Map<String, Object> attributes = new HashMap<>();
+
+        attributes.put("name", "sales");
+
+        AtlasEntityHeader header = new AtlasEntityHeader("hive_table", guid, attributes);
+
+        header.setClassificationNames(new ArrayList<>(Collections.singletonList("PII")));
+
+        ret.addEntity(header);
+
+        return ret;
+    }
+}
@@ -116,6 +116,31 @@ public class EntitySearchProcessorTest extends BasicTestSetup {
         assertTrue(firstDate.before(secondDate));
     }
 
+    @Test
+    public void searchWithContinuationToken() throws AtlasBaseException {
+        SearchParameters params = new SearchParameters();
+        params.setTypeName("hive_column");
+        params.setSortBy("name");
+        params.setLimit(100);
+
+        List<String> expected = getIds(new EntitySearchProcessor(new SearchContext(params, typeRegistry, graph, Collections.<String>emptySet())).execute());
+        List<String> actual   = new ArrayList<>();
+
+        params.setLimit(3);
+
+        do {
+            SearchContext     context  = new SearchContext(params, typeRegistry, graph, Collections.<String>emptySet());
+            List<AtlasVertex> vertices = new EntitySearchProcessor(context).execute();
+
+            actual.addAll(getIds(vertices));
+
+            params.setContinuationToken(context.getNextContinuationToken());
+        } while (params.getContinuationToken() != null);
+
+        assertTrue(expected.size() > 3);
+        assertEquals(actual, expected);
+    }
+
     @Test
     public void emptySearchByClassification() throws AtlasBaseException {
         SearchParameters params = new SearchParameters();
@@ -602,4 +627,14 @@ public class EntitySearchProcessorTest extends BasicTestSetup {
         SearchParameters.FilterCriteria ret = processor.processDateRange(filterCriteria);
         return ret;
     }
+
+    private static List<String> getIds(List<AtlasVertex> vertices) {
+        List<String> ret = new ArrayList<>();
+
+        for (AtlasVertex vertex : vertices) {
+            ret.add(vertex.getId().toString());
+        }
+
+        return ret;
+    }
 }
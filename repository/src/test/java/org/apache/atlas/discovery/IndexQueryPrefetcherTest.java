@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class IndexQueryPrefetcherTest {
+    private static final String QUERY = "v.\"__typeName\": (hive_table)";
+
+    @Test
+    public void prefetchedPageIsTaken() throws Exception {
+        AtlasGraph           graph      = createGraph("1", "2", "3");
+        IndexQueryPrefetcher prefetcher = IndexQueryPrefetcher.create(createContext(graph), Constants.VERTEX_INDEX, QUERY, 3);
+
+        prefetcher.prefetch(3);
+
+        verify(graph, timeout(5000)).indexQuery(Constants.VERTEX_INDEX, QUERY);
+
+        assertEquals(prefetcher.take(3), Arrays.asList("1", "2", "3"));
+        verify(graph, timeout(5000)).rollback(); // transaction of the prefetch thread
+
+        assertNull(prefetcher.take(6)); // not prefetched
+    }
+
+    @Test
+    public void otherPageIsNotTaken() throws Exception {
+        AtlasGraph           graph      = createGraph("1", "2");
+        IndexQueryPrefetcher prefetcher = IndexQueryPrefetcher.create(createContext(graph), Constants.VERTEX_INDEX, QUERY, 3);
+
+        assertNull(prefetcher.take(0));
+
+        prefetcher.prefetch(3);
+
+        assertNull(prefetcher.take(6));
+        assertNull(prefetcher.take(3)); // cancelled by take() of another page
+    }
+
+    @Test
+    public void cancelledPageIsNotQueried() throws Exception {
+        AtlasGraph           graph      = createGraph("1");
+        IndexQueryPrefetcher prefetcher = IndexQueryPrefetcher.create(createContext(graph), Constants.VERTEX_INDEX, QUERY, 3);
+
+        for (int i = 0; i < 100; i++) {
+            prefetcher.prefetch(i * 3);
+            prefetcher.cancel();
+        }
+
+        assertNull(prefetcher.take(0));
+
+        // queries that started before cancel() complete, and close their transaction
+        verify(graph, never()).commit();
+    }
+
+    @Test
+    public void interruptedTakeFails() throws Exception {
+        AtlasGraph           graph      = createGraph("1");
+        AtlasIndexQuery      indexQuery = graph.indexQuery(Constants.VERTEX_INDEX, QUERY);
+        CountDownLatch       release    = new CountDownLatch(1);
+        IndexQueryPrefetcher prefetcher = IndexQueryPrefetcher.create(createContext(graph), Constants.VERTEX_INDEX, QUERY, 3);
+
+        when(graph.indexQuery(Constants.VERTEX_INDEX, QUERY)).thenAnswer(invocation -> {
+            release.await();
+
+            return indexQuery;
+        });
+
+        prefetcher.prefetch(3);
+
+        verify(graph, timeout(5000).times(2)).indexQuery(Constants.VERTEX_INDEX, QUERY); // prefetch started
+
+        Thread.currentThread().interrupt();
+
+        try {
+            prefetcher.take(3);
+
+            fail("take() should fail when interrupted");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.INTERNAL_ERROR);
+            assertTrue(Thread.interrupted()); // interrupt status is kept; cleared here
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static SearchContext createContext(AtlasGraph graph) throws AtlasBaseException {
+        return new SearchContext(new SearchParameters(), new AtlasTypeRegistry(), graph, Collections.emptySet());
+    }
+
+    private static AtlasGraph createGraph(String... vertexIds) {
+        AtlasGraph      graph      = mock(AtlasGraph.class);
+        AtlasIndexQuery indexQuery = mock(AtlasIndexQuery.class);
+
+        when(graph.indexQuery(Constants.VERTEX_INDEX, QUERY)).thenReturn(indexQuery);
+        when(indexQuery.vertices(anyInt(), anyInt())).thenAnswer(invocation -> {
+            List<AtlasIndexQuery.Result> ret = new ArrayList<>();
+
+            for (String vertexId : vertexIds) {
+                AtlasIndexQuery.Result result = mock(AtlasIndexQuery.Result.class);
+                AtlasVertex            vertex = mock(AtlasVertex.class);
+
+                when(vertex.getId()).thenReturn(vertexId);
+                when(result.getVertex()).thenReturn(vertex);
+
+                ret.add(result);
+            }
+
+            return ret.iterator();
+        });
+
+        return graph;
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.annotation.GraphTransaction;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.lineage.AtlasLineageInfo;
+import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageRelation;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.util.AtlasMetricsUtil;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.atlas.model.lineage.AtlasLineageInfo.LineageDirection.BOTH;
+import static org.apache.atlas.model.lineage.AtlasLineageInfo.LineageDirection.INPUT;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_LINEAGE_CACHE_HITS;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_LINEAGE_CACHE_INVALIDATIONS;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_LINEAGE_CACHE_MISSES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+public class LineageCacheTest {
+    private GraphTransactionInterceptor transactionInterceptor;
+    private AtlasMetricsUtil            metricsUtil;
+    private LineageCache                lineageCache;
+
+    @BeforeMethod
+    public void setup() {
+        AtlasGraph graph = (AtlasGraph) Proxy.newProxyInstance(AtlasGraph.class.getClassLoader(), new Class[] { AtlasGraph.class }, (proxy, method, args) -> null);
+
+        transactionInterceptor = new GraphTransactionInterceptor(graph);
+        metricsUtil            = new AtlasMetricsUtil(graph);
+        lineageCache           = new LineageCache(metricsUtil, true, 1024 * 1024, 3600);
+    }
+
+    @Test
+    public void testGetAndPut() {
+        assertNull(lineageCache.get("table-1", BOTH, 3));
+
+        lineageCache.put("table-1", BOTH, 3, lineage("table-1", "process-1", "table-2"), lineageCache.getSequence());
+
+        AtlasLineageInfo cached = lineageCache.get("table-1", BOTH, 3);
+
+        assertNotNull(cached);
+        assertEquals(cached.getGuidEntityMap().size(), 3);
+        assertNull(lineageCache.get("table-1", INPUT, 3));
+        assertNull(lineageCache.get("table-1", BOTH, 4));
+
+        cached.getGuidEntityMap().clear(); // changes to the returned lineage should not affect the cached lineage
+
+        assertEquals(lineageCache.get("table-1", BOTH, 3).getGuidEntityMap().size(), 3);
+
+        Map<String, Object> stats = metricsUtil.getStats();
+
+        assertEquals(stats.get(STAT_LINEAGE_CACHE_HITS), 2L);
+        assertEquals(stats.get(STAT_LINEAGE_CACHE_MISSES), 3L);
+    }
+
+    @Test
+    public void testInvalidationOnCommit() throws Throwable {
+        lineageCache.put("table-1", BOTH, 3, lineage("table-1", "process-1", "table-2"), lineageCache.getSequence());
+        lineageCache.put("table-3", BOTH, 3, lineage("table-3"), lineageCache.getSequence());
+
+        // a new process reading from table-2 should invalidate lineage containing table-2
+        AtlasEntity process = new AtlasEntity("hive_process");
+
+        process.setGuid("process-2");
+        process.setRelationshipAttribute("inputs", Collections.singletonList(new AtlasObjectId("table-2", "hive_table")));
+
+        runInTransaction(() -> lineageCache.onEntitiesAdded(Collections.singletonList(process), false));
+
+        assertNull(lineageCache.get("table-1", BOTH, 3));
+        assertNotNull(lineageCache.get("table-3", BOTH, 3));
+        assertEquals(metricsUtil.getStats().get(STAT_LINEAGE_CACHE_INVALIDATIONS), 1L);
+    }
+
+    @Test
+    public void testNoInvalidationOnRollback() throws Throwable {
+        lineageCache.put("table-1", BOTH, 3, lineage("table-1", "process-1", "table-2"), lineageCache.getSequence());
+
+        AtlasEntity table = new AtlasEntity("hive_table");
+
+        table.setGuid("table-2");
+
+        try {
+            runInTransaction(() -> {
+                lineageCache.onEntitiesDeleted(Collections.singletonList(table), false);
+
+                throw new IllegalStateException("simulated failure");
+            });
+
+            fail("expected transaction to fail");
+        } catch (IllegalStateException excp) {
+            // expected
+        }
+
+        assertNotNull(lineageCache.get("table-1", BOTH, 3));
+    }
+
+    @Test
+    public void testLineageComputedBeforeInvalidationIsNotCached() {
+        long sequence = lineageCache.getSequence();
+
+        lineageCache.invalidate(Collections.singletonList("table-2"));
+
+        lineageCache.put("table-1", BOTH, 3, lineage("table-1", "process-1", "table-2"), sequence);
+
+        assertNull(lineageCache.get("table-1", BOTH, 3));
+
+        lineageCache.put("table-1", BOTH, 3, lineage("table-1", "process-1", "table-2"), lineageCache.getSequence());
+
+        assertNotNull(lineageCache.get("table-1", BOTH, 3));
+    }
+
+    @Test
+    public void testCacheSizeIsBounded() {
+        lineageCache = new LineageCache(metricsUtil, true, 16 * 1024, 3600);
+
+        for (int i = 0; i < 100; i++) {
+            lineageCache.put("table-" + i, BOTH, 3, lineage("table-" + i, "process-" + i, "output-" + i), lineageCache.getSequence());
+        }
+
+        assertEquals(lineageCache.get("table-99", BOTH, 3).getGuidEntityMap().size(), 3);
+        assertEquals(lineageCache.size() < 100, true);
+    }
+
+    @GraphTransaction
+    public void transaction() {
+    }
+
+    private void runInTransaction(TransactionBody body) throws Throwable {
+        Method method = getClass().getMethod("transaction");
+
+        transactionInterceptor.invoke(new MethodInvocation() {
+            @Override
+            public Method getMethod() {
+                return method;
+            }
+
+            @Override
+            public Object[] getArguments() {
+                return new Object[0];
+            }
+
+            @Override
+            public Object proceed() throws Throwable {
+                body.run();
+
+                return null;
+            }
+
+            @Override
+            public Object getThis() {
+                return LineageCacheTest.this;
+            }
+
+            @Override
+            public AccessibleObject getStaticPart() {
+                return method;
+            }
+        });
+    }
+
+    private static AtlasLineageInfo lineage(String baseGuid, String... guids) {
+        Map<String, AtlasEntityHeader> guidEntityMap = new HashMap<>();
+        Set<LineageRelation>           relations     = new HashSet<>();
+        String                         prevGuid      = baseGuid;
+
+        guidEntityMap.put(baseGuid, new AtlasEntityHeader("hive_table", baseGuid, null));
+
+        for (String guid : guids) {
+            guidEntityMap.put(guid, new AtlasEntityHeader("hive_table", guid, null));
+            relations.add(new LineageRelation(prevGuid, guid, prevGuid + "-" + guid));
+
+            prevGuid = guid;
+        }
+
+        return new AtlasLineageInfo(baseGuid, guidEntityMap, relations, BOTH, 3);
+    }
+
+    private interface TransactionBody {
+        void run() throws Exception;
+    }
+}
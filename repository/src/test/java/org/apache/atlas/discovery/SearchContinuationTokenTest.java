@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.SortOrder;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+public class SearchContinuationTokenTest {
+    @Test
+    public void encodeAndDecode() throws AtlasBaseException {
+        SearchParameters params = createSearchParameters();
+
+        assertNull(SearchContinuationToken.decode(params));
+
+        params.setContinuationToken(new SearchContinuationToken(300, 7, params).encode());
+
+        // limit, offset and attributes to return are not part of the search
+        params.setLimit(50);
+        params.setOffset(1000);
+
+        SearchContinuationToken token = SearchContinuationToken.decode(params);
+
+        assertEquals(token.getQueryOffset(), 300);
+        assertEquals(token.getSkipCount(), 7);
+    }
+
+    @Test
+    public void tokenOfAnotherSearchIsRejected() {
+        SearchParameters params = createSearchParameters();
+        String           token  = new SearchContinuationToken(300, 7, params).encode();
+
+        params.setSortOrder(SortOrder.DESCENDING);
+        params.setContinuationToken(token);
+
+        assertInvalid(params);
+    }
+
+    @Test
+    public void invalidTokenIsRejected() {
+        SearchParameters params = createSearchParameters();
+
+        for (String token : new String[] { "not-a-token", "!!", "MTpYOjA6YWJj", "MjoxOjA6YWJj" }) {
+            params.setContinuationToken(token);
+
+            assertInvalid(params);
+        }
+    }
+
+    private static void assertInvalid(SearchParameters params) {
+        try {
+            SearchContinuationToken.decode(params);
+
+            fail("invalid continuation token accepted: " + params.getContinuationToken());
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.INVALID_CONTINUATION_TOKEN);
+        }
+    }
+
+    private static SearchParameters createSearchParameters() {
+        SearchParameters ret = new SearchParameters();
+
+        ret.setTypeName("hive_table");
+        ret.setQuery("sales");
+        ret.setSortBy("name");
+        ret.setSortOrder(SortOrder.ASCENDING);
+        ret.setLimit(25);
+
+        return ret;
+    }
+}
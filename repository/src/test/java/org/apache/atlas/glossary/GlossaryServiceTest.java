@@ -63,6 +63,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.testng.Assert.*;
 
@@ -787,6 +788,12 @@ public class GlossaryServiceTest {
             String relationshipGuid = assignedEntities.get(0).getRelationshipGuid();
             assertNotNull(relationshipGuid);
             relatedObjectId.setRelationshipGuid(relationshipGuid);
+
+            List<AtlasRelatedObjectId> firstPage = glossaryService.getAssignedEntities(fixedRateMortgage.getGuid(), null, 1);
+            assertEquals(firstPage.size(), 1);
+            assertEquals(firstPage.get(0).getRelationshipGuid(), relationshipGuid);
+            assertEquals(firstPage.get(0).getGuid(), assignedEntities.get(0).getGuid());
+            assertTrue(glossaryService.getAssignedEntities(fixedRateMortgage.getGuid(), relationshipGuid, 1).isEmpty());
         } catch (AtlasBaseException e) {
             fail("Term fetch should've succeeded",e);
         }
@@ -869,6 +876,34 @@ public class GlossaryServiceTest {
         }
     }
 
+    @Test(groups = "Glossary.GET.postUpdate", dependsOnGroups = "Glossary.UPDATE")
+    public void testGetGlossaryTermsByCursor() {
+        String guid = bankGlossary.getGuid();
+
+        try {
+            Set<String>                  expected = new HashSet<>();
+            Set<String>                  actual   = new HashSet<>();
+            List<AtlasRelatedTermHeader> page     = glossaryService.getGlossaryTermsHeaders(guid, null, 2);
+
+            glossaryService.getGlossaryTermsHeaders(guid, 0, -1, SortOrder.ASCENDING).forEach(t -> expected.add(t.getTermGuid()));
+
+            while (!page.isEmpty()) {
+                assertTrue(page.size() <= 2);
+
+                for (AtlasRelatedTermHeader term : page) {
+                    assertNotNull(term.getDisplayText());
+                    assertTrue(actual.add(term.getTermGuid()));
+                }
+
+                page = glossaryService.getGlossaryTermsHeaders(guid, page.get(page.size() - 1).getRelationGuid(), 2);
+            }
+
+            assertEquals(actual, expected);
+        } catch (AtlasBaseException e) {
+            fail("Glossary term fetching should've succeeded", e);
+        }
+    }
+
     @DataProvider
     public Object[][] getGlossaryCategoriesProvider() {
         return new Object[][]{
@@ -948,6 +983,31 @@ public class GlossaryServiceTest {
         }
     }
 
+    @Test( dependsOnMethods = "testImportGlossaryData" )
+    public void testImportGlossaryDataWithRelatedTermsInFile() throws AtlasBaseException {
+        InputStream             inputStream = getFile(CSV_FILES, "template_3.csv");
+        List<AtlasGlossaryTerm> terms       = glossaryService.importGlossaryData(inputStream, "template_3.csv");
+
+        assertEquals(terms.size(), 2);
+
+        AtlasGlossaryTerm savingsAccount = glossaryService.getTerm(terms.get(0).getGuid());
+        AtlasGlossaryTerm currentAccount = glossaryService.getTerm(terms.get(1).getGuid());
+
+        assertEquals(savingsAccount.getName(), "SavingsAccount");
+        assertEquals(currentAccount.getName(), "CurrentAccount");
+        assertEquals(savingsAccount.getSeeAlso().size(), 1);
+        assertEquals(savingsAccount.getSeeAlso().iterator().next().getTermGuid(), currentAccount.getGuid());
+        assertEquals(currentAccount.getSeeAlso().size(), 1);
+        assertEquals(currentAccount.getSeeAlso().iterator().next().getTermGuid(), savingsAccount.getGuid());
+
+        try {
+            glossaryService.importGlossaryData(getFile(CSV_FILES, "template_3.csv"), "template_3.csv");
+            fail("Import of existing terms should have failed");
+        } catch (AtlasBaseException e) {
+            assertTrue(e.getMessage().contains("The provided TermName already exists in the system : SavingsAccount"));
+        }
+    }
+
     @Test
     public void testEmptyFileException() {
         InputStream inputStream = getFile(CSV_FILES, "empty.csv");
@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.glossary;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.model.glossary.relations.AtlasGlossaryHeader;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class GlossaryTermImporterTest {
+    private static final String FAILING_TERM = "failing";
+
+    private GlossaryImportWriter     writer;
+    private Map<String, Set<String>> glossaryWriterThreads;
+    private Map<String, Boolean>     glossaryWriteInProgress;
+    private List<String>             concurrentGlossaryWrites;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        writer                   = mock(GlossaryImportWriter.class);
+        glossaryWriterThreads    = new ConcurrentHashMap<>();
+        glossaryWriteInProgress  = new ConcurrentHashMap<>();
+        concurrentGlossaryWrites = Collections.synchronizedList(new ArrayList<>());
+
+        doAnswer(invocation -> {
+            List<AtlasGlossaryTerm> batch        = (List<AtlasGlossaryTerm>) invocation.getArguments()[0];
+            String                  glossaryGuid = batch.get(0).getAnchor().getGlossaryGuid();
+
+            if (glossaryWriteInProgress.put(glossaryGuid, Boolean.TRUE) != null) {
+                concurrentGlossaryWrites.add(glossaryGuid);
+            }
+
+            try {
+                glossaryWriterThreads.computeIfAbsent(glossaryGuid, k -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+
+                Thread.sleep(5);
+
+                for (AtlasGlossaryTerm term : batch) {
+                    if (FAILING_TERM.equals(term.getName())) {
+                        throw new AtlasBaseException(AtlasErrorCode.GLOSSARY_TERM_ALREADY_EXISTS, term.getQualifiedName());
+                    }
+
+                    term.setGuid(UUID.randomUUID().toString());
+                }
+            } finally {
+                glossaryWriteInProgress.remove(glossaryGuid);
+            }
+
+            return null;
+        }).when(writer).createTerms(anyListOf(AtlasGlossaryTerm.class));
+    }
+
+    @Test
+    public void termsOfGlossaryAreWrittenByOneWorker() throws Exception {
+        List<AtlasGlossaryTerm> terms = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            terms.add(createTerm("term" + i, "glossary" + (i % 2)));
+        }
+
+        List<AtlasGlossaryTerm> ret = createImporter().importTerms(terms);
+
+        assertEquals(ret.size(), terms.size());
+        assertEquals(glossaryWriterThreads.size(), 2);
+        assertEquals(glossaryWriterThreads.get("glossary0").size(), 1);
+        assertEquals(glossaryWriterThreads.get("glossary1").size(), 1);
+        assertTrue(concurrentGlossaryWrites.isEmpty());
+    }
+
+    @Test
+    public void failedTermsAreReportedWithErrorCode() {
+        List<AtlasGlossaryTerm> terms = new ArrayList<>();
+
+        terms.add(createTerm("term1", "glossary"));
+        terms.add(createTerm(FAILING_TERM, "glossary"));
+        terms.add(createTerm("term2", "glossary"));
+
+        try {
+            createImporter().importTerms(terms);
+
+            fail("importTerms() should fail");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.FAILED_TO_CREATE_GLOSSARY_TERM);
+            assertTrue(excp.getMessage().contains("2 of 3 terms are created"));
+            assertTrue(excp.getMessage().contains("Failed to import " + FAILING_TERM + "@glossary"));
+        }
+    }
+
+    private GlossaryTermImporter createImporter() {
+        return new GlossaryTermImporter(writer, mock(GlossaryTermUtils.class), 4, 2);
+    }
+
+    private static AtlasGlossaryTerm createTerm(String name, String glossaryGuid) {
+        AtlasGlossaryTerm ret = new AtlasGlossaryTerm();
+
+        ret.setName(name);
+        ret.setQualifiedName(name + "@" + glossaryGuid);
+        ret.setAnchor(new AtlasGlossaryHeader(glossaryGuid));
+
+        return ret;
+    }
+}
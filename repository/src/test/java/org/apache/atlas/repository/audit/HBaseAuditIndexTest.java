@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class HBaseAuditIndexTest {
+    private static final String GUID = "1b2e8d4c-6b8f-4a7e-9f0e-3c1d2b4a5e6f";
+
+    @Test
+    public void actionTimeKeysAreOrderedByTime() {
+        byte[] from  = HBaseAuditIndex.getActionTimeKey("CLASSIFICATION_ADD", 999L);
+        byte[] to    = HBaseAuditIndex.getActionTimeKey("CLASSIFICATION_ADD", 10000L);
+        byte[] early = Bytes.toBytes(HBaseAuditIndex.getIndexKeys(GUID, "CLASSIFICATION_ADD", 998L, GUID + ":998:0:1").get(0));
+        byte[] mid   = Bytes.toBytes(HBaseAuditIndex.getIndexKeys(GUID, "CLASSIFICATION_ADD", 1000L, GUID + ":1000:0:1").get(0));
+        byte[] late  = Bytes.toBytes(HBaseAuditIndex.getIndexKeys(GUID, "CLASSIFICATION_ADD", 10000L, GUID + ":10000:0:1").get(0));
+        byte[] other = Bytes.toBytes(HBaseAuditIndex.getIndexKeys(GUID, "CLASSIFICATION_ADD_X", 1000L, GUID + ":1000:0:1").get(0));
+
+        assertTrue(Bytes.compareTo(early, from) < 0);
+        assertTrue(Bytes.compareTo(from, mid) < 0 && Bytes.compareTo(mid, to) < 0);
+        assertTrue(Bytes.compareTo(late, to) >= 0);
+        assertTrue(Bytes.compareTo(other, from) < 0 || Bytes.compareTo(other, to) >= 0);
+    }
+
+    @Test
+    public void entityActionKeysAreWithinRange() {
+        byte[] start = HBaseAuditIndex.getEntityActionStartKey(GUID, "ENTITY_UPDATE");
+        byte[] stop  = HBaseAuditIndex.getEntityActionStopKey(GUID, "ENTITY_UPDATE");
+
+        List<String> first  = HBaseAuditIndex.getIndexKeys(GUID, "ENTITY_UPDATE", 999L, GUID + ":999:0:1");
+        List<String> second = HBaseAuditIndex.getIndexKeys(GUID, "ENTITY_UPDATE", 1000L, GUID + ":1000:0:1");
+        List<String> other  = HBaseAuditIndex.getIndexKeys(GUID, "ENTITY_UPDATE_X", 1000L, GUID + ":1000:0:1");
+
+        byte[] firstKey  = Bytes.toBytes(first.get(1));
+        byte[] secondKey = Bytes.toBytes(second.get(1));
+        byte[] otherKey  = Bytes.toBytes(other.get(1));
+
+        assertTrue(Bytes.compareTo(start, firstKey) < 0 && Bytes.compareTo(firstKey, secondKey) < 0 && Bytes.compareTo(secondKey, stop) < 0);
+        assertTrue(Bytes.compareTo(otherKey, start) < 0 || Bytes.compareTo(otherKey, stop) >= 0);
+    }
+
+    @Test
+    public void entityIdFromEventKey() {
+        assertEquals(HBaseAuditIndex.getEntityId(GUID + ":1000:0:1"), GUID);
+        assertEquals(HBaseAuditIndex.getEntityId(GUID), GUID);
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.audit;
+
+import org.apache.atlas.repository.audit.HBaseAuditWriter.AuditRow;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.apache.atlas.repository.audit.HBaseBasedAuditRepository.COLUMN_ACTION;
+import static org.apache.atlas.repository.audit.HBaseBasedAuditRepository.COLUMN_FAMILY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class HBaseAuditWriterTest {
+    private          File        fallbackDir;
+    private          Set<String> writtenKeys;
+    private volatile boolean     hbaseDown;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        fallbackDir = Files.createTempDirectory("audit-fallback").toFile();
+        writtenKeys = ConcurrentHashMap.newKeySet();
+        hbaseDown   = false;
+    }
+
+    @AfterMethod
+    public void cleanup() throws IOException {
+        FileUtils.deleteDirectory(fallbackDir);
+    }
+
+    @Test
+    public void rowsAreWrittenInBatches() throws Exception {
+        HBaseAuditWriter writer = new HBaseAuditWriter(createMutator(), null, fallbackDir, 100, 10, 1000, 50);
+
+        writer.start();
+        writer.write(createRows(0, 25));
+        writer.close();
+
+        assertEquals(writtenKeys.size(), 25);
+        assertEquals(writer.getWrittenCount(), 25);
+        assertEquals(writer.getSpilledCount(), 0);
+        assertFalse(writer.isFallbackPending());
+    }
+
+    @Test
+    public void indexRowsAreWrittenAfterAuditRows() throws Exception {
+        Set<String>     indexKeys    = ConcurrentHashMap.newKeySet();
+        BufferedMutator indexMutator = (BufferedMutator) Proxy.newProxyInstance(BufferedMutator.class.getClassLoader(), new Class[] { BufferedMutator.class }, (proxy, method, args) -> {
+            if (method.getName().equals("mutate")) {
+                for (Put put : (List<Put>) args[0]) {
+                    String eventKey = Bytes.toString(CellUtil.cloneValue(put.get(COLUMN_FAMILY, HBaseAuditIndex.COLUMN_EVENT_KEY).get(0)));
+
+                    assertTrue(writtenKeys.contains(eventKey), eventKey);
+
+                    indexKeys.add(Bytes.toString(put.getRow()));
+                }
+            }
+
+            return null;
+        });
+
+        HBaseAuditWriter writer = new HBaseAuditWriter(createMutator(), indexMutator, fallbackDir, 100, 10, 1000, 50);
+        List<AuditRow>   rows   = createRows(0, 5);
+
+        for (AuditRow row : rows) {
+            row.setIndexKeys(HBaseAuditIndex.getIndexKeys(HBaseAuditIndex.getEntityId(row.getKey()), "ENTITY_CREATE", 1000L, row.getKey()));
+        }
+
+        writer.start();
+        writer.write(rows);
+        writer.close();
+
+        assertEquals(writtenKeys.size(), 5);
+        assertEquals(indexKeys.size(), 10);
+    }
+
+    @Test
+    public void failedWritesAreReplayedFromFallback() throws Exception {
+        HBaseAuditWriter writer = new HBaseAuditWriter(createMutator(), null, fallbackDir, 100, 10, 1000, 50);
+
+        hbaseDown = true;
+
+        writer.start();
+
+        try {
+            writer.write(createRows(0, 5));
+
+            waitFor(() -> writer.getSpilledCount() == 5);
+
+            assertTrue(writer.isFallbackPending());
+            assertTrue(writtenKeys.isEmpty());
+
+            hbaseDown = false;
+
+            writer.write(createRows(5, 10));
+
+            waitFor(() -> writer.getReplayedCount() == 5 && !writer.isFallbackPending());
+
+            assertEquals(writtenKeys.size(), 10);
+            assertEquals(fallbackDir.list().length, 0);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void fallbackIsReplayedAfterRestart() throws Exception {
+        HBaseAuditWriter writer = new HBaseAuditWriter(createMutator(), null, fallbackDir, 100, 10, 1000, 50);
+
+        writer.start();
+        writer.close();
+
+        writer.write(createRows(0, 5)); // after close, rows are written to the fallback file
+
+        assertEquals(writer.getSpilledCount(), 5);
+        assertTrue(writtenKeys.isEmpty());
+
+        HBaseAuditWriter newWriter = new HBaseAuditWriter(createMutator(), null, fallbackDir, 100, 10, 1000, 50);
+
+        assertTrue(newWriter.isFallbackPending());
+
+        newWriter.start();
+
+        try {
+            waitFor(() -> newWriter.getReplayedCount() == 5);
+
+            assertEquals(writtenKeys.size(), 5);
+        } finally {
+            newWriter.close();
+        }
+    }
+
+    private BufferedMutator createMutator() {
+        List<Put> pending = new ArrayList<>();
+
+        return (BufferedMutator) Proxy.newProxyInstance(BufferedMutator.class.getClassLoader(), new Class[] { BufferedMutator.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "mutate":
+                    pending.addAll((List<Put>) args[0]);
+                    break;
+
+                case "flush":
+                    try {
+                        if (hbaseDown) {
+                            throw new IOException("HBase is down");
+                        }
+
+                        for (Put put : pending) {
+                            assertEquals(Bytes.toString(CellUtil.cloneValue(put.get(COLUMN_FAMILY, COLUMN_ACTION).get(0))), "ENTITY_CREATE");
+
+                            writtenKeys.add(Bytes.toString(put.getRow()));
+                        }
+                    } finally {
+                        pending.clear();
+                    }
+                    break;
+            }
+
+            return null;
+        });
+    }
+
+    private static List<AuditRow> createRows(int from, int to) {
+        List<AuditRow> ret = new ArrayList<>();
+
+        for (int i = from; i < to; i++) {
+            AuditRow row = new AuditRow(Bytes.toBytes("guid-" + i + ":" + System.currentTimeMillis()));
+
+            row.addColumn(COLUMN_ACTION, "ENTITY_CREATE");
+
+            ret.add(row);
+        }
+
+        return ret;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 200 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(25);
+        }
+
+        assertTrue(condition.getAsBoolean());
+    }
+}
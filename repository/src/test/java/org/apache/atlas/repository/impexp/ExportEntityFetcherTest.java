@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.impexp.ExportEntityFetcher.FetchResult;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class ExportEntityFetcherTest {
+    private static final String MISSING_GUID = "missing";
+
+    @Test
+    public void resultsAreInRequestOrder() throws AtlasBaseException {
+        AtlasGraph          graph       = mock(AtlasGraph.class);
+        Set<String>         threadNames = ConcurrentHashMap.newKeySet();
+        ExportEntityFetcher fetcher     = new ExportEntityFetcher(graph, createRetriever(threadNames), 4);
+        List<String>        guids       = createGuids(50);
+
+        try {
+            List<FetchResult> results = fetcher.fetch(guids);
+
+            assertEquals(results.size(), guids.size());
+
+            for (int i = 0; i < guids.size(); i++) {
+                assertEquals(results.get(i).getGuid(), guids.get(i));
+                assertEquals(results.get(i).get().getEntity().getGuid(), guids.get(i));
+            }
+
+            assertEquals(fetcher.getFetchCount(), guids.size());
+            assertTrue(threadNames.size() > 1, threadNames.toString());
+            assertTrue(threadNames.stream().allMatch(name -> name.startsWith("atlas-export-fetch-")), threadNames.toString());
+
+            verify(graph, atLeast(2)).rollback();
+        } finally {
+            fetcher.close();
+        }
+    }
+
+    @Test
+    public void singleThreadFetchesInCallerThread() throws AtlasBaseException {
+        AtlasGraph          graph       = mock(AtlasGraph.class);
+        Set<String>         threadNames = ConcurrentHashMap.newKeySet();
+        ExportEntityFetcher fetcher     = new ExportEntityFetcher(graph, createRetriever(threadNames), 1);
+
+        fetcher.fetch(createGuids(10));
+
+        assertEquals(fetcher.getThreadCount(), 1);
+        assertEquals(threadNames.size(), 1);
+        assertTrue(threadNames.contains(Thread.currentThread().getName()));
+
+        verify(graph, never()).rollback();
+    }
+
+    @Test
+    public void failureIsReportedForFailedGuidOnly() throws AtlasBaseException {
+        ExportEntityFetcher fetcher = new ExportEntityFetcher(mock(AtlasGraph.class), createRetriever(ConcurrentHashMap.newKeySet()), 2);
+
+        try {
+            List<FetchResult> results = fetcher.fetch(Arrays.asList("1", MISSING_GUID));
+
+            assertEquals(results.get(0).get().getEntity().getGuid(), "1");
+
+            try {
+                results.get(1).get();
+
+                fail("expected AtlasBaseException");
+            } catch (AtlasBaseException excp) {
+                assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.INSTANCE_GUID_NOT_FOUND);
+            }
+        } finally {
+            fetcher.close();
+        }
+    }
+
+    private static EntityGraphRetriever createRetriever(Set<String> threadNames) {
+        return new EntityGraphRetriever(mock(AtlasGraph.class), new AtlasTypeRegistry()) {
+            @Override
+            public AtlasEntityWithExtInfo toAtlasEntityWithExtInfo(String guid) throws AtlasBaseException {
+                threadNames.add(Thread.currentThread().getName());
+
+                if (MISSING_GUID.equals(guid)) {
+                    throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, guid);
+                }
+
+                AtlasEntity entity = new AtlasEntity("hive_table");
+
+                entity.setGuid(guid);
+
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException excp) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return new AtlasEntityWithExtInfo(entity);
+            }
+        };
+    }
+
+    private static List<String> createGuids(int count) {
+        List<String> ret = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            ret.add(String.valueOf(i));
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.repository.util.GuidSet;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class GuidSetTest {
+    @Test
+    public void addContainsRemove() {
+        GuidSet guids = new GuidSet();
+        String  guid  = UUID.randomUUID().toString();
+
+        assertTrue(guids.add(guid));
+        assertFalse(guids.add(guid));
+        assertTrue(guids.contains(guid));
+        assertEquals(guids.size(), 1);
+
+        assertTrue(guids.remove(guid));
+        assertFalse(guids.remove(guid));
+        assertFalse(guids.contains(guid));
+        assertEquals(guids.size(), 0);
+    }
+
+    @Test
+    public void nonUuidValuesAreSupported() {
+        GuidSet     guids    = new GuidSet();
+        Set<String> expected = new HashSet<>();
+
+        expected.add("-100");
+        expected.add(UUID.randomUUID().toString().toUpperCase());
+        expected.add("00000000-0000-0000-0000-000000000000");
+        expected.add(UUID.randomUUID().toString());
+        expected.add("");
+
+        guids.addAll(expected);
+
+        assertEquals(guids, expected);
+        assertFalse(guids.contains(null));
+        assertFalse(guids.contains("-101"));
+    }
+
+    @Test
+    public void matchesHashSet() {
+        GuidSet      guids    = new GuidSet();
+        Set<String>  expected = new HashSet<>();
+        List<String> added    = new ArrayList<>();
+        Random       random   = new Random(1);
+
+        for (int i = 0; i < 20000; i++) {
+            String guid = UUID.randomUUID().toString();
+
+            assertTrue(guids.add(guid));
+
+            expected.add(guid);
+            added.add(guid);
+
+            // remove entries in between adds, to verify that deletes don't break lookups of colliding entries
+            if (random.nextInt(3) == 0) {
+                String toRemove = added.get(random.nextInt(added.size()));
+
+                assertEquals(guids.remove(toRemove), expected.remove(toRemove));
+            }
+        }
+
+        assertEquals(guids.size(), expected.size());
+        assertEquals(guids, expected);
+
+        for (String guid : added) {
+            assertEquals(guids.contains(guid), expected.contains(guid), guid);
+        }
+
+        guids.clear();
+
+        assertTrue(guids.isEmpty());
+        assertFalse(guids.iterator().hasNext());
+    }
+}
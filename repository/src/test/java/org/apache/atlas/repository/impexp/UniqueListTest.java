@@ -21,6 +21,8 @@ import org.apache.atlas.repository.util.UniqueList;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+
 import static org.testng.Assert.assertEquals;
 
 public class UniqueListTest {
@@ -67,4 +69,19 @@ public class UniqueListTest {
         assertEquals(2, uniqueList2.size());
         assertEquals(firstElement, removedElement);
     }
+
+    @Test
+    public void attemptRemoveFirst_ElementsCanBeAddedAgain() {
+        UniqueList<String> uniqueList2 = new UniqueList<>();
+        uniqueList2.addAll(uniqueList);
+
+        assertEquals(Arrays.asList(firstElement, "def"), uniqueList2.removeFirst(2));
+        assertEquals(1, uniqueList2.size());
+
+        uniqueList2.add(firstElement);
+
+        assertEquals(Arrays.asList("ghi", firstElement), uniqueList2.getList());
+        assertEquals(Arrays.asList("ghi", firstElement), uniqueList2.removeFirst(5));
+        assertEquals(0, uniqueList2.size());
+    }
 }
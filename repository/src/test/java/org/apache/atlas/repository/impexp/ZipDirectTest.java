@@ -17,6 +17,7 @@
  */
 package org.apache.atlas.repository.impexp;
 
+import org.apache.atlas.entitytransform.BaseEntityHandler;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasExportResult;
 import org.apache.atlas.model.instance.AtlasEntity;
@@ -24,13 +25,21 @@ import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 public class ZipDirectTest {
     @Test(expectedExceptions = AtlasBaseException.class)
@@ -61,6 +70,122 @@ public class ZipDirectTest {
         assertEquals(count, EXPECTED_ENTITY_COUNT);
     }
 
+    @Test
+    public void loadFileUsingParseThreads() throws IOException, AtlasBaseException {
+        final int EXPECTED_ENTITY_COUNT = 3;
+
+        List<String>    expectedGuids    = new ArrayList<>();
+        ZipSourceDirect sequentialSource = new ZipSourceDirect(ZipFileResourceTestUtils.getFileInputStream("zip-direct-2.zip"), EXPECTED_ENTITY_COUNT, 1);
+
+        AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo;
+        while ((entityWithExtInfo = sequentialSource.getNextEntityWithExtInfo()) != null) {
+            expectedGuids.add(entityWithExtInfo.getEntity().getGuid());
+        }
+
+        sequentialSource.close();
+
+        List<String>    guids          = new ArrayList<>();
+        ZipSourceDirect parallelSource = new ZipSourceDirect(ZipFileResourceTestUtils.getFileInputStream("zip-direct-2.zip"), EXPECTED_ENTITY_COUNT, 4);
+
+        try {
+            while (parallelSource.hasNext()) {
+                entityWithExtInfo = parallelSource.getNextEntityWithExtInfo();
+
+                assertNotNull(entityWithExtInfo);
+
+                guids.add(entityWithExtInfo.getEntity().getGuid());
+
+                assertEquals(parallelSource.getPosition(), guids.size());
+            }
+
+            assertNull(parallelSource.getNextEntityWithExtInfo());
+        } finally {
+            parallelSource.close();
+        }
+
+        assertEquals(expectedGuids.size(), EXPECTED_ENTITY_COUNT);
+        assertEquals(guids, expectedGuids);
+    }
+
+    @Test
+    public void transformFailureFailsParallelParse() throws IOException, AtlasBaseException {
+        ZipSourceDirect parallelSource = new ZipSourceDirect(ZipFileResourceTestUtils.getFileInputStream("zip-direct-2.zip"), 3, 4);
+
+        parallelSource.setEntityHandlers(Collections.singletonList(new BaseEntityHandler(null) {
+            @Override
+            public AtlasEntity transform(AtlasEntity entity) {
+                throw new IllegalArgumentException("transform failed");
+            }
+        }));
+
+        try {
+            parallelSource.getNextEntityWithExtInfo();
+
+            fail("getNextEntityWithExtInfo() should fail");
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(), "transform failed");
+        } finally {
+            parallelSource.close();
+        }
+    }
+
+    @Test
+    public void truncatedEntitiesFailParallelParse() throws IOException, AtlasBaseException {
+        String          entities       = "[{\"entity\":{\"typeName\":\"hdfs_path\",\"guid\":\"1\"}},{\"entity\":{\"typeName\":\"hdfs_pa";
+        ZipSourceDirect parallelSource = new ZipSourceDirect(createZip(entities), 2, 4);
+        int             count          = 0;
+
+        try {
+            while (parallelSource.hasNext()) {
+                assertNotNull(parallelSource.getNextEntityWithExtInfo());
+
+                count++;
+            }
+
+            fail("import of truncated entities should fail");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        } finally {
+            parallelSource.close();
+        }
+
+        assertEquals(count, 1);
+    }
+
+    @Test
+    public void interruptFailsParallelParse() throws IOException, AtlasBaseException {
+        CountDownLatch  transformBlocker = new CountDownLatch(1);
+        ZipSourceDirect parallelSource   = new ZipSourceDirect(ZipFileResourceTestUtils.getFileInputStream("zip-direct-2.zip"), 3, 4);
+
+        parallelSource.setEntityHandlers(Collections.singletonList(new BaseEntityHandler(null) {
+            @Override
+            public AtlasEntity transform(AtlasEntity entity) {
+                try {
+                    transformBlocker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return entity;
+            }
+        }));
+
+        Thread.currentThread().interrupt();
+
+        try {
+            parallelSource.getNextEntityWithExtInfo();
+
+            fail("getNextEntityWithExtInfo() should fail when interrupted");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+            assertTrue(Thread.interrupted()); // the interrupt is preserved; clears it for the next tests
+        } finally {
+            transformBlocker.countDown();
+
+            parallelSource.close();
+        }
+    }
+
     @Test
     public void entitiesParserTest() throws IOException {
         String object1 = "{\"type\":\"hdfs_path\"}";
@@ -80,4 +205,20 @@ public class ZipDirectTest {
         o = entitiesArrayParser.next();
         assertNull(o);
     }
+
+    private static InputStream createZip(String entities) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry(ZipExportFileNames.ATLAS_TYPESDEF_NAME.toEntryFileName()));
+            zip.write("{}".getBytes());
+            zip.closeEntry();
+
+            zip.putNextEntry(new ZipEntry("entities.json"));
+            zip.write(entities.getBytes());
+            zip.closeEntry();
+        }
+
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
 }
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.repository.converters.AtlasInstanceConverter;
+import org.apache.atlas.repository.graph.IFullTextMapper;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.graphdb.AtlasVertexQuery;
+import org.apache.atlas.repository.store.graph.v1.DeleteHandlerDelegate;
+import org.apache.atlas.repository.store.graph.v1.DeleteHandlerV1;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.atlas.repository.Constants.GUID_PROPERTY_KEY;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+public class EntityGraphMapperPropagationTest {
+    private static final String CLASSIFICATION_VERTEX_ID = "classification-vertex";
+
+    private AtlasGraph                 graph;
+    private DeleteHandlerV1            deleteHandler;
+    private IAtlasEntityChangeNotifier notifier;
+    private AtlasVertexQuery           propagatedEdgesQuery;
+    private EntityGraphMapper          mapper;
+    private List<Boolean>              sentNotifications;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        graph             = mock(AtlasGraph.class);
+        deleteHandler     = mock(DeleteHandlerV1.class);
+        notifier          = mock(IAtlasEntityChangeNotifier.class);
+        sentNotifications = new ArrayList<>();
+
+        DeleteHandlerDelegate  deleteDelegate    = mock(DeleteHandlerDelegate.class);
+        AtlasInstanceConverter instanceConverter = mock(AtlasInstanceConverter.class);
+        EntityGraphRetriever   entityRetriever   = mock(EntityGraphRetriever.class);
+        AtlasVertex            classification    = mock(AtlasVertex.class);
+
+        propagatedEdgesQuery = mock(AtlasVertexQuery.class);
+
+        when(deleteDelegate.getHandler()).thenReturn(deleteHandler);
+        when(graph.getVertex(CLASSIFICATION_VERTEX_ID)).thenReturn(classification);
+        when(classification.query()).thenReturn(propagatedEdgesQuery);
+        when(propagatedEdgesQuery.direction(any(AtlasEdgeDirection.class))).thenReturn(propagatedEdgesQuery);
+        when(propagatedEdgesQuery.label(anyString())).thenReturn(propagatedEdgesQuery);
+        when(propagatedEdgesQuery.has(anyString(), any())).thenReturn(propagatedEdgesQuery);
+        when(entityRetriever.toAtlasClassification(classification)).thenReturn(new AtlasClassification("PII"));
+        when(instanceConverter.getAndCacheEntity(anyString(), anyBoolean())).thenAnswer(invocation -> {
+            AtlasEntity entity = new AtlasEntity("hive_table");
+
+            entity.setGuid((String) invocation.getArguments()[0]);
+            entity.setStatus(AtlasEntity.Status.ACTIVE);
+
+            return entity;
+        });
+
+        // like EntityNotificationSender, queue the notifications to be sent after the transaction commits
+        doAnswer(invocation -> {
+            new GraphTransactionInterceptor.PostTransactionHook() {
+                @Override
+                public void onComplete(boolean isSuccess) {
+                    sentNotifications.add(isSuccess);
+                }
+            };
+
+            return null;
+        }).when(notifier).onClassificationsDeletedFromEntities(anyList(), anyList());
+
+        mapper = new EntityGraphMapper(deleteDelegate, new AtlasTypeRegistry(), graph, null, notifier, instanceConverter, mock(IFullTextMapper.class), null);
+
+        Field retrieverField = EntityGraphMapper.class.getDeclaredField("entityRetriever");
+
+        retrieverField.setAccessible(true);
+        retrieverField.set(mapper, entityRetriever);
+    }
+
+    @Test
+    public void notificationsAreSentForEachCommittedBatch() throws Exception {
+        List<AtlasEdge> propagatedEdges = createPropagatedEdges(AtlasConfiguration.TASKS_PROPAGATION_BATCH_SIZE.getInt() + 1);
+
+        when(propagatedEdgesQuery.edges()).thenReturn(propagatedEdges);
+
+        mapper.deleteClassificationPropagation(CLASSIFICATION_VERTEX_ID);
+
+        assertEquals(sentNotifications.size(), 2);
+        assertEquals(sentNotifications.get(0), Boolean.TRUE);
+        assertEquals(sentNotifications.get(1), Boolean.TRUE);
+    }
+
+    @Test
+    public void postTransactionHooksOfFailedBatchRunAsRolledBack() throws Exception {
+        List<Boolean>   failedBatchHooks = new ArrayList<>();
+        List<AtlasEdge> propagatedEdges  = createPropagatedEdges(1);
+
+        when(propagatedEdgesQuery.edges()).thenReturn(propagatedEdges);
+
+        doAnswer(invocation -> {
+            new GraphTransactionInterceptor.PostTransactionHook() {
+                @Override
+                public void onComplete(boolean isSuccess) {
+                    failedBatchHooks.add(isSuccess);
+                }
+            };
+
+            throw new IllegalStateException("delete failed");
+        }).when(deleteHandler).deleteClassificationVertex(any(AtlasVertex.class), eq(true));
+
+        try {
+            mapper.deleteClassificationPropagation(CLASSIFICATION_VERTEX_ID);
+
+            fail("deleteClassificationPropagation() should fail");
+        } catch (IllegalStateException excp) {
+            // expected
+        }
+
+        // notifications of the batch committed before the failure are sent
+        assertEquals(sentNotifications.size(), 1);
+        assertEquals(sentNotifications.get(0), Boolean.TRUE);
+
+        // hooks registered after the last commit run as rolled back, and are not left in the thread
+        assertEquals(failedBatchHooks.size(), 1);
+        assertEquals(failedBatchHooks.get(0), Boolean.FALSE);
+
+        GraphTransactionInterceptor.processPostTransactionHooks(true);
+
+        assertEquals(failedBatchHooks.size(), 1);
+    }
+
+    private List<AtlasEdge> createPropagatedEdges(int count) {
+        List<AtlasEdge> ret = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            AtlasVertex entity = mock(AtlasVertex.class);
+            AtlasEdge   edge   = mock(AtlasEdge.class);
+
+            when(entity.getId()).thenReturn("entity-" + i);
+            when(entity.getProperty(GUID_PROPERTY_KEY, String.class)).thenReturn("guid-" + i);
+            when(edge.getOutVertex()).thenReturn(entity);
+
+            ret.add(edge);
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeRegistry.AtlasTransientTypeRegistry;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.atlas.repository.Constants.CLASSIFICATION_LABEL;
+import static org.apache.atlas.repository.Constants.ENTITY_TYPE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TERM_ANCHOR_LABEL;
+import static org.apache.atlas.repository.Constants.TERM_ASSIGNMENT_LABEL;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class EntityGraphRetrieverPrefetchTest {
+    private AtlasTypeRegistry    typeRegistry;
+    private String               columnsEdgeLabel;
+    private AtlasGraph           graph;
+    private EntityGraphRetriever retriever;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        typeRegistry = new AtlasTypeRegistry();
+
+        AtlasTransientTypeRegistry ttr = typeRegistry.lockTypeRegistryForUpdate();
+
+        ttr.addTypes(TestUtilsV2.defineHiveTypes());
+
+        typeRegistry.releaseTypeRegistryForUpdate(ttr, true);
+
+        for (AtlasAttribute attribute : typeRegistry.getEntityTypeByName(TestUtilsV2.TABLE_TYPE).getOwnedRefAttributes()) {
+            if (attribute.getName().equals(TestUtilsV2.COLUMNS_ATTR_NAME)) {
+                columnsEdgeLabel = attribute.getRelationshipEdgeLabel();
+            }
+        }
+    }
+
+    @BeforeMethod
+    public void init() {
+        graph     = mock(AtlasGraph.class);
+        retriever = new EntityGraphRetriever(graph, typeRegistry);
+    }
+
+    @Test
+    public void testPrefetchEntitiesLoadsEdgesOfOwnedEntitiesOnly() {
+        AtlasVertex table   = createVertex("table", TestUtilsV2.TABLE_TYPE);
+        AtlasVertex column1 = createVertex("column1", TestUtilsV2.COLUMN_TYPE);
+        AtlasVertex column2 = createVertex("column2", TestUtilsV2.COLUMN_TYPE);
+        AtlasVertex db      = createVertex("db", TestUtilsV2.DATABASE_TYPE);
+
+        setEdges(table, createEdge(columnsEdgeLabel, table, column1), createEdge(columnsEdgeLabel, table, column2), createEdge("__hive_table.db", table, db));
+        setEdges(column1, createEdge(columnsEdgeLabel, table, column1));
+        setEdges(column2, createEdge(columnsEdgeLabel, table, column2));
+
+        retriever.prefetchEntities(Collections.singletonList(table), false);
+
+        verify(graph).preloadProperties(Collections.singletonList(table));
+        verify(graph).preloadEdges(eq(Collections.singletonList(table)), eq(AtlasEdgeDirection.BOTH), Matchers.<String>anyVararg());
+        verify(graph).preloadProperties(Collections.singletonList(db));
+        verify(graph).preloadProperties(Arrays.asList(column1, column2));
+        verify(graph).preloadEdges(eq(Arrays.asList(column1, column2)), eq(AtlasEdgeDirection.BOTH), Matchers.<String>anyVararg());
+        verifyNoMoreInteractions(graph);
+    }
+
+    @Test
+    public void testPrefetchEntitiesLoadsEdgesOfEntityTypeOnly() {
+        AtlasVertex              table  = createVertex("table", TestUtilsV2.TABLE_TYPE);
+        ArgumentCaptor<String[]> captor = ArgumentCaptor.forClass(String[].class);
+
+        setEdges(table);
+
+        retriever.prefetchEntities(Collections.singletonList(table), false);
+
+        verify(table).getEdges(eq(AtlasEdgeDirection.BOTH), captor.capture());
+        verify(table, never()).getEdges(AtlasEdgeDirection.BOTH);
+
+        List<String> edgeLabels = Arrays.asList(captor.getValue());
+
+        assertTrue(edgeLabels.contains(columnsEdgeLabel));
+        assertTrue(edgeLabels.contains(CLASSIFICATION_LABEL));
+        assertTrue(edgeLabels.contains(TERM_ASSIGNMENT_LABEL));
+        assertFalse(edgeLabels.contains(TERM_ANCHOR_LABEL));
+    }
+
+    @Test
+    public void testPrefetchIsSkippedForMinExtInfo() {
+        AtlasVertex table = createVertex("table", TestUtilsV2.TABLE_TYPE);
+
+        retriever.prefetchEntities(Collections.singletonList(table), true);
+
+        verifyZeroInteractions(graph);
+    }
+
+    @Test
+    public void testPrefetchIsLimitedToMaxVertices() {
+        int         maxCount = AtlasConfiguration.ENTITY_RETRIEVER_PREFETCH_MAX_VERTICES.getInt();
+        AtlasVertex table    = createVertex("table", TestUtilsV2.TABLE_TYPE);
+        AtlasEdge[] edges    = new AtlasEdge[maxCount + 10];
+
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = createEdge(columnsEdgeLabel, table, createVertex("column" + i, TestUtilsV2.COLUMN_TYPE));
+        }
+
+        setEdges(table, edges);
+
+        retriever.prefetchEntities(Collections.singletonList(table), false);
+
+        ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+
+        verify(graph, atLeastOnce()).preloadProperties(captor.capture());
+
+        int preloadedCount = 0;
+
+        for (Collection vertices : captor.getAllValues()) {
+            preloadedCount += vertices.size();
+        }
+
+        assertEquals(preloadedCount, maxCount);
+    }
+
+    @Test
+    public void testPrefetchEntityHeadersLoadsClassificationAndTermEdges() {
+        AtlasVertex table          = createVertex("table", TestUtilsV2.TABLE_TYPE);
+        AtlasVertex classification = createVertex("classification", "PII");
+        AtlasEdge   edge           = createEdge(CLASSIFICATION_LABEL, table, classification);
+
+        when(table.getEdges(AtlasEdgeDirection.BOTH, new String[] { CLASSIFICATION_LABEL, TERM_ASSIGNMENT_LABEL })).thenReturn(Collections.singletonList(edge));
+
+        retriever.prefetchEntityHeaders(Collections.singletonList(table));
+
+        verify(graph).preloadProperties(Collections.singletonList(table));
+        verify(graph).preloadEdges(Collections.singletonList(table), AtlasEdgeDirection.BOTH, CLASSIFICATION_LABEL, TERM_ASSIGNMENT_LABEL);
+        verify(graph).preloadProperties(Collections.singletonList(classification));
+        verify(table, never()).getEdges(AtlasEdgeDirection.BOTH);
+        verifyNoMoreInteractions(graph);
+    }
+
+    @Test
+    public void testPrefetchIsBatched() {
+        int               batchSize = AtlasConfiguration.ENTITY_RETRIEVER_PREFETCH_BATCH_SIZE.getInt();
+        List<AtlasVertex> tables    = new ArrayList<>();
+
+        for (int i = 0; i <= batchSize; i++) {
+            AtlasVertex table = createVertex("table" + i, TestUtilsV2.TABLE_TYPE);
+
+            setEdges(table);
+
+            tables.add(table);
+        }
+
+        retriever.prefetchEntities(tables, false);
+
+        verify(graph, times(2)).preloadProperties(anyCollection());
+        verify(graph, times(2)).preloadEdges(anyCollection(), any(AtlasEdgeDirection.class), Matchers.<String>anyVararg());
+    }
+
+    private AtlasVertex createVertex(String id, String typeName) {
+        AtlasVertex ret = mock(AtlasVertex.class);
+
+        when(ret.getIdForDisplay()).thenReturn(id);
+        when(ret.getProperty(ENTITY_TYPE_PROPERTY_KEY, String.class)).thenReturn(typeName);
+
+        return ret;
+    }
+
+    private AtlasEdge createEdge(String label, AtlasVertex outVertex, AtlasVertex inVertex) {
+        AtlasEdge ret = mock(AtlasEdge.class);
+
+        when(ret.getLabel()).thenReturn(label);
+        when(ret.getOutVertex()).thenReturn(outVertex);
+        when(ret.getInVertex()).thenReturn(inVertex);
+
+        return ret;
+    }
+
+    private void setEdges(AtlasVertex vertex, AtlasEdge... edges) {
+        when(vertex.getEdges(eq(AtlasEdgeDirection.BOTH), any(String[].class))).thenReturn(Arrays.asList(edges));
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.util;
+
+import org.apache.atlas.repository.util.GuidIndex.MemoryBudget;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class GuidIndexTest {
+    @Test
+    public void addKeepsOrderAndIgnoresDuplicates() {
+        List<String> expected = Arrays.asList(UUID.randomUUID().toString(), "-100", "00000000-0000-0000-0000-000000000000",
+                                              UUID.randomUUID().toString().toUpperCase(), "", UUID.randomUUID().toString());
+
+        try (GuidIndex guids = new GuidIndex()) {
+            for (String guid : expected) {
+                assertTrue(guids.add(guid));
+            }
+
+            for (String guid : expected) {
+                assertFalse(guids.add(guid));
+            }
+
+            assertEquals(guids.asList(), expected);
+            assertEquals(guids, new HashSet<>(expected));
+
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(guids.indexOf(expected.get(i)), i);
+            }
+
+            assertEquals(guids.indexOf("-101"), -1);
+            assertEquals(guids.indexOf(UUID.randomUUID().toString()), -1);
+            assertFalse(guids.contains(null));
+        }
+    }
+
+    @Test
+    public void spillsBeyondMemorySize() {
+        List<String> expected = new ArrayList<>();
+        MemoryBudget budget   = new MemoryBudget(1024 * 1024);
+
+        try (GuidIndex guids = new GuidIndex(budget)) {
+            for (int i = 0; i < 100000; i++) {
+                String guid = (i % 1000 == 0) ? Integer.toString(-i) : UUID.randomUUID().toString();
+
+                expected.add(guid);
+
+                assertTrue(guids.add(guid));
+            }
+
+            assertEquals(guids.size(), expected.size());
+            assertEquals(guids.asList(), expected);
+            assertEquals(budget.getUsed(), budget.getSize());
+
+            for (int i = 0; i < expected.size(); i += 97) {
+                assertEquals(guids.indexOf(expected.get(i)), i);
+            }
+
+            guids.close();
+
+            assertEquals(budget.getUsed(), 0);
+            assertEquals(guids.size(), 0);
+            assertFalse(guids.contains(expected.get(1)));
+            assertTrue(guids.add(expected.get(1)));
+        }
+    }
+
+    @Test
+    public void indexesShareMemoryBudget() {
+        List<String> expected = new ArrayList<>();
+        MemoryBudget budget   = new MemoryBudget(2 * 1024 * 1024);
+        GuidIndex    guids1   = new GuidIndex(budget);
+        GuidIndex    guids2   = new GuidIndex(budget);
+
+        try {
+            for (int i = 0; i < 100000; i++) {
+                String guid = UUID.randomUUID().toString();
+
+                expected.add(guid);
+
+                guids1.add(UUID.randomUUID().toString());
+                guids2.add(guid);
+            }
+
+            // 2 indexes of 100000 guids need about 5 MB; the rest is memory-mapped
+            assertTrue(budget.getUsed() <= budget.getSize());
+            assertTrue(budget.getUsed() > budget.getSize() / 2);
+
+            long usedByBoth = budget.getUsed();
+
+            guids1.close();
+
+            assertTrue(budget.getUsed() < usedByBoth);
+            assertEquals(guids2.asList(), expected);
+        } finally {
+            guids1.close();
+            guids2.close();
+        }
+
+        assertEquals(budget.getUsed(), 0);
+    }
+
+    @Test
+    public void onHeapIndexDoesNotNeedToBeClosed() {
+        List<String> expected = Arrays.asList(UUID.randomUUID().toString(), "-100", UUID.randomUUID().toString());
+        GuidIndex    guids    = GuidIndex.onHeap();
+
+        guids.addAll(expected);
+
+        assertEquals(guids.asList(), expected);
+        assertEquals(guids.asList().indexOf(expected.get(2)), 2);
+    }
+
+    @Test
+    public void fromJson() throws IOException {
+        List<String> expected = Arrays.asList(UUID.randomUUID().toString(), "-100", UUID.randomUUID().toString());
+        String       json     = "[\"" + String.join("\",\"", expected) + "\"]";
+
+        try (GuidIndex guids = GuidIndex.fromJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            assertEquals(guids.asList(), expected);
+        }
+
+        try (GuidIndex guids = GuidIndex.fromJson("[]")) {
+            assertTrue(guids.isEmpty());
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void fromJsonRequiresArray() throws IOException {
+        GuidIndex.fromJson("{}");
+    }
+}
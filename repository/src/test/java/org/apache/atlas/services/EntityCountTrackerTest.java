@@ -0,0 +1,211 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.services;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.annotation.GraphTransaction;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.apache.atlas.repository.store.graph.v1.DeleteHandlerDelegate;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.atlas.model.instance.AtlasEntity.Status.ACTIVE;
+import static org.apache.atlas.model.instance.AtlasEntity.Status.DELETED;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+public class EntityCountTrackerTest {
+    private GraphTransactionInterceptor transactionInterceptor;
+    private EntityCountTracker          tracker;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        AtlasGraph        graph        = (AtlasGraph) Proxy.newProxyInstance(AtlasGraph.class.getClassLoader(), new Class[] { AtlasGraph.class }, (proxy, method, args) -> null);
+        AtlasTypeRegistry typeRegistry = new AtlasTypeRegistry();
+
+        transactionInterceptor = new GraphTransactionInterceptor(graph);
+        tracker                = new EntityCountTracker(graph, typeRegistry, new DeleteHandlerDelegate(graph, typeRegistry), ApplicationProperties.get());
+
+        tracker.setCounts(counts("hive_table", 2L), counts("hive_table", 1L), counts("hive_table", 0L), counts("PII", 1L));
+    }
+
+    @Test
+    public void testCountsAreUpdatedOnCommit() throws Throwable {
+        AtlasEntity table = new AtlasEntity("hive_table");
+
+        table.setGuid("guid-1");
+        table.setClassifications(Collections.singletonList(new AtlasClassification("PII")));
+
+        runInTransaction(() -> tracker.onEntitiesAdded(Collections.singletonList(table), false));
+
+        assertEquals(tracker.getEntityCount("hive_table", ACTIVE), 3);
+        assertEquals(tracker.getClassificationCount("PII"), 2);
+
+        runInTransaction(() -> tracker.onEntitiesDeleted(Collections.singletonList(table), false));
+
+        assertEquals(tracker.getEntityCount("hive_table", ACTIVE), 2);
+        assertEquals(tracker.getEntityCount("hive_table", DELETED), 2);
+        assertEquals(tracker.getClassificationCount("PII"), 1);
+
+        runInTransaction(() -> tracker.onEntitiesPurged(Collections.singletonList(table)));
+
+        assertEquals(tracker.getEntityCount("hive_table", DELETED), 1);
+    }
+
+    @Test
+    public void testCountsAreNotUpdatedOnRollback() throws Throwable {
+        AtlasEntity table = new AtlasEntity("hive_table");
+
+        try {
+            runInTransaction(() -> {
+                tracker.onEntitiesAdded(Collections.singletonList(table), false);
+
+                throw new IllegalStateException("simulated failure");
+            });
+
+            fail("expected transaction to fail");
+        } catch (IllegalStateException excp) {
+            // expected
+        }
+
+        assertEquals(tracker.getEntityCount("hive_table", ACTIVE), 2);
+    }
+
+    @Test
+    public void testPropagatedClassificationsAreNotCounted() throws Throwable {
+        AtlasEntity         table1         = new AtlasEntity("hive_table");
+        AtlasEntity         table2         = new AtlasEntity("hive_table");
+        AtlasClassification classification = new AtlasClassification("PII");
+
+        table1.setGuid("guid-1");
+        table2.setGuid("guid-2");
+        classification.setEntityGuid("guid-1");
+
+        runInTransaction(() -> tracker.onClassificationsAdded(Arrays.asList(table1, table2), Collections.singletonList(classification)));
+
+        assertEquals(tracker.getClassificationCount("PII"), 2);
+
+        runInTransaction(() -> tracker.onClassificationsDeleted(table2, Collections.singletonList(classification)));
+
+        assertEquals(tracker.getClassificationCount("PII"), 2);
+    }
+
+    @Test
+    public void testReconcileRetainsUpdatesCommittedDuringReconcile() throws Exception {
+        AtlasEntityType   tableType    = mock(AtlasEntityType.class);
+        AtlasTypeRegistry typeRegistry = mock(AtlasTypeRegistry.class);
+        AtlasIndexQuery   activeQuery  = mock(AtlasIndexQuery.class);
+        AtlasIndexQuery   deletedQuery = mock(AtlasIndexQuery.class);
+        AtlasGraph        graph        = mock(AtlasGraph.class);
+
+        when(tableType.getTypeName()).thenReturn("hive_table");
+        when(typeRegistry.getAllEntityTypes()).thenReturn(Collections.singletonList(tableType));
+        when(activeQuery.vertexTotals()).thenReturn(10L);
+        when(graph.indexQuery(anyString(), contains("ACTIVE"))).thenReturn(activeQuery);
+        when(graph.indexQuery(anyString(), contains("DELETED"))).thenReturn(deletedQuery);
+
+        EntityCountTracker reconcilingTracker = new EntityCountTracker(graph, typeRegistry, new DeleteHandlerDelegate(graph, typeRegistry), ApplicationProperties.get());
+
+        reconcilingTracker.setCounts(counts("hive_table", 2L), counts("hive_table", 1L), counts("hive_table", 0L), counts("PII", 1L));
+
+        // an entity is deleted after active count is read from the index, and before deleted count is read
+        when(deletedQuery.vertexTotals()).thenAnswer(invocation -> {
+            Map<String, Map<String, Long>> updates = new HashMap<>();
+
+            updates.put("activeEntities", counts("hive_table", -1L));
+            updates.put("deletedEntities", counts("hive_table", 1L));
+
+            reconcilingTracker.applyUpdates(updates);
+
+            return 5L;
+        });
+
+        reconcilingTracker.reconcile();
+
+        assertEquals(reconcilingTracker.getEntityCount("hive_table", ACTIVE), 9);
+        assertEquals(reconcilingTracker.getEntityCount("hive_table", DELETED), 5);
+    }
+
+    @GraphTransaction
+    public void transaction() {
+    }
+
+    private void runInTransaction(TransactionBody body) throws Throwable {
+        Method method = getClass().getMethod("transaction");
+
+        transactionInterceptor.invoke(new MethodInvocation() {
+            @Override
+            public Method getMethod() {
+                return method;
+            }
+
+            @Override
+            public Object[] getArguments() {
+                return new Object[0];
+            }
+
+            @Override
+            public Object proceed() throws Throwable {
+                body.run();
+
+                return null;
+            }
+
+            @Override
+            public Object getThis() {
+                return EntityCountTrackerTest.this;
+            }
+
+            @Override
+            public AccessibleObject getStaticPart() {
+                return method;
+            }
+        });
+    }
+
+    private static Map<String, Long> counts(String typeName, long count) {
+        Map<String, Long> ret = new HashMap<>();
+
+        ret.put(typeName, count);
+
+        return ret;
+    }
+
+    private interface TransactionBody {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,444 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.services;
+
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.reindex.AtlasReindexStatus;
+import org.apache.atlas.model.reindex.AtlasReindexStatus.ElementType;
+import org.apache.atlas.model.reindex.AtlasReindexStatus.Status;
+import org.apache.atlas.repository.graphdb.AtlasElement;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphManagement;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.services.ReindexService.CheckpointTracker;
+import org.apache.atlas.services.ReindexService.Range;
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.configuration.Configuration;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.atlas.repository.Constants.FULLTEXT_INDEX;
+import static org.apache.atlas.repository.Constants.MODIFICATION_TIMESTAMP_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.REINDEX_STATUS_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.VERTEX_INDEX;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class ReindexServiceTest {
+    private static final long WAIT_TIME_MS = 30 * 1000; // workers wait 5 seconds for more ranges before a phase completes
+
+    private AtlasGraph               graph;
+    private Map<String, AtlasVertex> vertices;          // in scan order
+    private Map<String, Object>      statusProperties;  // of the status vertex
+    private Set<String>              failingIds;        // elements that fail to be reindexed
+    private Set<String>              failingRangeIds;   // elements whose range fails to be reindexed
+    private List<List<String>>       reindexedIndexNames;
+    private List<String>             reindexedIds;
+    private CountDownLatch           reindexStarted;
+    private CountDownLatch           reindexBlocker;
+    private ReindexService           reindexService;
+
+    @BeforeClass
+    public void setupConfiguration() throws Exception {
+        ApplicationProperties.get().setProperty("atlas.reindex.batch.size", 2);
+        ApplicationProperties.get().setProperty("atlas.reindex.worker.count", 2);
+    }
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        graph               = mock(AtlasGraph.class);
+        vertices            = new LinkedHashMap<>();
+        statusProperties    = new ConcurrentHashMap<>();
+        failingIds          = new HashSet<>();
+        failingRangeIds     = new HashSet<>();
+        reindexedIndexNames = Collections.synchronizedList(new ArrayList<>());
+        reindexedIds        = Collections.synchronizedList(new ArrayList<>());
+        reindexStarted      = new CountDownLatch(1);
+        reindexBlocker      = new CountDownLatch(0);
+
+        for (int i = 1; i <= 5; i++) {
+            addVertex("v" + i);
+        }
+
+        AtlasVertex          statusVertex = mock(AtlasVertex.class);
+        AtlasGraphQuery      query        = mock(AtlasGraphQuery.class);
+        AtlasGraphManagement management   = mock(AtlasGraphManagement.class);
+
+        when(statusVertex.getId()).thenReturn("status");
+        when(statusVertex.getProperty(anyString(), any(Class.class))).thenAnswer(invocation -> statusProperties.get((String) invocation.getArguments()[0]));
+        doAnswer(invocation -> statusProperties.put((String) invocation.getArguments()[0], invocation.getArguments()[1])).when(statusVertex).setProperty(anyString(), anyObject());
+
+        when(graph.query()).thenReturn(query);
+        when(query.has(anyString(), anyObject())).thenReturn(query);
+        when(query.vertices()).thenAnswer(invocation -> statusProperties.isEmpty() ? Collections.emptyList() : Collections.singletonList(statusVertex));
+        when(graph.addVertex()).thenReturn(statusVertex);
+
+        when(graph.getVertices()).thenAnswer(invocation -> new ArrayList<>(vertices.values()));
+        when(graph.getEdges()).thenAnswer(invocation -> Collections.emptyList());
+        when(graph.getVertex(anyString())).thenAnswer(invocation -> vertices.get((String) invocation.getArguments()[0]));
+        when(graph.getVertices(anyListOf(String.class))).thenAnswer(invocation -> {
+            List<AtlasVertex> ret = new ArrayList<>();
+
+            for (String id : (Collection<String>) invocation.getArguments()[0]) {
+                ret.add(vertices.get(id));
+            }
+
+            return ret;
+        });
+
+        when(graph.getManagementSystem()).thenReturn(management);
+        when(management.reindex(anyListOf(String.class), anyListOf(AtlasElement.class))).thenAnswer(invocation -> {
+            List<String>       indexNames = (List<String>) invocation.getArguments()[0];
+            List<AtlasElement> elements   = (List<AtlasElement>) invocation.getArguments()[1];
+            List<AtlasElement> ret        = new ArrayList<>();
+
+            reindexStarted.countDown();
+            reindexBlocker.await();
+
+            for (AtlasElement element : elements) {
+                if (failingRangeIds.contains(element.getId().toString())) {
+                    throw new IllegalStateException("reindex failed");
+                }
+            }
+
+            reindexedIndexNames.add(indexNames);
+
+            for (AtlasElement element : elements) {
+                if (failingIds.contains(element.getId().toString())) {
+                    ret.add(element);
+                } else {
+                    reindexedIds.add(element.getId().toString());
+                }
+            }
+
+            return ret;
+        });
+
+        reindexService = new ReindexService(graph, mock(Configuration.class));
+    }
+
+    @AfterMethod
+    public void cleanup() throws Exception {
+        reindexBlocker.countDown();
+
+        reindexService.stop();
+    }
+
+    @Test
+    public void reindexesAllElementsOncePerRange() throws Exception {
+        reindexService.startReindex(null, 0);
+
+        AtlasReindexStatus status = waitForCompletion();
+
+        assertEquals(status.getStatus(), Status.COMPLETE);
+        assertEquals(status.getScannedCount(), 5);
+        assertEquals(status.getProcessedCount(), 5);
+        assertEquals(status.getFailedCount(), 0);
+        assertEquals(new HashSet<>(reindexedIds), vertices.keySet());
+        assertEquals(reindexedIds.size(), 5);
+
+        // vertex indexes of each range are reindexed together; edges: none in the graph
+        assertEquals(reindexedIndexNames.size(), 3);
+
+        for (List<String> indexNames : reindexedIndexNames) {
+            assertEquals(indexNames, Arrays.asList(VERTEX_INDEX, FULLTEXT_INDEX));
+        }
+
+        assertEquals(loadSavedStatus().getStatus(), Status.COMPLETE);
+    }
+
+    @Test
+    public void failedElementsAndRangesAreCounted() throws Exception {
+        failingIds.add("v2");
+        failingRangeIds.add("v5");
+
+        reindexService.startReindex(Collections.singletonList(VERTEX_INDEX), 0);
+
+        AtlasReindexStatus status = waitForCompletion();
+
+        assertEquals(status.getStatus(), Status.COMPLETE);
+        assertEquals(status.getProcessedCount(), 3);
+        assertEquals(status.getFailedCount(), 2);
+        assertEquals(new HashSet<>(reindexedIds), new HashSet<>(Arrays.asList("v1", "v3", "v4")));
+    }
+
+    @Test
+    public void updatedElementsAreReindexedAgain() throws Exception {
+        AtlasVertex updated = vertices.get("v3");
+
+        when(updated.getProperty(MODIFICATION_TIMESTAMP_PROPERTY_KEY, Long.class)).thenReturn(Long.MAX_VALUE);
+
+        failingIds.add("v3"); // fails in the first reindex, and in the recheck
+
+        reindexService.startReindex(Collections.singletonList(VERTEX_INDEX), 0);
+
+        AtlasReindexStatus status = waitForCompletion();
+
+        assertEquals(status.getProcessedCount(), 4);
+        assertEquals(status.getFailedCount(), 1);
+        assertEquals(reindexedIndexNames.size(), 4); // 3 ranges, and the recheck of v3
+    }
+
+    @Test
+    public void stoppedReindexResumesFromCheckpoint() throws Exception {
+        reindexBlocker = new CountDownLatch(1);
+
+        reindexService.startReindex(Collections.singletonList(VERTEX_INDEX), 0);
+
+        assertTrue(reindexStarted.await(WAIT_TIME_MS, TimeUnit.MILLISECONDS));
+
+        try {
+            reindexService.startReindex(null, 0);
+
+            fail("startReindex() should fail while a reindex is in progress");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.REINDEX_IN_PROGRESS);
+        }
+
+        assertEquals(reindexService.stopReindex().getStatus(), Status.STOPPING);
+
+        reindexBlocker.countDown();
+
+        AtlasReindexStatus stopped = waitForCompletion();
+
+        // the range being reindexed when stopped - and the next one, if a worker picked it - complete; later ranges are left
+        assertEquals(stopped.getStatus(), Status.STOPPED);
+        assertTrue(Arrays.asList("v2", "v4").contains(stopped.getCheckpointId()), stopped.getCheckpointId());
+        assertEquals(stopped.getProcessedCount(), stopped.getCheckpointCount());
+
+        reindexService.resumeReindex(null);
+
+        AtlasReindexStatus resumed = waitForCompletion();
+
+        assertEquals(resumed.getStatus(), Status.COMPLETE);
+        assertEquals(resumed.getProcessedCount(), 5);
+        assertEquals(new HashSet<>(reindexedIds), vertices.keySet());
+        assertEquals(reindexedIds.size(), 5); // elements up to the checkpoint are not reindexed again
+    }
+
+    @Test
+    public void resumesFromSavedCheckpoint() throws Exception {
+        AtlasReindexStatus saved = new AtlasReindexStatus();
+
+        saved.setStatus(Status.STOPPED);
+        saved.setIndexNames(Collections.singletonList(VERTEX_INDEX));
+        saved.setCheckpointPhase(ElementType.VERTEX);
+        saved.setCheckpointId("v2");
+        saved.setCheckpointCount(2);
+        saved.setProcessedCount(2);
+
+        statusProperties.put(REINDEX_STATUS_PROPERTY_KEY, AtlasType.toJson(saved));
+
+        reindexService.resumeReindex(null);
+
+        AtlasReindexStatus status = waitForCompletion();
+
+        assertEquals(status.getStatus(), Status.COMPLETE);
+        assertEquals(status.getScannedCount(), 5);
+        assertEquals(status.getProcessedCount(), 5);
+        assertEquals(new HashSet<>(reindexedIds), new HashSet<>(Arrays.asList("v3", "v4", "v5")));
+    }
+
+    @Test
+    public void completedReindexIsNotResumable() throws Exception {
+        reindexService.startReindex(null, 0);
+
+        waitForCompletion();
+
+        try {
+            reindexService.resumeReindex(null);
+
+            fail("resumeReindex() should fail for a completed reindex");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.REINDEX_NOT_RESUMABLE);
+        }
+    }
+
+    @Test
+    public void failedScanFailsReindex() throws Exception {
+        when(graph.getVertices()).thenThrow(new IllegalStateException("scan failed"));
+
+        reindexService.startReindex(null, 0);
+
+        AtlasReindexStatus status = waitForCompletion();
+
+        assertEquals(status.getStatus(), Status.FAILED);
+        assertEquals(status.getErrorMessage(), "scan failed");
+        assertEquals(loadSavedStatus().getStatus(), Status.FAILED);
+    }
+
+    @Test
+    public void throttleLimitsElementsPerSecond() throws Exception {
+        long startTime = System.currentTimeMillis();
+
+        // ranges of 2, 2 and 1 elements: the second range waits for 1 second, the third for 1 more
+        reindexService.startReindex(Collections.singletonList(VERTEX_INDEX), 2);
+
+        AtlasReindexStatus status = waitForCompletion();
+
+        assertEquals(status.getStatus(), Status.COMPLETE);
+        assertEquals(status.getMaxElementsPerSecond(), 2);
+        assertTrue(System.currentTimeMillis() - startTime >= 1500);
+    }
+
+    @Test
+    public void throttleOfRunningReindexIsChanged() throws Exception {
+        reindexBlocker = new CountDownLatch(1);
+
+        reindexService.startReindex(Collections.singletonList(VERTEX_INDEX), 100);
+
+        assertEquals(reindexService.setMaxElementsPerSecond(0).getMaxElementsPerSecond(), 0);
+        assertEquals(reindexService.getStatus().getMaxElementsPerSecond(), 0);
+
+        try {
+            reindexService.setMaxElementsPerSecond(-1);
+
+            fail("setMaxElementsPerSecond() should fail for a negative value");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.INVALID_PARAMETERS);
+        }
+
+        reindexBlocker.countDown();
+
+        assertEquals(waitForCompletion().getMaxElementsPerSecond(), 0);
+    }
+    @Test
+    public void checkpointAdvancesOnlyOverCompletedRanges() {
+        CheckpointTracker tracker = new CheckpointTracker(null, null, 0);
+        Range             range1  = tracker.add(ElementType.VERTEX, Arrays.asList("1", "2"), 2);
+        Range             range2  = tracker.add(ElementType.VERTEX, Arrays.asList("3", "4"), 4);
+        Range             range3  = tracker.add(ElementType.VERTEX, Arrays.asList("5"), 5);
+
+        tracker.complete(range2);
+        tracker.complete(range3);
+
+        assertCheckpoint(tracker, null, null, 0);
+
+        tracker.complete(range1);
+
+        assertCheckpoint(tracker, ElementType.VERTEX, "5", 5);
+    }
+
+    @Test
+    public void checkpointStopsAtFirstIncompleteRange() {
+        CheckpointTracker tracker = new CheckpointTracker(null, null, 0);
+        Range             range1  = tracker.add(ElementType.VERTEX, Arrays.asList("1", "2"), 2);
+
+        tracker.add(ElementType.VERTEX, Arrays.asList("3", "4"), 4);
+
+        Range range3 = tracker.add(ElementType.VERTEX, Arrays.asList("5"), 5);
+
+        tracker.complete(range1);
+        tracker.complete(range3);
+
+        assertCheckpoint(tracker, ElementType.VERTEX, "2", 2);
+        assertEquals(tracker.getResumeId(ElementType.VERTEX), "2");
+        assertNull(tracker.getResumeId(ElementType.EDGE));
+    }
+
+    @Test
+    public void resumesInPhaseOfCheckpoint() {
+        CheckpointTracker tracker = new CheckpointTracker(ElementType.EDGE, "e10", 110);
+
+        assertTrue(tracker.isPhaseComplete(ElementType.VERTEX));
+        assertFalse(tracker.isPhaseComplete(ElementType.EDGE));
+        assertNull(tracker.getResumeId(ElementType.VERTEX));
+        assertEquals(tracker.getResumeId(ElementType.EDGE), "e10");
+
+        tracker.complete(tracker.add(ElementType.EDGE, Arrays.asList("e11", "e12"), 112));
+
+        assertCheckpoint(tracker, ElementType.EDGE, "e12", 112);
+    }
+
+    @Test
+    public void startPhaseResetsCheckpointId() {
+        CheckpointTracker tracker = new CheckpointTracker(null, null, 0);
+
+        assertFalse(tracker.isPhaseComplete(ElementType.VERTEX));
+
+        tracker.complete(tracker.add(ElementType.VERTEX, Arrays.asList("1", "2"), 2));
+        tracker.startPhase(ElementType.EDGE, 2);
+
+        assertTrue(tracker.isPhaseComplete(ElementType.VERTEX));
+        assertCheckpoint(tracker, ElementType.EDGE, null, 2);
+    }
+
+    private AtlasReindexStatus waitForCompletion() throws InterruptedException {
+        long timeout = System.currentTimeMillis() + WAIT_TIME_MS;
+
+        while (reindexService.isRunning()) {
+            if (System.currentTimeMillis() > timeout) {
+                fail("reindex didn't complete in " + WAIT_TIME_MS + "ms");
+            }
+
+            Thread.sleep(10);
+        }
+
+        return reindexService.getStatus();
+    }
+
+    private AtlasReindexStatus loadSavedStatus() {
+        return AtlasType.fromJson((String) statusProperties.get(REINDEX_STATUS_PROPERTY_KEY), AtlasReindexStatus.class);
+    }
+
+    private void addVertex(String id) {
+        AtlasVertex vertex = mock(AtlasVertex.class);
+
+        when(vertex.getId()).thenReturn(id);
+
+        vertices.put(id, vertex);
+    }
+
+    private static void assertCheckpoint(CheckpointTracker tracker, ElementType phase, String id, long count) {
+        AtlasReindexStatus status = new AtlasReindexStatus();
+
+        tracker.copyTo(status);
+
+        assertEquals(status.getCheckpointPhase(), phase);
+        assertEquals(status.getCheckpointId(), id);
+        assertEquals(status.getCheckpointCount(), count);
+    }
+}
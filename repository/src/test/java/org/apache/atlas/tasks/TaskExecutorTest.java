@@ -0,0 +1,230 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TaskExecutorTest {
+    private static final String TASK_TYPE = "TEST_TASK";
+
+    private InMemoryTaskRegistry registry;
+    private TaskExecutor executor;
+
+    @BeforeMethod
+    public void setup() {
+        registry = new InMemoryTaskRegistry();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        if (executor != null) {
+            executor.stop();
+        }
+    }
+
+    @Test
+    public void completedTaskIsRemovedFromRegistry() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        executor = createExecutor(task -> new TestTask(task, () -> { latch.countDown(); return Status.COMPLETE; }), 2, 3);
+
+        AtlasTask task = new AtlasTask(TASK_TYPE, "admin", null);
+
+        executor.submit(task);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        waitFor(() -> executor.getCompletedCount() == 1);
+
+        assertEquals(task.getAttemptCount(), 1);
+        assertTrue(registry.updatedTasks.contains(task.getGuid()));
+        assertTrue(registry.deletedTasks.contains(task.getGuid()));
+    }
+
+    @Test
+    public void failedTaskIsRetriedUpToMaxAttempts() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+
+        executor = createExecutor(task -> new TestTask(task, () -> { attempts.incrementAndGet(); throw new RuntimeException("failure"); }), 2, 3);
+
+        AtlasTask task = new AtlasTask(TASK_TYPE, "admin", null);
+
+        executor.submit(task);
+
+        waitFor(() -> executor.getFailedCount() == 1);
+
+        assertEquals(attempts.get(), 3);
+        assertEquals(task.getStatus(), Status.FAILED);
+        assertEquals(task.getErrorMessage(), "failure");
+        assertTrue(registry.deletedTasks.isEmpty());
+    }
+
+    @Test
+    public void failedTaskIsRetriedAfterDelay() throws Exception {
+        List<Long> attemptTimes = Collections.synchronizedList(new ArrayList<>());
+
+        executor = createExecutor(task -> new TestTask(task, () -> { attemptTimes.add(System.currentTimeMillis()); throw new RuntimeException("failure"); }), 1, 3, 200);
+
+        executor.submit(new AtlasTask(TASK_TYPE, "admin", null));
+
+        waitFor(() -> executor.getFailedCount() == 1);
+
+        assertEquals(attemptTimes.size(), 3);
+        assertTrue(attemptTimes.get(1) - attemptTimes.get(0) >= 200, "first retry should wait for the retry delay");
+        assertTrue(attemptTimes.get(2) - attemptTimes.get(1) >= 400, "second retry should wait for twice the retry delay");
+    }
+
+    @Test
+    public void retryDelayDoublesWithEachAttempt() {
+        executor = createExecutor(task -> new TestTask(task, () -> Status.COMPLETE), 1, 1, 1000);
+
+        assertEquals(executor.getRetryDelayMs(1), 1000);
+        assertEquals(executor.getRetryDelayMs(2), 2000);
+        assertEquals(executor.getRetryDelayMs(3), 4000);
+        assertEquals(executor.getRetryDelayMs(100), 1000 << 10);
+    }
+
+    @Test
+    public void tasksWithSameOrderingKeyRunInSubmissionOrder() throws Exception {
+        int            taskCount = 50;
+        List<Integer>  executed  = Collections.synchronizedList(new ArrayList<>());
+
+        executor = createExecutor(task -> new TestTask(task, () -> { executed.add((Integer) task.getParameter("seq")); return Status.COMPLETE; }) {
+            @Override
+            public String getOrderingKey() {
+                return "same-key";
+            }
+        }, 4, 1);
+
+        for (int i = 0; i < taskCount; i++) {
+            Map<String, Object> params = new HashMap<>();
+
+            params.put("seq", i);
+
+            executor.submit(new AtlasTask(TASK_TYPE, "admin", params));
+        }
+
+        waitFor(() -> executor.getCompletedCount() == taskCount);
+
+        for (int i = 0; i < taskCount; i++) {
+            assertEquals(executed.get(i).intValue(), i);
+        }
+    }
+
+    @Test
+    public void taskOfUnknownTypeIsIgnored() {
+        executor = createExecutor(task -> new TestTask(task, () -> Status.COMPLETE), 1, 1);
+
+        executor.submit(new AtlasTask("UNKNOWN_TYPE", "admin", null));
+
+        assertTrue(registry.updatedTasks.isEmpty());
+    }
+
+    private TaskExecutor createExecutor(TaskCreator creator, int workerCount, int maxAttempts) {
+        return createExecutor(creator, workerCount, maxAttempts, 0);
+    }
+
+    private TaskExecutor createExecutor(TaskCreator creator, int workerCount, int maxAttempts, long retryDelayMs) {
+        Map<String, TaskFactory> factories = new HashMap<>();
+
+        factories.put(TASK_TYPE, new TaskFactory() {
+            @Override
+            public AbstractTask create(AtlasTask task) {
+                return creator.create(task);
+            }
+
+            @Override
+            public List<String> getSupportedTypes() {
+                return Collections.singletonList(TASK_TYPE);
+            }
+        });
+
+        return new TaskExecutor(registry, factories, workerCount, maxAttempts, retryDelayMs);
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+
+        while (!condition.isMet() && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(condition.isMet());
+    }
+
+    private interface TaskCreator {
+        AbstractTask create(AtlasTask task);
+    }
+
+    private interface TaskBody {
+        Status run() throws Exception;
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    private static class InMemoryTaskRegistry extends TaskRegistry {
+        final List<String> updatedTasks = Collections.synchronizedList(new ArrayList<>());
+        final List<String> deletedTasks = Collections.synchronizedList(new ArrayList<>());
+
+        InMemoryTaskRegistry() {
+            super(null);
+        }
+
+        @Override
+        public void updateStatus(AtlasTask task) {
+            updatedTasks.add(task.getGuid());
+        }
+
+        @Override
+        public void deleteByGuid(String guid) {
+            deletedTasks.add(guid);
+        }
+    }
+
+    private static class TestTask extends AbstractTask {
+        private final TaskBody body;
+
+        TestTask(AtlasTask task, TaskBody body) {
+            super(task);
+
+            this.body = body;
+        }
+
+        @Override
+        public Status perform() throws Exception {
+            return body.run();
+        }
+    }
+}
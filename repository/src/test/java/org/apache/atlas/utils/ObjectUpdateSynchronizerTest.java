@@ -17,7 +17,9 @@
  */
 package org.apache.atlas.utils;
 
+import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.RandomStringUtils;
 import org.springframework.util.CollectionUtils;
@@ -25,10 +27,14 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
 
 public class ObjectUpdateSynchronizerTest {
     private static final GraphTransactionInterceptor.ObjectUpdateSynchronizer objectUpdateSynchronizer = new GraphTransactionInterceptor.ObjectUpdateSynchronizer();
@@ -166,6 +172,67 @@ public class ObjectUpdateSynchronizerTest {
         assertArrayEquals(populateExpectedArrayOutput(th.length));
     }
 
+    @Test
+    public void locksAreRemovedAfterRelease() throws InterruptedException {
+        CounterThread th[] = getCounterThreads(false, 5);
+        int i = 0;
+        th[i++].setIds("1", "2", "3");
+        th[i++].setIds("3", "2", "1");
+        th[i++].setIds("2", "2", "3");
+        th[i++].setIds("1");
+        th[i++].setIds("3");
+
+        startCounterThreads(th);
+        waitForThreadsToEnd(th);
+        assertEquals(objectUpdateSynchronizer.getActiveLockCount(), 0);
+    }
+
+    @Test
+    public void lockTimesOutWhenHeldByAnotherThread() throws Exception {
+        final GraphTransactionInterceptor.ObjectUpdateSynchronizer synchronizer = new GraphTransactionInterceptor.ObjectUpdateSynchronizer(100);
+        final CountDownLatch                                       locked       = new CountDownLatch(1);
+        final CountDownLatch                                       done         = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> {
+            synchronizer.lockObject(Collections.singletonList("1"));
+            locked.countDown();
+
+            try {
+                done.await();
+            } catch (InterruptedException excp) {
+                // ignore
+            } finally {
+                synchronizer.releaseLockedObjects();
+            }
+        });
+
+        holder.start();
+        locked.await();
+
+        try {
+            synchronizer.tryLockObject(Arrays.asList("2", "1"));
+
+            fail("expected lock on guid 1 to time out"); // guid 1 is locked first, so guid 2 is never locked
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.FAILED_TO_OBTAIN_ENTITY_LOCK);
+        } finally {
+            synchronizer.releaseLockedObjects();
+        }
+
+        assertEquals(synchronizer.getTimeoutCount(), 1);
+        assertEquals(synchronizer.getContendedCount(), 1);
+        assertEquals(synchronizer.getAcquiredCount(), 1);
+
+        done.countDown();
+        holder.join();
+
+        synchronizer.tryLockObject("1");
+        synchronizer.releaseLockedObjects();
+
+        assertEquals(synchronizer.getAcquiredCount(), 2);
+        assertEquals(synchronizer.getActiveLockCount(), 0);
+    }
+
     private void verifyMultipleThreadRun(int limit) throws InterruptedException {
         CounterThread[] th = getCounterThreads(limit);
         startCounterThreads(th);
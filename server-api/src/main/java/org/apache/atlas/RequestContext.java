@@ -74,6 +74,7 @@ public class RequestContext {
     private boolean     isInTypePatching           = false;
     private boolean     createShellEntityForNonExistingReference = false;
     private boolean     skipFailedEntities = false;
+    private boolean     isAsyncIndexWrites = false;
 
     private RequestContext() {
     }
@@ -211,6 +212,14 @@ public class RequestContext {
         isInNotificationProcessing = inNotificationProcessing;
     }
 
+    public boolean isAsyncIndexWrites() {
+        return isAsyncIndexWrites;
+    }
+
+    public void setAsyncIndexWrites(boolean asyncIndexWrites) {
+        isAsyncIndexWrites = asyncIndexWrites;
+    }
+
     public boolean isInTypePatching() {
         return isInTypePatching;
     }
@@ -32,7 +32,10 @@ public interface ActiveStateChangeHandler {
         TYPEDEF_STORE_INITIALIZER(2),
         ATLAS_PATCH_SERVICE(3),
         DEFAULT_METADATA_SERVICE(4),
-        NOTIFICATION_HOOK_CONSUMER(5);
+        NOTIFICATION_HOOK_CONSUMER(5),
+        TASK_MANAGEMENT(6),
+        ENTITY_COUNT_TRACKER(7),
+        REINDEX_SERVICE(8);
 
 
         private final int order;
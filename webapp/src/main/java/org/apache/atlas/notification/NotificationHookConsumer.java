@@ -32,6 +32,7 @@ import org.apache.atlas.model.instance.AtlasEntityHeader;
 import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.model.notification.HookNotification.HookNotificationType;
 import org.apache.atlas.model.notification.HookNotification.EntityCreateRequestV2;
 import org.apache.atlas.model.notification.HookNotification.EntityDeleteRequestV2;
 import org.apache.atlas.model.notification.HookNotification.EntityUpdateRequestV2;
@@ -58,6 +59,7 @@ import org.apache.atlas.service.Service;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.type.AtlasTypeUtil;
 import org.apache.atlas.utils.AtlasPerfTracer;
 import org.apache.atlas.web.filters.AuditFilter;
 import org.apache.atlas.web.filters.AuditFilter.AuditLog;
@@ -67,6 +69,7 @@ import org.apache.commons.collections.MapUtils;
 import org.apache.commons.collections4.map.PassiveExpiringMap;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.lang.StringUtils;
+import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.DependsOn;
@@ -85,14 +88,21 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 import static org.apache.atlas.model.instance.AtlasObjectId.*;
@@ -135,6 +145,9 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     public static final String CONSUMER_MAX_RETRY_INTERVAL       = "atlas.notification.consumer.max.retry.interval";
     public static final String CONSUMER_COMMIT_BATCH_SIZE        = "atlas.notification.consumer.commit.batch.size";
     public static final String CONSUMER_DISABLED                 = "atlas.notification.consumer.disabled";
+    public static final String CONSUMER_PARALLEL_WORKERS         = "atlas.notification.consumer.parallel.workers";
+    public static final String CONSUMER_PARALLEL_MAX_IN_FLIGHT   = "atlas.notification.consumer.parallel.max.inflight.messages";
+    public static final String CONSUMER_MESSAGE_BATCH_SIZE       = "atlas.notification.consumer.message.batch.size";
 
 
     public static final String CONSUMER_SKIP_HIVE_COLUMN_LINEAGE_HIVE_20633                  = "atlas.notification.consumer.skip.hive_column_lineage.hive-20633";
@@ -156,6 +169,8 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
 
     public static final int SERVER_READY_WAIT_TIME_MS = 1000;
 
+    private static final int PARALLEL_DISPATCH_WAIT_TIME_MS = 1000;
+
     private final AtlasEntityStore              atlasEntityStore;
     private final ServiceState                  serviceState;
     private final AtlasInstanceConverter        instanceConverter;
@@ -171,6 +186,9 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     private final boolean                       updateHiveProcessNameWithQualifiedName;
     private final int                           largeMessageProcessingTimeThresholdMs;
     private final boolean                       consumerDisabled;
+    private final int                           parallelWorkers;
+    private final int                           maxInFlightMessages;
+    private final int                           messageBatchSize;
     private final List<Pattern>                 hiveTablesToIgnore = new ArrayList<>();
     private final List<Pattern>                 hiveTablesToPrune  = new ArrayList<>();
     private final List<String>                  hiveDummyDatabasesToIgnore;
@@ -181,13 +199,14 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     private final boolean                       rdbmsTypesRemoveOwnedRefAttrs;
     private final boolean                       preprocessEnabled;
     private final boolean createShellEntityForNonExistingReference;
+    private final boolean asyncIndexWrites;
     private final boolean                       authorizeUsingMessageUser;
     private final Map<String, Authentication>   authnCache;
 
     private final NotificationInterface         notificationInterface;
     private final Configuration                 applicationProperties;
     private       ExecutorService               executors;
-    private       Instant                       nextStatsLogTime = AtlasMetricsCounter.getNextHourStartTime(Instant.now());
+    private final AtomicReference<Instant>      nextStatsLogTime = new AtomicReference<>(AtlasMetricsCounter.getNextHourStartTime(Instant.now()));
 
     @VisibleForTesting
     final int consumerRetryInterval;
@@ -218,13 +237,17 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         skipHiveColumnLineageHive20633InputsThreshold = applicationProperties.getInt(CONSUMER_SKIP_HIVE_COLUMN_LINEAGE_HIVE_20633_INPUTS_THRESHOLD, 15); // skip if avg # of inputs is > 15
         updateHiveProcessNameWithQualifiedName        = applicationProperties.getBoolean(CONSUMER_PREPROCESS_HIVE_PROCESS_UPD_NAME_WITH_QUALIFIED_NAME, true);
         consumerDisabled                              = applicationProperties.getBoolean(CONSUMER_DISABLED, false);
+        parallelWorkers                               = applicationProperties.getInt(CONSUMER_PARALLEL_WORKERS, 1);
+        maxInFlightMessages                           = applicationProperties.getInt(CONSUMER_PARALLEL_MAX_IN_FLIGHT, 1000);
+        messageBatchSize                              = applicationProperties.getInt(CONSUMER_MESSAGE_BATCH_SIZE, 1);
         largeMessageProcessingTimeThresholdMs         = applicationProperties.getInt("atlas.notification.consumer.large.message.processing.time.threshold.ms", 60 * 1000);  //  60 sec by default
         createShellEntityForNonExistingReference      = AtlasConfiguration.NOTIFICATION_CREATE_SHELL_ENTITY_FOR_NON_EXISTING_REF.getBoolean();
+        asyncIndexWrites                              = AtlasConfiguration.NOTIFICATION_CONSUMER_ASYNC_INDEX_WRITES.getBoolean();
         authorizeUsingMessageUser                     = applicationProperties.getBoolean(CONSUMER_AUTHORIZE_USING_MESSAGE_USER, false);
 
         int authnCacheTtlSeconds = applicationProperties.getInt(CONSUMER_AUTHORIZE_AUTHN_CACHE_TTL_SECONDS, 300);
 
-        authnCache = (authorizeUsingMessageUser && authnCacheTtlSeconds > 0) ? new PassiveExpiringMap<>(authnCacheTtlSeconds * 1000) : null;
+        authnCache = (authorizeUsingMessageUser && authnCacheTtlSeconds > 0) ? Collections.synchronizedMap(new PassiveExpiringMap<>(authnCacheTtlSeconds * 1000)) : null;
 
         String[] patternHiveTablesToIgnore = applicationProperties.getStringArray(CONSUMER_PREPROCESS_HIVE_TABLE_IGNORE_PATTERN);
         String[] patternHiveTablesToPrune  = applicationProperties.getStringArray(CONSUMER_PREPROCESS_HIVE_TABLE_PRUNE_PATTERN);
@@ -256,7 +279,7 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         }
 
         if (!hiveTablesToIgnore.isEmpty() || !hiveTablesToPrune.isEmpty()) {
-            hiveTablesCache = new LruCache<>(applicationProperties.getInt(CONSUMER_PREPROCESS_HIVE_TABLE_CACHE_SIZE, 10000), 0);
+            hiveTablesCache = Collections.synchronizedMap(new LruCache<>(applicationProperties.getInt(CONSUMER_PREPROCESS_HIVE_TABLE_CACHE_SIZE, 10000), 0));
         } else {
             hiveTablesCache = Collections.emptyMap();
         }
@@ -311,6 +334,9 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         LOG.info("{}={}", CONSUMER_PREPROCESS_RDBMS_TYPES_REMOVE_OWNEDREF_ATTRS, rdbmsTypesRemoveOwnedRefAttrs);
         LOG.info("{}={}", CONSUMER_COMMIT_BATCH_SIZE, commitBatchSize);
         LOG.info("{}={}", CONSUMER_DISABLED, consumerDisabled);
+        LOG.info("{}={}", CONSUMER_PARALLEL_WORKERS, parallelWorkers);
+        LOG.info("{}={}", CONSUMER_PARALLEL_MAX_IN_FLIGHT, maxInFlightMessages);
+        LOG.info("{}={}", CONSUMER_MESSAGE_BATCH_SIZE, messageBatchSize);
     }
 
     @Override
@@ -514,9 +540,16 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     class HookConsumer extends ShutdownableThread {
         private final NotificationConsumer<HookNotification> consumer;
         private final AtomicBoolean                          shouldRun      = new AtomicBoolean(false);
-        private final List<String>                           failedMessages = new ArrayList<>();
+        private final List<String>                           failedMessages = Collections.synchronizedList(new ArrayList<>());
         private final AdaptiveWaiter                         adaptiveWaiter = new AdaptiveWaiter(minWaitDuration, maxWaitDuration, minWaitDuration);
 
+        // used only when messages are processed in parallel, i.e. when parallelWorkers > 1
+        private final ExecutorService[]                            workers;
+        private final int                                          maxInFlight;
+        private final ThreadLocal<AdaptiveWaiter>                  workerWaiters = ThreadLocal.withInitial(() -> new AdaptiveWaiter(minWaitDuration, maxWaitDuration, minWaitDuration));
+        private final Semaphore                                    inFlightMessages;
+        private final Map<TopicPartition, PartitionOffsetTracker> offsetTrackers;
+
         @VisibleForTesting
         final FailedCommitOffsetRecorder failedCommitOffsetRecorder;
 
@@ -525,6 +558,22 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
 
             this.consumer = consumer;
             failedCommitOffsetRecorder = new FailedCommitOffsetRecorder();
+
+            if (parallelWorkers > 1) {
+                workers          = new ExecutorService[parallelWorkers];
+                maxInFlight      = Math.max(maxInFlightMessages, parallelWorkers);
+                inFlightMessages = new Semaphore(maxInFlight);
+                offsetTrackers   = new ConcurrentHashMap<>();
+
+                for (int i = 0; i < workers.length; i++) {
+                    workers[i] = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(THREADNAME_PREFIX + " worker-" + i + "-%d").setDaemon(true).build());
+                }
+            } else {
+                workers          = null;
+                maxInFlight      = 0;
+                inFlightMessages = null;
+                offsetTrackers   = null;
+            }
         }
 
         @Override
@@ -542,8 +591,22 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                     try {
                         List<AtlasKafkaMessage<HookNotification>> messages = consumer.receive();
 
-                        for (AtlasKafkaMessage<HookNotification> msg : messages) {
-                            handleMessage(msg);
+                        if (workers == null) {
+                            if (messageBatchSize > 1) {
+                                handleMessagesInBatches(messages);
+                            } else {
+                                for (AtlasKafkaMessage<HookNotification> msg : messages) {
+                                    handleMessage(msg);
+                                }
+                            }
+                        } else {
+                            for (AtlasKafkaMessage<HookNotification> msg : messages) {
+                                if (!dispatchMessage(msg)) {
+                                    break;
+                                }
+                            }
+
+                            commitProcessedOffsets();
                         }
                     } catch (IllegalStateException ex) {
                         adaptiveWaiter.pause(ex);
@@ -558,6 +621,10 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                     }
                 }
             } finally {
+                if (workers != null) {
+                    stopWorkers();
+                }
+
                 if (consumer != null) {
                     LOG.info("closing NotificationConsumer");
 
@@ -641,6 +708,7 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                         requestContext.setUser(messageUser, null);
                         requestContext.setInNotificationProcessing(true);
                         requestContext.setCreateShellEntityForNonExistingReference(createShellEntityForNonExistingReference);
+                        requestContext.setAsyncIndexWrites(asyncIndexWrites);
 
                         switch (message.getType()) {
                             case ENTITY_CREATE: {
@@ -788,7 +856,7 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
 
                         if (StringUtils.isNotEmpty(exceptionClassName)) {
                             LOG.warn("{}: Pausing & retry: Try: {}: Pause: {} ms. Handled!",
-                                                exceptionClassName, numRetries, adaptiveWaiter.waitDuration);
+                                                exceptionClassName, numRetries, getRetryWaiter().waitDuration);
                             exceptionClassName = StringUtils.EMPTY;
                         }
                         break;
@@ -814,9 +882,9 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                         } else if (exceptionClassName.equals(EXCEPTION_CLASS_NAME_JANUSGRAPH_EXCEPTION)
                                 || exceptionClassName.equals(EXCEPTION_CLASS_NAME_PERMANENTLOCKING_EXCEPTION)) {
                             LOG.warn("{}: Pausing & retry: Try: {}: Pause: {} ms. {}",
-                                    exceptionClassName, numRetries, adaptiveWaiter.waitDuration, e.getMessage());
+                                    exceptionClassName, numRetries, getRetryWaiter().waitDuration, e.getMessage());
 
-                            adaptiveWaiter.pause((Exception) e);
+                            getRetryWaiter().pause((Exception) e);
                         } else {
                             LOG.warn("Error handling message", e);
 
@@ -855,12 +923,12 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                     AuditFilter.audit(auditLog);
                 }
 
-                Instant now = Instant.now();
+                Instant now           = Instant.now();
+                Instant statsLogTime  = nextStatsLogTime.get();
 
-                if (now.isAfter(nextStatsLogTime)) {
+                // with parallel workers, only the worker that advances the time logs the stats
+                if (now.isAfter(statsLogTime) && nextStatsLogTime.compareAndSet(statsLogTime, AtlasMetricsCounter.getNextHourStartTime(now))) {
                     LOG.info("STATS: {}", AtlasJson.toJson(metricsUtil.getStats()));
-
-                    nextStatsLogTime = AtlasMetricsCounter.getNextHourStartTime(now);
                 }
             }
         }
@@ -909,16 +977,295 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             }
         }
 
+        /**
+         * Coalesces consecutive create/update messages from the same user and topic-partition into batches of up to
+         * messageBatchSize messages and commitBatchSize entities; other messages are handled one at a time, in order.
+         */
+        private void handleMessagesInBatches(List<AtlasKafkaMessage<HookNotification>> messages) throws AtlasServiceException, AtlasException {
+            List<AtlasKafkaMessage<HookNotification>> batch            = new ArrayList<>();
+            int                                       batchEntityCount = 0;
+
+            for (AtlasKafkaMessage<HookNotification> msg : messages) {
+                AtlasEntitiesWithExtInfo entities       = getBatchableEntities(msg);
+                int                      msgEntityCount = entities != null ? entities.getEntities().size() : 0;
+
+                if (!batch.isEmpty()) {
+                    AtlasKafkaMessage<HookNotification> firstMsg = batch.get(0);
+
+                    boolean isCompatible = entities != null &&
+                                           batch.size() < messageBatchSize &&
+                                           (commitBatchSize <= 0 || batchEntityCount + msgEntityCount <= commitBatchSize) &&
+                                           firstMsg.getTopicPartition().equals(msg.getTopicPartition()) &&
+                                           StringUtils.equals(firstMsg.getMessage().getUser(), msg.getMessage().getUser());
+
+                    if (!isCompatible) {
+                        handleMessageBatch(batch);
+
+                        batch            = new ArrayList<>();
+                        batchEntityCount = 0;
+                    }
+                }
+
+                if (entities != null) {
+                    batch.add(msg);
+
+                    batchEntityCount += msgEntityCount;
+                } else {
+                    handleMessage(msg);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                handleMessageBatch(batch);
+            }
+        }
+
+        /**
+         * Processes the messages with a single createOrUpdate() call, committing the offset of the last message. If the
+         * batch fails, messages are replayed one at a time - so that retries and failed-message accounting remain
+         * the same as without batching.
+         */
+        @VisibleForTesting
+        void handleMessageBatch(List<AtlasKafkaMessage<HookNotification>> batch) throws AtlasServiceException, AtlasException {
+            if (batch.size() == 1) {
+                handleMessage(batch.get(0));
+
+                return;
+            }
+
+            AtlasPerfTracer                     perf        = null;
+            AtlasKafkaMessage<HookNotification> firstMsg    = batch.get(0);
+            AtlasKafkaMessage<HookNotification> lastMsg     = batch.get(batch.size() - 1);
+            String                              messageUser = lastMsg.getMessage().getUser();
+            long                                startTime   = System.currentTimeMillis();
+            NotificationStat                    stats       = new NotificationStat();
+            boolean                             isSuccess   = false;
+
+            if (authorizeUsingMessageUser) {
+                setCurrentUser(messageUser);
+            }
+
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "messageBatch(count=" + batch.size() + ")");
+            }
+
+            try {
+                List<AtlasEntitiesWithExtInfo> entitiesList = new ArrayList<>(batch.size());
+
+                for (AtlasKafkaMessage<HookNotification> msg : batch) {
+                    entitiesList.add(getBatchableEntities(msg));
+                }
+
+                AtlasEntitiesWithExtInfo            entities = mergeEntities(entitiesList);
+                AtlasKafkaMessage<HookNotification> batchMsg = new AtlasKafkaMessage<>(new EntityUpdateRequestV2(messageUser, entities), lastMsg.getOffset(), lastMsg.getTopic(), lastMsg.getPartition());
+                PreprocessorContext                 context  = preProcessNotificationMessage(batchMsg);
+
+                if (!isEmptyMessage(batchMsg)) {
+                    RequestContext requestContext = RequestContext.get();
+
+                    requestContext.setAttemptCount(1);
+                    requestContext.setMaxAttempts(maxRetries);
+
+                    requestContext.setUser(messageUser, null);
+                    requestContext.setInNotificationProcessing(true);
+                    requestContext.setCreateShellEntityForNonExistingReference(createShellEntityForNonExistingReference);
+                    requestContext.setAsyncIndexWrites(asyncIndexWrites);
+
+                    createOrUpdate(entities, false, stats, context);
+                }
+
+                isSuccess = true;
+            } catch (Throwable e) {
+                LOG.warn("Failed to process batch of {} messages, topic-offsets {} to {}; processing the messages one at a time", batch.size(), firstMsg.getOffset(), lastMsg.getOffset(), e);
+            } finally {
+                RequestContext.clear();
+
+                AtlasPerfTracer.log(perf);
+            }
+
+            if (!isSuccess) {
+                for (AtlasKafkaMessage<HookNotification> msg : batch) {
+                    handleMessage(msg);
+                }
+
+                return;
+            }
+
+            commit(lastMsg);
+
+            long timeTakenMs = System.currentTimeMillis() - startTime;
+
+            // entity counts are recorded against the last message; processing time is spread across all messages
+            for (AtlasKafkaMessage<HookNotification> msg : batch) {
+                NotificationStat msgStats = msg == lastMsg ? stats : new NotificationStat();
+
+                msgStats.timeTakenMs = timeTakenMs / batch.size();
+
+                metricsUtil.onNotificationProcessingComplete(msg.getTopic(), msg.getPartition(), msg.getOffset(), msgStats);
+
+                // audit the operation of each message, as when the messages are processed one at a time
+                AtlasClientV2.API_V2 api      = msg.getMessage().getType() == HookNotificationType.ENTITY_CREATE_V2 ? AtlasClientV2.API_V2.CREATE_ENTITY : AtlasClientV2.API_V2.UPDATE_ENTITY;
+                AuditLog             auditLog = new AuditLog(msg.getMessage().getUser(), THREADNAME_PREFIX, api.getMethod(), api.getNormalizedPath());
+
+                auditLog.setHttpStatus(SC_OK);
+                auditLog.setTimeTaken(msgStats.timeTakenMs);
+
+                AuditFilter.audit(auditLog);
+            }
+        }
+
+        /**
+         * Returns entities in the message if it can be processed as part of a batch; null otherwise.
+         */
+        private AtlasEntitiesWithExtInfo getBatchableEntities(AtlasKafkaMessage<HookNotification> kafkaMsg) {
+            final AtlasEntitiesWithExtInfo ret;
+            final HookNotification         message = kafkaMsg.getMessage();
+
+            if (failedCommitOffsetRecorder.isMessageReplayed(kafkaMsg.getOffset())) {
+                ret = null;
+            } else if (message.getType() == HookNotificationType.ENTITY_CREATE_V2) {
+                ret = ((EntityCreateRequestV2) message).getEntities();
+            } else if (message.getType() == HookNotificationType.ENTITY_FULL_UPDATE_V2) {
+                ret = ((EntityUpdateRequestV2) message).getEntities();
+            } else {
+                ret = null;
+            }
+
+            return ret != null && CollectionUtils.isNotEmpty(ret.getEntities()) ? ret : null;
+        }
+
         private void recordFailedMessages() {
-            //logging failed messages
-            for (String message : failedMessages) {
-                FAILED_LOG.error("[DROPPED_NOTIFICATION] {}", message);
+            synchronized (failedMessages) {
+                //logging failed messages
+                for (String message : failedMessages) {
+                    FAILED_LOG.error("[DROPPED_NOTIFICATION] {}", message);
+                }
+
+                failedMessages.clear();
+            }
+        }
+
+        /**
+         * Submits the message to the worker for its key, so that messages for entities sharing a key are processed in
+         * the order received. A message spanning multiple keys is processed after all earlier messages complete, and
+         * before any later message is dispatched. Blocks while maxInFlightMessages are being processed.
+         *
+         * @return false if the consumer is shutting down; the message is not dispatched in such case
+         */
+        private boolean dispatchMessage(AtlasKafkaMessage<HookNotification> kafkaMsg) throws InterruptedException {
+            final String key     = getMessageKey(kafkaMsg);
+            final int    permits = key != null ? 1 : maxInFlight;
+
+            while (!inFlightMessages.tryAcquire(permits, PARALLEL_DISPATCH_WAIT_TIME_MS, TimeUnit.MILLISECONDS)) {
+                commitProcessedOffsets();
+
+                if (!shouldRun.get()) {
+                    return false;
+                }
+            }
+
+            final PartitionOffsetTracker offsetTracker = offsetTrackers.computeIfAbsent(kafkaMsg.getTopicPartition(), tp -> new PartitionOffsetTracker());
+
+            offsetTracker.add(kafkaMsg.getOffset());
+
+            if (key == null) { // no other message is in flight now
+                try {
+                    handleMessage(kafkaMsg);
+                } catch (Throwable t) {
+                    LOG.warn("Exception in NotificationHookConsumer; topic={}, partition={}, offset={}", kafkaMsg.getTopic(), kafkaMsg.getPartition(), kafkaMsg.getOffset(), t);
+                } finally {
+                    offsetTracker.markProcessed(kafkaMsg.getOffset());
+
+                    inFlightMessages.release(permits);
+                }
+
+                return true;
+            }
+
+            final int workerIdx = Math.floorMod(key.hashCode(), workers.length);
+
+            try {
+                workers[workerIdx].submit(() -> {
+                    try {
+                        handleMessage(kafkaMsg);
+                    } catch (Throwable t) {
+                        LOG.warn("Exception in NotificationHookConsumer worker; topic={}, partition={}, offset={}", kafkaMsg.getTopic(), kafkaMsg.getPartition(), kafkaMsg.getOffset(), t);
+                    } finally {
+                        offsetTracker.markProcessed(kafkaMsg.getOffset());
+
+                        inFlightMessages.release();
+                    }
+                });
+            } catch (RejectedExecutionException excp) { // workers are being shut down
+                inFlightMessages.release();
+
+                return false;
+            }
+
+            return true;
+        }
+
+        /**
+         * Commits, for each partition, the offset up to which all messages have been processed. Called only from the
+         * consumer thread, as Kafka consumer is not thread-safe.
+         */
+        private void commitProcessedOffsets() {
+            for (Map.Entry<TopicPartition, PartitionOffsetTracker> entry : offsetTrackers.entrySet()) {
+                long offset = entry.getValue().pollCommittableOffset();
+
+                if (offset != PartitionOffsetTracker.NO_OFFSET) {
+                    boolean commitSucceessStatus = false;
+
+                    try {
+                        consumer.commit(entry.getKey(), offset + 1);
+
+                        commitSucceessStatus = true;
+                    } catch (Exception e) {
+                        LOG.warn("Failed to commit offset {} for {}", offset + 1, entry.getKey(), e);
+                    } finally {
+                        failedCommitOffsetRecorder.recordIfFailed(commitSucceessStatus, offset);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the waiter used to pause before retrying a message. Each worker has its own waiter, as the waiter is
+         * not thread-safe.
+         */
+        private AdaptiveWaiter getRetryWaiter() {
+            return workers != null ? workerWaiters.get() : adaptiveWaiter;
+        }
+
+        private void stopWorkers() {
+            for (ExecutorService worker : workers) {
+                worker.shutdown();
+            }
+
+            try {
+                for (ExecutorService worker : workers) {
+                    if (!worker.awaitTermination(30, TimeUnit.SECONDS)) {
+                        LOG.warn("Timed out waiting for hook consumer workers to complete");
+
+                        worker.shutdownNow();
+                    }
+                }
+            } catch (InterruptedException e) {
+                LOG.warn("Interrupted while waiting for hook consumer workers to complete");
+
+                Thread.currentThread().interrupt();
             }
 
-            failedMessages.clear();
+            commitProcessedOffsets();
         }
 
         private void commit(AtlasKafkaMessage<HookNotification> kafkaMessage) {
+            if (workers != null) { // offsets are committed by the consumer thread, once all earlier messages are processed
+                recordFailedMessages();
+
+                return;
+            }
+
             boolean commitSucceessStatus = false;
             try {
                 recordFailedMessages();
@@ -1205,6 +1552,172 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         }
     }
 
+    /**
+     * Merges entities from multiple messages into one. Entities repeated across messages - for example, the hive_db
+     * referenced by each table in the database - are included once: attributes in later messages override earlier
+     * ones, and references to the duplicate are updated to use guid of the entity retained. Placeholder guids are
+     * unique only within a message; those already used by an earlier message are renamed, along with references to
+     * them, so that different entities don't get merged or referenced by mistake. Messages are not modified.
+     */
+    @VisibleForTesting
+    AtlasEntitiesWithExtInfo mergeEntities(List<AtlasEntitiesWithExtInfo> entitiesList) {
+        Map<String, AtlasEntity> entities         = new LinkedHashMap<>();
+        Map<String, AtlasEntity> referredEntities = new LinkedHashMap<>();
+        Map<String, String>      guidReplacements = new HashMap<>();
+        Set<String>              placeholderGuids = new HashSet<>();
+
+        for (int msgIdx = 0; msgIdx < entitiesList.size(); msgIdx++) {
+            AtlasEntitiesWithExtInfo copy = AtlasJson.fromJson(AtlasJson.toJson(entitiesList.get(msgIdx)), AtlasEntitiesWithExtInfo.class);
+
+            renamePlaceholderGuids(copy, msgIdx, placeholderGuids);
+
+            if (copy.getEntities() != null) {
+                for (AtlasEntity entity : copy.getEntities()) {
+                    mergeEntity(entity, true, entities, referredEntities, guidReplacements);
+                }
+            }
+
+            if (copy.getReferredEntities() != null) {
+                for (AtlasEntity entity : copy.getReferredEntities().values()) {
+                    mergeEntity(entity, false, entities, referredEntities, guidReplacements);
+                }
+            }
+        }
+
+        AtlasEntitiesWithExtInfo ret = new AtlasEntitiesWithExtInfo(new ArrayList<>(entities.values()));
+
+        for (AtlasEntity entity : referredEntities.values()) {
+            ret.addReferredEntity(entity);
+        }
+
+        if (!guidReplacements.isEmpty()) {
+            updateProcessedEntityReferences(ret.getEntities(), guidReplacements);
+            updateProcessedEntityReferences(new ArrayList<>(referredEntities.values()), guidReplacements);
+        }
+
+        return ret;
+    }
+
+    private static void renamePlaceholderGuids(AtlasEntitiesWithExtInfo msgEntities, int msgIdx, Set<String> placeholderGuids) {
+        List<AtlasEntity>   msgEntityList = new ArrayList<>();
+        Set<String>         msgGuids      = new HashSet<>();
+        Map<String, String> renamedGuids  = new HashMap<>();
+
+        if (msgEntities.getEntities() != null) {
+            msgEntityList.addAll(msgEntities.getEntities());
+        }
+
+        if (msgEntities.getReferredEntities() != null) {
+            msgEntityList.addAll(msgEntities.getReferredEntities().values());
+        }
+
+        for (AtlasEntity entity : msgEntityList) {
+            String guid = entity.getGuid();
+
+            if (AtlasTypeUtil.isUnAssignedGuid(guid)) {
+                if (placeholderGuids.contains(guid) && !renamedGuids.containsKey(guid)) {
+                    String newGuid = guid + "-" + msgIdx;
+
+                    while (placeholderGuids.contains(newGuid)) {
+                        newGuid = newGuid + "-" + msgIdx;
+                    }
+
+                    renamedGuids.put(guid, newGuid);
+                }
+
+                if (renamedGuids.containsKey(guid)) {
+                    entity.setGuid(renamedGuids.get(guid));
+                }
+
+                msgGuids.add(entity.getGuid());
+            }
+        }
+
+        placeholderGuids.addAll(msgGuids);
+
+        if (!renamedGuids.isEmpty()) {
+            for (AtlasEntity entity : msgEntityList) {
+                if (entity.getAttributes() != null) {
+                    entity.getAttributes().values().forEach(value -> renameGuidReferences(value, renamedGuids));
+                }
+
+                if (entity.getRelationshipAttributes() != null) {
+                    entity.getRelationshipAttributes().values().forEach(value -> renameGuidReferences(value, renamedGuids));
+                }
+            }
+        }
+    }
+
+    private static void renameGuidReferences(Object value, Map<String, String> renamedGuids) {
+        if (value instanceof AtlasObjectId) {
+            AtlasObjectId objId = (AtlasObjectId) value;
+
+            if (renamedGuids.containsKey(objId.getGuid())) {
+                objId.setGuid(renamedGuids.get(objId.getGuid()));
+            }
+        } else if (value instanceof Map) {
+            Map    map  = (Map) value;
+            Object guid = map.get(KEY_GUID);
+
+            if (guid != null && renamedGuids.containsKey(guid)) {
+                map.put(KEY_GUID, renamedGuids.get(guid));
+            }
+
+            for (Object mapValue : map.values()) { // references within struct attributes
+                renameGuidReferences(mapValue, renamedGuids);
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection) value) {
+                renameGuidReferences(element, renamedGuids);
+            }
+        }
+    }
+
+    private void mergeEntity(AtlasEntity entity, boolean isTopLevel, Map<String, AtlasEntity> entities, Map<String, AtlasEntity> referredEntities, Map<String, String> guidReplacements) {
+        Object  qualifiedName   = entity.getAttribute(ATTRIBUTE_QUALIFIED_NAME);
+        String  key             = qualifiedName != null ? entity.getTypeName() + ":" + qualifiedName : entity.getGuid();
+        boolean isTopLevelEntry = entities.containsKey(key) || isTopLevel;
+        AtlasEntity existing    = entities.containsKey(key) ? entities.get(key) : referredEntities.get(key);
+
+        if (existing != null) {
+            if (existing.getGuid() != null && !existing.getGuid().equals(entity.getGuid())) {
+                if (entity.getGuid() != null) {
+                    guidReplacements.put(entity.getGuid(), existing.getGuid());
+                }
+
+                entity.setGuid(existing.getGuid());
+            }
+
+            if (existing.getAttributes() != null) {
+                for (Map.Entry<String, Object> entry : existing.getAttributes().entrySet()) {
+                    if (!entity.hasAttribute(entry.getKey())) {
+                        entity.setAttribute(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+
+            if (existing.getRelationshipAttributes() != null) {
+                for (Map.Entry<String, Object> entry : existing.getRelationshipAttributes().entrySet()) {
+                    if (!entity.hasRelationshipAttribute(entry.getKey())) {
+                        entity.setRelationshipAttribute(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+
+            if (entity.getClassifications() == null) {
+                entity.setClassifications(existing.getClassifications());
+            }
+
+            referredEntities.remove(key);
+        }
+
+        if (isTopLevelEntry) {
+            entities.put(key, entity);
+        } else {
+            referredEntities.put(key, entity);
+        }
+    }
+
     private void updateProcessedEntityReferences(List<AtlasEntity> entities, Map<String, String> guidAssignments) {
         if (CollectionUtils.isNotEmpty(entities) && MapUtils.isNotEmpty(guidAssignments)) {
             for (AtlasEntity entity : entities) {
@@ -1331,6 +1844,163 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
         return ret;
     }
 
+    /**
+     * Returns the key used to route a message to a worker: the database portion of qualifiedNames of entities in the
+     * message, along with the cluster name. For example, the key for "db1.table1.col1@cl1" is "db1@cl1"; hence updates
+     * to a table and its columns are processed in the order received. Returns null if entities in the message have
+     * different keys, as with a process and its inputs and outputs from different databases; such messages must not be
+     * processed in parallel with other messages. Messages without a qualifiedName are routed by their partition.
+     */
+    @VisibleForTesting
+    static String getMessageKey(AtlasKafkaMessage<HookNotification> kafkaMsg) {
+        HookNotification message        = kafkaMsg.getMessage();
+        List<Object>     qualifiedNames = new ArrayList<>();
+
+        switch (message.getType()) {
+            case ENTITY_CREATE: {
+                List<Referenceable> entities = ((EntityCreateRequest) message).getEntities();
+
+                if (entities != null) {
+                    entities.forEach(entity -> qualifiedNames.add(entity.get(ATTRIBUTE_QUALIFIED_NAME)));
+                }
+            }
+            break;
+
+            case ENTITY_FULL_UPDATE: {
+                List<Referenceable> entities = ((EntityUpdateRequest) message).getEntities();
+
+                if (entities != null) {
+                    entities.forEach(entity -> qualifiedNames.add(entity.get(ATTRIBUTE_QUALIFIED_NAME)));
+                }
+            }
+            break;
+
+            case ENTITY_PARTIAL_UPDATE:
+                qualifiedNames.add(((EntityPartialUpdateRequest) message).getAttributeValue());
+            break;
+
+            case ENTITY_DELETE:
+                qualifiedNames.add(((EntityDeleteRequest) message).getAttributeValue());
+            break;
+
+            case ENTITY_CREATE_V2:
+                addQualifiedNames(((EntityCreateRequestV2) message).getEntities(), qualifiedNames);
+            break;
+
+            case ENTITY_FULL_UPDATE_V2:
+                addQualifiedNames(((EntityUpdateRequestV2) message).getEntities(), qualifiedNames);
+            break;
+
+            case ENTITY_PARTIAL_UPDATE_V2:
+                addQualifiedName(((EntityPartialUpdateRequestV2) message).getEntityId(), qualifiedNames);
+            break;
+
+            case ENTITY_DELETE_V2: {
+                List<AtlasObjectId> entityIds = ((EntityDeleteRequestV2) message).getEntities();
+
+                if (entityIds != null) {
+                    entityIds.forEach(entityId -> addQualifiedName(entityId, qualifiedNames));
+                }
+            }
+            break;
+        }
+
+        String ret = null;
+
+        for (Object qualifiedName : qualifiedNames) {
+            if (qualifiedName == null) {
+                continue;
+            }
+
+            String key = getRoutingKey(qualifiedName.toString());
+
+            if (ret == null) {
+                ret = key;
+            } else if (!ret.equals(key)) {
+                return null;
+            }
+        }
+
+        return ret != null ? ret : kafkaMsg.getTopic() + "-" + kafkaMsg.getPartition();
+    }
+
+    /**
+     * Returns the database portion of the given qualifiedName, along with the cluster name if present: db1.table1@cl1
+     * and db1.table1.col1@cl1 give db1@cl1; db1.table1@cl1:1600000000000 (a process) also gives db1@cl1.
+     */
+    @VisibleForTesting
+    static String getRoutingKey(String qualifiedName) {
+        int    clusterIdx = qualifiedName.lastIndexOf('@');
+        String name       = clusterIdx != -1 ? qualifiedName.substring(0, clusterIdx) : qualifiedName;
+        String cluster    = clusterIdx != -1 ? qualifiedName.substring(clusterIdx) : "";
+        int    dbEndIdx   = name.indexOf('.');
+        int    suffixIdx  = cluster.indexOf(':');
+
+        if (dbEndIdx != -1) {
+            name = name.substring(0, dbEndIdx);
+        }
+
+        if (suffixIdx != -1) {
+            cluster = cluster.substring(0, suffixIdx);
+        }
+
+        return name + cluster;
+    }
+
+    private static void addQualifiedNames(AtlasEntitiesWithExtInfo entities, List<Object> qualifiedNames) {
+        List<AtlasEntity> entityList = entities != null ? entities.getEntities() : null;
+
+        if (entityList != null) {
+            entityList.forEach(entity -> qualifiedNames.add(entity.getAttribute(ATTRIBUTE_QUALIFIED_NAME)));
+        }
+
+        // referred entities, like inputs/outputs of a process, are updated as well
+        if (entities != null && entities.getReferredEntities() != null) {
+            entities.getReferredEntities().values().forEach(entity -> qualifiedNames.add(entity.getAttribute(ATTRIBUTE_QUALIFIED_NAME)));
+        }
+    }
+
+    private static void addQualifiedName(AtlasObjectId entityId, List<Object> qualifiedNames) {
+        if (entityId != null && entityId.getUniqueAttributes() != null) {
+            qualifiedNames.add(entityId.getUniqueAttributes().get(ATTRIBUTE_QUALIFIED_NAME));
+        }
+    }
+
+    /**
+     * Tracks offsets of messages of a partition being processed in parallel. As messages can complete out of order,
+     * only the offset up to which all messages have been processed can be committed.
+     */
+    static class PartitionOffsetTracker {
+        static final long NO_OFFSET = -1;
+
+        private final TreeMap<Long, Boolean> offsets = new TreeMap<>(); // offset -> isProcessed
+
+        public synchronized void add(long offset) {
+            offsets.put(offset, Boolean.FALSE);
+        }
+
+        public synchronized void markProcessed(long offset) {
+            offsets.replace(offset, Boolean.TRUE);
+        }
+
+        /**
+         * @return the highest offset up to which all messages have been processed, or NO_OFFSET if there is nothing new to commit
+         */
+        public synchronized long pollCommittableOffset() {
+            long ret = NO_OFFSET;
+
+            while (!offsets.isEmpty() && offsets.firstEntry().getValue()) {
+                ret = offsets.pollFirstEntry().getKey();
+            }
+
+            return ret;
+        }
+
+        public synchronized int getPendingCount() {
+            return offsets.size();
+        }
+    }
+
     static class FailedCommitOffsetRecorder {
         private Long currentOffset;
 
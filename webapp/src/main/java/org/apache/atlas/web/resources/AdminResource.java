@@ -47,6 +47,9 @@ import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.model.metrics.AtlasMetrics;
 import org.apache.atlas.model.patches.AtlasPatch.AtlasPatches;
+import org.apache.atlas.model.reindex.AtlasReindexStatus;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.AtlasTasks;
 import org.apache.atlas.repository.audit.AtlasAuditService;
 import org.apache.atlas.repository.audit.EntityAuditRepository;
 import org.apache.atlas.repository.impexp.AtlasServerService;
@@ -58,6 +61,8 @@ import org.apache.atlas.repository.impexp.ZipSink;
 import org.apache.atlas.repository.patches.AtlasPatchManager;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.services.MetricsService;
+import org.apache.atlas.services.ReindexService;
+import org.apache.atlas.tasks.TaskManagement;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.SearchTracker;
@@ -161,6 +166,8 @@ public class AdminResource {
     private final  AtlasAuditService        auditService;
     private final  String                   defaultUIVersion;
     private final  EntityAuditRepository    auditRepository;
+    private final  TaskManagement           taskManagement;
+    private final  ReindexService           reindexService;
     private final  boolean                  isTimezoneFormatEnabled;
     private final  String                   uiDateFormat;
 
@@ -178,7 +185,8 @@ public class AdminResource {
                          MigrationProgressService migrationProgressService,
                          AtlasServerService serverService,
                          ExportImportAuditService exportImportAuditService, AtlasEntityStore entityStore,
-                         AtlasPatchManager patchManager, AtlasAuditService auditService, EntityAuditRepository auditRepository) {
+                         AtlasPatchManager patchManager, AtlasAuditService auditService, EntityAuditRepository auditRepository,
+                         TaskManagement taskManagement, ReindexService reindexService) {
         this.serviceState              = serviceState;
         this.metricsService            = metricsService;
         this.exportService             = exportService;
@@ -193,6 +201,8 @@ public class AdminResource {
         this.patchManager              = patchManager;
         this.auditService              = auditService;
         this.auditRepository           = auditRepository;
+        this.taskManagement            = taskManagement;
+        this.reindexService            = reindexService;
 
         if (atlasProperties != null) {
             this.defaultUIVersion = atlasProperties.getString(DEFAULT_UI_VERSION, UI_VERSION_V2);
@@ -735,6 +745,171 @@ public class AdminResource {
         return ret;
     }
 
+    @GET
+    @Path("tasks")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public AtlasTasks getAtlasTasks(@QueryParam("status") String status) throws AtlasBaseException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> AdminResource.getAtlasTasks(status={})", status);
+        }
+
+        AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_PURGE), "get tasks");
+
+        final AtlasTasks ret;
+
+        if (StringUtils.isEmpty(status)) {
+            ret = new AtlasTasks(taskManagement.getAll());
+        } else {
+            try {
+                ret = new AtlasTasks(taskManagement.getByStatus(AtlasTask.Status.valueOf(status.toUpperCase())));
+            } catch (IllegalArgumentException e) {
+                throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "status=" + status);
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== AdminResource.getAtlasTasks(status={}): count={}", status, ret.getTasks().size());
+        }
+
+        return ret;
+    }
+
+    @GET
+    @Path("tasks/{guid}")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public AtlasTask getAtlasTask(@PathParam("guid") String guid) throws AtlasBaseException {
+        AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_PURGE), "get task");
+
+        return taskManagement.getByGuid(guid);
+    }
+
+    @POST
+    @Path("tasks/{guid}/retry")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public AtlasTask retryAtlasTask(@PathParam("guid") String guid) throws AtlasBaseException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> AdminResource.retryAtlasTask(guid={})", guid);
+        }
+
+        AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_PURGE), "retry task");
+
+        AtlasTask ret = taskManagement.retry(guid);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== AdminResource.retryAtlasTask(guid={})", guid);
+        }
+
+        return ret;
+    }
+
+    @DELETE
+    @Path("tasks/{guid}")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public void deleteAtlasTask(@PathParam("guid") String guid) throws AtlasBaseException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> AdminResource.deleteAtlasTask(guid={})", guid);
+        }
+
+        AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_PURGE), "delete task");
+
+        taskManagement.delete(guid);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== AdminResource.deleteAtlasTask(guid={})", guid);
+        }
+    }
+
+    @GET
+    @Path("reindex")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public AtlasReindexStatus getReindexStatus() throws AtlasBaseException {
+        AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_PURGE), "get reindex status");
+
+        return reindexService.getStatus();
+    }
+
+    /**
+     * Starts reindex of the graph indexes, while the server continues to serve requests
+     * @param indexNames indexes to reindex; all indexes if none is given
+     * @param maxElementsPerSecond maximum number of elements reindexed per second; 0 for no limit
+     */
+    @POST
+    @Path("reindex")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public AtlasReindexStatus startReindex(@QueryParam("indexName") List<String> indexNames,
+                                           @QueryParam("maxElementsPerSecond") Integer maxElementsPerSecond) throws AtlasBaseException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> AdminResource.startReindex(indexNames={}, maxElementsPerSecond={})", indexNames, maxElementsPerSecond);
+        }
+
+        AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_PURGE), "start reindex");
+
+        AtlasReindexStatus ret = reindexService.startReindex(indexNames, maxElementsPerSecond);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== AdminResource.startReindex(indexNames={}, maxElementsPerSecond={}): {}", indexNames, maxElementsPerSecond, ret);
+        }
+
+        return ret;
+    }
+
+    @POST
+    @Path("reindex/resume")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public AtlasReindexStatus resumeReindex(@QueryParam("maxElementsPerSecond") Integer maxElementsPerSecond) throws AtlasBaseException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> AdminResource.resumeReindex(maxElementsPerSecond={})", maxElementsPerSecond);
+        }
+
+        AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_PURGE), "resume reindex");
+
+        AtlasReindexStatus ret = reindexService.resumeReindex(maxElementsPerSecond);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== AdminResource.resumeReindex(maxElementsPerSecond={}): {}", maxElementsPerSecond, ret);
+        }
+
+        return ret;
+    }
+
+    @POST
+    @Path("reindex/stop")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public AtlasReindexStatus stopReindex() throws AtlasBaseException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> AdminResource.stopReindex()");
+        }
+
+        AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_PURGE), "stop reindex");
+
+        AtlasReindexStatus ret = reindexService.stopReindex();
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== AdminResource.stopReindex(): {}", ret);
+        }
+
+        return ret;
+    }
+
+    @PUT
+    @Path("reindex/throttle")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public AtlasReindexStatus setReindexThrottle(@QueryParam("maxElementsPerSecond") int maxElementsPerSecond) throws AtlasBaseException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> AdminResource.setReindexThrottle(maxElementsPerSecond={})", maxElementsPerSecond);
+        }
+
+        AtlasAuthorizationUtils.verifyAccess(new AtlasAdminAccessRequest(AtlasPrivilege.ADMIN_PURGE), "throttle reindex");
+
+        AtlasReindexStatus ret = reindexService.setMaxElementsPerSecond(maxElementsPerSecond);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== AdminResource.setReindexThrottle(maxElementsPerSecond={}): {}", maxElementsPerSecond, ret);
+        }
+
+        return ret;
+    }
+
     private String getEditableEntityTypes(Configuration config) {
         String ret = DEFAULT_EDITABLE_ENTITY_TYPES;
 
@@ -26,10 +26,12 @@ import org.apache.atlas.discovery.EntityDiscoveryService;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.*;
 import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
 import org.apache.atlas.model.profile.AtlasUserSavedSearch;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasStructType;
+import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.utils.AtlasPerfTracer;
 import org.apache.atlas.web.util.Servlets;
@@ -37,6 +39,7 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
@@ -52,8 +55,13 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Set;
 
@@ -66,6 +74,7 @@ import java.util.Set;
 @Consumes({Servlets.JSON_MEDIA_TYPE, MediaType.APPLICATION_JSON})
 @Produces({Servlets.JSON_MEDIA_TYPE, MediaType.APPLICATION_JSON})
 public class DiscoveryREST {
+    private static final Logger LOG      = LoggerFactory.getLogger(DiscoveryREST.class);
     private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("rest.DiscoveryREST");
 
     @Context
@@ -178,6 +187,7 @@ public class DiscoveryREST {
      * @param classification limit the result to only entities tagged with the given classification or or its sub-types
      * @param limit          limit the result set to only include the specified number of entries
      * @param offset         start offset of the result set (useful for pagination)
+     * @param continuationToken continuationToken of the previous page of results; offset is ignored when specified
      * @return Search results
      * @throws AtlasBaseException
      * @HTTP 200 On successful FullText lookup with some results, might return an empty list if execution succeeded
@@ -193,7 +203,8 @@ public class DiscoveryREST {
                                               @QueryParam("sortOrder")              SortOrder sortOrder,
                                               @QueryParam("excludeDeletedEntities") boolean excludeDeletedEntities,
                                               @QueryParam("limit")                  int     limit,
-                                              @QueryParam("offset")                 int     offset) throws AtlasBaseException {
+                                              @QueryParam("offset")                 int     offset,
+                                              @QueryParam("continuationToken")      String  continuationToken) throws AtlasBaseException {
         Servlets.validateQueryParamLength("typeName", typeName);
         Servlets.validateQueryParamLength("classification", classification);
         Servlets.validateQueryParamLength("sortBy", sortByAttribute);
@@ -216,6 +227,7 @@ public class DiscoveryREST {
             searchParameters.setExcludeDeletedEntities(excludeDeletedEntities);
             searchParameters.setLimit(limit);
             searchParameters.setOffset(offset);
+            searchParameters.setContinuationToken(continuationToken);
             searchParameters.setSortBy(sortByAttribute);
             searchParameters.setSortOrder(sortOrder);
 
@@ -322,24 +334,7 @@ public class DiscoveryREST {
                 perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchWithParameters(" + parameters + ")");
             }
 
-            if (parameters.getLimit() < 0 || parameters.getOffset() < 0) {
-                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "Limit/offset should be non-negative");
-            }
-
-            if (StringUtils.isEmpty(parameters.getTypeName()) && !isEmpty(parameters.getEntityFilters())) {
-                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "EntityFilters specified without Type name");
-            }
-
-            if (StringUtils.isEmpty(parameters.getClassification()) && !isEmpty(parameters.getTagFilters())) {
-                throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "TagFilters specified without tag name");
-            }
-
-            if (StringUtils.isEmpty(parameters.getTypeName()) && StringUtils.isEmpty(parameters.getClassification()) &&
-                StringUtils.isEmpty(parameters.getQuery()) && StringUtils.isEmpty(parameters.getTermName())) {
-                throw new AtlasBaseException(AtlasErrorCode.INVALID_SEARCH_PARAMS);
-            }
-
-            validateSearchParameters(parameters);
+            validateBasicSearchParameters(parameters);
 
             return discoveryService.searchWithParameters(parameters);
         } finally {
@@ -347,6 +342,27 @@ public class DiscoveryREST {
         }
     }
 
+    /**
+     * Attribute based search for entities satisfying the search parameters, with all results written as
+     * newline-delimited JSON: one AtlasEntityHeader per line. Results are retrieved in pages of parameters.limit
+     * entities, each in a separate graph transaction, and written as each page is retrieved; so the memory used by
+     * the search doesn't grow with the number of results. referredEntities of the results are not included.
+     *
+     * @param parameters Search parameters; limit is the number of entities retrieved per page
+     * @return entity headers of all results, as newline-delimited JSON
+     * @throws AtlasBaseException
+     * @HTTP 200 On successful search
+     * @HTTP 400 Tag/Entity doesn't exist or Tag/entity filter is present without tag/type name
+     */
+    @Path("basic/stream")
+    @POST
+    @Produces(Servlets.NDJSON_MEDIA_TYPE)
+    public Response searchWithParametersStream(SearchParameters parameters) throws AtlasBaseException {
+        validateBasicSearchParameters(parameters);
+
+        return Response.ok((StreamingOutput) outputStream -> streamSearchResults(parameters, outputStream)).build();
+    }
+
     /**
      * Relationship search to search for related entities satisfying the search parameters
      *
@@ -679,6 +695,68 @@ public class DiscoveryREST {
         }
     }
 
+    private void validateBasicSearchParameters(SearchParameters parameters) throws AtlasBaseException {
+        if (parameters.getLimit() < 0 || parameters.getOffset() < 0) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "Limit/offset should be non-negative");
+        }
+
+        if (StringUtils.isEmpty(parameters.getTypeName()) && !isEmpty(parameters.getEntityFilters())) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "EntityFilters specified without Type name");
+        }
+
+        if (StringUtils.isEmpty(parameters.getClassification()) && !isEmpty(parameters.getTagFilters())) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "TagFilters specified without tag name");
+        }
+
+        if (StringUtils.isEmpty(parameters.getTypeName()) && StringUtils.isEmpty(parameters.getClassification()) &&
+            StringUtils.isEmpty(parameters.getQuery()) && StringUtils.isEmpty(parameters.getTermName())) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_SEARCH_PARAMS);
+        }
+
+        validateSearchParameters(parameters);
+    }
+
+    private void streamSearchResults(SearchParameters parameters, OutputStream outputStream) throws IOException {
+        AtlasPerfTracer perf  = null;
+        long            count = 0;
+
+        try {
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DiscoveryREST.searchWithParametersStream(" + parameters + ")");
+            }
+
+            while (true) {
+                AtlasSearchResult       result   = discoveryService.searchWithParameters(parameters); // normalizes limit and offset
+                List<AtlasEntityHeader> entities = result.getEntities();
+                int                     size     = entities != null ? entities.size() : 0;
+
+                for (int i = 0; i < size; i++) {
+                    outputStream.write(AtlasType.toJson(entities.get(i)).getBytes(StandardCharsets.UTF_8));
+                    outputStream.write('\n');
+                }
+
+                outputStream.flush();
+
+                count += size;
+
+                if (result.getContinuationToken() != null) {
+                    parameters.setContinuationToken(result.getContinuationToken());
+                } else if (parameters.getContinuationToken() == null && size == parameters.getLimit()) { // search processor without continuation tokens
+                    parameters.setOffset(parameters.getOffset() + size);
+                } else {
+                    break;
+                }
+            }
+        } catch (AtlasBaseException excp) {
+            // the response status is already sent: fail the response, for the client not to take it as complete
+            LOG.error("searchWithParametersStream({}): failed after {} entities", parameters, count, excp);
+
+            throw new WebApplicationException(excp);
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
     private boolean isEmpty(SearchParameters.FilterCriteria filterCriteria) {
         return filterCriteria == null ||
                 (StringUtils.isEmpty(filterCriteria.getAttributeName()) && CollectionUtils.isEmpty(filterCriteria.getCriterion()));
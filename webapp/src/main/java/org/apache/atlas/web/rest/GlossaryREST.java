@@ -652,6 +652,8 @@ public class GlossaryREST {
      * @param limit page size - by default there is no paging
      * @param offset starting offset for loading terms
      * @param sort ASC(default) or DESC
+     * @param after relationGuid of the last term of the previous page; when present (empty for the first page), terms are
+     *              returned in pages ordered by relationGuid, and offset and sort are ignored
      * @return List of terms associated with the glossary
      * @throws AtlasBaseException
      * @HTTP 200 List of glossary terms for the given glossary or an empty list
@@ -662,14 +664,20 @@ public class GlossaryREST {
     public List<AtlasRelatedTermHeader> getGlossaryTermHeaders(@PathParam("glossaryGuid") String glossaryGuid,
                                                          @DefaultValue("-1") @QueryParam("limit") String limit,
                                                          @DefaultValue("0") @QueryParam("offset") String offset,
-                                                         @DefaultValue("ASC") @QueryParam("sort") final String sort) throws AtlasBaseException {
+                                                         @DefaultValue("ASC") @QueryParam("sort") final String sort,
+                                                         @QueryParam("after") String after) throws AtlasBaseException {
         Servlets.validateQueryParamLength("glossaryGuid", glossaryGuid);
+        Servlets.validateQueryParamLength("after", after);
         AtlasPerfTracer perf = null;
         try {
             if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
                 perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "GlossaryREST.getGlossaryTermHeaders(" + glossaryGuid + ")");
             }
 
+            if (after != null) {
+                return glossaryService.getGlossaryTermsHeaders(glossaryGuid, after, Integer.parseInt(limit));
+            }
+
             return glossaryService.getGlossaryTermsHeaders(glossaryGuid, Integer.parseInt(offset), Integer.parseInt(limit), toSortOrder(sort));
 
         } finally {
@@ -745,6 +753,8 @@ public class GlossaryREST {
      * @param limit page size - by default there is no paging
      * @param offset offset for pagination purpose
      * @param sort ASC (default) or DESC
+     * @param after relationGuid of the last term of the previous page; when present (empty for the first page), terms are
+     *              returned in pages ordered by relationGuid, and offset and sort are ignored
      * @return List of associated terms
      * @throws AtlasBaseException
      * @HTTP 200 List of terms for the given category or an empty list
@@ -755,8 +765,10 @@ public class GlossaryREST {
     public List<AtlasRelatedTermHeader> getCategoryTerms(@PathParam("categoryGuid") String categoryGuid,
                                                          @DefaultValue("-1") @QueryParam("limit") String limit,
                                                          @DefaultValue("0") @QueryParam("offset") String offset,
-                                                         @DefaultValue("ASC") @QueryParam("sort") final String sort) throws AtlasBaseException {
+                                                         @DefaultValue("ASC") @QueryParam("sort") final String sort,
+                                                         @QueryParam("after") String after) throws AtlasBaseException {
         Servlets.validateQueryParamLength("categoryGuid", categoryGuid);
+        Servlets.validateQueryParamLength("after", after);
 
         AtlasPerfTracer perf = null;
         try {
@@ -764,6 +776,10 @@ public class GlossaryREST {
                 perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "GlossaryREST.getCategoryTerms(" + categoryGuid + ")");
             }
 
+            if (after != null) {
+                return glossaryService.getCategoryTerms(categoryGuid, after, Integer.parseInt(limit));
+            }
+
             return glossaryService.getCategoryTerms(categoryGuid, Integer.parseInt(offset), Integer.parseInt(limit), toSortOrder(sort));
 
         } finally {
@@ -809,6 +825,8 @@ public class GlossaryREST {
      * @param limit page size - by default there is no paging
      * @param offset offset for pagination purpose
      * @param sort ASC (default) or DESC
+     * @param after relationshipGuid of the last entity of the previous page; when present (empty for the first page),
+     *              entities are returned in pages ordered by relationshipGuid, and offset and sort are ignored
      * @return
      * @throws AtlasBaseException
      * @HTTP 200 List of entity headers (if any) for the given glossary or an empty list
@@ -819,8 +837,10 @@ public class GlossaryREST {
     public List<AtlasRelatedObjectId> getEntitiesAssignedWithTerm(@PathParam("termGuid") String termGuid,
                                                                   @DefaultValue("-1") @QueryParam("limit") String limit,
                                                                   @DefaultValue("0") @QueryParam("offset") String offset,
-                                                                  @DefaultValue("ASC") @QueryParam("sort") final String sort) throws AtlasBaseException {
+                                                                  @DefaultValue("ASC") @QueryParam("sort") final String sort,
+                                                                  @QueryParam("after") String after) throws AtlasBaseException {
         Servlets.validateQueryParamLength("termGuid", termGuid);
+        Servlets.validateQueryParamLength("after", after);
 
         AtlasPerfTracer perf = null;
         try {
@@ -828,6 +848,10 @@ public class GlossaryREST {
                 perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "GlossaryREST.getEntitiesAssignedWithTerm(" + termGuid + ")");
             }
 
+            if (after != null) {
+                return glossaryService.getAssignedEntities(termGuid, after, Integer.parseInt(limit));
+            }
+
             return glossaryService.getAssignedEntities(termGuid, Integer.parseInt(offset), Integer.parseInt(limit), toSortOrder(sort));
 
         } finally {
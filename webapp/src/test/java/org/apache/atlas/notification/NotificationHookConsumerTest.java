@@ -25,7 +25,10 @@ import org.apache.atlas.kafka.AtlasKafkaMessage;
 import org.apache.atlas.kafka.KafkaNotification;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.model.notification.HookNotification.EntityCreateRequestV2;
 import org.apache.atlas.model.notification.HookNotification.HookNotificationType;
 import org.apache.atlas.notification.NotificationInterface.NotificationType;
 import org.apache.atlas.util.AtlasMetricsUtil;
@@ -34,6 +37,7 @@ import org.apache.atlas.v1.model.notification.HookNotificationV1.EntityCreateReq
 import org.apache.atlas.repository.converters.AtlasInstanceConverter;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.repository.store.graph.v2.EntityStream;
+import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.web.service.ServiceState;
@@ -50,10 +54,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 
 import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 public class NotificationHookConsumerTest {
@@ -321,6 +329,209 @@ public class NotificationHookConsumerTest {
         assertFalse(notificationHookConsumer.consumers.get(0).isAlive());
     }
 
+    @Test
+    public void testOffsetTrackerCommitsOnlyContiguousProcessedOffsets() {
+        NotificationHookConsumer.PartitionOffsetTracker tracker = new NotificationHookConsumer.PartitionOffsetTracker();
+
+        tracker.add(10);
+        tracker.add(11);
+        tracker.add(12);
+
+        assertEquals(tracker.pollCommittableOffset(), NotificationHookConsumer.PartitionOffsetTracker.NO_OFFSET);
+
+        tracker.markProcessed(12);
+        tracker.markProcessed(11);
+
+        assertEquals(tracker.pollCommittableOffset(), NotificationHookConsumer.PartitionOffsetTracker.NO_OFFSET);
+
+        tracker.markProcessed(10);
+
+        assertEquals(tracker.pollCommittableOffset(), 12);
+        assertEquals(tracker.pollCommittableOffset(), NotificationHookConsumer.PartitionOffsetTracker.NO_OFFSET);
+        assertEquals(tracker.getPendingCount(), 0);
+
+        tracker.add(13);
+        tracker.add(14);
+        tracker.markProcessed(13);
+
+        assertEquals(tracker.pollCommittableOffset(), 13);
+        assertEquals(tracker.getPendingCount(), 1);
+    }
+
+    @Test
+    public void testMessageKeyIsDatabaseOfEntities() {
+        Referenceable table = new Referenceable("hive_table");
+
+        table.set("qualifiedName", "db1.table1@cl1");
+
+        AtlasKafkaMessage<HookNotification> createMsg = new AtlasKafkaMessage(new EntityCreateRequest("user", table), 1, KafkaNotification.ATLAS_HOOK_TOPIC, 0);
+
+        assertEquals(NotificationHookConsumer.getMessageKey(createMsg), "db1@cl1");
+
+        AtlasEntity column = new AtlasEntity("hive_column");
+
+        column.setAttribute("qualifiedName", "db1.table1.col1@cl1");
+
+        AtlasKafkaMessage<HookNotification> createV2Msg = new AtlasKafkaMessage(new EntityCreateRequestV2("user", new AtlasEntitiesWithExtInfo(column)), 2, KafkaNotification.ATLAS_HOOK_TOPIC, 0);
+
+        assertEquals(NotificationHookConsumer.getMessageKey(createV2Msg), "db1@cl1");
+
+        AtlasKafkaMessage<HookNotification> noNameMsg = new AtlasKafkaMessage(new EntityCreateRequestV2("user", new AtlasEntitiesWithExtInfo(new AtlasEntity("hive_table"))), 3, KafkaNotification.ATLAS_HOOK_TOPIC, 5);
+
+        assertEquals(NotificationHookConsumer.getMessageKey(noNameMsg), KafkaNotification.ATLAS_HOOK_TOPIC + "-5");
+    }
+
+    @Test
+    public void testMessageKeyOfEntitiesFromMultipleDatabasesIsNull() {
+        AtlasEntity              process  = new AtlasEntity("hive_process");
+        AtlasEntity              input    = new AtlasEntity("hive_table");
+        AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo(process);
+
+        process.setAttribute("qualifiedName", "db1.table1@cl1:1600000000000");
+        input.setAttribute("qualifiedName", "db1.table2@cl1");
+
+        entities.addReferredEntity(input);
+
+        AtlasKafkaMessage<HookNotification> sameDbMsg = new AtlasKafkaMessage(new EntityCreateRequestV2("user", entities), 1, KafkaNotification.ATLAS_HOOK_TOPIC, 0);
+
+        assertEquals(NotificationHookConsumer.getMessageKey(sameDbMsg), "db1@cl1");
+
+        input.setAttribute("qualifiedName", "db2.table2@cl1");
+
+        AtlasKafkaMessage<HookNotification> crossDbMsg = new AtlasKafkaMessage(new EntityCreateRequestV2("user", entities), 2, KafkaNotification.ATLAS_HOOK_TOPIC, 0);
+
+        assertNull(NotificationHookConsumer.getMessageKey(crossDbMsg));
+    }
+
+    @Test
+    public void testRoutingKey() {
+        assertEquals(NotificationHookConsumer.getRoutingKey("db1@cl1"), "db1@cl1");
+        assertEquals(NotificationHookConsumer.getRoutingKey("db1.table1.col1@cl1"), "db1@cl1");
+        assertEquals(NotificationHookConsumer.getRoutingKey("db1.table1@cl1:1600000000000"), "db1@cl1");
+        assertEquals(NotificationHookConsumer.getRoutingKey("topic1"), "topic1");
+    }
+
+    @Test
+    public void testMergeEntitiesRemovesDuplicates() throws AtlasException {
+        NotificationHookConsumer notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil);
+        AtlasEntitiesWithExtInfo msg1Entities             = createTableEntities("-1", "table1", "-2", "desc1");
+        AtlasEntitiesWithExtInfo msg2Entities             = createTableEntities("-3", "table2", "-4", "desc2");
+
+        when(typeRegistry.getEntityTypeByName("hive_table")).thenReturn(mock(AtlasEntityType.class));
+
+        msg1Entities.getReferredEntities().get("-2").setAttribute("owner", "user1");
+
+        AtlasEntitiesWithExtInfo merged = notificationHookConsumer.mergeEntities(Arrays.asList(msg1Entities, msg2Entities));
+
+        assertEquals(merged.getEntities().size(), 2);
+        assertEquals(merged.getReferredEntities().size(), 1);
+
+        AtlasEntity db = merged.getReferredEntities().get("-2");
+
+        assertEquals(db.getAttribute("description"), "desc2");
+        assertEquals(db.getAttribute("owner"), "user1");
+        assertEquals(((Map) merged.getEntities().get(1).getRelationshipAttribute("db")).get("guid"), "-2");
+
+        // messages are not updated, so that they can be replayed as is
+        assertEquals(msg2Entities.getReferredEntities().get("-4").getGuid(), "-4");
+        assertEquals(((AtlasObjectId) msg2Entities.getEntities().get(0).getRelationshipAttribute("db")).getGuid(), "-4");
+    }
+
+    @Test
+    public void testMergeEntitiesRenamesPlaceholderGuidsReusedAcrossMessages() throws AtlasException {
+        NotificationHookConsumer notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil);
+        AtlasEntitiesWithExtInfo msg1Entities             = createTableEntities("-1", "table1", "-2", "desc1");
+        AtlasEntitiesWithExtInfo msg2Entities             = createTableEntities("-1", "table2", "-2", "desc2");
+        AtlasEntity              process1                 = new AtlasEntity("hive_process");
+        AtlasEntity              process2                 = new AtlasEntity("hive_process");
+
+        process1.setGuid("-3");
+        process1.setRelationshipAttribute("outputs", Collections.singletonList(new AtlasObjectId("-1", "hive_table")));
+        process2.setGuid("-3");
+        process2.setRelationshipAttribute("outputs", Collections.singletonList(new AtlasObjectId("-1", "hive_table")));
+
+        msg1Entities.setEntities(new ArrayList<>(Arrays.asList(msg1Entities.getEntities().get(0), process1)));
+        msg2Entities.setEntities(new ArrayList<>(Arrays.asList(msg2Entities.getEntities().get(0), process2)));
+
+        when(typeRegistry.getEntityTypeByName(anyString())).thenReturn(mock(AtlasEntityType.class));
+
+        AtlasEntitiesWithExtInfo merged = notificationHookConsumer.mergeEntities(Arrays.asList(msg1Entities, msg2Entities));
+
+        // tables and processes (without a qualifiedName) from different messages are not merged, though their guids are the same
+        assertEquals(merged.getEntities().size(), 4);
+        assertEquals(merged.getReferredEntities().size(), 1);
+
+        AtlasEntity table1  = merged.getEntities().get(0);
+        AtlasEntity table2  = merged.getEntities().get(2);
+        AtlasEntity proc1   = merged.getEntities().get(1);
+        AtlasEntity proc2   = merged.getEntities().get(3);
+
+        assertEquals(table1.getAttribute("qualifiedName"), "db1.table1@cl1");
+        assertEquals(table2.getAttribute("qualifiedName"), "db1.table2@cl1");
+        assertNotEquals(table1.getGuid(), table2.getGuid());
+        assertNotEquals(proc1.getGuid(), proc2.getGuid());
+
+        // references are updated to the renamed guids
+        assertEquals(((Map) ((List) proc1.getRelationshipAttribute("outputs")).get(0)).get("guid"), table1.getGuid());
+        assertEquals(((Map) ((List) proc2.getRelationshipAttribute("outputs")).get(0)).get("guid"), table2.getGuid());
+        assertEquals(((Map) table2.getRelationshipAttribute("db")).get("guid"), "-2");
+    }
+
+    @Test
+    public void testMessageBatchIsProcessedWithSingleCall() throws AtlasServiceException, AtlasException, AtlasBaseException {
+        NotificationHookConsumer              notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil);
+        NotificationConsumer                  consumer                 = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer             = notificationHookConsumer.new HookConsumer(consumer);
+
+        hookConsumer.handleMessageBatch(Arrays.asList(createTableMessage(1, "table1"), createTableMessage(2, "table2"), createTableMessage(3, "table3")));
+
+        verify(atlasEntityStore, times(1)).createOrUpdate(any(EntityStream.class), anyBoolean());
+        verify(consumer, times(1)).commit(new TopicPartition(KafkaNotification.ATLAS_HOOK_TOPIC, 0), 4);
+        verify(metricsUtil, times(3)).onNotificationProcessingComplete(anyString(), anyInt(), anyLong(), any(AtlasMetricsUtil.NotificationStat.class));
+    }
+
+    @Test
+    public void testMessageBatchIsReplayedPerMessageOnFailure() throws AtlasServiceException, AtlasException, AtlasBaseException {
+        NotificationHookConsumer              notificationHookConsumer = new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil);
+        NotificationConsumer                  consumer                 = mock(NotificationConsumer.class);
+        NotificationHookConsumer.HookConsumer hookConsumer             = notificationHookConsumer.new HookConsumer(consumer);
+
+        when(atlasEntityStore.createOrUpdate(any(EntityStream.class), anyBoolean()))
+                .thenThrow(new RuntimeException("Simulating exception in processing batch"))
+                .thenReturn(mock(EntityMutationResponse.class));
+
+        hookConsumer.handleMessageBatch(Arrays.asList(createTableMessage(1, "table1"), createTableMessage(2, "table2")));
+
+        verify(atlasEntityStore, times(3)).createOrUpdate(any(EntityStream.class), anyBoolean());
+        verify(consumer).commit(new TopicPartition(KafkaNotification.ATLAS_HOOK_TOPIC, 0), 2);
+        verify(consumer).commit(new TopicPartition(KafkaNotification.ATLAS_HOOK_TOPIC, 0), 3);
+    }
+
+    private AtlasKafkaMessage<HookNotification> createTableMessage(long offset, String tableName) {
+        AtlasEntitiesWithExtInfo entities = createTableEntities("-" + offset, tableName, "-db" + offset, "desc");
+
+        return new AtlasKafkaMessage(new EntityCreateRequestV2("user", entities), offset, KafkaNotification.ATLAS_HOOK_TOPIC, 0);
+    }
+
+    private AtlasEntitiesWithExtInfo createTableEntities(String tableGuid, String tableName, String dbGuid, String dbDescription) {
+        AtlasEntity db    = new AtlasEntity("hive_db");
+        AtlasEntity table = new AtlasEntity("hive_table");
+
+        db.setGuid(dbGuid);
+        db.setAttribute("qualifiedName", "db1@cl1");
+        db.setAttribute("description", dbDescription);
+
+        table.setGuid(tableGuid);
+        table.setAttribute("qualifiedName", "db1." + tableName + "@cl1");
+        table.setRelationshipAttribute("db", new AtlasObjectId(dbGuid, "hive_db"));
+
+        AtlasEntitiesWithExtInfo ret = new AtlasEntitiesWithExtInfo(table);
+
+        ret.addReferredEntity(db);
+
+        return ret;
+    }
+
     private NotificationHookConsumer setupNotificationHookConsumer() throws AtlasException {
         List<NotificationConsumer<Object>> consumers                = new ArrayList();
         NotificationConsumer               notificationConsumerMock = mock(NotificationConsumer.class);
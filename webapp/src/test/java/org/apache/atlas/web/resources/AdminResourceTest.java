@@ -20,10 +20,21 @@ package org.apache.atlas.web.resources;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.authorize.AtlasAdminAccessRequest;
+import org.apache.atlas.authorize.AtlasAuthorizer;
+import org.apache.atlas.authorize.AtlasAuthorizerFactory;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.reindex.AtlasReindexStatus;
+import org.apache.atlas.services.ReindexService;
 import org.apache.atlas.utils.AtlasJson;
 import org.apache.atlas.web.service.ServiceState;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -31,27 +42,47 @@ import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.Response;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
 
 public class AdminResourceTest {
 
     @Mock
     private ServiceState serviceState;
 
+    @Mock
+    private ReindexService reindexService;
+
+    @Mock
+    private AtlasAuthorizer authorizer;
+
     @BeforeMethod
     public void setup() {
         MockitoAnnotations.initMocks(this);
     }
 
+    @AfterMethod
+    public void cleanup() throws Exception {
+        SecurityContextHolder.clearContext();
+
+        setAuthorizer(null);
+    }
+
     @Test
     public void testStatusOfActiveServerIsReturned() throws IOException {
 
         when(serviceState.getState()).thenReturn(ServiceState.ServiceStateValue.ACTIVE);
 
-        AdminResource adminResource = new AdminResource(serviceState, null, null, null, null, null, null, null, null, null, null, null, null);
+        AdminResource adminResource = new AdminResource(serviceState, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
         Response response = adminResource.getStatus();
         assertEquals(response.getStatus(), HttpServletResponse.SC_OK);
         JsonNode entity = AtlasJson.parseToV1JsonNode((String) response.getEntity());
@@ -62,7 +93,7 @@ public class AdminResourceTest {
     public void testResourceGetsValueFromServiceState() throws IOException {
         when(serviceState.getState()).thenReturn(ServiceState.ServiceStateValue.PASSIVE);
 
-        AdminResource adminResource = new AdminResource(serviceState, null, null, null, null, null, null, null, null, null, null, null, null);
+        AdminResource adminResource = new AdminResource(serviceState, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
         Response response = adminResource.getStatus();
 
         verify(serviceState).getState();
@@ -70,4 +101,76 @@ public class AdminResourceTest {
         assertEquals(entity.get("Status").asText(), "PASSIVE");
 
     }
+
+    @Test
+    public void testReindexEndpointsRequireAdminAccess() throws Exception {
+        loginAs("user1", false);
+
+        AdminResource adminResource = createAdminResource();
+
+        assertUnauthorized(() -> adminResource.getReindexStatus());
+        assertUnauthorized(() -> adminResource.startReindex(null, null));
+        assertUnauthorized(() -> adminResource.resumeReindex(null));
+        assertUnauthorized(() -> adminResource.stopReindex());
+        assertUnauthorized(() -> adminResource.setReindexThrottle(100));
+
+        verifyZeroInteractions(reindexService);
+    }
+
+    @Test
+    public void testReindexEndpointsCallReindexService() throws Exception {
+        loginAs("admin", true);
+
+        AdminResource      adminResource = createAdminResource();
+        AtlasReindexStatus status        = new AtlasReindexStatus();
+        List<String>       indexNames    = Collections.singletonList("vertex_index");
+
+        when(reindexService.getStatus()).thenReturn(status);
+        when(reindexService.startReindex(indexNames, 500)).thenReturn(status);
+        when(reindexService.resumeReindex(null)).thenReturn(status);
+        when(reindexService.stopReindex()).thenReturn(status);
+        when(reindexService.setMaxElementsPerSecond(100)).thenReturn(status);
+
+        assertSame(adminResource.getReindexStatus(), status);
+        assertSame(adminResource.startReindex(indexNames, 500), status);
+        assertSame(adminResource.resumeReindex(null), status);
+        assertSame(adminResource.stopReindex(), status);
+        assertSame(adminResource.setReindexThrottle(100), status);
+
+        verify(reindexService).startReindex(indexNames, 500);
+        verify(reindexService).setMaxElementsPerSecond(100);
+    }
+
+    private AdminResource createAdminResource() {
+        return new AdminResource(serviceState, null, null, null, null, null, null, null, null, null, null, null, null, null, reindexService);
+    }
+
+    private void loginAs(String user, boolean isAdminAccessAllowed) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, "", Collections.<GrantedAuthority>emptyList()));
+
+        when(authorizer.isAccessAllowed(any(AtlasAdminAccessRequest.class))).thenReturn(isAdminAccessAllowed);
+
+        setAuthorizer(authorizer);
+    }
+
+    private static void setAuthorizer(AtlasAuthorizer authorizer) throws Exception {
+        Field instance = AtlasAuthorizerFactory.class.getDeclaredField("INSTANCE");
+
+        instance.setAccessible(true);
+        instance.set(null, authorizer);
+    }
+
+    private static void assertUnauthorized(ReindexCall call) {
+        try {
+            call.run();
+
+            fail("reindex endpoint should fail without admin access");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.UNAUTHORIZED_ACCESS);
+        }
+    }
+
+    private interface ReindexCall {
+        Object run() throws AtlasBaseException;
+    }
 }